@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.proto;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BCC 계산 비교: 예전 바이트 단위 루프 / {@link Bcc#xor} 8바이트 lane / 수신 조각(64B)마다 {@link Bcc#update}.
+ *
+ * <p>크기는 데이터 없는 프레임(38B), 보통 승인 응답 크기, 데이터 상한(4096B) 프레임. {@code ./gradlew jmh}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BccBenchmark {
+
+  private static final int CHUNK = 64;
+
+  @Param({"38", "512", "4134"})
+  int frameBytes;
+
+  private byte[] frame;
+  private final Bcc bcc = new Bcc();
+
+  @Setup
+  public void setUp() {
+    frame = new byte[frameBytes];
+    new Random(1L).nextBytes(frame);
+  }
+
+  /** 변경 전 Proto.bccXor */
+  @Benchmark
+  public byte byteLoop() {
+    byte x = 0;
+    for (int i = 0; i < frame.length - 1; i++) {
+      x ^= frame[i];
+    }
+    return x;
+  }
+
+  @Benchmark
+  public byte lanes() {
+    return Bcc.xor(frame, 0, frame.length - 2);
+  }
+
+  /** 이벤트 루프처럼 조각이 도착할 때마다 누적 */
+  @Benchmark
+  public byte incremental() {
+    bcc.reset();
+    int end = frame.length - 1;
+    for (int off = 0; off < end; off += CHUNK) {
+      bcc.update(frame, off, Math.min(CHUNK, end - off));
+    }
+    return bcc.value();
+  }
+}
@@ -4,14 +4,20 @@
 package com.wit.localpayment.domain.pay.client;
 
 
-import com.wit.localpayment.domain.pay.dto.request.PayFailureReportRequest;
-import com.wit.localpayment.domain.pay.dto.request.PaySuccessReportRequest;
+import com.wit.localpayment.domain.pay.dto.request.PayReportCompactRequest;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 @Slf4j
@@ -19,36 +25,75 @@ import org.springframework.web.client.RestTemplate;
 @RequiredArgsConstructor
 public class CentralPayClient {
 
+  /** 보고 중복 제거 헤더 (값 = {@link CentralReport#reportId()}) */
+  public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
   private final RestTemplate restTemplate;
 
   @Value("${central.api-base-url}")
   private String centralBaseUrl;
 
-  public void notifySuccess(PaySuccessReportRequest request) {
-    String url = centralBaseUrl + "/api/pay/success";
+  // json | cbor. cbor는 중앙 서버가 415로 거절하면 이후 JSON으로 고정
+  @Value("${central.report-format:json}")
+  private String reportFormat;
 
-    try {
-      ResponseEntity<Void> response = restTemplate.postForEntity(url, request, Void.class);
-      log.info(
-          "[LOCAL] 중앙서버 성공 보고 전송 완료 - status={}, url={}",
-          response.getStatusCode(),
-          url);
-    } catch (Exception e) {
-      log.warn("[LOCAL] 중앙서버 성공 보고 전송 실패 - url={}, ex={}", url, e.toString());
+  private final AtomicBoolean binaryRejected = new AtomicBoolean();
+
+  /**
+   * 보고 1건 전송. 설정/협상 결과에 따라 CBOR(원본 패킷 바이트) 또는 JSON(HEX 문자열)으로 보낸다. 실패는 예외로 알린다(서킷
+   * 브레이커/spill 판단용).
+   */
+  public void deliver(CentralReport report) {
+    if (useBinary() && postBinary(report.path(), report.compactBody(), report.reportId())) {
+      return;
     }
+    deliverJson(report.path(), report.jsonBody(), report.reportId());
   }
 
-  public void notifyFailure(PayFailureReportRequest request) {
-    String url = centralBaseUrl + "/api/pay/failure";
+  /**
+   * JSON 본문 그대로 전송 (spill 재전송 포함). 실패는 예외로 알린다.
+   *
+   * @param reportId 중복 제거 키. 같은 보고를 다시 보내도 같은 값이라 중앙 서버가 한 번만 반영한다.
+   */
+  public void deliverJson(String path, Object body, String reportId) {
+    String url = centralBaseUrl + path;
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    headers.set(IDEMPOTENCY_KEY, reportId);
+    ResponseEntity<Void> response =
+        restTemplate.postForEntity(url, new HttpEntity<>(body, headers), Void.class);
+    log.info("[LOCAL] 중앙서버 보고 전송 완료 - status={}, url={}", response.getStatusCode(), url);
+  }
 
+  /* ================= 내부 유틸 ================= */
+
+  private boolean useBinary() {
+    return "cbor".equalsIgnoreCase(reportFormat) && !binaryRejected.get();
+  }
+
+  /** CBOR 전송. 중앙 서버가 미지원(415)이면 false를 돌려 JSON으로 다시 보내게 한다. 그 외 실패는 예외 그대로. */
+  private boolean postBinary(String path, PayReportCompactRequest report, String reportId) {
+    String url = centralBaseUrl + path;
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_CBOR);
+    headers.set(IDEMPOTENCY_KEY, reportId);
+    headers.setAccept(List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR));
     try {
-      ResponseEntity<Void> response = restTemplate.postForEntity(url, request, Void.class);
+      ResponseEntity<Void> response =
+          restTemplate.postForEntity(url, new HttpEntity<>(report, headers), Void.class);
       log.info(
-          "[LOCAL] 중앙서버 실패/예외 보고 전송 완료 - status={}, url={}",
-          response.getStatusCode(),
-          url);
-    } catch (Exception e) {
-      log.warn("[LOCAL] 중앙서버 실패/예외 보고 전송 실패 - url={}, ex={}", url, e.toString());
+          "[LOCAL] 중앙서버 보고 전송 완료(cbor) - status={}, url={}", response.getStatusCode(), url);
+      return true;
+    } catch (HttpClientErrorException e) {
+      if (e.getStatusCode().value() == HttpStatus.UNSUPPORTED_MEDIA_TYPE.value()) {
+        binaryRejected.set(true);
+        log.warn("[LOCAL] 중앙서버 CBOR 미지원(415) → 이후 JSON 전송 - url={}", url);
+        return false;
+      }
+      throw e;
     }
   }
-}
\ No newline at end of file
+}
+
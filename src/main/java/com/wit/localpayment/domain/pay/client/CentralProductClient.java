@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.client;
+
+import com.wit.localpayment.domain.pay.dto.response.ProductPriceResponse;
+import com.wit.localpayment.domain.pay.dto.response.ProductPriceSnapshotResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CentralProductClient {
+
+  private final RestTemplate restTemplate;
+
+  @Value("${central.api-base-url}")
+  private String centralBaseUrl;
+
+  /** 조건부 조회 결과. notModified면 snapshot은 null. */
+  public record PriceFetch(
+      boolean notModified, String etag, ProductPriceSnapshotResponse snapshot) {}
+
+  /**
+   * 단가표 조회. sinceVersion 이후 변경분만 요청하고(0이면 전체), etag가 있으면 If-None-Match로 보내 변경이 없으면 304로
+   * 끝낸다. 통신 실패는 호출자에게 예외로 전달한다.
+   */
+  public PriceFetch fetchPrices(long sinceVersion, String etag) {
+    String url = centralBaseUrl + "/api/products/prices?since={since}";
+
+    HttpHeaders headers = new HttpHeaders();
+    if (etag != null) {
+      headers.setIfNoneMatch(etag);
+    }
+    ResponseEntity<ProductPriceSnapshotResponse> response =
+        restTemplate.exchange(
+            url,
+            HttpMethod.GET,
+            new HttpEntity<>(headers),
+            ProductPriceSnapshotResponse.class,
+            sinceVersion);
+
+    if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+      return new PriceFetch(true, etag, null);
+    }
+    return new PriceFetch(false, response.getHeaders().getETag(), response.getBody());
+  }
+
+  /**
+   * 캐시에 없는 단건 조회 (read-through). 상품이 없으면(404) null, 그 외 통신 실패는 예외로 알린다(서킷 브레이커 판단용).
+   */
+  public ProductPriceResponse fetchPrice(long productId) {
+    String url = centralBaseUrl + "/api/products/{id}/price";
+
+    try {
+      ResponseEntity<ProductPriceResponse> response =
+          restTemplate.getForEntity(url, ProductPriceResponse.class, productId);
+      return response.getBody();
+    } catch (HttpClientErrorException.NotFound e) {
+      log.debug("[LOCAL] 중앙서버 단가 없음 - productId={}", productId);
+      return null;
+    }
+  }
+}
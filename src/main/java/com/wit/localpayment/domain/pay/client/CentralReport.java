@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.client;
+
+import com.wit.localpayment.domain.pay.dto.request.PayFailureReportRequest;
+import com.wit.localpayment.domain.pay.dto.request.PayReportCompactRequest;
+import com.wit.localpayment.domain.pay.dto.request.PayRequest;
+import com.wit.localpayment.domain.pay.dto.request.PaySuccessReportRequest;
+import java.util.UUID;
+
+/**
+ * 중앙 서버로 보낼 결제 보고 1건. 전송 포맷(JSON/CBOR)은 보낼 때 정하므로 원본 값만 들고 있는다.
+ *
+ * @param respCode 성공 보고면 TL3800 응답 코드 숫자 문자열, 실패 보고면 사유 코드(없으면 null)
+ * @param tlPacket TL 전체 응답 패킷 (없으면 null)
+ * @param reportId 중복 제거 키. 만들 때 한 번 정하고 spill/재전송에도 그대로 실어 보낸다.
+ */
+public record CentralReport(
+    boolean success,
+    PayRequest request,
+    long amount,
+    String respCode,
+    String reason,
+    byte[] tlPacket,
+    String reportId) {
+
+  public static final String SUCCESS_PATH = "/api/pay/success";
+  public static final String FAILURE_PATH = "/api/pay/failure";
+
+  public static CentralReport success(
+      PayRequest request, long approvedAmount, int respCode, byte[] tlPacket) {
+    return new CentralReport(
+        true, request, approvedAmount, String.valueOf(respCode), null, tlPacket, newId());
+  }
+
+  public static CentralReport failure(
+      PayRequest request, long requestedAmount, String respCode, String reason, byte[] tlPacket) {
+    return new CentralReport(
+        false, request, requestedAmount, respCode, reason, tlPacket, newId());
+  }
+
+  public String path() {
+    return success ? SUCCESS_PATH : FAILURE_PATH;
+  }
+
+  /** JSON 보고 DTO (패킷은 HEX 문자열) */
+  public Object jsonBody() {
+    return success
+        ? new PaySuccessReportRequest(request, amount, Integer.parseInt(respCode), tlPacket)
+        : new PayFailureReportRequest(request, amount, respCode, reason, tlPacket);
+  }
+
+  /** CBOR 보고 DTO (패킷은 원본 바이트) */
+  public PayReportCompactRequest compactBody() {
+    return success
+        ? PayReportCompactRequest.success(request, amount, Integer.parseInt(respCode), tlPacket)
+        : PayReportCompactRequest.failure(request, amount, respCode, reason, tlPacket);
+  }
+
+  private static String newId() {
+    return UUID.randomUUID().toString();
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.client;
+
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 중앙 서버 호출용 서킷 브레이커.
+ *
+ * <p>연속 실패가 임계치에 닿으면 OPEN으로 바뀌어 호출을 즉시 거절한다. openMs가 지나면 HALF_OPEN에서 프로브 1건만 통과시키고,
+ * 성공하면 CLOSED, 실패하면 다시 OPEN으로 돌아간다.
+ */
+@Slf4j
+public final class CircuitBreaker {
+
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final String name;
+  private final int failureThreshold;
+  private final long openNanos;
+
+  private State state = State.CLOSED;
+  private int consecutiveFailures;
+  private long openedAt;
+  private boolean probeInFlight;
+
+  public CircuitBreaker(String name, int failureThreshold, long openMs) {
+    if (failureThreshold < 1) {
+      throw new IllegalArgumentException("failureThreshold must be >= 1: " + failureThreshold);
+    }
+    this.name = name;
+    this.failureThreshold = failureThreshold;
+    this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+  }
+
+  /** 호출 허용 여부. true를 받았으면 반드시 onSuccess/onFailure 중 하나로 결과를 알려야 한다. */
+  public synchronized boolean tryAcquire() {
+    switch (state) {
+      case CLOSED -> {
+        return true;
+      }
+      case OPEN -> {
+        if (System.nanoTime() - openedAt < openNanos) {
+          return false;
+        }
+        transition(State.HALF_OPEN);
+        probeInFlight = true;
+        return true;
+      }
+      default -> {
+        if (probeInFlight) {
+          return false;
+        }
+        probeInFlight = true;
+        return true;
+      }
+    }
+  }
+
+  public synchronized void onSuccess() {
+    consecutiveFailures = 0;
+    probeInFlight = false;
+    if (state != State.CLOSED) {
+      transition(State.CLOSED);
+    }
+  }
+
+  public synchronized void onFailure() {
+    probeInFlight = false;
+    if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+      openedAt = System.nanoTime();
+      if (state != State.OPEN) {
+        transition(State.OPEN);
+      }
+    }
+  }
+
+  public synchronized State state() {
+    return state;
+  }
+
+  private void transition(State next) {
+    log.warn("[LOCAL] circuit {} {} → {} (failures={})", name, state, next, consecutiveFailures);
+    state = next;
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 중앙 서버로 못 보낸 보고를 로컬 파일에 한 줄씩(JSON lines) 쌓아 두는 저장소.
+ *
+ * <p>한 줄 = {"reportId", "path", "spilledAt", "body"}. body는 JSON 보고 DTO 그대로라 재전송 시 JSON으로 보낸다.
+ * replay 중에는 파일을 ".replay"로 옮겨 처리하고, 실패하면 남은 줄을 다시 spill 파일 뒤에 붙인다.
+ *
+ * <p>한 줄을 보낼 때마다 처리한 줄 수를 ".replay.offset"에 남기므로, replay 도중 프로세스가 죽어도 다음 replay는 그 뒤부터
+ * 이어 간다. 보내고 나서 offset을 쓰기 전에 죽은 한 줄은 다시 나가지만 같은 reportId를 달고 가므로 중앙 서버가 걸러낸다.
+ */
+@Slf4j
+public final class ReportSpillStore {
+
+  /** 재전송 1건. 예외를 던지면 replay가 멈춘다. */
+  @FunctionalInterface
+  public interface Sender {
+    void send(String reportId, String path, Object body);
+  }
+
+  private final Path file;
+  private final Path replayFile;
+  private final Path offsetFile;
+  private final ObjectMapper mapper;
+  private final AtomicLong pending = new AtomicLong();
+
+  public ReportSpillStore(Path file, ObjectMapper mapper) {
+    this.file = file;
+    this.replayFile = file.resolveSibling(file.getFileName() + ".replay");
+    this.offsetFile = file.resolveSibling(file.getFileName() + ".replay.offset");
+    this.mapper = mapper;
+    pending.set(count());
+  }
+
+  /** 보고 1건 추가. 디스크 오류는 로그만 남긴다(결제 흐름을 막지 않음). */
+  public synchronized void append(String reportId, String path, Object body) {
+    Map<String, Object> line = new LinkedHashMap<>();
+    line.put("reportId", reportId);
+    line.put("path", path);
+    line.put("spilledAt", System.currentTimeMillis());
+    line.put("body", body);
+    try {
+      appendLines(List.of(mapper.writeValueAsString(line)));
+      pending.incrementAndGet();
+    } catch (IOException e) {
+      log.error("[LOCAL] 보고 spill 실패 - path={}, ex={}", path, e.toString());
+    }
+  }
+
+  /**
+   * 쌓인 보고 재전송. sender가 예외를 던지면 그 줄부터 나머지를 다시 spill 파일로 돌려놓고 같은 예외를 던진다. 앞선 replay가
+   * 도중에 끊겼으면 offset 뒤 줄부터 이어 보낸다.
+   *
+   * @return 재전송에 성공한 건수
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized int replay(Sender sender) throws IOException {
+    if (!Files.exists(replayFile)) {
+      if (!Files.exists(file)) {
+        return 0;
+      }
+      Files.deleteIfExists(offsetFile);
+      Files.move(file, replayFile, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    List<String> lines = Files.readAllLines(replayFile, UTF_8);
+    int sent = 0;
+    for (int i = readOffset(); i < lines.size(); i++) {
+      String line = lines.get(i);
+      if (line.isBlank()) {
+        continue;
+      }
+      try {
+        Map<String, Object> m = mapper.readValue(line, Map.class);
+        sender.send(reportId(m, line), (String) m.get("path"), m.get("body"));
+        sent++;
+      } catch (IOException e) {
+        log.warn("[LOCAL] 손상된 spill 줄 폐기 - {}", e.toString());
+      } catch (RuntimeException e) {
+        appendLines(new ArrayList<>(lines.subList(i, lines.size())));
+        Files.deleteIfExists(replayFile);
+        Files.deleteIfExists(offsetFile);
+        log.warn("[LOCAL] spill 재전송 중단 - sent={}, left={}", sent, lines.size() - i);
+        throw e;
+      }
+      writeOffset(i + 1);
+      pending.decrementAndGet();
+    }
+    Files.deleteIfExists(replayFile);
+    Files.deleteIfExists(offsetFile);
+    return sent;
+  }
+
+  public long pending() {
+    return pending.get();
+  }
+
+  /** 다른 프로세스가 같은 파일에 쌓았을 수 있을 때 (대기 프로세스가 단말을 넘겨받은 직후) 건수를 다시 센다. */
+  public synchronized void recount() {
+    pending.set(count());
+  }
+
+  /** reportId 없이 쌓인 예전 줄은 줄 내용으로 만든 고정 ID (재전송할 때마다 같음) */
+  private static String reportId(Map<String, Object> m, String line) {
+    Object id = m.get("reportId");
+    return id != null ? id.toString() : UUID.nameUUIDFromBytes(line.getBytes(UTF_8)).toString();
+  }
+
+  private int readOffset() {
+    try {
+      return Files.exists(offsetFile) ? Integer.parseInt(Files.readString(offsetFile).trim()) : 0;
+    } catch (IOException | NumberFormatException e) {
+      log.warn("[LOCAL] spill replay offset 읽기 실패, 처음부터 - {}", e.toString());
+      return 0;
+    }
+  }
+
+  private void writeOffset(int next) throws IOException {
+    Files.writeString(offsetFile, Integer.toString(next), UTF_8);
+  }
+
+  /** spill 파일 + replay 파일에서 offset 뒤 남은 줄 */
+  private long count() {
+    long n = countLines(file);
+    if (Files.exists(replayFile)) {
+      try (var s = Files.lines(replayFile, UTF_8)) {
+        n += s.skip(readOffset()).filter(l -> !l.isBlank()).count();
+      } catch (IOException e) {
+        log.warn("[LOCAL] spill replay 파일 읽기 실패 - {}", e.toString());
+      }
+    }
+    return n;
+  }
+
+  private void appendLines(List<String> lines) throws IOException {
+    Path dir = file.toAbsolutePath().getParent();
+    if (dir != null) {
+      Files.createDirectories(dir);
+    }
+    try (BufferedWriter w =
+        Files.newBufferedWriter(
+            file, UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+      for (String l : lines) {
+        w.write(l);
+        w.newLine();
+      }
+    }
+  }
+
+  private static long countLines(Path p) {
+    if (!Files.exists(p)) {
+      return 0;
+    }
+    try (var s = Files.lines(p, UTF_8)) {
+      return s.filter(l -> !l.isBlank()).count();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+}
@@ -1,7 +1,10 @@
 package com.wit.localpayment.domain.pay.controller;
 
 import com.wit.localpayment.domain.pay.dto.request.PayRequest;
+import com.wit.localpayment.domain.pay.dto.response.CentralReportStatusResponse;
+import com.wit.localpayment.domain.pay.dto.response.PayAbortResponse;
 import com.wit.localpayment.domain.pay.dto.response.PayResponse;
+import com.wit.localpayment.domain.pay.service.CentralReportService;
 import com.wit.localpayment.domain.pay.service.LocalPayService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,6 +13,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -22,12 +28,14 @@ import org.springframework.web.bind.annotation.RestController;
 public class LocalPayController {
 
   private final LocalPayService localPayService;
+  private final CentralReportService centralReportService;
 
   @Operation(
       summary = "장바구니 결제 요청 API(로컬)",
       description =
           "키오스크에서 상품 ID/수량/총 금액/할부 여부를 받아 TL3800 단말 승인 요청을 수행하고, "
-              + "결과를 중앙 서버에 success/failure로 전송합니다.")
+              + "결과를 중앙 서버에 success/failure로 전송합니다. 단말 대기열이 가득 찼거나 최대 대기를 "
+              + "넘으면 503 + Retry-After(대기열 위치 포함)로 즉시 거절합니다.")
   @PostMapping("/pay")
   public ResponseEntity<PayResponse> pay(@Valid @RequestBody PayRequest request) {
 
@@ -37,4 +45,39 @@ public class LocalPayController {
 
     return ResponseEntity.status(status).body(response);
   }
-}
\ No newline at end of file
+
+  @Operation(
+      summary = "진행 중 결제 중단 API(로컬)",
+      description =
+          "고객 이탈 등으로 카드 입력을 기다리는 결제를 중단합니다. 단말에 리셋(R)을 보내고 장치체크로 "
+              + "대기 상태를 확인합니다. 중단되면 200, 리셋 전에 단말이 거래를 끝냈으면 "
+              + "409(결제완료/결제종료, 결과는 결제 요청 응답으로 나감), 해당 결제가 없으면 404, "
+              + "단말 통신 실패는 504.")
+  @DeleteMapping("/pay/{paymentId}")
+  public ResponseEntity<PayAbortResponse> abort(@PathVariable String paymentId) {
+
+    PayAbortResponse response = localPayService.abort(paymentId);
+
+    HttpStatus status;
+    if (response.aborted()) {
+      status = HttpStatus.OK;
+    } else {
+      status =
+          switch (response.message()) {
+            case "결제없음" -> HttpStatus.NOT_FOUND;
+            case "통신오류" -> HttpStatus.GATEWAY_TIMEOUT;
+            default -> HttpStatus.CONFLICT; // 결제완료/결제종료: 중단할 거래가 이미 끝남
+          };
+    }
+
+    return ResponseEntity.status(status).body(response);
+  }
+
+  @Operation(
+      summary = "중앙 서버 보고 상태 조회",
+      description = "서킷 브레이커 상태, 발송 큐/spill 잔량, 누적 전송·실패 건수를 반환합니다.")
+  @GetMapping("/pay/report-status")
+  public ResponseEntity<CentralReportStatusResponse> reportStatus() {
+    return ResponseEntity.ok(centralReportService.status());
+  }
+}
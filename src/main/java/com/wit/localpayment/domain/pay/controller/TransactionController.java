@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.controller;
+
+import com.wit.localpayment.domain.pay.dto.request.TransactionCancelRequest;
+import com.wit.localpayment.domain.pay.dto.response.TransactionCancelResponse;
+import com.wit.localpayment.domain.pay.dto.response.TransactionResponse;
+import com.wit.localpayment.domain.pay.service.TransactionService;
+import com.wit.localpayment.domain.pay.store.TransactionStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Transaction", description = "로컬 거래 조회/원거래 자동 취소 API")
+@RestController
+@RequestMapping(value = "/api/pay/transactions", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class TransactionController {
+
+  private static final int MAX_LIMIT = 500;
+
+  private final TransactionService transactionService;
+
+  @Operation(
+      summary = "로컬 거래 조회",
+      description =
+          "단말이 승인한 승인/취소 거래를 최신순으로 조회합니다. 승인번호, 승인일시 범위(YYYYMMDD 또는 "
+              + "YYYYMMDDhhmmss), 금액으로 거를 수 있습니다.")
+  @GetMapping
+  public ResponseEntity<List<TransactionResponse>> find(
+      @RequestParam(required = false) String approvalNo,
+      @RequestParam(required = false) String from,
+      @RequestParam(required = false) String to,
+      @RequestParam(required = false) Long amount,
+      @RequestParam(defaultValue = "50") int limit) {
+
+    TransactionStore.Query query =
+        new TransactionStore.Query(
+            approvalNo, from, to, amount, Math.min(Math.max(limit, 1), MAX_LIMIT));
+    return ResponseEntity.ok(transactionService.find(query));
+  }
+
+  @Operation(summary = "승인번호로 원거래 조회", description = "가장 최근 승인 거래를 반환합니다. 없으면 404.")
+  @GetMapping("/{approvalNo}")
+  public ResponseEntity<TransactionResponse> get(
+      @PathVariable String approvalNo, @RequestParam(required = false) String orgDate) {
+
+    TransactionResponse response = transactionService.get(approvalNo, orgDate);
+    return (response == null)
+        ? ResponseEntity.status(HttpStatus.NOT_FOUND).build()
+        : ResponseEntity.ok(response);
+  }
+
+  @Operation(
+      summary = "원거래 자동 조회 취소",
+      description =
+          "승인번호만으로 로컬 거래 저장소에서 원거래 금액/승인일시를 찾아 단말 취소(C)를 요청합니다. "
+              + "원거래가 없으면 404, 이미 취소된 거래면 409, 단말 통신 실패는 504.")
+  @PostMapping("/{approvalNo}/cancel")
+  public ResponseEntity<TransactionCancelResponse> cancel(
+      @PathVariable String approvalNo,
+      @Valid @RequestBody(required = false) TransactionCancelRequest request) {
+
+    TransactionCancelResponse response = transactionService.cancel(approvalNo, request);
+
+    HttpStatus status =
+        switch (response.message()) {
+          case "거래없음" -> HttpStatus.NOT_FOUND;
+          case "이미취소" -> HttpStatus.CONFLICT;
+          case "통신오류" -> HttpStatus.GATEWAY_TIMEOUT;
+          default -> HttpStatus.OK;
+        };
+    return ResponseEntity.status(status).body(response);
+  }
+}
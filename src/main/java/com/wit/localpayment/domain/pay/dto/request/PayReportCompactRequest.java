@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+/**
+ * 로컬 → 중앙 서버 결제 보고 (바이너리 전송용 평탄화 DTO).
+ *
+ * <p>CBOR로 보낼 때 쓰며, 중첩 PayRequest 대신 필요한 필드만 한 단계로 펼치고 TL 패킷은 HEX 문자열이 아닌 원본 바이트로 싣는다.
+ */
+@Schema(description = "로컬 → 중앙 서버 결제 보고 (application/cbor)")
+public record PayReportCompactRequest(
+    @Schema(description = "true = 성공 보고, false = 실패/예외 보고") boolean success,
+    @Schema(description = "승인(성공) 또는 요청(실패) 금액(원 단위)") long amount,
+    @Schema(description = "TL3800 응답 코드 (성공=0, 없으면 null)") String respCode,
+    @Schema(description = "실패/예외 사유 메시지 (성공이면 null)") String reason,
+    @Schema(description = "프론트에서 계산된 총 금액(원 단위)") Long totalAmount,
+    @Schema(description = "상품 [ID, 수량] 쌍을 이어 붙인 배열") long[] items,
+    @Schema(description = "고객 전화번호") String phoneNumber,
+    @Schema(description = "할부개월") String inst,
+    @Schema(description = "키오스크로 촬영한 이미지 URL") String imageUrl,
+    @Schema(description = "배송 여부") boolean delivery,
+    @Schema(description = "TL 전체 응답 패킷 원본 바이트") byte[] tlPacket) {
+
+  public static PayReportCompactRequest success(
+      PayRequest request, long approvedAmount, int respCode, byte[] tlPacket) {
+    return of(true, request, approvedAmount, String.valueOf(respCode), null, tlPacket);
+  }
+
+  public static PayReportCompactRequest failure(
+      PayRequest request, long requestedAmount, String respCode, String reason, byte[] tlPacket) {
+    return of(false, request, requestedAmount, respCode, reason, tlPacket);
+  }
+
+  private static PayReportCompactRequest of(
+      boolean success,
+      PayRequest request,
+      long amount,
+      String respCode,
+      String reason,
+      byte[] tlPacket) {
+    return new PayReportCompactRequest(
+        success,
+        amount,
+        respCode,
+        reason,
+        request.totalAmount(),
+        flatten(request.items()),
+        request.phoneNumber(),
+        request.inst(),
+        request.imageUrl(),
+        request.delivery(),
+        tlPacket);
+  }
+
+  private static long[] flatten(List<CartItemRequest> items) {
+    if (items == null) {
+      return new long[0];
+    }
+    long[] out = new long[items.size() * 2];
+    for (int i = 0; i < items.size(); i++) {
+      CartItemRequest item = items.get(i);
+      out[i * 2] = item.productId() == null ? 0L : item.productId();
+      out[i * 2 + 1] = item.quantity();
+    }
+    return out;
+  }
+}
@@ -26,5 +26,10 @@ public record PayRequest(
     @Schema(description = "키오스크로 촬영한 이미지 URL", example = "https://bucket.s3....")
     String imageUrl,
     @Schema(description = "배송 여부 (true = 배송, false = 현장수령)", example = "true")
-    boolean delivery
+    boolean delivery,
+    @Schema(description = "키오스크가 발급한 결제 ID (DELETE /api/pay/{paymentId} 로 중단할 때 사용)",
+        example = "k1-20251019-0001")
+    @Size(max = 64)
+    @Pattern(regexp = "[A-Za-z0-9_-]+")
+    String paymentId
 ) {}
\ No newline at end of file
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
+
+/** 원거래 정보(금액/승인번호/일시)는 로컬 거래 저장소에서 채운다. 모두 생략 가능. */
+@Schema(description = "원거래 자동 조회 취소 요청 DTO")
+public record TransactionCancelRequest(
+    @Schema(description = "원승인일자 YYYYMMDD (같은 승인번호가 여러 날에 있을 때)", example = "20251203")
+    @Pattern(regexp = "\\d{8}")
+    String orgDate,
+    @Schema(description = "취소 구분 코드 (1~6, 기본 1)", example = "1")
+    @Pattern(regexp = "[1-6]")
+    String cancelType,
+    @Schema(description = "거래 구분 코드 (1,2,3,4,5,6,8, 기본 1)", example = "1")
+    @Pattern(regexp = "[1234568]")
+    String tranType,
+    @Schema(description = "비서명 여부 (기본 true)", example = "true")
+    Boolean noSign
+) {
+
+  public static TransactionCancelRequest defaults() {
+    return new TransactionCancelRequest(null, null, null, null);
+  }
+}
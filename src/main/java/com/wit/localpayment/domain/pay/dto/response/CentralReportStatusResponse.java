@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "중앙 서버 보고 발송 상태")
+public record CentralReportStatusResponse(
+    @Schema(description = "서킷 상태 (CLOSED/OPEN/HALF_OPEN)", example = "CLOSED") String circuit,
+    @Schema(description = "발송 대기 중인 보고 수") int queued,
+    @Schema(description = "전송 중인 보고 수") int inFlight,
+    @Schema(description = "로컬 spill 파일에 쌓인 보고 수") long spillPending,
+    @Schema(description = "누적 전송 성공") long sent,
+    @Schema(description = "누적 전송 실패") long failed,
+    @Schema(description = "누적 spill") long spilled,
+    @Schema(description = "누적 spill 재전송 성공") long replayed) {}
@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "결제 중단 응답 DTO")
+public record PayAbortResponse(
+    @Schema(description = "중단 여부 (false면 message로 구분: 결제없음/결제완료/결제종료/통신오류)") boolean aborted,
+    @Schema(description = "리셋 후 장치체크로 단말 대기 상태가 확인됐는지") boolean terminalReady,
+    @Schema(description = "상태 (결제중단/대기취소/결제없음/통신오류, 중단 직전 단말 응답이 오면 결제완료/결제종료)")
+    String message
+) {
+
+}
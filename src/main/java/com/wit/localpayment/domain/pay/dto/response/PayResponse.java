@@ -5,7 +5,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 @Schema(description = "로컬 결제 응답 DTO")
 public record PayResponse(
     @Schema(description = "성공 여부") boolean success,
-    @Schema(description = "상태 (결제완료/잔액부족/통신오류)") String message
+    @Schema(description = "상태 (결제완료/잔액부족/금액불일치/결제중단/중복요청/통신오류)") String message
 ) {
 
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "중앙 서버 상품 단가")
+public record ProductPriceResponse(
+    @Schema(description = "상품 ID", example = "101") Long productId,
+    @Schema(description = "판매 단가(원 단위)", example = "1500") long price) {}
@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "중앙 서버 상품 단가 스냅샷/변경분")
+public record ProductPriceSnapshotResponse(
+    @Schema(description = "단가표 버전 (변경마다 증가)", example = "42") long version,
+    @Schema(description = "true = 전체 스냅샷, false = since 이후 변경분") boolean full,
+    @Schema(description = "신규/변경 단가") List<ProductPriceResponse> prices,
+    @Schema(description = "판매 중지(삭제)된 상품 ID") List<Long> removed) {}
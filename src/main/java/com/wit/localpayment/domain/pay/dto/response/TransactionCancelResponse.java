@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "원거래 자동 조회 취소 응답 DTO")
+public record TransactionCancelResponse(
+    @Schema(description = "취소 성공 여부") boolean cancelled,
+    @Schema(description = "원거래 승인번호") String approvalNo,
+    @Schema(description = "취소 금액 (원거래 금액)") long amount,
+    @Schema(description = "취소 승인번호 (성공 시)") String cancelApprovalNo,
+    @Schema(description = "상태 (취소완료/거래없음/이미취소/취소거절/통신오류)") String message
+) {
+
+}
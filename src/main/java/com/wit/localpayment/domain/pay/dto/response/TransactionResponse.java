@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.dto.response;
+
+import com.wit.localpayment.domain.pay.store.TransactionRecord;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "로컬 거래 조회 응답 DTO")
+public record TransactionResponse(
+    @Schema(description = "APPROVAL(승인) / CANCEL(취소)") String kind,
+    @Schema(description = "단말 ID") String terminalId,
+    @Schema(description = "승인번호 (취소면 취소 승인번호)", example = "00000001") String approvalNo,
+    @Schema(description = "금액 (원)", example = "1000") long amount,
+    @Schema(description = "승인일시 YYYYMMDDhhmmss", example = "20251203185306") String approvedAt,
+    @Schema(description = "취소일 때 원거래 승인번호") String orgApprovalNo,
+    @Schema(description = "승인 거래가 이미 취소됐는지") boolean cancelled
+) {
+
+  public static TransactionResponse of(TransactionRecord r, boolean cancelled) {
+    return new TransactionResponse(
+        r.kind(),
+        r.terminalId(),
+        r.approvalNo(),
+        r.amount(),
+        r.approvedAt(),
+        r.orgApprovalNo(),
+        cancelled);
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wit.localpayment.domain.pay.client.CentralPayClient;
+import com.wit.localpayment.domain.pay.client.CentralReport;
+import com.wit.localpayment.domain.pay.client.CircuitBreaker;
+import com.wit.localpayment.domain.pay.client.ReportSpillStore;
+import com.wit.localpayment.domain.pay.dto.request.PayRequest;
+import com.wit.localpayment.domain.pay.dto.response.CentralReportStatusResponse;
+import com.wit.localpayment.global.standby.StandbyCoordinator;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 중앙 서버 결제 보고 발송기.
+ *
+ * <p>결제 응답 경로에서는 큐에 넣기만 하고 바로 돌아온다. 전송은 크기가 제한된 전용 스레드 풀(bulkhead)이 맡고, 중앙 서버가
+ * 연속 실패하면 서킷을 열어 타임아웃을 기다리지 않고 로컬 파일로 spill 한다. 쌓인 보고는 서킷이 닫혀 있을 때 주기적으로 재전송한다.
+ */
+@Slf4j
+@Service
+public class CentralReportService implements AutoCloseable {
+
+  private final CentralPayClient centralPayClient;
+  private final CircuitBreaker breaker;
+  private final ReportSpillStore spillStore;
+  private final ThreadPoolExecutor bulkhead;
+  private final StandbyCoordinator standby;
+
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder spilled = new LongAdder();
+  private final LongAdder replayed = new LongAdder();
+
+  public CentralReportService(
+      CentralPayClient centralPayClient,
+      ObjectMapper objectMapper,
+      StandbyCoordinator standby,
+      @Value("${central.report.breaker.failure-threshold:3}") int failureThreshold,
+      @Value("${central.report.breaker.open-ms:30000}") long openMs,
+      @Value("${central.report.bulkhead.threads:2}") int threads,
+      @Value("${central.report.bulkhead.queue:100}") int queueCapacity,
+      @Value("${central.report.spill-file:./data/central-report-spill.jsonl}") String spillFile) {
+    this.centralPayClient = centralPayClient;
+    this.breaker = new CircuitBreaker("central-report", failureThreshold, openMs);
+    this.spillStore = new ReportSpillStore(Path.of(spillFile), objectMapper);
+    this.standby = standby;
+    // spill 파일은 두 프로세스가 같이 쓴다. 재전송은 활성 프로세스만 하고, 넘겨받으면 쌓인 건수를 다시 센다.
+    standby.addListener(
+        new StandbyCoordinator.RoleListener() {
+          @Override
+          public void onPromoted() {
+            spillStore.recount();
+          }
+        });
+
+    AtomicInteger seq = new AtomicInteger();
+    this.bulkhead =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+              Thread th = new Thread(r, "central-report-" + seq.incrementAndGet());
+              th.setDaemon(true);
+              return th;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  public void reportSuccess(PayRequest request, long approvedAmount, int respCode, byte[] packet) {
+    submit(CentralReport.success(request, approvedAmount, respCode, packet));
+  }
+
+  public void reportFailure(
+      PayRequest request, long requestedAmount, String respCode, String reason, byte[] packet) {
+    submit(CentralReport.failure(request, requestedAmount, respCode, reason, packet));
+  }
+
+  /** 비동기 발송. 서킷 OPEN 또는 bulkhead 포화면 즉시 spill. */
+  public void submit(CentralReport report) {
+    if (breaker.state() == CircuitBreaker.State.OPEN) {
+      spill(report, "circuit open");
+      return;
+    }
+    try {
+      bulkhead.execute(new ReportTask(report));
+    } catch (RejectedExecutionException e) {
+      spill(report, "bulkhead full");
+    }
+  }
+
+  /** 서킷이 호출을 허용할 때만 spill 파일 재전송 (활성 프로세스만) */
+  @Scheduled(
+      initialDelayString = "${central.report.replay-ms:30000}",
+      fixedDelayString = "${central.report.replay-ms:30000}")
+  public void replaySpilled() {
+    if (!standby.active() || spillStore.pending() == 0 || !breaker.tryAcquire()) {
+      return;
+    }
+    try {
+      int n =
+          spillStore.replay(
+              (reportId, path, body) -> {
+                centralPayClient.deliverJson(path, body, reportId);
+                replayed.increment();
+              });
+      breaker.onSuccess();
+      log.info("[LOCAL] spill 재전송 {}건, 잔여 {}건", n, spillStore.pending());
+    } catch (Exception e) {
+      breaker.onFailure();
+      log.warn("[LOCAL] spill 재전송 실패 - {}", e.toString());
+    }
+  }
+
+  public CentralReportStatusResponse status() {
+    return new CentralReportStatusResponse(
+        breaker.state().name(),
+        bulkhead.getQueue().size(),
+        bulkhead.getActiveCount(),
+        spillStore.pending(),
+        sent.sum(),
+        failed.sum(),
+        spilled.sum(),
+        replayed.sum());
+  }
+
+  /** 종료 시 아직 못 보낸 큐 잔량은 spill로 보존 */
+  @Override
+  public void close() {
+    for (Runnable r : bulkhead.shutdownNow()) {
+      if (r instanceof ReportTask t) {
+        spill(t.report, "shutdown");
+      }
+    }
+  }
+
+  /* ================= 내부 유틸 ================= */
+
+  private void send(CentralReport report) {
+    if (!breaker.tryAcquire()) {
+      spill(report, "circuit open");
+      return;
+    }
+    try {
+      centralPayClient.deliver(report);
+      breaker.onSuccess();
+      sent.increment();
+    } catch (Exception e) {
+      breaker.onFailure();
+      failed.increment();
+      log.warn("[LOCAL] 중앙서버 보고 전송 실패 - path={}, ex={}", report.path(), e.toString());
+      spill(report, "send failed");
+    }
+  }
+
+  private final class ReportTask implements Runnable {
+    private final CentralReport report;
+
+    private ReportTask(CentralReport report) {
+      this.report = report;
+    }
+
+    @Override
+    public void run() {
+      send(report);
+    }
+  }
+
+  private void spill(CentralReport report, String why) {
+    spillStore.append(report.reportId(), report.path(), report.jsonBody());
+    spilled.increment();
+    log.info("[LOCAL] 보고 spill ({}) - path={}, pending={}", why, report.path(),
+        spillStore.pending());
+  }
+}
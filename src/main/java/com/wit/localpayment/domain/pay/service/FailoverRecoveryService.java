@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.service;
+
+import com.wit.localpayment.domain.pay.store.InFlightJournal;
+import com.wit.localpayment.domain.pay.store.TransactionRecord;
+import com.wit.localpayment.domain.pay.store.TransactionStore;
+import com.wit.localpayment.global.TL3800Gateway;
+import com.wit.localpayment.global.standby.StandbyCoordinator;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 단말을 넘겨받을 때 이전 활성 프로세스가 끝내지 못한 결제 정리.
+ *
+ * <p>진행 중 결제 목록에 남은 결제마다, 시작 이후 거래 저장소에 같은 금액 승인이 있으면 단말에서 승인까지 간 것으로 보고 성공을
+ * 보고한다. 없으면 단말이 카드 입력 대기 등에 머물러 있을 수 있으므로 한 번 리셋하고 "결제중단"으로 보고한다. 이전 프로세스가
+ * 보고를 마친 직후 죽었으면 중앙 서버가 같은 결제를 두 번 받을 수 있다(최소 1회 전달). 이 프로세스가 단말을 내려놓을 때는
+ * 끊긴 결제를 보고하지 않고 목록에 남겨 넘겨받는 쪽이 정리하게 한다.
+ */
+@Slf4j
+@Service
+public class FailoverRecoveryService {
+
+  private final TL3800Gateway tl3800Gateway;
+  private final TransactionStore store;
+  private final InFlightJournal journal;
+  private final CentralReportService centralReportService;
+
+  /** 거래 저장소가 먼저 등록되어 있으므로 인수 시 저장소의 마지막 이어 읽기가 끝난 뒤 불린다. */
+  public FailoverRecoveryService(
+      TL3800Gateway tl3800Gateway,
+      TransactionStore store,
+      InFlightJournal journal,
+      CentralReportService centralReportService,
+      StandbyCoordinator standby) {
+    this.tl3800Gateway = tl3800Gateway;
+    this.store = store;
+    this.journal = journal;
+    this.centralReportService = centralReportService;
+    standby.addListener(
+        new StandbyCoordinator.RoleListener() {
+          @Override
+          public void onPromoted() {
+            recover();
+          }
+
+          @Override
+          public void onDemoted() {
+            journal.handOver();
+          }
+        });
+  }
+
+  void recover() {
+    List<InFlightJournal.Entry> left = journal.read();
+    if (left.isEmpty()) {
+      journal.clear();
+      return;
+    }
+    log.warn("[LOCAL PAY] 이전 프로세스의 진행 중 결제 {}건 정리", left.size());
+    boolean reset = false;
+    for (InFlightJournal.Entry e : left) {
+      long amount = e.request().totalAmount();
+      TransactionRecord approved = store.approvalAfter(e.afterSeq(), amount);
+      try {
+        if (approved != null) {
+          log.info(
+              "[LOCAL PAY] 인수 결제 승인 확인 - key={}, approvalNo={}, amount={}",
+              e.key(), approved.approvalNo(), amount);
+          centralReportService.reportSuccess(e.request(), amount, 0, null);
+          continue;
+        }
+        if (!reset) {
+          reset = true;
+          resetTerminal();
+        }
+        log.info("[LOCAL PAY] 인수 결제 중단 처리 - key={}, amount={}", e.key(), amount);
+        centralReportService.reportFailure(e.request(), amount, "FAILOVER", "결제중단", null);
+      } catch (Exception ex) {
+        log.warn("[LOCAL PAY] 인수 결제 정리 실패 - key={}, ex={}", e.key(), ex.toString());
+      }
+    }
+    journal.clear();
+  }
+
+  /** 리셋 실패는 보고를 막지 않는다 (다음 결제 전에 게이트웨이가 다시 연다). */
+  private void resetTerminal() {
+    try {
+      tl3800Gateway.resetTerminal("failover");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      log.warn("[LOCAL PAY] 인수 단말 리셋 실패 - {}", e.toString());
+    }
+  }
+}
@@ -1,16 +1,24 @@
 package com.wit.localpayment.domain.pay.service;
 
-import com.wit.localpayment.domain.pay.client.CentralPayClient;
-import com.wit.localpayment.domain.pay.dto.request.PayFailureReportRequest;
 import com.wit.localpayment.domain.pay.dto.request.PayRequest;
-import com.wit.localpayment.domain.pay.dto.request.PaySuccessReportRequest;
+import com.wit.localpayment.domain.pay.dto.response.PayAbortResponse;
 import com.wit.localpayment.domain.pay.dto.response.PayResponse;
+import com.wit.localpayment.domain.pay.store.InFlightJournal;
+import com.wit.localpayment.domain.pay.store.TransactionStore;
 import com.wit.localpayment.global.TL3800Gateway;
+import com.wit.localpayment.global.TL3800Gateway.AbortResult;
+import com.wit.localpayment.global.TL3800Gateway.AbortState;
+import com.wit.localpayment.global.TerminalBusyException;
 import com.wit.localpayment.global.proto.TLPacket;
 import com.wit.localpayment.global.util.Hex;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -21,7 +29,17 @@ public class LocalPayService {
   private static final int OFF_TXN_TYPE = 0;   // 거래구분코드(1B)
 
   private final TL3800Gateway tl3800Gateway;
-  private final CentralPayClient centralPayClient;
+  private final CentralReportService centralReportService;
+  private final ProductPriceCache productPriceCache;
+  private final TransactionStore transactionStore;
+  private final InFlightJournal inFlightJournal;
+
+  // 로컬 단가로 재계산한 합계와 프론트 합계가 다르면 단말 호출 전에 거절
+  @Value("${central.price-cache.validate-total:true}")
+  private boolean validateTotal;
+
+  // paymentId → 결제를 처리 중인 요청 스레드 (중단 대상 식별)
+  private final Map<String, Thread> inProgress = new ConcurrentHashMap<>();
 
   /**
    * 성공 기준(최소화): - 거래구분코드 != 'X' - 헤더 responseCode == 0 그 외 전부 "통신오류"
@@ -33,37 +51,122 @@ public class LocalPayService {
     final long amount = request.totalAmount();
     final String amountStr = String.valueOf(amount);
 
+    if (validateTotal && !totalMatches(request)) {
+      return new PayResponse(false, "금액불일치");
+    }
+
+    final String paymentId = request.paymentId();
+    if (paymentId != null && inProgress.putIfAbsent(paymentId, Thread.currentThread()) != null) {
+      log.warn("[LOCAL PAY] 중복 결제 ID - paymentId={}", paymentId);
+      return new PayResponse(false, "중복요청");
+    }
+
+    // 활성/대기 구성이면 단말 결과를 받기 전까지 진행 중 결제로 남긴다 (인수 프로세스가 정리)
+    String journalKey = inFlightJournal.begin(request, transactionStore.lastSeq());
     try {
       // 1) TL3800 승인 요청
       TLPacket resp = tl3800Gateway.approve(amountStr, "0", "0", request.inst(), true);
-      String packetHex = Hex.toHex(resp.toBytes());
-      log.debug("[LOCAL PAY] 단말 응답 HEX={}", packetHex);
+      byte[] packet = resp.toBytes();
+      log.debug("[LOCAL PAY] 단말 응답 HEX={}", Hex.lazy(packet));
 
       // 2) 거래구분코드 + 헤더 응답코드로만 최종 판정
       if (approvedByTxnTypeAndHeader(resp)) {
-        PaySuccessReportRequest report = new PaySuccessReportRequest(request, amount, 0, packetHex);
-        safeNotifySuccess(report);
+        safeNotifySuccess(request, amount, 0, packet);
         return new PayResponse(true, "결제완료");
       }
 
       // 실패(통신오류)로 통일
       String reason = deriveReason(resp);
-      PayFailureReportRequest report =
-          new PayFailureReportRequest(request, amount, reason, "통신오류", packetHex);
-      safeNotifyFailure(report);
+      safeNotifyFailure(request, amount, reason, "통신오류", packet);
       return new PayResponse(false, "통신오류");
 
+    } catch (TerminalBusyException ex) {
+      // 단말에 보내지 않았으므로 중앙 보고 없이 503으로 돌려보낸다 (키오스크가 Retry-After 후 재시도)
+      log.warn("[LOCAL PAY] 단말 거절({}) - position={}, retryAfter={}s",
+          ex.reason(), ex.queuePosition(), ex.retryAfterSeconds());
+      throw ex;
+
+    } catch (CancellationException | InterruptedException ex) {
+      if (inFlightJournal.handedOver(journalKey)) {
+        log.warn("[LOCAL PAY] 단말 반납으로 결제 중단, 넘겨받는 프로세스가 정리 - paymentId={}", paymentId);
+        return new PayResponse(false, "결제중단");
+      }
+      log.info("[LOCAL PAY] 결제 중단 - paymentId={}", paymentId);
+      safeNotifyFailure(request, amount, "ABORT", "결제중단", null);
+      return new PayResponse(false, "결제중단");
+
     } catch (Exception ex) {
+      if (inFlightJournal.handedOver(journalKey)) {
+        log.warn("[LOCAL PAY] 단말 반납으로 결제 중단, 넘겨받는 프로세스가 정리 - paymentId={}", paymentId);
+        return new PayResponse(false, "결제중단");
+      }
       log.warn("[LOCAL PAY] 예외 발생 - {}", ex.toString());
-      PayFailureReportRequest report =
-          new PayFailureReportRequest(request, amount, "EX", "통신오류", null);
-      safeNotifyFailure(report);
+      safeNotifyFailure(request, amount, "EX", "통신오류", null);
       return new PayResponse(false, "통신오류");
+
+    } finally {
+      inFlightJournal.end(journalKey);
+      if (paymentId != null) {
+        inProgress.remove(paymentId);
+      }
+    }
+  }
+
+  /**
+   * 진행 중 결제 중단 (고객 이탈 등). 단말에서 카드 입력을 기다리던 중이면 리셋 후 장치체크까지 마치고 돌아온다.
+   */
+  public PayAbortResponse abort(String paymentId) {
+    Thread owner = inProgress.get(paymentId);
+    if (owner == null) {
+      return new PayAbortResponse(false, false, "결제없음");
+    }
+    try {
+      AbortResult r = tl3800Gateway.abort(owner);
+      log.info("[LOCAL PAY] 결제 중단 요청 - paymentId={}, state={}", paymentId, r.state());
+      return switch (r.state()) {
+        case TERMINAL -> {
+          boolean ready = r.deviceCheck() != null && isHeaderApproved(r.deviceCheck());
+          if (r.lateResponse() != null) {
+            // 리셋 전에 단말이 거래를 끝냈다: 결제 요청 쪽이 그 응답으로 기록/보고한다
+            boolean approved = approvedByTxnTypeAndHeader(r.lateResponse());
+            yield new PayAbortResponse(false, ready, approved ? "결제완료" : "결제종료");
+          }
+          yield new PayAbortResponse(true, ready, "결제중단");
+        }
+        case QUEUED -> new PayAbortResponse(true, true, "대기취소");
+        case NONE -> new PayAbortResponse(false, false, "결제없음");
+      };
+    } catch (Exception ex) {
+      log.warn("[LOCAL PAY] 결제 중단 실패 - paymentId={}, ex={}", paymentId, ex.toString());
+      return new PayAbortResponse(false, false, "통신오류");
     }
   }
 
   /* ================= 내부 유틸 ================= */
 
+  /**
+   * 로컬 단가 캐시로 합계 재계산. 단가를 모르는 상품이 있으면 검증을 건너뛴다(중앙 서버 장애 시 결제 차단 방지).
+   */
+  private boolean totalMatches(PayRequest request) {
+    OptionalLong expected;
+    try {
+      expected = productPriceCache.totalOf(request.items());
+    } catch (ArithmeticException e) {
+      log.warn("[LOCAL PAY] 합계 계산 overflow - items={}", request.items());
+      return false;
+    }
+    if (expected.isEmpty()) {
+      log.warn("[LOCAL PAY] 단가 미확인 상품 포함 → 합계 검증 생략");
+      return true;
+    }
+    if (expected.getAsLong() != request.totalAmount()) {
+      log.warn("[LOCAL PAY] 합계 불일치 - front={}, local={}, items={}",
+          request.totalAmount(), expected.getAsLong(), request.items());
+      return false;
+    }
+    return true;
+  }
+
   /**
    * 최종 승인 판정: (거래구분코드 != 'X') && (header.responseCode == 0)
    */
@@ -137,16 +240,17 @@ public class LocalPayService {
     return new String(b, off, len, StandardCharsets.US_ASCII).trim();
   }
 
-  private void safeNotifySuccess(PaySuccessReportRequest report) {
+  private void safeNotifySuccess(PayRequest request, long amount, int respCode, byte[] packet) {
     try {
-      centralPayClient.notifySuccess(report);
+      centralReportService.reportSuccess(request, amount, respCode, packet);
     } catch (Exception ignore) {
     }
   }
 
-  private void safeNotifyFailure(PayFailureReportRequest report) {
+  private void safeNotifyFailure(
+      PayRequest request, long amount, String respCode, String reason, byte[] packet) {
     try {
-      centralPayClient.notifyFailure(report);
+      centralReportService.reportFailure(request, amount, respCode, reason, packet);
     } catch (Exception ignore) {
     }
   }
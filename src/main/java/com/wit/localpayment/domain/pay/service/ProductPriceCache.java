@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.service;
+
+import com.wit.localpayment.domain.pay.client.CentralProductClient;
+import com.wit.localpayment.domain.pay.client.CircuitBreaker;
+import com.wit.localpayment.domain.pay.client.CentralProductClient.PriceFetch;
+import com.wit.localpayment.domain.pay.dto.request.CartItemRequest;
+import com.wit.localpayment.domain.pay.dto.response.ProductPriceResponse;
+import com.wit.localpayment.domain.pay.dto.response.ProductPriceSnapshotResponse;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 상품 단가 로컬 캐시 (read-through).
+ *
+ * <p>기동 시 중앙 서버 단가표 전체를 미리 적재하고, 이후 주기적으로 ETag/버전 조건부 조회로 변경분만 반영한다. 캐시에 없는 상품은
+ * 단건 조회로 채운다. 크기 상한을 넘으면 가장 오래 안 쓴 항목부터 내보낸다(LRU).
+ *
+ * <p>단건 조회는 결제 요청 스레드에서 일어나므로 중앙 서버 장애가 결제 지연으로 번지지 않게 막는다. 조회는 서킷 브레이커 뒤에서만
+ * 하고(OPEN이면 바로 단가 미확인), 찾지 못했거나 실패한 상품은 negative-ttl-ms 동안 다시 묻지 않는다. 단가표 갱신에 들어온
+ * 상품은 그 즉시 다시 조회 대상이 된다.
+ */
+@Slf4j
+@Component
+public class ProductPriceCache {
+
+  private final CentralProductClient centralProductClient;
+  private final int maxSize;
+  private final long negativeTtlNanos;
+  private final CircuitBreaker breaker;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final LinkedHashMap<Long, Long> prices;
+  // 단가를 못 찾은 상품 → 다시 물어도 되는 시각(nanoTime). lock 아래에서만
+  private final LinkedHashMap<Long, Long> misses;
+
+  // 마지막으로 반영한 단가표 버전/ETag (lock 아래에서만 변경)
+  private long version;
+  private String etag;
+
+  public ProductPriceCache(
+      CentralProductClient centralProductClient,
+      @Value("${central.price-cache.max-size:10000}") int maxSize,
+      @Value("${central.price-cache.negative-ttl-ms:30000}") long negativeTtlMs,
+      @Value("${central.price-cache.breaker.failure-threshold:3}") int failureThreshold,
+      @Value("${central.price-cache.breaker.open-ms:30000}") long openMs) {
+    this.centralProductClient = centralProductClient;
+    this.maxSize = maxSize;
+    this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMs);
+    this.breaker = new CircuitBreaker("central-price", failureThreshold, openMs);
+    this.prices = lru();
+    this.misses = lru();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void preload() {
+    refresh();
+  }
+
+  /** 변경분 폴링. 실패해도 기존 캐시는 유지한다. */
+  @Scheduled(
+      initialDelayString = "${central.price-cache.refresh-ms:60000}",
+      fixedDelayString = "${central.price-cache.refresh-ms:60000}")
+  public void refresh() {
+    long since;
+    String tag;
+    lock.lock();
+    try {
+      since = version;
+      tag = etag;
+    } finally {
+      lock.unlock();
+    }
+
+    PriceFetch fetch;
+    try {
+      fetch = centralProductClient.fetchPrices(since, tag);
+    } catch (Exception e) {
+      log.warn("[PRICE] 단가표 갱신 실패 - since={}, ex={}", since, e.toString());
+      return;
+    }
+    if (fetch.notModified() || fetch.snapshot() == null) {
+      log.debug("[PRICE] 단가표 변경 없음 - version={}", since);
+      return;
+    }
+    apply(fetch.snapshot(), fetch.etag());
+  }
+
+  /**
+   * 단가 조회. 캐시에 없으면 중앙 서버 단건 조회로 채운다. 최근에 못 찾은 상품이거나 서킷이 열려 있으면 묻지 않고 empty.
+   */
+  public OptionalLong priceOf(long productId) {
+    lock.lock();
+    try {
+      Long p = prices.get(productId);
+      if (p != null) {
+        return OptionalLong.of(p);
+      }
+      Long retryAt = misses.get(productId);
+      if (retryAt != null) {
+        if (System.nanoTime() - retryAt < 0) {
+          return OptionalLong.empty();
+        }
+        misses.remove(productId);
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (!breaker.tryAcquire()) {
+      log.debug("[PRICE] 단건 조회 생략(서킷 OPEN) - productId={}", productId);
+      return OptionalLong.empty();
+    }
+    ProductPriceResponse fetched;
+    try {
+      fetched = centralProductClient.fetchPrice(productId);
+      breaker.onSuccess();
+    } catch (Exception e) {
+      breaker.onFailure();
+      log.warn("[PRICE] 단건 조회 실패 - productId={}, ex={}", productId, e.toString());
+      fetched = null;
+    }
+
+    lock.lock();
+    try {
+      if (fetched == null) {
+        misses.put(productId, System.nanoTime() + negativeTtlNanos);
+        return OptionalLong.empty();
+      }
+      prices.put(productId, fetched.price());
+      return OptionalLong.of(fetched.price());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** 장바구니 합계. 단가를 모르는 상품이 하나라도 있으면 empty. */
+  public OptionalLong totalOf(List<CartItemRequest> items) {
+    long total = 0;
+    for (CartItemRequest item : items) {
+      OptionalLong price = priceOf(item.productId());
+      if (price.isEmpty()) {
+        log.warn("[PRICE] 단가 미확인 상품 - productId={}", item.productId());
+        return OptionalLong.empty();
+      }
+      total = Math.addExact(total, Math.multiplyExact(price.getAsLong(), item.quantity()));
+    }
+    return OptionalLong.of(total);
+  }
+
+  public int size() {
+    lock.lock();
+    try {
+      return prices.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** 단건 조회 서킷 상태 */
+  public CircuitBreaker.State circuit() {
+    return breaker.state();
+  }
+
+  /* ================= 내부 유틸 ================= */
+
+  /** 접근 순서 LRU, maxSize 초과 시 가장 오래 안 쓴 항목부터 제거 */
+  private LinkedHashMap<Long, Long> lru() {
+    return new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  private void apply(ProductPriceSnapshotResponse snapshot, String newEtag) {
+    lock.lock();
+    try {
+      if (!snapshot.full() && snapshot.version() <= version) {
+        return; // 동시 갱신으로 이미 반영된 변경분
+      }
+      if (snapshot.full()) {
+        prices.clear();
+        misses.clear();
+      }
+      if (snapshot.prices() != null) {
+        for (ProductPriceResponse p : snapshot.prices()) {
+          prices.put(p.productId(), p.price());
+          misses.remove(p.productId());
+        }
+      }
+      if (snapshot.removed() != null) {
+        for (Long id : snapshot.removed()) {
+          prices.remove(id);
+        }
+      }
+      version = snapshot.version();
+      etag = newEtag;
+      log.info(
+          "[PRICE] 단가표 반영 - version={}, full={}, changed={}, size={}",
+          version,
+          snapshot.full(),
+          snapshot.prices() == null ? 0 : snapshot.prices().size(),
+          prices.size());
+    } finally {
+      lock.unlock();
+    }
+  }
+}
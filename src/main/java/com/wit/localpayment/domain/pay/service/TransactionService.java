@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.service;
+
+import com.wit.localpayment.domain.pay.dto.request.TransactionCancelRequest;
+import com.wit.localpayment.domain.pay.dto.response.TransactionCancelResponse;
+import com.wit.localpayment.domain.pay.dto.response.TransactionResponse;
+import com.wit.localpayment.domain.pay.store.TransactionRecord;
+import com.wit.localpayment.domain.pay.store.TransactionStore;
+import com.wit.localpayment.global.TL3800Gateway;
+import com.wit.localpayment.global.TerminalBusyException;
+import com.wit.localpayment.global.proto.TLPacket;
+import java.io.UncheckedIOException;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 로컬 거래 기록/조회와 원거래 자동 조회 취소.
+ *
+ * <p>게이트웨이의 승인/취소 응답을 모두 거래 저장소에 남긴다(키오스크 결제, 직접 호출 모두). 취소는 승인번호만 받아 원거래
+ * 금액/승인일시를 저장소에서 채워 단말에 보낸다.
+ */
+@Slf4j
+@Service
+public class TransactionService {
+
+  private final TL3800Gateway tl3800Gateway;
+  private final TransactionStore store;
+
+  public TransactionService(TL3800Gateway tl3800Gateway, TransactionStore store) {
+    this.tl3800Gateway = tl3800Gateway;
+    this.store = store;
+    tl3800Gateway.setTransactionListener(this::record);
+  }
+
+  public List<TransactionResponse> find(TransactionStore.Query query) {
+    return store.find(query).stream().map(this::toResponse).toList();
+  }
+
+  /** 승인번호로 원거래 조회 (없으면 null) */
+  public TransactionResponse get(String approvalNo, String orgDate) {
+    TransactionRecord r = store.findApproval(approvalNo, orgDate);
+    return (r == null) ? null : toResponse(r);
+  }
+
+  public TransactionCancelResponse cancel(String approvalNo, TransactionCancelRequest request) {
+    TransactionCancelRequest req =
+        (request == null) ? TransactionCancelRequest.defaults() : request;
+
+    TransactionRecord org = store.findApproval(approvalNo, req.orgDate());
+    if (org == null) {
+      return new TransactionCancelResponse(false, approvalNo, 0, null, "거래없음");
+    }
+    if (store.cancelOf(org.approvalNo()) != null) {
+      return new TransactionCancelResponse(false, approvalNo, org.amount(), null, "이미취소");
+    }
+
+    log.info(
+        "[LOCAL] 원거래 자동 취소 - approvalNo={}, amount={}, approvedAt={}",
+        org.approvalNo(),
+        org.amount(),
+        org.approvedAt());
+    try {
+      TLPacket resp =
+          tl3800Gateway.cancel(
+              req.cancelType() == null ? "1" : req.cancelType(),
+              req.tranType() == null ? "1" : req.tranType(),
+              String.valueOf(org.amount()),
+              "0",
+              "0",
+              "00",
+              req.noSign() == null || req.noSign(),
+              org.approvalNo(),
+              org.orgDate(),
+              org.orgTime(),
+              "");
+      // 승인된 취소는 게이트웨이 리스너가 이미 저장소에 남겼다
+      TransactionRecord cancel = store.cancelOf(org.approvalNo());
+      if (cancel == null) {
+        log.warn("[LOCAL] 취소 거절 - approvalNo={}, resp={}", org.approvalNo(), resp.responseCode);
+        return new TransactionCancelResponse(false, approvalNo, org.amount(), null, "취소거절");
+      }
+      return new TransactionCancelResponse(
+          true, approvalNo, org.amount(), cancel.approvalNo(), "취소완료");
+    } catch (TerminalBusyException ex) {
+      throw ex; // 503 + Retry-After
+    } catch (Exception ex) {
+      log.warn("[LOCAL] 취소 요청 실패 - approvalNo={}, ex={}", org.approvalNo(), ex.toString());
+      return new TransactionCancelResponse(false, approvalNo, org.amount(), null, "통신오류");
+    }
+  }
+
+  /* ================= 내부 유틸 ================= */
+
+  private void record(TLPacket resp, String orgApprovalNo) {
+    try {
+      TransactionRecord r = store.append(resp, orgApprovalNo);
+      if (r != null) {
+        log.info(
+            "[LOCAL] 거래 저장 - kind={}, approvalNo={}, amount={}, org={}",
+            r.kind(),
+            r.approvalNo(),
+            r.amount(),
+            r.orgApprovalNo());
+      }
+    } catch (UncheckedIOException e) {
+      // 결제 결과는 이미 단말에서 확정됐으므로 응답 흐름은 막지 않는다
+      log.error("[LOCAL] 거래 저장 실패 - job={}, ex={}", resp.jobCode, e.toString());
+    }
+  }
+
+  private TransactionResponse toResponse(TransactionRecord r) {
+    boolean cancelled =
+        TransactionRecord.APPROVAL.equals(r.kind()) && store.cancelOf(r.approvalNo()) != null;
+    return TransactionResponse.of(r, cancelled);
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.store;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wit.localpayment.domain.pay.dto.request.PayRequest;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 단말에 보낸 뒤 아직 결과를 받지 못한 결제 목록 (활성/대기 구성에서만, {@code local.standby.enabled}).
+ *
+ * <p>결제 시작/종료 때마다 현재 목록 전체를 임시 파일에 쓰고 옮겨 바꾼다. 활성 프로세스가 결제 중에 죽으면 이 파일에 남은 결제를
+ * 단말을 넘겨받은 대기 프로세스가 정리한다. 살아 있는 활성 프로세스가 단말을 내려놓을 때도({@link #handOver()}) 그때 끊긴
+ * 결제는 목록에 남겨 넘겨받는 쪽이 같은 방법으로 정리하게 한다. 한 번에 진행 중인 결제는 단말 수만큼이라 목록은 몇 줄을 넘지 않는다.
+ */
+@Slf4j
+@Component
+public class InFlightJournal {
+
+  /**
+   * 진행 중 결제 1건.
+   *
+   * @param afterSeq 시작 시점의 거래 저장소 마지막 순번 (이후 같은 금액 승인이 있으면 단말에서 승인된 것)
+   */
+  public record Entry(String key, long startedAt, long afterSeq, PayRequest request) {}
+
+  private final boolean enabled;
+  private final Path file;
+  private final ObjectMapper mapper;
+  private final Map<String, Entry> entries = new LinkedHashMap<>();
+  private final Set<String> handedOver = new HashSet<>();
+  private boolean handingOver; // 단말을 내려놓은 뒤 다시 넘겨받기 전까지
+
+  public InFlightJournal(
+      ObjectMapper mapper,
+      @Value("${local.standby.enabled:false}") boolean enabled,
+      @Value("${local.standby.inflight-file:./data/inflight.jsonl}") String file) {
+    this.mapper = mapper;
+    this.enabled = enabled;
+    this.file = Path.of(file);
+  }
+
+  /** 단말 호출 직전. @return end()에 넘길 키 (비활성화면 null) */
+  public synchronized String begin(PayRequest request, long afterSeq) {
+    if (!enabled) {
+      return null;
+    }
+    String key = request.paymentId() != null ? request.paymentId() : UUID.randomUUID().toString();
+    entries.put(key, new Entry(key, System.currentTimeMillis(), afterSeq, request));
+    flush();
+    return key;
+  }
+
+  /** 결과를 받았거나(성공/실패) 단말에 보내지 못했을 때. 넘긴 결제는 목록에 그대로 둔다. */
+  public synchronized void end(String key) {
+    if (key == null || handedOver.remove(key)) {
+      return;
+    }
+    entries.remove(key);
+    flush();
+  }
+
+  /** 단말을 내려놓기 직전 (진행 중 호출을 끊기 전). 이후 끊긴 결제는 {@link #handedOver}로 넘긴다. */
+  public synchronized void handOver() {
+    if (enabled) {
+      handingOver = true;
+    }
+  }
+
+  /**
+   * 호출이 끊긴 결제를 넘겨받을 프로세스 몫으로 남길지. true면 결과 보고 없이 돌아갈 것 (보고는 넘겨받은 쪽이 한다).
+   *
+   * @param key begin()이 돌려준 키
+   */
+  public synchronized boolean handedOver(String key) {
+    if (key == null || !handingOver || !entries.containsKey(key)) {
+      return false;
+    }
+    handedOver.add(key);
+    return true;
+  }
+
+  /** 파일에 남은 결제 (다른 프로세스가 쓴 것). 손상된 줄은 건너뛴다. */
+  public synchronized List<Entry> read() {
+    List<Entry> out = new ArrayList<>();
+    if (!enabled || !Files.isRegularFile(file)) {
+      return out;
+    }
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(file, UTF_8);
+    } catch (IOException e) {
+      log.error("[LOCAL PAY] 진행 중 결제 목록 읽기 실패 - {}", e.toString());
+      return out;
+    }
+    for (String line : lines) {
+      if (line.isBlank()) {
+        continue;
+      }
+      try {
+        out.add(mapper.readValue(line, Entry.class));
+      } catch (IOException e) {
+        log.warn("[LOCAL PAY] 손상된 진행 중 결제 줄 건너뜀 - {}", e.toString());
+      }
+    }
+    return out;
+  }
+
+  /** 넘겨받은 결제를 모두 정리한 뒤 비운다. */
+  public synchronized void clear() {
+    entries.clear();
+    handedOver.clear();
+    handingOver = false;
+    flush();
+  }
+
+  /** 디스크 오류는 로그만 남긴다(결제 흐름을 막지 않음). 실패하면 인수 시 정리 대상이 빠질 수 있다. */
+  private void flush() {
+    Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      try (Writer w = Files.newBufferedWriter(tmp, UTF_8)) {
+        for (Entry e : entries.values()) {
+          w.write(mapper.writeValueAsString(e));
+          w.write('\n');
+        }
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.error("[LOCAL PAY] 진행 중 결제 목록 기록 실패 - {}", e.toString());
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.store;
+
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.TLPacket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 단말이 승인한 거래 1건 (승인 b / 취소 c 응답에서 복원). 거래 저장소의 한 줄이자 인덱스 항목이다.
+ *
+ * @param seq 저장 순번 (저장소 내 단조 증가)
+ * @param kind APPROVAL 또는 CANCEL
+ * @param approvalNo 이 거래의 승인번호 (취소면 취소 승인번호)
+ * @param approvedAt 승인일시 YYYYMMDDhhmmss
+ * @param orgApprovalNo 취소일 때 원거래 승인번호, 승인이면 null
+ */
+public record TransactionRecord(
+    long seq,
+    String kind,
+    String terminalId,
+    String approvalNo,
+    long amount,
+    String approvedAt,
+    String orgApprovalNo) {
+
+  public static final String APPROVAL = "APPROVAL";
+  public static final String CANCEL = "CANCEL";
+
+  // 응답 데이터: 거래구분(1) + 금액(10) + 승인번호(12) + 승인일시(14)
+  private static final int OFF_TXN_TYPE = 0;
+  private static final int OFF_AMOUNT = 1;
+  private static final int OFF_APPROVAL_NO = 11;
+  private static final int OFF_APPROVED_AT = 23;
+  private static final int MIN_DATA_LEN = OFF_APPROVAL_NO + 12;
+
+  /**
+   * b/c 응답 → 기록. 거절(거래구분 X, 헤더 응답코드 != 0)이거나 형식이 맞지 않으면 null. 승인일시가 빠진 응답은 헤더 일시를 쓴다.
+   */
+  public static TransactionRecord decode(long seq, TLPacket resp, String orgApprovalNo) {
+    if (resp == null || resp.responseCode != 0 || resp.data == null) {
+      return null;
+    }
+    boolean cancel = JobCode.sameJob(JobCode.c, resp.jobCode);
+    if (!cancel && !JobCode.sameJob(JobCode.b, resp.jobCode)) {
+      return null;
+    }
+    byte[] d = resp.data;
+    if (d.length < MIN_DATA_LEN || Character.toUpperCase(d[OFF_TXN_TYPE]) == 'X') {
+      return null;
+    }
+    long amount;
+    try {
+      amount = Long.parseLong(ascii(d, OFF_AMOUNT, 10));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    String approvalNo = ascii(d, OFF_APPROVAL_NO, 12);
+    if (approvalNo.isEmpty()) {
+      return null;
+    }
+    String approvedAt =
+        (d.length >= OFF_APPROVED_AT + 14) ? ascii(d, OFF_APPROVED_AT, 14) : resp.dateTime14;
+    return new TransactionRecord(
+        seq,
+        cancel ? CANCEL : APPROVAL,
+        resp.catOrMid == null ? "" : resp.catOrMid.trim(),
+        approvalNo,
+        amount,
+        approvedAt,
+        cancel ? orgApprovalNo : null);
+  }
+
+  /** 원승인일자 YYYYMMDD (취소 요청용) */
+  public String orgDate() {
+    return approvedAt.substring(0, 8);
+  }
+
+  /** 원승인시간 hhmmss (취소 요청용) */
+  public String orgTime() {
+    return approvedAt.substring(8, 14);
+  }
+
+  private static String ascii(byte[] b, int off, int len) {
+    return new String(b, off, len, StandardCharsets.US_ASCII).trim();
+  }
+}
@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.store;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wit.localpayment.global.proto.TLPacket;
+import com.wit.localpayment.global.standby.StandbyCoordinator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 로컬 거래 저장소 (append-only).
+ *
+ * <p>승인/취소 응답을 세그먼트 파일(txn-000001.jsonl …)에 한 줄씩 덧붙이고 매번 fsync 한다. 기록은 수정/삭제하지 않으며 취소는
+ * 원거래 승인번호를 가진 CANCEL 줄로 남는다. 조회용 인덱스(승인번호 해시, 승인일시/금액 정렬 맵)는 메모리에만 두고 기동 시
+ * 세그먼트를 읽어 다시 만든다. 세그먼트가 상한을 넘으면 다음 번호로 넘어간다.
+ *
+ * <p>활성/대기 구성({@link StandbyCoordinator})의 대기 프로세스에서는 읽기 전용이다. heartbeat마다 활성 프로세스가 덧붙인
+ * 완결된 줄을 마지막으로 읽은 위치부터 이어 읽어 인덱스에 반영하고, 단말을 넘겨받을 때 마지막으로 한 번 더 읽은 뒤 쓰기를
+ * 시작한다. 끝이 잘린 세그먼트에는 이어 쓰지 않고 다음 번호로 넘어간다.
+ */
+@Slf4j
+@Component
+public class TransactionStore implements AutoCloseable {
+
+  private static final Pattern SEGMENT = Pattern.compile("txn-(\\d{6})\\.jsonl");
+
+  /**
+   * 조회 조건. 모두 선택이며 null이면 거르지 않는다.
+   *
+   * @param from 승인일시 하한 (YYYYMMDD 또는 YYYYMMDDhhmmss, 포함)
+   * @param to 승인일시 상한 (YYYYMMDD 또는 YYYYMMDDhhmmss, 포함)
+   */
+  public record Query(String approvalNo, String from, String to, Long amount, int limit) {}
+
+  private final Path dir;
+  private final long segmentBytes;
+  private final ObjectMapper mapper;
+
+  private final ReentrantReadWriteLock rw = new ReentrantReadWriteLock();
+  private final Map<String, List<TransactionRecord>> byApprovalNo = new HashMap<>();
+  private final NavigableMap<String, List<TransactionRecord>> byTime = new TreeMap<>();
+  private final NavigableMap<Long, List<TransactionRecord>> byAmount = new TreeMap<>();
+  private final Map<String, TransactionRecord> cancelByOrg = new HashMap<>();
+  private int size;
+
+  // 쓰기 상태 (rw 쓰기 잠금 아래에서만 변경)
+  private long nextSeq = 1;
+  private int segmentNo;
+  private FileChannel active;
+  private boolean readOnly;
+
+  // 이어 읽기 위치: 세그먼트 번호 + 그 안에서 다음에 읽을 바이트 (rw 쓰기 잠금 아래에서만 변경)
+  private int tailSegment;
+  private long tailOffset;
+
+  public TransactionStore(
+      ObjectMapper mapper,
+      StandbyCoordinator standby,
+      @Value("${local.txn-store.dir:./data/txn}") String dir,
+      @Value("${local.txn-store.segment-bytes:4194304}") long segmentBytes) {
+    this.dir = Path.of(dir);
+    this.segmentBytes = segmentBytes;
+    this.mapper = mapper;
+    this.readOnly = !standby.active();
+    load();
+    standby.addListener(
+        new StandbyCoordinator.RoleListener() {
+          @Override
+          public void onStandbyTick() {
+            tail();
+          }
+
+          @Override
+          public void onPromoted() {
+            writable(true);
+          }
+
+          @Override
+          public void onDemoted() {
+            writable(false);
+          }
+        });
+  }
+
+  /**
+   * 승인(b)/취소(c) 응답 1건 저장. 거절이거나 형식이 맞지 않아 저장하지 않았으면 null.
+   *
+   * @throws UncheckedIOException 디스크 기록 실패 (인덱스에도 넣지 않는다)
+   * @throws IllegalStateException 대기 프로세스 (읽기 전용)
+   */
+  public TransactionRecord append(TLPacket resp, String orgApprovalNo) {
+    rw.writeLock().lock();
+    try {
+      if (readOnly) {
+        throw new IllegalStateException("transaction store is read-only (standby)");
+      }
+      TransactionRecord r = TransactionRecord.decode(nextSeq, resp, orgApprovalNo);
+      if (r == null) {
+        return null;
+      }
+      write(mapper.writeValueAsString(r));
+      nextSeq++;
+      index(r);
+      return r;
+    } catch (IOException e) {
+      throw new UncheckedIOException("transaction store write failed", e);
+    } finally {
+      rw.writeLock().unlock();
+    }
+  }
+
+  /** 조건에 맞는 거래를 최신순으로. 승인번호 → 금액 → 일시 범위 순으로 가장 좁은 인덱스에서 시작한다. */
+  public List<TransactionRecord> find(Query q) {
+    String from = (q.from() == null) ? null : padDateTime(q.from(), '0');
+    String to = (q.to() == null) ? null : padDateTime(q.to(), '9');
+
+    rw.readLock().lock();
+    try {
+      Collection<List<TransactionRecord>> buckets;
+      if (q.approvalNo() != null) {
+        List<TransactionRecord> l = byApprovalNo.get(q.approvalNo());
+        buckets = (l == null) ? List.of() : List.of(l);
+      } else if (q.amount() != null) {
+        List<TransactionRecord> l = byAmount.get(q.amount());
+        buckets = (l == null) ? List.of() : List.of(l);
+      } else if (from != null || to != null) {
+        buckets =
+            byTime
+                .subMap(from == null ? "" : from, true, to == null ? "~" : to, true)
+                .values();
+      } else {
+        buckets = byTime.values();
+      }
+
+      List<TransactionRecord> out = new ArrayList<>();
+      for (List<TransactionRecord> bucket : buckets) {
+        for (TransactionRecord r : bucket) {
+          if (matches(r, q, from, to)) {
+            out.add(r);
+          }
+        }
+      }
+      out.sort(Comparator.comparingLong(TransactionRecord::seq).reversed());
+      return (q.limit() > 0 && out.size() > q.limit()) ? out.subList(0, q.limit()) : out;
+    } finally {
+      rw.readLock().unlock();
+    }
+  }
+
+  /** 취소 대상 원거래: 승인번호가 같은 가장 최근 승인. orgDate(YYYYMMDD)가 있으면 그 날짜로 좁힌다. */
+  public TransactionRecord findApproval(String approvalNo, String orgDate) {
+    rw.readLock().lock();
+    try {
+      List<TransactionRecord> l = byApprovalNo.get(approvalNo);
+      if (l == null) {
+        return null;
+      }
+      for (int i = l.size() - 1; i >= 0; i--) {
+        TransactionRecord r = l.get(i);
+        if (TransactionRecord.APPROVAL.equals(r.kind())
+            && (orgDate == null || r.approvedAt().startsWith(orgDate))) {
+          return r;
+        }
+      }
+      return null;
+    } finally {
+      rw.readLock().unlock();
+    }
+  }
+
+  /** 원거래 승인번호로 이미 저장된 취소 기록 (없으면 null) */
+  public TransactionRecord cancelOf(String orgApprovalNo) {
+    rw.readLock().lock();
+    try {
+      return cancelByOrg.get(orgApprovalNo);
+    } finally {
+      rw.readLock().unlock();
+    }
+  }
+
+  /**
+   * 순번이 afterSeq보다 크고 금액이 같은 가장 최근 승인 (없으면 null). 넘겨받은 진행 중 결제가 단말에서 승인까지 갔는지
+   * 판단할 때 쓴다.
+   */
+  public TransactionRecord approvalAfter(long afterSeq, long amount) {
+    rw.readLock().lock();
+    try {
+      List<TransactionRecord> l = byAmount.get(amount);
+      if (l == null) {
+        return null;
+      }
+      for (int i = l.size() - 1; i >= 0; i--) {
+        TransactionRecord r = l.get(i);
+        if (TransactionRecord.APPROVAL.equals(r.kind()) && r.seq() > afterSeq) {
+          return r;
+        }
+      }
+      return null;
+    } finally {
+      rw.readLock().unlock();
+    }
+  }
+
+  /** 다른 프로세스가 덧붙인 줄을 반영한다 (대기 프로세스). @return 새로 읽은 기록 수 */
+  public int tail() {
+    rw.writeLock().lock();
+    try {
+      return readOnly ? tailLocked()[0] : 0;
+    } finally {
+      rw.writeLock().unlock();
+    }
+  }
+
+  /** 마지막 저장 순번 (없으면 0) */
+  public long lastSeq() {
+    rw.readLock().lock();
+    try {
+      return nextSeq - 1;
+    } finally {
+      rw.readLock().unlock();
+    }
+  }
+
+  public int size() {
+    rw.readLock().lock();
+    try {
+      return size;
+    } finally {
+      rw.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    rw.writeLock().lock();
+    try {
+      closeActive();
+    } finally {
+      rw.writeLock().unlock();
+    }
+  }
+
+  /* ================= 내부 유틸 ================= */
+
+  /** 세그먼트를 번호순으로 읽어 인덱스 재구성. 끝이 잘린 줄(기록 중 종료)은 건너뛴다. */
+  private void load() {
+    long t0 = System.nanoTime();
+    int[] n = tailLocked();
+    log.info(
+        "[LOCAL] 거래 저장소 적재 - segments={}, records={}, skipped={}, readOnly={}, {}ms",
+        segmentNo,
+        size,
+        n[1],
+        readOnly,
+        (System.nanoTime() - t0) / 1_000_000L);
+  }
+
+  /** 읽기 전용 ↔ 쓰기 전환. 쓰기로 바뀌기 직전에 남은 줄을 모두 읽어 순번/세그먼트를 맞춘다. */
+  private void writable(boolean on) {
+    rw.writeLock().lock();
+    try {
+      if (on && readOnly) {
+        int[] n = tailLocked();
+        readOnly = false;
+        log.info("[LOCAL] 거래 저장소 쓰기 시작 - 추가 적재 {}건, records={}", n[0], size);
+      } else if (!on && !readOnly) {
+        closeActive();
+        readOnly = true;
+        log.info("[LOCAL] 거래 저장소 읽기 전용 전환");
+      }
+    } finally {
+      rw.writeLock().unlock();
+    }
+  }
+
+  /**
+   * 마지막 읽은 위치 이후의 완결된 줄(개행으로 끝난 줄)을 인덱스에 넣는다. 개행 없는 끝 조각은 다음에 다시 읽는다.
+   *
+   * @return {읽은 기록 수, 손상되어 건너뛴 줄 수}
+   */
+  private int[] tailLocked() {
+    int[] n = new int[2];
+    if (!Files.isDirectory(dir)) {
+      return n;
+    }
+    List<Path> segments = new ArrayList<>();
+    try (Stream<Path> s = Files.list(dir)) {
+      s.filter(p -> segmentNo(p) >= Math.max(tailSegment, 1)).forEach(segments::add);
+    } catch (IOException e) {
+      throw new UncheckedIOException("cannot list " + dir, e);
+    }
+    segments.sort(Comparator.comparing(p -> p.getFileName().toString()));
+
+    for (Path p : segments) {
+      int no = segmentNo(p);
+      if (no != tailSegment) {
+        tailSegment = no;
+        tailOffset = 0;
+      }
+      segmentNo = Math.max(segmentNo, no);
+      byte[] bytes;
+      try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+        long len = ch.size() - tailOffset;
+        if (len <= 0) {
+          continue;
+        }
+        ByteBuffer buf = ByteBuffer.allocate((int) len);
+        ch.position(tailOffset);
+        while (buf.hasRemaining() && ch.read(buf) > 0) {
+          // 끝까지
+        }
+        bytes = Arrays.copyOf(buf.array(), buf.position());
+      } catch (IOException e) {
+        throw new UncheckedIOException("cannot read " + p, e);
+      }
+      int lineStart = 0;
+      for (int i = 0; i < bytes.length; i++) {
+        if (bytes[i] != '\n') {
+          continue;
+        }
+        String line = new String(bytes, lineStart, i - lineStart, UTF_8);
+        lineStart = i + 1;
+        if (line.isBlank()) {
+          continue;
+        }
+        try {
+          TransactionRecord r = mapper.readValue(line, TransactionRecord.class);
+          index(r);
+          nextSeq = Math.max(nextSeq, r.seq() + 1);
+          n[0]++;
+        } catch (IOException e) {
+          n[1]++;
+          log.warn("[LOCAL] 손상된 거래 줄 건너뜀 - file={}, ex={}", p.getFileName(), e.toString());
+        }
+      }
+      tailOffset += lineStart;
+    }
+    return n;
+  }
+
+  private static int segmentNo(Path p) {
+    Matcher m = SEGMENT.matcher(p.getFileName().toString());
+    return m.matches() ? Integer.parseInt(m.group(1)) : -1;
+  }
+
+  private void index(TransactionRecord r) {
+    byApprovalNo.computeIfAbsent(r.approvalNo(), k -> new ArrayList<>(1)).add(r);
+    byTime.computeIfAbsent(r.approvedAt(), k -> new ArrayList<>(1)).add(r);
+    byAmount.computeIfAbsent(r.amount(), k -> new ArrayList<>(1)).add(r);
+    if (TransactionRecord.CANCEL.equals(r.kind()) && r.orgApprovalNo() != null) {
+      cancelByOrg.put(r.orgApprovalNo(), r);
+    }
+    size++;
+  }
+
+  private void write(String json) throws IOException {
+    byte[] line = (json + "\n").getBytes(UTF_8);
+    if (active == null || active.size() + line.length > segmentBytes) {
+      roll();
+    }
+    ByteBuffer buf = ByteBuffer.wrap(line);
+    while (buf.hasRemaining()) {
+      active.write(buf);
+    }
+    active.force(false);
+    // 내가 쓴 줄은 이미 인덱스에 있으므로 이어 읽기 위치도 끝으로
+    tailSegment = segmentNo;
+    tailOffset = active.size();
+  }
+
+  /**
+   * 현재 세그먼트를 닫고 다음 번호로. 처음 쓰는 경우 마지막 세그먼트가 여유 있고 완결된 줄로 끝나면(끝까지 읽었으면) 이어
+   * 쓴다.
+   */
+  private void roll() throws IOException {
+    Files.createDirectories(dir);
+    if (active == null && segmentNo > 0) {
+      Path last = segmentPath(segmentNo);
+      if (Files.exists(last)
+          && Files.size(last) < segmentBytes
+          && tailSegment == segmentNo
+          && Files.size(last) == tailOffset) {
+        active = open(last);
+        return;
+      }
+    }
+    closeActive();
+    segmentNo++;
+    active = open(segmentPath(segmentNo));
+    log.info("[LOCAL] 거래 세그먼트 시작 - {}", segmentPath(segmentNo).getFileName());
+  }
+
+  private static FileChannel open(Path p) throws IOException {
+    return FileChannel.open(
+        p, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  private void closeActive() {
+    if (active != null) {
+      try {
+        active.close();
+      } catch (IOException ignore) {
+      }
+      active = null;
+    }
+  }
+
+  private Path segmentPath(int no) {
+    return dir.resolve(String.format("txn-%06d.jsonl", no));
+  }
+
+  private static boolean matches(TransactionRecord r, Query q, String from, String to) {
+    return (q.approvalNo() == null || q.approvalNo().equals(r.approvalNo()))
+        && (q.amount() == null || q.amount() == r.amount())
+        && (from == null || r.approvedAt().compareTo(from) >= 0)
+        && (to == null || r.approvedAt().compareTo(to) <= 0);
+  }
+
+  /** YYYYMMDD[hhmmss] → 14자리 (모자란 자리는 fill로 채워 범위 하한/상한으로 쓴다) */
+  private static String padDateTime(String s, char fill) {
+    StringBuilder sb = new StringBuilder(14).append(s.trim());
+    while (sb.length() < 14) {
+      sb.append(fill);
+    }
+    return sb.substring(0, 14);
+  }
+}
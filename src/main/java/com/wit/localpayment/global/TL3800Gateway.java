@@ -3,46 +3,496 @@
  */
 package com.wit.localpayment.global;
 
-import com.wit.localpayment.global.client.TL3800Client;
+import com.wit.localpayment.global.client.LineQualityMonitor;
+import com.wit.localpayment.global.client.TerminalClient;
 import com.wit.localpayment.global.payload.Requests;
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.JobCompatibility;
 import com.wit.localpayment.global.proto.TLPacket;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 public class TL3800Gateway {
 
-  private final TL3800Client client;
+  private final TerminalClient client;
   private final Requests requests;
+  private final JobCompatibility compatibility;
   private final ReentrantLock lock = new ReentrantLock(true);
 
-  public TL3800Gateway(TL3800Client client, Requests requests) {
+  // 주 요청 시작/종료 시점과 끼워 넣는 요청 판단 보호 (inFlight는 이 잠금 아래에서만 바뀐다).
+  // 단말 왕복 동안에는 쥐지 않는다.
+  private final ReentrantLock sideLock = new ReentrantLock(true);
+  private final Condition sideIdle = sideLock.newCondition();
+  private int sideCalls; // 회선에 나가 있는 끼워 넣은 요청 수 (0 또는 1, sideLock 아래에서만 바뀐다)
+  private volatile JobCode inFlight;
+  private volatile Thread inFlightOwner;
+  private volatile long inFlightSince; // nanoTime, inFlight가 있을 때만 의미 있음
+
+  // 중단된 호출이 리셋/장치체크까지 마치고 결과를 넘길 때까지 기다리는 상한
+  private static final long ABORT_WAIT_MS = 30_000;
+  // 리셋 뒤 중단된 요청의 최종 응답(b/c)이 늦게 오는지 보는 시간
+  private static final int LATE_RESPONSE_WAIT_MS = 1_500;
+
+  // 단말 잠금을 기다리는 스레드 (잠금을 받고 inFlight로 올라가면 빠진다)
+  private final Set<Thread> queued = ConcurrentHashMap.newKeySet();
+  // 진행 중 호출에 걸린 중단 요청 (sideLock 아래에서만 바뀐다)
+  private PendingAbort pendingAbort;
+
+  // 단말 잠금 대기열 (admission). maxQueue/maxWaitMs가 0 이하면 무제한
+  private final int maxQueue;
+  private final long maxWaitMs;
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private volatile long avgHoldMs; // 단말 점유 시간 EWMA (Retry-After 추정용)
+
+  // 회선 품질 조치 (없으면 null). 격리 중에는 장치체크만 받는다.
+  private volatile LineQualityMonitor lineMonitor;
+
+  // 대기(standby) 프로세스: 단말은 활성 프로세스 것이므로 모든 요청을 거절한다
+  private volatile boolean standby;
+
+  /** 중단 대상이 어디에 있었는가 */
+  public enum AbortState {
+    NONE, // 게이트웨이에 없음 (이미 끝났거나 시작 전)
+    QUEUED, // 단말 잠금 대기 중이었음 → 단말은 건드리지 않음
+    TERMINAL // 단말에서 진행 중이었음 → 리셋 + 장치체크
+  }
+
+  /**
+   * @param deviceCheck TERMINAL일 때 리셋 후 장치체크 응답 (실패 시 null)
+   * @param lateResponse TERMINAL일 때 리셋 뒤 늦게 도착한 최종 응답 (있으면 중단된 호출은 이 응답으로 끝난다)
+   */
+  public record AbortResult(AbortState state, TLPacket deviceCheck, TLPacket lateResponse) {}
+
+  /** owner 호출에 걸린 중단 요청. owner가 리셋까지 마치고 결과를 채운다. */
+  private record PendingAbort(Thread owner, CompletableFuture<AbortResult> done) {}
+
+  /** 대기열 현황 */
+  public record AdmissionStatus(
+      int queueDepth,
+      int maxQueue,
+      long maxWaitMs,
+      JobCode inFlight,
+      long admitted,
+      long rejected,
+      long avgHoldMs) {}
+
+  /** 승인(b)/취소(c) 응답 수신자 (거래 저장소 등). 결제 응답 경로에서 호출되므로 빨리 돌아와야 한다. */
+  public interface TransactionListener {
+
+    /** @param orgApprovalNo 취소일 때 원거래 승인번호, 승인이면 null */
+    void onTransaction(TLPacket response, String orgApprovalNo);
+  }
+
+  private volatile TransactionListener transactionListener = (r, o) -> {};
+
+  public TL3800Gateway(TerminalClient client, Requests requests) {
+    this(client, requests, JobCompatibility.none());
+  }
+
+  public TL3800Gateway(
+      TerminalClient client, Requests requests, JobCompatibility compatibility) {
+    this(client, requests, compatibility, 0, 0);
+  }
+
+  /**
+   * @param maxQueue 단말을 기다릴 수 있는 요청 수 상한 (넘으면 즉시 {@link TerminalBusyException})
+   * @param maxWaitMs 단말을 기다리는 최대 시간 (넘으면 {@link TerminalBusyException})
+   */
+  public TL3800Gateway(
+      TerminalClient client,
+      Requests requests,
+      JobCompatibility compatibility,
+      int maxQueue,
+      long maxWaitMs) {
     this.client = client;
     this.requests = requests;
+    this.compatibility = compatibility;
+    this.maxQueue = maxQueue;
+    this.maxWaitMs = maxWaitMs;
+  }
+
+  public void setTransactionListener(TransactionListener listener) {
+    this.transactionListener = (listener == null) ? (r, o) -> {} : listener;
+  }
+
+  public void setLineMonitor(LineQualityMonitor monitor) {
+    this.lineMonitor = monitor;
+  }
+
+  public LineQualityMonitor lineMonitor() {
+    return lineMonitor;
+  }
+
+  /** 이 게이트웨이가 맡은 단말 ID (요청 헤더 CAT/MID) */
+  public String terminalId() {
+    return requests.terminalId();
+  }
+
+  public void setStandby(boolean standby) {
+    this.standby = standby;
+  }
+
+  public boolean standby() {
+    return standby;
+  }
+
+  /** 진행 중인 단말 호출이 시작된 지 얼마나 됐는가 (ms). 없으면 0. */
+  public long inFlightMs() {
+    return (inFlight == null) ? 0 : (System.nanoTime() - inFlightSince) / 1_000_000L;
+  }
+
+  private TLPacket call(JobCode job, Supplier<TLPacket> supplier) throws Exception {
+    checkAdmissible(job); // 끼워 보내는 요청도 대기 프로세스/회선 격리 규칙은 같다
+    TLPacket side = tryPipelined(job, supplier);
+    if (side != null) {
+      return side;
+    }
+
+    admit(job);
+    long heldAt = System.nanoTime();
+    try {
+      beginInFlight(job);
+      try {
+        return callLocked(supplier);
+      } catch (CancellationException e) {
+        PendingAbort abort = takeAbort();
+        if (abort == null) {
+          throw e; // 대기 프로세스 전환 등 게이트웨이 밖에서 끊음 (리셋은 넘겨받는 쪽 몫)
+        }
+        TLPacket late = settleAbort(job, abort);
+        if (late != null) {
+          return late;
+        }
+        throw e;
+      } finally {
+        markInFlight(null);
+        PendingAbort missed = takeAbort();
+        if (missed != null) {
+          // 중단이 닿기 전에 호출이 끝났다 (결과는 호출자에게 그대로 간다)
+          missed.done().complete(new AbortResult(AbortState.NONE, null, null));
+        }
+        checkLine();
+      }
+    } finally {
+      recordHold(heldAt);
+      lock.unlock();
+    }
   }
 
-  private TLPacket call(Supplier<TLPacket> supplier) throws Exception {
-    lock.lock();
+  /**
+   * 잠금을 쥔 채로 중단 정리: R(리셋) → 중단된 요청의 늦은 최종 응답 확인 → 장치체크. 늦은 응답이 오면 단말에서는 거래가 끝난
+   * 것이므로 그 응답을 돌려준다(호출자가 정상 응답처럼 기록/보고).
+   */
+  private TLPacket settleAbort(JobCode job, PendingAbort abort) {
+    TLPacket late = null;
+    TLPacket check = null;
     try {
       client.open();
       try {
-        return client.requestResponse(supplier.get());
+        client.sendNoResponse(requests.reset());
+        late = client.awaitLateResponse(job, LATE_RESPONSE_WAIT_MS);
+        check = client.requestResponse(requests.deviceCheck());
+        log.info(
+            "[TL3800] abort {}: reset + device check resp={}{}",
+            job, check.responseCode, late == null ? "" : " (late " + late.jobCode + ")");
       } finally {
-        client.close();
+        if (!client.persistentSession()) {
+          client.close();
+        }
+      }
+    } catch (Exception e) {
+      log.warn("[TL3800] abort {}: reset/device check failed - {}", job, e.toString());
+    } finally {
+      abort.done().complete(new AbortResult(AbortState.TERMINAL, check, late));
+    }
+    return late;
+  }
+
+  private PendingAbort takeAbort() {
+    sideLock.lock();
+    try {
+      PendingAbort a = pendingAbort;
+      if (a == null || a.owner() != Thread.currentThread()) {
+        return null;
+      }
+      pendingAbort = null;
+      return a;
+    } finally {
+      sideLock.unlock();
+    }
+  }
+
+  /** 대기 프로세스이거나 회선 격리 중(장치체크 제외)이면 잠금을 기다리지 않고 바로 거절한다. */
+  private void checkAdmissible(JobCode job) {
+    if (standby) {
+      rejected.increment();
+      throw new TerminalBusyException(TerminalBusyException.STANDBY, job, 0, 0, 1);
+    }
+    LineQualityMonitor monitor = lineMonitor;
+    long quarantineMs = (monitor == null) ? 0 : monitor.quarantineRemainingMs();
+    if (quarantineMs > 0 && job != JobCode.A) {
+      rejected.increment();
+      long retryAfter = Math.min(Math.max((quarantineMs + 999) / 1000, 1L), 300L);
+      log.warn(
+          "[TL3800] admission rejected (line degraded) job={} retryAfter={}s", job, retryAfter);
+      throw new TerminalBusyException(
+          TerminalBusyException.LINE_DEGRADED, job, 0, waiting.get(), retryAfter);
+    }
+  }
+
+  /**
+   * 단말 잠금 획득. 대기열이 가득 찼거나 maxWaitMs 안에 못 받으면 단말에 보내지 않고 거절한다. 잠금 대기 중 abort(owner)가
+   * 인터럽트해도 단말에 보내지 않고 끝난다.
+   */
+  private void admit(JobCode job) throws InterruptedException {
+    Thread me = Thread.currentThread();
+    queued.add(me);
+    boolean acquired = false;
+    int position = waiting.incrementAndGet();
+    try {
+      if (maxQueue > 0 && position > maxQueue) {
+        throw reject("queue full", job, position);
       }
+      if (maxWaitMs <= 0) {
+        lock.lockInterruptibly();
+      } else if (!lock.tryLock(maxWaitMs, TimeUnit.MILLISECONDS)) {
+        throw reject("wait timeout", job, waiting.get());
+      }
+      acquired = true;
+      admitted.increment();
+    } finally {
+      waiting.decrementAndGet();
+      if (!acquired) {
+        queued.remove(me);
+      }
+    }
+  }
+
+  private TerminalBusyException reject(String reason, JobCode job, int position) {
+    rejected.increment();
+    int depth = Math.max(waiting.get() - 1, 0);
+    // 앞선 요청들이 평균 점유 시간만큼 쓴다고 보고 추정 (관측 전에는 요청당 1초)
+    long perCallMs = Math.max(avgHoldMs, 1_000L);
+    long retryAfter = Math.min(Math.max((perCallMs * position + 999) / 1000, 1L), 300L);
+    log.warn(
+        "[TL3800] admission rejected ({}) job={} position={} depth={} inFlight={} retryAfter={}s",
+        reason, job, position, depth, inFlight, retryAfter);
+    return new TerminalBusyException(reason, job, position, depth, retryAfter);
+  }
+
+  private void checkLine() {
+    LineQualityMonitor monitor = lineMonitor;
+    if (monitor == null) {
+      return;
+    }
+    try {
+      monitor.afterCall();
+    } catch (Exception e) {
+      log.warn("[TL3800] line check failed: {}", e.toString());
+    }
+  }
+
+  private void recordHold(long heldAtNanos) {
+    long ms = (System.nanoTime() - heldAtNanos) / 1_000_000L;
+    long prev = avgHoldMs;
+    avgHoldMs = (prev == 0) ? ms : (prev * 7 + ms) / 8; // 잠금 아래라 경쟁 없음
+  }
+
+  public AdmissionStatus admissionStatus() {
+    return new AdmissionStatus(
+        waiting.get(),
+        maxQueue,
+        maxWaitMs,
+        inFlight,
+        admitted.sum(),
+        rejected.sum(),
+        avgHoldMs);
+  }
+
+  /**
+   * 주 요청이 후속 프레임(카드 입력 등)을 기다리는 동안 허용표상 겹쳐도 되는 요청이면 주 잠금 없이 회선을 공유해 보낸다. 조건이
+   * 안 맞으면 null을 돌려 일반 경로로 보낸다. sideLock은 판단과 표시에만 쥐고 단말 왕복 전에 놓는다(그동안 중단/주 요청 종료가
+   * 막히지 않는다). 끼워 넣는 요청은 한 번에 하나다.
+   */
+  private TLPacket tryPipelined(JobCode job, Supplier<TLPacket> supplier) throws Exception {
+    if (compatibility.isEmpty() || !client.persistentSession()) {
+      return null;
+    }
+    JobCode current;
+    sideLock.lock();
+    try {
+      while (sideCalls > 0) {
+        sideIdle.await();
+      }
+      current = inFlight;
+      if (!compatibility.canOverlap(current, job) || !client.readyForPipelinedRequest()) {
+        return null;
+      }
+      sideCalls++;
+    } finally {
+      sideLock.unlock();
+    }
+
+    try {
+      log.info("[TL3800] pipelined {} while {} awaits follow-up", job, current);
+      return client.requestResponse(supplier.get());
+    } finally {
+      sideLock.lock();
+      try {
+        sideCalls--;
+        sideIdle.signalAll();
+      } finally {
+        sideLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * 잠금을 받은 호출을 진행 중으로 올린다. 앞 호출에 끼워 넣은 요청이 아직 회선에 있으면 끝날 때까지 기다린다. 잠금을 받는 것과
+   * abort(owner)의 대기열 취소가 엇갈려 인터럽트가 남아 있으면 단말에 보내지 않고 대기 취소로 끝낸다(인터럽트 표시는 여기서
+   * 지워진다).
+   */
+  private void beginInFlight(JobCode job) throws InterruptedException {
+    sideLock.lock();
+    try {
+      try {
+        while (sideCalls > 0) {
+          sideIdle.await(); // 대기열에 남아 있으므로 abort(owner)가 인터럽트로 끊을 수 있다
+        }
+      } finally {
+        queued.remove(Thread.currentThread());
+      }
+      if (Thread.interrupted()) {
+        throw new InterruptedException("aborted while queued");
+      }
+      markInFlight(job);
+    } finally {
+      sideLock.unlock();
+    }
+  }
+
+  private void markInFlight(JobCode job) {
+    sideLock.lock();
+    try {
+      inFlightSince = System.nanoTime();
+      inFlight = job;
+      inFlightOwner = (job == null) ? null : Thread.currentThread();
+    } finally {
+      sideLock.unlock();
+    }
+  }
+
+  private TLPacket callLocked(Supplier<TLPacket> supplier) throws Exception {
+    client.open();
+    if (client.persistentSession()) {
+      // 전이중 클라이언트: 세션 유지 (open은 이미 열려 있으면 무시)
+      return client.requestResponse(supplier.get());
+    }
+    try {
+      return client.requestResponse(supplier.get());
+    } finally {
+      client.close();
+    }
+  }
+
+  /**
+   * owner 스레드가 시작한 호출을 중단한다. 단말에서 진행 중이면 클라이언트 대기를 끊고, 잠금을 쥔 owner가 R(리셋)과 늦은 응답
+   * 확인, 장치체크까지 마치면 그 결과를 돌려준다(그 사이 다른 요청이 끼어들지 않는다). 아직 잠금 대기 중이면 인터럽트만 해서 단말에
+   * 보내지 않게 한다.
+   */
+  public AbortResult abort(Thread owner) throws Exception {
+    PendingAbort abort;
+    JobCode aborted;
+    sideLock.lock();
+    try {
+      if (inFlightOwner != owner) {
+        if (queued.contains(owner)) {
+          owner.interrupt();
+          log.info("[TL3800] abort: dequeued waiting call ({})", owner.getName());
+          return new AbortResult(AbortState.QUEUED, null, null);
+        }
+        return new AbortResult(AbortState.NONE, null, null);
+      }
+      aborted = inFlight;
+      abort = new PendingAbort(owner, new CompletableFuture<>());
+      pendingAbort = abort;
+      // owner가 inFlight를 내리기 전에 끊는다 (끝난 뒤 끊으면 다음 호출이 끊길 수 있음)
+      client.abort();
+    } finally {
+      sideLock.unlock();
+    }
+
+    try {
+      return abort.done().get(ABORT_WAIT_MS, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      throw new IllegalStateException("aborted call did not release terminal: " + aborted);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("abort failed: " + aborted, e.getCause());
+    }
+  }
+
+  /**
+   * 단말 리셋(R) 후 장치체크. 다른 프로세스가 진행하다 남긴 거래를 정리할 때 쓴다(standby 인수 직후). admission을 거치지 않는다.
+   *
+   * @return 장치체크 응답 (실패 시 null)
+   */
+  public TLPacket resetTerminal(String why) throws Exception {
+    lock.lockInterruptibly();
+    try {
+      return resetLocked(why);
     } finally {
       lock.unlock();
     }
   }
 
+  /** 잠금 보유 중. 포트를 못 열면 예외, 리셋/장치체크 실패는 null. */
+  private TLPacket resetLocked(String why) throws Exception {
+    markInFlight(JobCode.R);
+    try {
+      client.open();
+      try {
+        client.sendNoResponse(requests.reset());
+        TLPacket check = client.requestResponse(requests.deviceCheck());
+        log.info("[TL3800] {}: reset + device check resp={}", why, check.responseCode);
+        return check;
+      } catch (Exception e) {
+        log.warn("[TL3800] {}: reset/device check failed - {}", why, e.toString());
+        return null;
+      } finally {
+        if (!client.persistentSession()) {
+          client.close();
+        }
+      }
+    } finally {
+      markInFlight(null);
+    }
+  }
+
   /** 장치체크 (A/a) */
   public TLPacket deviceCheck() throws Exception {
-    return call(requests::deviceCheck);
+    return call(JobCode.A, requests::deviceCheck);
   }
 
   /** 거래승인 (B/b) */
   public TLPacket approve(String amount, String tax, String svc, String inst, boolean noSign)
       throws Exception {
-    return call(() -> requests.approve(amount, tax, svc, inst, noSign));
+    TLPacket resp = call(JobCode.B, () -> requests.approve(amount, tax, svc, inst, noSign));
+    publishTransaction(resp, null);
+    return resp;
   }
 
   /** 거래취소 (C/c) */
@@ -60,19 +510,31 @@ public class TL3800Gateway {
       String extra)
       throws Exception {
 
-    return call(
-        () ->
-            requests.cancel(
-                cancelType,
-                tranType,
-                amount,
-                tax,
-                svc,
-                inst,
-                noSign,
-                approvalNo,
-                orgDate,
-                orgTime,
-                extra));
+    TLPacket resp =
+        call(
+            JobCode.C,
+            () ->
+                requests.cancel(
+                    cancelType,
+                    tranType,
+                    amount,
+                    tax,
+                    svc,
+                    inst,
+                    noSign,
+                    approvalNo,
+                    orgDate,
+                    orgTime,
+                    extra));
+    publishTransaction(resp, approvalNo == null ? null : approvalNo.trim());
+    return resp;
+  }
+
+  private void publishTransaction(TLPacket resp, String orgApprovalNo) {
+    try {
+      transactionListener.onTransaction(resp, orgApprovalNo);
+    } catch (Exception e) {
+      log.warn("[TL3800] transaction listener failed: {}", e.toString());
+    }
   }
 }
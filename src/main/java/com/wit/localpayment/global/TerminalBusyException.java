@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global;
+
+import com.wit.localpayment.global.proto.JobCode;
+
+/**
+ * 단말 대기열이 가득 찼거나 최대 대기 시간 안에 단말을 받지 못해(또는 회선 품질 저하로 단말이 격리되어) 요청을 받지 않았다.
+ * 단말에는 아무것도 보내지 않았으므로 호출자는 retryAfterSeconds 뒤에 그대로 다시 보내면 된다.
+ */
+public class TerminalBusyException extends IllegalStateException {
+
+  /** 회선 품질 저하로 격리된 단말 */
+  public static final String LINE_DEGRADED = "line degraded";
+
+  /** 대기(standby) 프로세스라 단말을 쓰지 않는다 (활성 프로세스로 보낼 것) */
+  public static final String STANDBY = "standby";
+
+  private final String reason;
+  private final JobCode job;
+  private final int queuePosition;
+  private final int queueDepth;
+  private final long retryAfterSeconds;
+
+  public TerminalBusyException(
+      String reason, JobCode job, int queuePosition, int queueDepth, long retryAfterSeconds) {
+    super("terminal busy (" + reason + "): job=" + job + " position=" + queuePosition
+        + " depth=" + queueDepth);
+    this.reason = reason;
+    this.job = job;
+    this.queuePosition = queuePosition;
+    this.queueDepth = queueDepth;
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  /** queue full / wait timeout / {@link #LINE_DEGRADED} / {@link #STANDBY} */
+  public String reason() {
+    return reason;
+  }
+
+  public boolean lineDegraded() {
+    return LINE_DEGRADED.equals(reason);
+  }
+
+  public boolean standby() {
+    return STANDBY.equals(reason);
+  }
+
+  public JobCode job() {
+    return job;
+  }
+
+  /** 거절 시점에 이 요청이 섰을 대기열 위치 (1 = 다음 차례) */
+  public int queuePosition() {
+    return queuePosition;
+  }
+
+  /** 거절 시점의 대기열 길이 */
+  public int queueDepth() {
+    return queueDepth;
+  }
+
+  public long retryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import com.wit.localpayment.global.proto.JobCode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 단말 1대의 관측 지연으로 ACK/응답 대기 시간을 정하는 정책.
+ *
+ * <p>요청 잡코드별(장치체크 A, 승인 B …)로 "송신→ACK", "송신→첫 응답 헤더" 지연을 따로 기록하고, 표본이 충분하면
+ * 분위수 × 안전계수를 [floor, 설정값] 범위로 잘라 사용한다. 표본이 부족하거나 비활성화면 설정값(상한)을 그대로 쓴다.
+ *
+ * <p>승인/취소(B/C)의 첫 응답은 고객이 카드를 넣기까지 기다리므로 단말 지연이 아니라 사람의 속도를 따른다. 이 둘의 응답
+ * 대기는 관측값과 상관없이 항상 설정값이다 (ACK 대기는 단말 지연이므로 그대로 적응).
+ */
+public final class AdaptiveTimeouts {
+
+  private static final int HISTOGRAM_WINDOW = 512;
+
+  private final boolean enabled;
+  private final int ackCeilingMs;
+  private final int respCeilingMs;
+  private final double percentile;
+  private final double safetyFactor;
+  private final int minSamples;
+  private final int floorMs;
+
+  private final Map<JobCode, LatencyHistogram> ack = new ConcurrentHashMap<>();
+  private final Map<JobCode, LatencyHistogram> resp = new ConcurrentHashMap<>();
+
+  public AdaptiveTimeouts(
+      boolean enabled,
+      int ackCeilingMs,
+      int respCeilingMs,
+      double percentile,
+      double safetyFactor,
+      int minSamples,
+      int floorMs) {
+    this.enabled = enabled;
+    this.ackCeilingMs = ackCeilingMs;
+    this.respCeilingMs = respCeilingMs;
+    this.percentile = percentile;
+    this.safetyFactor = safetyFactor;
+    this.minSamples = minSamples;
+    this.floorMs = floorMs;
+  }
+
+  /** 항상 설정값을 그대로 쓰는 고정 정책 */
+  public static AdaptiveTimeouts fixed(int ackWaitMs, int respWaitMs) {
+    return new AdaptiveTimeouts(false, ackWaitMs, respWaitMs, 1.0, 1.0, Integer.MAX_VALUE, 0);
+  }
+
+  public int ackWaitMs(JobCode reqJob) {
+    return adapt(ack.get(reqJob), ackCeilingMs);
+  }
+
+  public int respWaitMs(JobCode reqJob) {
+    if (waitsForCustomer(reqJob)) {
+      return respCeilingMs;
+    }
+    return adapt(resp.get(reqJob), respCeilingMs);
+  }
+
+  public void recordAck(JobCode reqJob, long ms) {
+    histogram(ack, reqJob).record(ms);
+  }
+
+  public void recordResponse(JobCode reqJob, long ms) {
+    histogram(resp, reqJob).record(ms);
+  }
+
+  /** 로그/모니터링용 요약: 잡코드별 ACK/응답 분위수 */
+  public String describe(JobCode reqJob) {
+    LatencyHistogram a = ack.get(reqJob);
+    LatencyHistogram r = resp.get(reqJob);
+    return String.format(
+        "job=%s ack(n=%d,p=%dms,wait=%dms) resp(n=%d,p=%dms,wait=%dms)",
+        reqJob,
+        a == null ? 0 : a.count(),
+        a == null ? -1 : a.percentile(percentile),
+        ackWaitMs(reqJob),
+        r == null ? 0 : r.count(),
+        r == null ? -1 : r.percentile(percentile),
+        respWaitMs(reqJob));
+  }
+
+  private int adapt(LatencyHistogram h, int ceilingMs) {
+    if (!enabled || h == null || h.count() < minSamples) {
+      return ceilingMs;
+    }
+    long p = h.percentile(percentile);
+    long candidate = (long) Math.ceil(p * safetyFactor);
+    return (int) Math.max(floorMs, Math.min(candidate, ceilingMs));
+  }
+
+  /** 첫 응답이 고객 카드 입력을 기다리는 요청 (승인 B, 취소 C) */
+  private static boolean waitsForCustomer(JobCode reqJob) {
+    return reqJob == JobCode.B || reqJob == JobCode.C;
+  }
+
+  private static LatencyHistogram histogram(Map<JobCode, LatencyHistogram> m, JobCode job) {
+    return m.computeIfAbsent(job, k -> new LatencyHistogram(HISTOGRAM_WINDOW));
+  }
+}
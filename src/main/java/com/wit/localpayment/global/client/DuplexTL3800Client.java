@@ -0,0 +1,554 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import static com.wit.localpayment.global.proto.Proto.ACK;
+import static com.wit.localpayment.global.proto.Proto.HEADER_BYTES;
+import static com.wit.localpayment.global.proto.Proto.NACK;
+import static com.wit.localpayment.global.proto.Proto.STX;
+
+import com.wit.localpayment.global.client.LineQuality.Signal;
+import com.wit.localpayment.global.proto.Bcc;
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.TLPacket;
+import com.wit.localpayment.global.transport.TLTransport;
+import com.wit.localpayment.global.util.Hex;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 전이중 TL3800 클라이언트.
+ *
+ * <p>세션 동안 단말 전용 수신 스레드가 회선을 계속 디코딩하며, 프레임을 받는 즉시 ACK/NAK를 보낸다. 수신 프레임은 대기 중인
+ * 요청의 기대 잡코드({@link JobCode#sameJob})와 맞으면 그 요청의 future로, EVENT는 이벤트 리스너로, 나머지(거래 사이에 들어온
+ * 프레임)는 orphan 리스너로 보낸다.
+ *
+ * <p>응답은 잡코드만으로는 어느 교환의 것인지 알 수 없다(늦게 온/중복된 b가 다음 고객의 승인으로 돌아갈 수 있음). 그래서 요청마다
+ * {@link ExchangeTag}(교환 순번 + 잡코드/단말 ID/금액)를 붙이고, 자기 ACK를 받은 뒤에 들어왔고 태그와 맞는 프레임만 응답으로
+ * 받는다. ACK 전에 온 프레임이나 태그가 맞지 않는 프레임은 이전 교환의 잔여로 보고 orphan으로 넘긴다. 세션을 연 뒤 첫 송신만
+ * 회선이 {@link #FENCE_QUIET_MS} 동안 조용해질 때까지 기다린다(이전 세션이 남긴 프레임을 흘려보냄).
+ *
+ * <p>응답 잡코드가 서로 다르면 요청을 동시에 여러 건 걸어 둘 수 있다(파이프라인). 수신 스레드는 프레임을 받는 동안 송신 잠금을
+ * 잡으므로 끼워 넣는 요청은 항상 프레임 사이에만 나간다. 어떤 조합을 허용할지는 게이트웨이의 JobCompatibility가 정한다.
+ */
+@Slf4j
+public class DuplexTL3800Client implements TerminalClient {
+
+  private final TLTransport t;
+  private final TLFrameReader frames;
+  private final int ackWaitMs;
+  private final int respWaitMs;
+  private final int maxAckRetry;
+  private final int followUpWindowMs;
+  private final AdaptiveTimeouts timeouts;
+  private final LineQuality quality;
+  private final String name;
+
+  // 세션을 연 뒤 첫 송신 전 회선이 이만큼 조용해야 보낸다 (블로킹 클라이언트의 송신 전 드레인과 같은 길이)
+  static final int FENCE_QUIET_MS = 120;
+
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile TLEventListener eventListener = e -> {};
+  private volatile TLEventListener orphanListener =
+      p -> log.info("[TL3800] << orphan frame job={} dataLen={}", p.jobCode, p.data.length);
+
+  // 기대 응답 잡코드 → 대기 중 요청
+  private final Map<JobCode, Pending> pendings = new ConcurrentHashMap<>();
+  // 마지막으로 송신해 ACK/NAK를 기다리는 요청 (ACK/NAK는 위치로만 대응됨)
+  private volatile Pending awaitingAck;
+  private volatile boolean running;
+  private volatile long lastRxNanos; // 수신 스레드가 마지막으로 바이트를 받은 시각
+  private volatile boolean fenced; // 이번 세션에서 첫 송신 전 대기를 마쳤다
+  private final AtomicLong exchangeSeq = new AtomicLong();
+  private Thread reader;
+
+  /** 진행 중인 요청 1건의 상관관계 상태 */
+  private static final class Pending {
+
+    final JobCode reqJob;
+    final JobCode expected;
+    final ExchangeTag tag;
+    final boolean primary; // 다른 요청이 없을 때 시작 → EVENT는 이 요청의 진행으로 본다
+    // 이 교환의 ACK를 받았다 (수신 스레드가 ACK 바이트를 처리하며 세움). 이전 프레임은 이 요청의 응답이 아니다.
+    volatile boolean acked;
+    volatile CompletableFuture<Integer> ack = new CompletableFuture<>();
+    final CompletableFuture<Void> firstFrame = new CompletableFuture<>();
+    final CompletableFuture<TLPacket> response = new CompletableFuture<>();
+
+    Pending(ExchangeTag tag, boolean primary) {
+      this.reqJob = tag.reqJob();
+      this.expected = tag.expected();
+      this.tag = tag;
+      this.primary = primary;
+    }
+  }
+
+  public DuplexTL3800Client(
+      TLTransport transport,
+      String name,
+      int ackWaitMs,
+      int respWaitMs,
+      int maxAckRetry,
+      int followUpWindowMs,
+      AdaptiveTimeouts timeouts) {
+    this(
+        transport, name, ackWaitMs, respWaitMs, maxAckRetry, followUpWindowMs, timeouts,
+        new LineQuality());
+  }
+
+  /** @param quality 회선 품질 계수기 (수신 루프/송신 경로가 함께 기록) */
+  public DuplexTL3800Client(
+      TLTransport transport,
+      String name,
+      int ackWaitMs,
+      int respWaitMs,
+      int maxAckRetry,
+      int followUpWindowMs,
+      AdaptiveTimeouts timeouts,
+      LineQuality quality) {
+    this.t = transport;
+    this.quality = quality;
+    this.frames = new TLFrameReader(transport, quality);
+    this.name = name;
+    this.ackWaitMs = ackWaitMs;
+    this.respWaitMs = respWaitMs;
+    this.maxAckRetry = maxAckRetry;
+    this.followUpWindowMs = followUpWindowMs;
+    this.timeouts = timeouts;
+  }
+
+  /** 이미 열려 있으면 아무것도 하지 않는다. 이전 수신 스레드가 아직 살아 있으면 끝날 때까지 기다린다. */
+  @Override
+  public synchronized void open() throws Exception {
+    if (running) {
+      return;
+    }
+    if (!awaitReaderExit()) {
+      throw new IllegalStateException("previous reader still running: " + reader.getName());
+    }
+    t.open();
+    lastRxNanos = System.nanoTime();
+    fenced = false;
+    running = true;
+    reader = new Thread(this::readLoop, "tl-reader-" + name);
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  @Override
+  public synchronized void close() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    // 수신 스레드는 readFully 안에서 최대 respWaitMs 막혀 있을 수 있다. 인터럽트 + 포트 닫기로 깨운다.
+    reader.interrupt();
+    try {
+      t.close();
+    } catch (Exception ignore) {
+    }
+    if (!awaitReaderExit()) {
+      log.error("[TL3800] reader {} did not exit; reopen will wait for it", reader.getName());
+    }
+    for (Pending p : pendings.values()) {
+      p.response.completeExceptionally(new IllegalStateException("session closed"));
+    }
+  }
+
+  /** 이전 수신 스레드가 끝날 때까지 (최대 respWaitMs + 1초). 끝났거나 없으면 true. */
+  private boolean awaitReaderExit() {
+    Thread r = reader;
+    if (r == null) {
+      return true;
+    }
+    try {
+      r.join(respWaitMs + 1_000L);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return !r.isAlive();
+  }
+
+  @Override
+  public boolean persistentSession() {
+    return true;
+  }
+
+  /** 진행 중 요청이 모두 ACK/첫 프레임을 받고 후속 프레임만 기다리는 상태인가 */
+  @Override
+  public boolean readyForPipelinedRequest() {
+    if (pendings.isEmpty() || awaitingAck != null) {
+      return false;
+    }
+    for (Pending p : pendings.values()) {
+      if (!p.firstFrame.isDone()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void setEventListener(TLEventListener listener) {
+    this.eventListener = (listener == null) ? e -> {} : listener;
+  }
+
+  /** 거래 사이/기대와 다른 잡코드로 들어온 프레임 수신자 */
+  public void setOrphanListener(TLEventListener listener) {
+    if (listener != null) {
+      this.orphanListener = listener;
+    }
+  }
+
+  /** 주 요청(결제 등)의 대기를 모두 끊는다. 끼워 보낸 요청은 그대로 둔다. */
+  @Override
+  public void abort() {
+    CancellationException cause = new CancellationException("aborted by host");
+    for (Pending p : pendings.values()) {
+      if (p.primary) {
+        log.warn("[TL3800] abort pending {} (expect={})", p.reqJob, p.expected);
+        p.ack.completeExceptionally(cause);
+        p.firstFrame.completeExceptionally(cause);
+        p.response.completeExceptionally(cause);
+      }
+    }
+  }
+
+  @Override
+  public void sendNoResponse(TLPacket req) throws Exception {
+    if (!running) {
+      throw new IllegalStateException("session not open");
+    }
+    final byte[] frame = req.toBytes();
+    log.info("[TL3800] >> SEND job={} len={} HEX={}", req.jobCode, frame.length, Hex.lazy(frame));
+
+    // 응답 프레임이 없으므로 pendings에는 넣지 않고 ACK 위치만 점유
+    Pending p = new Pending(ExchangeTag.of(exchangeSeq.incrementAndGet(), req), false);
+    try {
+      int tries = 0;
+      while (true) {
+        p.ack = new CompletableFuture<>();
+        fenceFirstSend();
+        awaitingAck = p;
+        send(frame);
+        Integer first = await(p.ack, timeouts.ackWaitMs(req.jobCode));
+        if (first != null && first == (ACK & 0xFF)) {
+          return;
+        }
+        quality.record(first == null ? Signal.ACK_TIMEOUT : Signal.NAK_RECEIVED);
+        if (first != null && ++tries <= maxAckRetry) {
+          log.warn("[TL3800] << NAK → retry {}/{}", tries, maxAckRetry);
+          continue;
+        }
+        throw new IllegalStateException(first == null ? "ACK timeout" : "NAK received");
+      }
+    } finally {
+      if (awaitingAck == p) {
+        awaitingAck = null;
+      }
+    }
+  }
+
+  @Override
+  public TLPacket requestResponse(TLPacket req) throws Exception {
+    if (!running) {
+      throw new IllegalStateException("session not open");
+    }
+    final byte[] frame = req.toBytes();
+    log.info("[TL3800] >> SEND job={} len={} HEX={}", req.jobCode, frame.length, Hex.lazy(frame));
+
+    final int ackWait = timeouts.ackWaitMs(req.jobCode);
+    final int firstRespWait = timeouts.respWaitMs(req.jobCode);
+
+    Pending p =
+        new Pending(ExchangeTag.of(exchangeSeq.incrementAndGet(), req), pendings.isEmpty());
+    if (pendings.putIfAbsent(p.expected, p) != null) {
+      throw new IllegalStateException("request already in flight for " + p.expected);
+    }
+    try {
+      int tries = 0;
+      while (true) {
+        p.ack = new CompletableFuture<>();
+        fenceFirstSend();
+        awaitingAck = p;
+        send(frame);
+        final long sentAt = System.nanoTime();
+
+        Integer first = await(p.ack, ackWait);
+        if (first == null) {
+          // 늦은 ACK/NAK. ACK 없이 온 프레임은 이 교환의 것으로 확인할 수 없어 받지 않는다(orphan).
+          log.debug("[TL3800] no-ACK within {} ms → waiting late ACK up to {} ms", ackWait,
+              firstRespWait);
+          first = await(p.ack, firstRespWait);
+          if (first == null) {
+            quality.record(Signal.ACK_TIMEOUT);
+            throw new IllegalStateException("ACK timeout");
+          }
+        }
+        if (first == (NACK & 0xFF)) {
+          quality.record(Signal.NAK_RECEIVED);
+          if (++tries <= maxAckRetry) {
+            log.warn("[TL3800] << NAK → retry {}/{}", tries, maxAckRetry);
+            continue;
+          }
+          throw new IllegalStateException("NAK received (exceeded retry)");
+        }
+        timeouts.recordAck(req.jobCode, elapsedMs(sentAt));
+        awaitingAck = null;
+
+        if (await(p.firstFrame, respWaitMs) == null && !p.firstFrame.isDone()) {
+          throw new IllegalStateException("Follow-up frame timeout");
+        }
+        timeouts.recordResponse(req.jobCode, elapsedMs(sentAt));
+
+        TLPacket resp = await(p.response, followUpWindowMs);
+        if (resp == null) {
+          throw new IllegalStateException(
+              "Follow-up window exceeded (" + followUpWindowMs + " ms) without final "
+                  + p.expected);
+        }
+        return resp;
+      }
+    } finally {
+      pendings.remove(p.expected, p);
+      if (awaitingAck == p) {
+        awaitingAck = null;
+      }
+    }
+  }
+
+  /** 중단된 교환은 ACK까지 받은 것이므로, 이후 온 기대 응답은 잡코드만 맞으면 그 교환의 것으로 받는다. */
+  @Override
+  public TLPacket awaitLateResponse(JobCode request, int waitMs) throws Exception {
+    if (!running) {
+      return null;
+    }
+    Pending p = new Pending(ExchangeTag.jobOnly(exchangeSeq.incrementAndGet(), request), false);
+    p.acked = true;
+    if (pendings.putIfAbsent(p.expected, p) != null) {
+      return null;
+    }
+    try {
+      TLPacket resp = await(p.response, waitMs);
+      if (resp != null) {
+        log.warn("[TL3800] << late {} after abort", resp.jobCode);
+      }
+      return resp;
+    } finally {
+      pendings.remove(p.expected, p);
+    }
+  }
+
+  /* ================= 수신 루프 ================= */
+
+  private void readLoop() {
+    while (running) {
+      try {
+        int b = t.readByte(50);
+        if (b < 0) {
+          continue;
+        }
+        lastRxNanos = System.nanoTime();
+        if (b == (ACK & 0xFF) || b == (NACK & 0xFF)) {
+          Pending p = awaitingAck;
+          if (p != null) {
+            // 이후 프레임이 이 요청의 응답이 될 수 있도록 완료 전에 세운다 (같은 수신 스레드 순서)
+            p.acked |= (b == (ACK & 0xFF));
+            p.ack.complete(b);
+          } else {
+            log.debug("[TL3800] << stray {}", b == (ACK & 0xFF) ? "ACK" : "NAK");
+          }
+          continue;
+        }
+        if (b != (STX & 0xFF)) {
+          log.debug("[TL3800] << skip 0x{}", String.format("%02X", b));
+          quality.skipped(1);
+          continue;
+        }
+        // 프레임 수신 중에는 끼워 넣는 요청이 송신되지 않도록 송신 잠금 보유
+        writeLock.lock();
+        try {
+          readFrame();
+        } finally {
+          lastRxNanos = System.nanoTime();
+          writeLock.unlock();
+        }
+      } catch (Exception e) {
+        if (running) {
+          log.warn("[TL3800] reader error: {}", e.toString());
+        }
+      }
+    }
+  }
+
+  private void readFrame() throws Exception {
+    byte[] header = frames.headerAfterStx(respWaitMs);
+    if (header == null || !TLFrameReader.isSaneHeader(header)) {
+      log.warn("[TL3800] header build failed → resync");
+      return;
+    }
+
+    JobCode job = TLFrameReader.jobFromHeader(header);
+    int tailLen = TLFrameReader.dataLenFromHeader(header) + 2; // 데이터 + ETX + BCC
+    byte[] tail = new byte[tailLen];
+    int m = t.readFully(tail, tailLen, respWaitMs);
+
+    if (job == JobCode.EVENT) {
+      // EVENT 는 ACK/NACK 금지
+      log.info("[TL3800] << RECV(EVENT) dataLen={} readTail={}", tailLen - 2, m);
+      markFirstFrameOfPrimaries();
+      if (m == tailLen) {
+        quality.record(Signal.FRAME_OK);
+        dispatch(eventListener, TLPacket.parseLenient(TLFrameReader.join(header, tail)));
+      }
+      return;
+    }
+
+    if (m != tailLen) {
+      sendControl(NACK);
+      log.warn("[TL3800] >> NAK (body short: got={} need={})", m, tailLen);
+      quality.record(Signal.NAK_SENT);
+      return;
+    }
+
+    byte bcc = new Bcc().update(header, 0, HEADER_BYTES).update(tail, 0, tailLen - 1).value();
+    byte[] resp = TLFrameReader.join(header, tail);
+    log.info("[TL3800] << RECV len={} HEX={}", resp.length, Hex.lazy(resp));
+
+    TLPacket pkt;
+    try {
+      pkt = TLPacket.parseStrict(resp, bcc & 0xFF);
+      quality.record(Signal.FRAME_OK);
+    } catch (IllegalArgumentException ex) {
+      log.warn("[TL3800] strict parse failed: {} → trying lenient parse", ex.getMessage());
+      try {
+        pkt = TLPacket.parseLenient(resp);
+      } catch (IllegalArgumentException lenient) {
+        quality.record(Signal.PARSE_FAILED);
+        throw lenient;
+      }
+      quality.record(Signal.LENIENT_PARSE);
+    }
+    sendControl(ACK);
+    log.debug("[TL3800] >> ACK");
+
+    Pending p = match(pkt);
+    if (p != null) {
+      p.firstFrame.complete(null);
+      p.response.complete(pkt);
+      return;
+    }
+    if (!pendings.isEmpty()) {
+      for (Pending c : pendings.values()) {
+        String why = c.acked ? c.tag.mismatch(pkt) : "before ACK";
+        log.warn("[TL3800] job={} is not the response of {} ({}) → orphan", pkt.jobCode, c.tag,
+            why);
+      }
+      markFirstFrameOfPrimaries();
+    }
+    dispatch(orphanListener, pkt);
+  }
+
+  /**
+   * ACK를 받은 교환 중 태그(잡코드/단말 ID/금액)가 맞는 요청. ACK 전 프레임은 이전 교환의 잔여일 수 있어 대응하지 않는다.
+   */
+  private Pending match(TLPacket pkt) {
+    Pending p = pendings.get(pkt.jobCode);
+    if (p != null && p.acked && p.tag.mismatch(pkt) == null) {
+      return p;
+    }
+    for (Pending c : pendings.values()) {
+      if (c.acked && c.tag.mismatch(pkt) == null) {
+        return c;
+      }
+    }
+    return null;
+  }
+
+  private void markFirstFrameOfPrimaries() {
+    for (Pending c : pendings.values()) {
+      if (c.primary && c.acked) {
+        c.firstFrame.complete(null);
+      }
+    }
+  }
+
+  /* ================= 내부 유틸 ================= */
+
+  /**
+   * 세션을 연 뒤 첫 송신만 회선이 {@link #FENCE_QUIET_MS} 동안 조용할 때까지 대기 (최대 respWaitMs). 그 사이 수신 스레드가 받은
+   * 프레임은 대기 중 요청이 없거나 ACK 전이므로 orphan으로 빠진다. 끝내 조용해지지 않으면(EVENT가 계속 오는 등) 그대로 보낸다.
+   * 응답 대응은 태그가 맡는다.
+   */
+  private void fenceFirstSend() throws InterruptedException {
+    if (fenced) {
+      return;
+    }
+    long quietNanos = TimeUnit.MILLISECONDS.toNanos(FENCE_QUIET_MS);
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(respWaitMs);
+    while (true) {
+      long now = System.nanoTime();
+      long idle = now - lastRxNanos;
+      if (idle >= quietNanos && !writeLock.isLocked()) {
+        break;
+      }
+      if (now - deadline >= 0) {
+        log.warn("[TL3800] line not quiet within {} ms after open → sending anyway", respWaitMs);
+        break;
+      }
+      TimeUnit.NANOSECONDS.sleep(Math.max(quietNanos - idle, TimeUnit.MILLISECONDS.toNanos(5)));
+    }
+    fenced = true;
+  }
+
+  private void send(byte[] frame) throws Exception {
+    writeLock.lock();
+    try {
+      t.write(frame);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void sendControl(byte b) {
+    try {
+      send(new byte[] {b});
+    } catch (Exception e) {
+      log.warn("[TL3800] control write failed: {}", e.toString());
+    }
+  }
+
+  private void dispatch(TLEventListener l, TLPacket p) {
+    try {
+      l.onEvent(p);
+    } catch (Exception e) {
+      log.debug("[TL3800] listener failed: {}", e.toString());
+    }
+  }
+
+  /** 타임아웃이면 null */
+  private static <T> T await(CompletableFuture<T> f, int waitMs) throws Exception {
+    try {
+      return f.get(waitMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      return null;
+    } catch (ExecutionException e) {
+      Throwable c = e.getCause();
+      throw (c instanceof Exception ex) ? ex : e;
+    }
+  }
+
+  private static long elapsedMs(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1_000_000L;
+  }
+
+}
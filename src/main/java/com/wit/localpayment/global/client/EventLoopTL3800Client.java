@@ -0,0 +1,713 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import static com.wit.localpayment.global.proto.Proto.ACK;
+import static com.wit.localpayment.global.proto.Proto.HEADER_BYTES;
+import static com.wit.localpayment.global.proto.Proto.NACK;
+import static com.wit.localpayment.global.proto.Proto.STX;
+
+import com.wit.localpayment.global.client.LineQuality.Signal;
+import com.wit.localpayment.global.proto.Bcc;
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.TLPacket;
+import com.wit.localpayment.global.transport.TLTransport;
+import com.wit.localpayment.global.util.Hex;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 이벤트 루프 TL3800 클라이언트.
+ *
+ * <p>블로킹 클라이언트의 재귀 호출 흐름(ACK 대기 → 헤더 → 꼬리 → 후속/재전송 대기)을 명시적 상태 머신으로 풀어, 전송 계층의
+ * readiness 통지와 {@link TimerWheel} 데드라인으로만 전이한다. 단말마다 스레드를 두지 않으므로 공용 {@link
+ * TerminalEventLoop} 하나가 수십 대를 맡을 수 있고, 단말당 상태는 헤더 버퍼와 진행 중 요청 1건뿐이다.
+ *
+ * <p>전송 계층 쓰기(요청 프레임, ACK/NAK)는 시리얼 회선에서 수 ms씩 막힐 수 있으므로 루프 스레드에서 하지 않고 단말별 쓰기
+ * 스레드(가상 스레드 1개)에 순서대로 넘긴다. 루프는 쓰기를 맡긴 시점부터 ACK 데드라인을 잰다.
+ *
+ * <p>타임아웃/재시도/EVENT 처리 의미는 블로킹 클라이언트와 같다. 호출자는 {@link #submit}의 future를 쓰거나, 기존 계약대로
+ * {@link #requestResponse}에서 결과를 기다린다.
+ */
+@Slf4j
+public class EventLoopTL3800Client implements TerminalClient {
+
+  /** 프로토콜 상태. FOLLOW_UP/RESEND는 다음 프레임의 STX를 기다리는 상태다. */
+  enum State {
+    IDLE,
+    AWAIT_ACK,
+    AWAIT_HEADER,
+    AWAIT_TAIL,
+    FOLLOW_UP,
+    RESEND
+  }
+
+  private final TLTransport t;
+  private final TerminalEventLoop loop;
+  private final String name;
+  private final int respWaitMs;
+  private final int maxAckRetry;
+  private final int followUpWindowMs;
+  private final AdaptiveTimeouts timeouts;
+  private final LineQuality quality;
+
+  private volatile TLEventListener eventListener = e -> {};
+  private volatile boolean open;
+  // 단말별 쓰기 순서 보장 (open마다 새로)
+  private volatile ExecutorService writer;
+  private volatile Exchange inFlight;
+  private final AtomicBoolean readScheduled = new AtomicBoolean();
+
+  // ---- 아래는 루프 스레드 전용 ----
+  private final byte[] rxBuf = new byte[512];
+  private final byte[] header = new byte[HEADER_BYTES];
+  private int headerLen;
+  private byte[] tail;
+  private int tailLen;
+  // 헤더 확정 때부터 꼬리 조각이 도착할 때마다 누적 (BCC 바이트 제외)
+  private final Bcc frameBcc = new Bcc();
+  private State state = State.IDLE;
+  private Exchange cur;
+  private TimerWheel.Timeout timer;
+
+  /** 요청 1건의 진행 상태 */
+  private static final class Exchange {
+
+    final JobCode job;
+    final byte[] frame; // null이면 보내지 않고 응답만 기다리는 교환 (중단 뒤 늦은 응답 확인)
+    final JobCode expected;
+    final boolean expectResponse;
+    final CompletableFuture<TLPacket> result = new CompletableFuture<>();
+
+    int tries;
+    long sentAt;
+    boolean lateAck; // ACK 대기 초과 후 늦은 ACK/STX 대기 중
+    boolean firstFrameSeen;
+    State waitState; // 프레임을 다 받은 뒤 돌아갈 대기 상태 (null이면 첫 프레임)
+    long waitDeadline; // FOLLOW_UP/RESEND 전체 데드라인 (nanoTime)
+
+    Exchange(TLPacket req, boolean expectResponse) {
+      this.job = req.jobCode;
+      this.frame = req.toBytes();
+      this.expected = job.responseJob();
+      this.expectResponse = expectResponse;
+    }
+
+    Exchange(JobCode job) {
+      this.job = job;
+      this.frame = null;
+      this.expected = job.responseJob();
+      this.expectResponse = true;
+    }
+  }
+
+  public EventLoopTL3800Client(
+      TLTransport transport,
+      TerminalEventLoop loop,
+      String name,
+      int respWaitMs,
+      int maxAckRetry,
+      int followUpWindowMs,
+      AdaptiveTimeouts timeouts) {
+    this(
+        transport, loop, name, respWaitMs, maxAckRetry, followUpWindowMs, timeouts,
+        new LineQuality());
+  }
+
+  /** @param quality 회선 품질 계수기 (루프 스레드가 기록) */
+  public EventLoopTL3800Client(
+      TLTransport transport,
+      TerminalEventLoop loop,
+      String name,
+      int respWaitMs,
+      int maxAckRetry,
+      int followUpWindowMs,
+      AdaptiveTimeouts timeouts,
+      LineQuality quality) {
+    this.t = transport;
+    this.quality = quality;
+    this.loop = loop;
+    this.name = name;
+    this.respWaitMs = respWaitMs;
+    this.maxAckRetry = maxAckRetry;
+    this.followUpWindowMs = followUpWindowMs;
+    this.timeouts = timeouts;
+  }
+
+  /** 이미 열려 있으면 아무것도 하지 않는다. */
+  @Override
+  public synchronized void open() throws Exception {
+    if (open) {
+      return;
+    }
+    t.open();
+    writer =
+        Executors.newSingleThreadExecutor(Thread.ofVirtual().name("tl-write-" + name).factory());
+    t.setReadableListener(this::onReadable);
+    open = true;
+    log.info("[TL3800] event-loop session open terminal={}", name);
+  }
+
+  @Override
+  public synchronized void close() {
+    if (!open) {
+      return;
+    }
+    open = false;
+    try {
+      t.setReadableListener(null);
+    } catch (Exception ignore) {
+    }
+    Exchange ex = inFlight;
+    if (ex != null) {
+      ex.result.completeExceptionally(new IllegalStateException("session closed"));
+    }
+    loop.execute(this::reset);
+    try {
+      t.close();
+    } catch (Exception ignore) {
+    }
+    writer.shutdownNow();
+  }
+
+  @Override
+  public boolean persistentSession() {
+    return true;
+  }
+
+  @Override
+  public void setEventListener(TLEventListener listener) {
+    this.eventListener = (listener == null) ? e -> {} : listener;
+  }
+
+  @Override
+  public void abort() {
+    Exchange ex = inFlight;
+    if (ex != null) {
+      log.warn("[TL3800] abort requested job={} terminal={}", ex.job, name);
+      cancel(ex, new CancellationException("aborted by host"));
+    }
+  }
+
+  @Override
+  public TLPacket requestResponse(TLPacket req) throws Exception {
+    return await(enqueue(req, true));
+  }
+
+  @Override
+  public void sendNoResponse(TLPacket req) throws Exception {
+    await(enqueue(req, false));
+  }
+
+  @Override
+  public TLPacket awaitLateResponse(JobCode request, int waitMs) throws Exception {
+    if (!open) {
+      return null;
+    }
+    Exchange ex = new Exchange(request);
+    loop.execute(() -> listen(ex, waitMs));
+    TLPacket resp = await(ex);
+    if (resp != null) {
+      log.warn("[TL3800] << late {} after abort terminal={}", resp.jobCode, name);
+    }
+    return resp;
+  }
+
+  /**
+   * 요청을 루프에 넘기고 바로 돌아온다. future는 기대 응답(응답 없는 요청이면 ACK 시 null)으로 완료되고, 타임아웃/NAK 초과는
+   * IllegalStateException, 중단은 CancellationException으로 끝난다.
+   */
+  public CompletableFuture<TLPacket> submit(TLPacket req, boolean expectResponse) {
+    return enqueue(req, expectResponse).result;
+  }
+
+  private Exchange enqueue(TLPacket req, boolean expectResponse) {
+    if (!open) {
+      throw new IllegalStateException("session not open");
+    }
+    Exchange ex = new Exchange(req, expectResponse);
+    loop.execute(() -> start(ex));
+    return ex;
+  }
+
+  /** 호출자 쪽에서 먼저 끝내고, 루프에서 아직 진행 중이면 상태를 비운다. */
+  private void cancel(Exchange ex, Exception cause) {
+    ex.result.completeExceptionally(cause);
+    loop.execute(
+        () -> {
+          if (cur == ex) {
+            reset();
+          }
+        });
+  }
+
+  /* ================= 상태 머신 (루프 스레드) ================= */
+
+  private void start(Exchange ex) {
+    if (cur != null && !cur.result.isDone()) {
+      ex.result.completeExceptionally(
+          new IllegalStateException("request already in flight for " + cur.expected));
+      return;
+    }
+    reset();
+    if (ex.result.isDone()) {
+      return; // 큐에 있는 동안 중단됨
+    }
+    discardStale();
+    cur = ex;
+    inFlight = ex;
+    log.info(
+        "[TL3800] >> SEND job={} len={} HEX={}", ex.job, ex.frame.length,
+        Hex.lazy(ex.frame));
+    log.debug("[TL3800] timeouts {}", timeouts.describe(ex.job));
+    sendRequest();
+  }
+
+  /** 보내지 않고 기대 응답만 waitMs 동안 기다린다. 남은 바이트는 버리지 않는다(늦은 응답일 수 있음). */
+  private void listen(Exchange ex, int waitMs) {
+    if (cur != null && !cur.result.isDone()) {
+      ex.result.completeExceptionally(
+          new IllegalStateException("request already in flight for " + cur.expected));
+      return;
+    }
+    reset();
+    if (ex.result.isDone()) {
+      return;
+    }
+    cur = ex;
+    inFlight = ex;
+    ex.firstFrameSeen = true; // 관측 지연에 넣지 않음
+    enterWait(State.FOLLOW_UP, waitMs);
+    drain(); // 이미 도착해 있던 바이트
+  }
+
+  private void sendRequest() {
+    Exchange ex = cur;
+    write(ex, ex.frame);
+    ex.sentAt = System.nanoTime();
+    ex.lateAck = false;
+    state = State.AWAIT_ACK;
+    arm(timeouts.ackWaitMs(ex.job));
+  }
+
+  /** 전송 계층 통지 (임의 스레드). 여러 번 와도 읽기 작업은 한 번만 건다. */
+  private void onReadable() {
+    if (readScheduled.compareAndSet(false, true)) {
+      loop.execute(this::drain);
+    }
+  }
+
+  private void drain() {
+    readScheduled.set(false);
+    try {
+      while (true) {
+        int n = t.readAvailable(rxBuf, 0, rxBuf.length);
+        if (n < 0) {
+          fail(new IllegalStateException("read error (connection closed)"));
+          return;
+        }
+        if (n == 0) {
+          return;
+        }
+        feed(rxBuf, 0, n);
+      }
+    } catch (Exception e) {
+      fail(new IllegalStateException("read failed: " + e.getMessage(), e));
+    }
+  }
+
+  private void feed(byte[] b, int off, int len) {
+    int i = off;
+    int end = off + len;
+    while (i < end) {
+      if (state == State.AWAIT_TAIL) {
+        int n = Math.min(end - i, tail.length - tailLen);
+        System.arraycopy(b, i, tail, tailLen, n);
+        frameBcc.update(b, i, Math.min(n, tail.length - 1 - tailLen));
+        tailLen += n;
+        i += n;
+        if (tailLen == tail.length) {
+          onFrame();
+        }
+        continue;
+      }
+      onByte(b[i++] & 0xFF);
+    }
+  }
+
+  private void onByte(int b) {
+    switch (state) {
+      case IDLE -> {
+        log.debug("[TL3800] << stray 0x{} (idle)", String.format("%02X", b));
+        quality.skipped(1);
+      }
+      case AWAIT_ACK -> onAckByte(b);
+      case AWAIT_HEADER -> onHeaderByte(b);
+      case FOLLOW_UP, RESEND -> {
+        if (b == (STX & 0xFF)) {
+          beginFrame();
+        } else {
+          log.debug("[TL3800] << skip 0x{}", String.format("%02X", b));
+          quality.skipped(1);
+        }
+      }
+      default -> throw new IllegalStateException("unexpected state " + state);
+    }
+  }
+
+  private void onAckByte(int b) {
+    Exchange ex = cur;
+    if (b == (NACK & 0xFF)) {
+      quality.record(Signal.NAK_RECEIVED);
+      if (++ex.tries <= maxAckRetry) {
+        log.warn("[TL3800] << NAK → retry {}/{}", ex.tries, maxAckRetry);
+        sendRequest();
+        return;
+      }
+      fail(new IllegalStateException("NAK received (exceeded retry)"));
+      return;
+    }
+    if (b == (ACK & 0xFF)) {
+      log.debug("[TL3800] << {}ACK", ex.lateAck ? "late " : "");
+      timeouts.recordAck(ex.job, elapsedMs(ex.sentAt));
+      if (!ex.expectResponse) {
+        complete(null);
+        return;
+      }
+      // 첫 프레임의 STX 대기
+      state = State.AWAIT_HEADER;
+      headerLen = 0;
+      arm(timeouts.respWaitMs(ex.job));
+      return;
+    }
+    if (b == (STX & 0xFF) && ex.expectResponse) {
+      log.debug("[TL3800] << STX (immediate)");
+      beginFrame();
+      return;
+    }
+    quality.skipped(1);
+  }
+
+  private void beginFrame() {
+    header[0] = STX;
+    headerLen = 1;
+    state = State.AWAIT_HEADER;
+    Exchange ex = cur;
+    if (!ex.firstFrameSeen) {
+      ex.firstFrameSeen = true;
+      timeouts.recordResponse(ex.job, elapsedMs(ex.sentAt));
+    }
+    arm(respWaitMs);
+  }
+
+  private void onHeaderByte(int b) {
+    if (headerLen == 0) {
+      if (b == (STX & 0xFF)) {
+        beginFrame();
+      } else {
+        quality.skipped(1);
+      }
+      return;
+    }
+    header[headerLen++] = (byte) b;
+    if (headerLen < HEADER_BYTES) {
+      return;
+    }
+    if (!TLFrameReader.isSaneHeader(header)) {
+      log.warn("[TL3800] header sanity FAILED HEX={} → resync", Hex.lazy(header));
+      resync();
+      return;
+    }
+    tail = new byte[TLFrameReader.dataLenFromHeader(header) + 2]; // 데이터 + ETX + BCC
+    tailLen = 0;
+    frameBcc.reset().update(header, 0, HEADER_BYTES);
+    state = State.AWAIT_TAIL;
+  }
+
+  /** 헤더 안의 마지막 STX로 미끄러져 다시 채운다. 없으면 다음 STX 대기. */
+  private void resync() {
+    for (int i = HEADER_BYTES - 1; i > 0; i--) {
+      if (header[i] == STX) {
+        System.arraycopy(header, i, header, 0, HEADER_BYTES - i);
+        headerLen = HEADER_BYTES - i;
+        quality.record(Signal.STX_SLIDE);
+        quality.skipped(i);
+        return;
+      }
+    }
+    quality.record(Signal.HEADER_INVALID);
+    quality.skipped(HEADER_BYTES);
+    headerLen = 0;
+    if (cur.waitState != null) {
+      resumeWait();
+    }
+  }
+
+  private void onFrame() {
+    Exchange ex = cur;
+    JobCode job = TLFrameReader.jobFromHeader(header);
+
+    if (job == JobCode.EVENT) {
+      // EVENT 는 ACK/NACK 금지
+      log.info("[TL3800] << RECV(EVENT) dataLen={}", tail.length - 2);
+      quality.record(Signal.FRAME_OK);
+      publishEvent(TLFrameReader.join(header, tail));
+      log.info(
+          "[TL3800] EVENT received; waiting next non-EVENT frame (expect={})", ex.expected);
+      if (ex.waitState != State.FOLLOW_UP) {
+        enterWait(State.FOLLOW_UP, followUpWindowMs);
+      } else {
+        resumeWait();
+      }
+      return;
+    }
+
+    byte bcc = frameBcc.value();
+    byte[] resp = TLFrameReader.join(header, tail);
+    log.info("[TL3800] << RECV len={} HEX={}", resp.length, Hex.lazy(resp));
+
+    TLPacket pkt;
+    try {
+      pkt = TLPacket.parseStrict(resp, bcc & 0xFF);
+      quality.record(Signal.FRAME_OK);
+    } catch (IllegalArgumentException strict) {
+      log.warn("[TL3800] strict parse failed: {} → trying lenient parse", strict.getMessage());
+      try {
+        pkt = TLPacket.parseLenient(resp);
+        quality.record(Signal.LENIENT_PARSE);
+      } catch (IllegalArgumentException lenient) {
+        log.warn("[TL3800] frame parse failed → waiting for resend: {}", lenient.getMessage());
+        quality.record(Signal.PARSE_FAILED);
+        afterBadFrame();
+        return;
+      }
+    }
+    sendControl(ACK);
+    log.debug("[TL3800] >> ACK");
+
+    if (ex.waitState == null) {
+      // 첫 비-EVENT 프레임은 잡코드와 무관하게 응답으로 본다 (블로킹 클라이언트와 동일)
+      if (!JobCode.sameJob(ex.job, pkt.jobCode)) {
+        log.warn("[TL3800] JOB changed: req={} resp={}", ex.job, pkt.jobCode);
+      }
+      complete(pkt);
+      return;
+    }
+    if (JobCode.sameJob(ex.expected, pkt.jobCode)) {
+      complete(pkt);
+      return;
+    }
+    log.warn("[TL3800] unexpected job={} (expect={}) — keep waiting", pkt.jobCode, ex.expected);
+    resumeWait();
+  }
+
+  /** 프레임 데드라인 초과 / 파싱 실패 뒤의 전이 */
+  private void afterBadFrame() {
+    if (cur.waitState == null) {
+      enterWait(State.RESEND, respWaitMs);
+    } else {
+      resumeWait();
+    }
+  }
+
+  private void enterWait(State waitState, int windowMs) {
+    Exchange ex = cur;
+    ex.waitState = waitState;
+    ex.waitDeadline = System.nanoTime() + windowMs * 1_000_000L;
+    resumeWait();
+  }
+
+  private void resumeWait() {
+    Exchange ex = cur;
+    state = ex.waitState;
+    headerLen = 0;
+    long remainingMs = (ex.waitDeadline - System.nanoTime()) / 1_000_000L;
+    arm(Math.max(remainingMs, 0L));
+  }
+
+  private void onDeadline() {
+    timer = null;
+    Exchange ex = cur;
+    if (ex == null) {
+      return;
+    }
+    switch (state) {
+      case AWAIT_ACK -> {
+        if (!ex.expectResponse || ex.lateAck) {
+          quality.record(Signal.ACK_TIMEOUT);
+          fail(new IllegalStateException("ACK timeout"));
+          return;
+        }
+        // 폴백: ACK가 없으면 늦은 ACK/NAK/STX를 첫 응답 대기만큼 더 기다린다
+        int firstRespWait = timeouts.respWaitMs(ex.job);
+        log.debug("[TL3800] no-ACK → waiting STX up to {} ms", firstRespWait);
+        ex.lateAck = true;
+        arm(firstRespWait);
+      }
+      case AWAIT_HEADER -> {
+        if (headerLen == 0 && ex.waitState == null) {
+          fail(new IllegalStateException("Response frame timeout after ACK"));
+        } else if (ex.waitState == null) {
+          quality.record(Signal.HEADER_INVALID);
+          fail(new IllegalStateException("header short: got=" + headerLen));
+        } else {
+          log.warn("[TL3800] follow-up header short: got={} → resync", headerLen);
+          quality.record(Signal.HEADER_INVALID);
+          resumeWait();
+        }
+      }
+      case AWAIT_TAIL -> {
+        if (TLFrameReader.jobFromHeader(header) == JobCode.EVENT) {
+          // 잘린 EVENT는 버리고 후속 프레임 대기 (EVENT 는 ACK/NACK 금지)
+          log.info("[TL3800] << RECV(EVENT) short: got={} need={}", tailLen, tail.length);
+          if (ex.waitState != State.FOLLOW_UP) {
+            enterWait(State.FOLLOW_UP, followUpWindowMs);
+          } else {
+            resumeWait();
+          }
+          return;
+        }
+        sendControl(NACK);
+        log.warn("[TL3800] >> NAK (body short: got={} need={})", tailLen, tail.length);
+        quality.record(Signal.NAK_SENT);
+        afterBadFrame();
+      }
+      case FOLLOW_UP -> {
+        if (ex.frame == null) {
+          complete(null); // 늦은 응답 없음
+          return;
+        }
+        fail(
+            new IllegalStateException(
+                "Follow-up window exceeded (" + followUpWindowMs + " ms) without final "
+                    + ex.expected));
+      }
+      case RESEND -> fail(new IllegalStateException("Resend timeout after parse failure"));
+      default -> {}
+    }
+  }
+
+  private void complete(TLPacket pkt) {
+    Exchange ex = cur;
+    reset();
+    ex.result.complete(pkt);
+  }
+
+  private void fail(Exception e) {
+    Exchange ex = cur;
+    reset();
+    if (ex != null) {
+      log.warn("[TL3800] request failed job={} terminal={}: {}", ex.job, name,
+          e.getMessage());
+      ex.result.completeExceptionally(e);
+    }
+  }
+
+  /** 진행 상태를 비우고 IDLE로 (대기 중 호출자는 건드리지 않음) */
+  private void reset() {
+    if (timer != null) {
+      timer.cancel();
+      timer = null;
+    }
+    if (cur != null && inFlight == cur) {
+      inFlight = null;
+    }
+    cur = null;
+    state = State.IDLE;
+    headerLen = 0;
+    tail = null;
+    tailLen = 0;
+  }
+
+  private void arm(long delayMs) {
+    if (timer != null) {
+      timer.cancel();
+    }
+    timer = loop.schedule(delayMs, this::onDeadline);
+  }
+
+  /** 송신 전 지난 거래의 잔여 바이트 버림 (블로킹 클라이언트의 drainRx 대응, 대기 없음) */
+  private void discardStale() {
+    try {
+      int n;
+      int total = 0;
+      while ((n = t.readAvailable(rxBuf, 0, rxBuf.length)) > 0) {
+        total += n;
+      }
+      if (total > 0) {
+        log.debug("[TL3800] discarded {} stale bytes", total);
+      }
+    } catch (Exception ignore) {
+    }
+  }
+
+  /* ================= 내부 유틸 ================= */
+
+  private void sendControl(byte b) {
+    write(null, new byte[] {b});
+  }
+
+  /**
+   * 쓰기 스레드에 넘기고 바로 돌아온다. 요청 프레임(ex != null) 쓰기가 실패하면 그 요청이 아직 진행 중일 때 루프에서 실패로
+   * 끝낸다. 제어 바이트 실패는 로그만 남긴다(단말이 재전송).
+   */
+  private void write(Exchange ex, byte[] bytes) {
+    try {
+      writer.execute(
+          () -> {
+            try {
+              t.write(bytes);
+            } catch (Exception e) {
+              writeFailed(ex, e);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      writeFailed(ex, e); // 세션이 닫힘
+    }
+  }
+
+  private void writeFailed(Exchange ex, Exception e) {
+    if (ex == null) {
+      log.warn("[TL3800] control write failed: {}", e.toString());
+      return;
+    }
+    loop.execute(
+        () -> {
+          if (cur == ex) {
+            fail(new IllegalStateException("write failed: " + e.getMessage(), e));
+          }
+        });
+  }
+
+  private void publishEvent(byte[] frame) {
+    try {
+      eventListener.onEvent(TLPacket.parseLenient(frame));
+    } catch (Exception e) {
+      log.debug("[TL3800] EVENT publish skipped: {}", e.toString());
+    }
+  }
+
+  /** 호출자 스레드 대기. 데드라인은 루프 타이머가 보장한다. 인터럽트되면 이 요청을 끊는다. */
+  private TLPacket await(Exchange ex) throws Exception {
+    try {
+      return ex.result.get();
+    } catch (InterruptedException e) {
+      cancel(ex, new CancellationException("interrupted"));
+      throw e;
+    } catch (ExecutionException e) {
+      Throwable c = e.getCause();
+      throw (c instanceof Exception cause) ? cause : e;
+    }
+  }
+
+  private static long elapsedMs(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1_000_000L;
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.TLPacket;
+
+/**
+ * 송신한 요청 1건의 응답 대응 조건.
+ *
+ * <p>프레임에 순번 필드가 없으므로 클라이언트가 교환마다 순번을 붙이고, 응답이 되돌려 주는 요청 필드로 대응을 확인한다. 기대
+ * 잡코드와 단말 ID가 같아야 하고, 승인(B)/취소(C)는 응답 금액이 요청 금액과 같아야 한다. 늦게 온 이전 고객의 b/c는 금액이 다르면
+ * 여기서 걸러진다.
+ *
+ * @param seq 클라이언트 안에서의 교환 순번 (로그용)
+ * @param terminalId 요청 헤더 CAT/MID (앞뒤 공백/NUL 제거, 모르면 null)
+ * @param amount 요청 금액 (승인/취소가 아니거나 모르면 -1)
+ */
+record ExchangeTag(long seq, JobCode reqJob, JobCode expected, String terminalId, long amount) {
+
+  // 요청 데이터의 금액(10) 위치: B는 거래구분(1) 뒤, C는 취소구분+거래구분(2) 뒤
+  private static final int REQ_AMOUNT_OFF_B = 1;
+  private static final int REQ_AMOUNT_OFF_C = 2;
+  // b/c 응답 데이터: 거래구분(1) + 금액(10) + ...
+  private static final int RESP_AMOUNT_OFF = 1;
+  private static final int AMOUNT_LEN = 10;
+
+  static ExchangeTag of(long seq, TLPacket req) {
+    long amount =
+        switch (req.jobCode) {
+          case B -> amountAt(req.data, REQ_AMOUNT_OFF_B);
+          case C -> amountAt(req.data, REQ_AMOUNT_OFF_C);
+          default -> -1;
+        };
+    return new ExchangeTag(
+        seq, req.jobCode, req.jobCode.responseJob(), idOf(req.catOrMid), amount);
+  }
+
+  /** 요청 프레임 없이 잡코드만 아는 교환 (중단 뒤 늦은 응답 대기). 잡코드만 본다. */
+  static ExchangeTag jobOnly(long seq, JobCode reqJob) {
+    return new ExchangeTag(seq, reqJob, reqJob.responseJob(), null, -1);
+  }
+
+  /** 이 교환의 응답이면 null, 아니면 불일치 사유 */
+  String mismatch(TLPacket resp) {
+    if (!JobCode.sameJob(expected, resp.jobCode)) {
+      return "job " + resp.jobCode + " != " + expected;
+    }
+    String id = idOf(resp.catOrMid);
+    if (terminalId != null && id != null && !terminalId.equals(id)) {
+      return "terminal " + id + " != " + terminalId;
+    }
+    if (amount >= 0) {
+      long got = amountAt(resp.data, RESP_AMOUNT_OFF);
+      if (got >= 0 && got != amount) {
+        return "amount " + got + " != " + amount;
+      }
+    }
+    return null;
+  }
+
+  /** 금액 필드가 없거나 숫자가 아니면 -1 (거절 응답 등은 금액으로 대응하지 않는다) */
+  private static long amountAt(byte[] data, int off) {
+    if (data == null || data.length < off + AMOUNT_LEN) {
+      return -1;
+    }
+    String s = new String(data, off, AMOUNT_LEN, US_ASCII).trim();
+    if (s.isEmpty()) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(s);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static String idOf(String catOrMid) {
+    if (catOrMid == null) {
+      return null;
+    }
+    String id = catOrMid.replace('\0', ' ').trim();
+    return id.isEmpty() ? null : id;
+  }
+
+  @Override
+  public String toString() {
+    return "#" + seq + " " + reqJob + (amount >= 0 ? " amount=" + amount : "");
+  }
+}
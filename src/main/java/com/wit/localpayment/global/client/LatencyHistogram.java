@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ms 단위 지연 히스토그램 (lock-free, 로그-선형 버킷).
+ *
+ * <p>0~63ms는 1ms 단위, 그 이상은 2의 거듭제곱 구간마다 32개 하위 버킷(상대 오차 약 3%)으로 기록한다. 기록 수가 window에
+ * 도달할 때마다 모든 카운트를 절반으로 줄여 최근 회선 상태가 더 크게 반영되도록 한다.
+ */
+public final class LatencyHistogram {
+
+  private static final int LINEAR = 64; // 0~63ms
+  private static final int SUB_BITS = 5; // 구간당 32 버킷
+  private static final int SUB = 1 << SUB_BITS;
+  private static final int MAX_EXP = 20; // ~17분
+  private static final int BUCKETS = LINEAR + (MAX_EXP - 6 + 1) * SUB;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong total = new AtomicLong();
+  private final int window;
+
+  public LatencyHistogram(int window) {
+    this.window = window;
+  }
+
+  public void record(long ms) {
+    counts.incrementAndGet(indexOf(Math.max(0, ms)));
+    if (total.incrementAndGet() % window == 0) {
+      decay();
+    }
+  }
+
+  /** 유효 표본 수 (감쇠 반영) */
+  public long count() {
+    long n = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      n += counts.get(i);
+    }
+    return n;
+  }
+
+  /** q(0~1) 분위수의 버킷 상한(ms). 표본이 없으면 -1. */
+  public long percentile(double q) {
+    long n = count();
+    if (n == 0) {
+      return -1;
+    }
+    long rank = (long) Math.ceil(q * n);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return upperBoundOf(i);
+      }
+    }
+    return upperBoundOf(BUCKETS - 1);
+  }
+
+  private void decay() {
+    for (int i = 0; i < BUCKETS; i++) {
+      long c;
+      do {
+        c = counts.get(i);
+      } while (!counts.compareAndSet(i, c, c >>> 1));
+    }
+  }
+
+  private static int indexOf(long ms) {
+    if (ms < LINEAR) {
+      return (int) ms;
+    }
+    int exp = Math.min(63 - Long.numberOfLeadingZeros(ms), MAX_EXP);
+    int sub = (int) ((Math.min(ms, (2L << MAX_EXP) - 1) >>> (exp - SUB_BITS)) & (SUB - 1));
+    return LINEAR + (exp - 6) * SUB + sub;
+  }
+
+  private static long upperBoundOf(int idx) {
+    if (idx < LINEAR) {
+      return idx;
+    }
+    int exp = (idx - LINEAR) / SUB + 6;
+    int sub = (idx - LINEAR) % SUB;
+    return ((long) (SUB + sub + 1) << (exp - SUB_BITS)) - 1;
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 단말 1대의 시리얼 회선 품질 계수기 (lock-free).
+ *
+ * <p>클라이언트와 헤더 복원 로직이 NAK 재시도, 헤더 sanity 실패, 내부 STX 슬라이딩, 버린 바이트, strict→lenient 폴백 등을
+ * 기록한다. 누적 카운트와 별개로 최근 window를 고정 슬롯으로 나눠 정상 프레임/오류 수를 모으고 오류율(오류 / (정상 + 오류))을
+ * 계산한다. 슬롯이 바뀌는 순간 들어온 기록 몇 건은 지워질 수 있지만 추세 판단용이라 잠금 없이 둔다.
+ */
+public final class LineQuality {
+
+  /** 회선 신호. FRAME_OK만 정상이고 SKIPPED_BYTES는 바이트 수로 누적만 한다(오류율 제외). */
+  public enum Signal {
+    FRAME_OK,
+    NAK_RECEIVED, // 단말이 요청 프레임을 거부 → 재전송
+    NAK_SENT, // 응답 꼬리가 모자라 NAK 회신
+    HEADER_INVALID, // 헤더 sanity 실패 / 헤더 복원 실패
+    STX_SLIDE, // 헤더 안의 STX로 미끄러져 복원
+    LENIENT_PARSE, // strict(BCC/ETX) 실패 → lenient로 살림
+    PARSE_FAILED, // lenient까지 실패 / 잡코드 불명
+    ACK_TIMEOUT,
+    SKIPPED_BYTES
+  }
+
+  /** 누적 카운트 + 최근 window 오류율 */
+  public record Snapshot(
+      long framesOk,
+      long nakReceived,
+      long nakSent,
+      long headerInvalid,
+      long stxSlides,
+      long lenientParses,
+      long parseFailures,
+      long ackTimeouts,
+      long skippedBytes,
+      long windowFrames,
+      long windowErrors,
+      double errorRate) {
+
+    /** window 안의 표본 수 (정상 + 오류) */
+    public long windowSamples() {
+      return windowFrames + windowErrors;
+    }
+  }
+
+  private static final int SLOTS = 6;
+  private static final long EMPTY = Long.MIN_VALUE;
+  private static final Signal[] SIGNALS = Signal.values();
+
+  private final LongAdder[] totals = new LongAdder[SIGNALS.length];
+  private final long slotNanos;
+  private final AtomicLongArray slotEpoch = new AtomicLongArray(SLOTS);
+  private final LongAdder[] slotFrames = new LongAdder[SLOTS];
+  private final LongAdder[] slotErrors = new LongAdder[SLOTS];
+
+  /** @param windowMs 오류율을 계산할 최근 구간 (6개 슬롯으로 나눔) */
+  public LineQuality(long windowMs) {
+    this.slotNanos = Math.max(windowMs / SLOTS, 1L) * 1_000_000L;
+    for (int i = 0; i < totals.length; i++) {
+      totals[i] = new LongAdder();
+    }
+    for (int i = 0; i < SLOTS; i++) {
+      slotFrames[i] = new LongAdder();
+      slotErrors[i] = new LongAdder();
+      slotEpoch.set(i, EMPTY);
+    }
+  }
+
+  /** 60초 window (단독 생성/설정 없는 경우) */
+  public LineQuality() {
+    this(60_000L);
+  }
+
+  public void record(Signal s) {
+    if (s == Signal.SKIPPED_BYTES) {
+      skipped(1);
+      return;
+    }
+    totals[s.ordinal()].increment();
+    int slot = slot(System.nanoTime());
+    if (s == Signal.FRAME_OK) {
+      slotFrames[slot].increment();
+    } else {
+      slotErrors[slot].increment();
+    }
+  }
+
+  /** 프레임 밖에서 버린 바이트 수 (잡음) */
+  public void skipped(int bytes) {
+    if (bytes > 0) {
+      totals[Signal.SKIPPED_BYTES.ordinal()].add(bytes);
+    }
+  }
+
+  public long total(Signal s) {
+    return totals[s.ordinal()].sum();
+  }
+
+  /** 최근 window를 비운다 (재오픈/속도 변경 뒤 새 회선 상태만 보도록). 누적 카운트는 그대로. */
+  public void resetWindow() {
+    for (int i = 0; i < SLOTS; i++) {
+      slotEpoch.set(i, EMPTY);
+      slotFrames[i].reset();
+      slotErrors[i].reset();
+    }
+  }
+
+  public Snapshot snapshot() {
+    long current = Math.floorDiv(System.nanoTime(), slotNanos);
+    long frames = 0;
+    long errors = 0;
+    for (int i = 0; i < SLOTS; i++) {
+      long epoch = slotEpoch.get(i);
+      if (epoch != EMPTY && epoch > current - SLOTS) {
+        frames += slotFrames[i].sum();
+        errors += slotErrors[i].sum();
+      }
+    }
+    double rate = (frames + errors == 0) ? 0.0 : (double) errors / (frames + errors);
+    return new Snapshot(
+        total(Signal.FRAME_OK),
+        total(Signal.NAK_RECEIVED),
+        total(Signal.NAK_SENT),
+        total(Signal.HEADER_INVALID),
+        total(Signal.STX_SLIDE),
+        total(Signal.LENIENT_PARSE),
+        total(Signal.PARSE_FAILED),
+        total(Signal.ACK_TIMEOUT),
+        total(Signal.SKIPPED_BYTES),
+        frames,
+        errors,
+        rate);
+  }
+
+  /** 현재 시각의 슬롯. 지난 바퀴의 슬롯이면 먼저 차지한 스레드가 비운다. */
+  private int slot(long nowNanos) {
+    long epoch = Math.floorDiv(nowNanos, slotNanos);
+    int i = (int) Math.floorMod(epoch, (long) SLOTS);
+    long seen = slotEpoch.get(i);
+    if (seen != epoch && slotEpoch.compareAndSet(i, seen, epoch)) {
+      slotFrames[i].reset();
+      slotErrors[i].reset();
+    }
+    return i;
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import com.wit.localpayment.global.transport.TLTransport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 회선 오류율에 따른 단계별 조치.
+ *
+ * <p>게이트웨이가 단말 잠금을 쥔 채 호출이 끝날 때마다 {@link #afterCall}을 부른다. 최근 window 표본이 min-samples 이상이고
+ * 오류율이 error-rate를 넘으면 포트 재오픈 → (baud-fallback 설정 시) 한 단계 낮은 속도 → 격리 순으로 한 단계씩 올린다.
+ * 오류율이 quarantine-rate를 넘으면 바로 격리한다. 조치 뒤에는 window를 비워 새 회선 상태로만 다음 단계를 판단하고, 정상
+ * 오류율이 다시 쌓이면 HEALTHY로 돌아간다(낮춘 속도는 유지). 격리 중에는 게이트웨이가 결제/취소를 받지 않는다.
+ */
+@Slf4j
+public final class LineQualityMonitor {
+
+  /** 현재 조치 단계 */
+  public enum Level {
+    HEALTHY,
+    REOPENED,
+    BAUD_LOWERED,
+    QUARANTINED
+  }
+
+  /** 모니터링 조회용 */
+  public record Status(
+      String terminalId,
+      Level level,
+      int baudRate,
+      long quarantineRemainingMs,
+      LineQuality.Snapshot line) {}
+
+  private final String terminalId;
+  private final LineQuality quality;
+  private final TerminalClient client;
+  private final TLTransport transport;
+  private final boolean enabled;
+  private final double errorRate;
+  private final double quarantineRate;
+  private final int minSamples;
+  private final long quarantineMs;
+  private final int[] baudFallback;
+
+  // 게이트웨이 잠금 아래에서만 바뀐다 (조회용 volatile)
+  private volatile Level level = Level.HEALTHY;
+  private volatile int baudRate;
+  private volatile long quarantineUntil; // nanoTime, 0이면 격리 아님
+  private int baudStep = -1;
+
+  /**
+   * @param baudRate 현재 회선 속도 (시리얼이 아니면 0)
+   * @param baudFallback 낮출 속도 순서 (비어 있으면 속도는 바꾸지 않는다)
+   */
+  public LineQualityMonitor(
+      String terminalId,
+      LineQuality quality,
+      TerminalClient client,
+      TLTransport transport,
+      boolean enabled,
+      double errorRate,
+      double quarantineRate,
+      int minSamples,
+      long quarantineMs,
+      int baudRate,
+      int[] baudFallback) {
+    this.terminalId = terminalId;
+    this.quality = quality;
+    this.client = client;
+    this.transport = transport;
+    this.enabled = enabled;
+    this.errorRate = errorRate;
+    this.quarantineRate = quarantineRate;
+    this.minSamples = minSamples;
+    this.quarantineMs = quarantineMs;
+    this.baudRate = baudRate;
+    this.baudFallback = baudFallback.clone();
+  }
+
+  public LineQuality quality() {
+    return quality;
+  }
+
+  /** 격리 남은 시간 (ms). 격리 중이 아니면 0. */
+  public long quarantineRemainingMs() {
+    long until = quarantineUntil;
+    if (until == 0) {
+      return 0;
+    }
+    long remaining = (until - System.nanoTime()) / 1_000_000L;
+    return Math.max(remaining, 0L);
+  }
+
+  public Status status() {
+    return new Status(terminalId, level, baudRate, quarantineRemainingMs(), quality.snapshot());
+  }
+
+  /** 호출 1건이 끝난 직후 (단말 잠금 보유 중). 필요하면 조치를 실행한다. */
+  public void afterCall() {
+    if (!enabled) {
+      return;
+    }
+    LineQuality.Snapshot s = quality.snapshot();
+    if (s.windowSamples() < minSamples) {
+      return;
+    }
+    if (s.errorRate() < errorRate) {
+      if (level != Level.HEALTHY) {
+        log.info(
+            "[TL3800] line recovered terminal={} level={} rate={} baud={}",
+            terminalId, level, rate(s), baudRate);
+        level = Level.HEALTHY;
+        quarantineUntil = 0;
+      }
+      return;
+    }
+    if (s.errorRate() >= quarantineRate) {
+      quarantine(s);
+      return;
+    }
+    switch (level) {
+      case HEALTHY -> {
+        if (!reopen(s)) {
+          quarantine(s);
+        }
+      }
+      case REOPENED, BAUD_LOWERED -> {
+        if (!lowerBaud(s)) {
+          quarantine(s);
+        }
+      }
+      case QUARANTINED -> quarantine(s);
+    }
+  }
+
+  /* ================= 조치 ================= */
+
+  private boolean reopen(LineQuality.Snapshot s) {
+    log.warn(
+        "[TL3800] line degraded terminal={} rate={} ({}/{}) → reopen",
+        terminalId, rate(s), s.windowErrors(), s.windowSamples());
+    if (!reopenSession()) {
+      return false;
+    }
+    level = Level.REOPENED;
+    quality.resetWindow();
+    return true;
+  }
+
+  private boolean lowerBaud(LineQuality.Snapshot s) {
+    if (baudStep + 1 >= baudFallback.length) {
+      return false;
+    }
+    int next = baudFallback[baudStep + 1];
+    log.warn(
+        "[TL3800] line still degraded terminal={} rate={} → baud {} → {}",
+        terminalId, rate(s), baudRate, next);
+    try {
+      if (!transport.setBaudRate(next)) {
+        log.warn("[TL3800] baud change not supported terminal={}", terminalId);
+        return false;
+      }
+    } catch (IllegalStateException e) {
+      log.warn("[TL3800] baud change failed terminal={}: {}", terminalId, e.getMessage());
+      return false;
+    }
+    baudStep++;
+    baudRate = next;
+    if (!reopenSession()) {
+      return false;
+    }
+    level = Level.BAUD_LOWERED;
+    quality.resetWindow();
+    return true;
+  }
+
+  private void quarantine(LineQuality.Snapshot s) {
+    log.warn(
+        "[TL3800] line unusable terminal={} rate={} ({}/{}) → quarantine {}ms",
+        terminalId, rate(s), s.windowErrors(), s.windowSamples(), quarantineMs);
+    level = Level.QUARANTINED;
+    quarantineUntil = System.nanoTime() + quarantineMs * 1_000_000L;
+    quality.resetWindow();
+  }
+
+  /** 세션 유지 클라이언트만 닫았다 다시 연다. 호출마다 여는 클라이언트는 다음 호출이 새로 연다. */
+  private boolean reopenSession() {
+    if (!client.persistentSession()) {
+      return true;
+    }
+    try {
+      client.close();
+      client.open();
+      return true;
+    } catch (Exception e) {
+      log.warn("[TL3800] reopen failed terminal={}: {}", terminalId, e.toString());
+      return false;
+    }
+  }
+
+  private static String rate(LineQuality.Snapshot s) {
+    return String.format("%.2f", s.errorRate());
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fazecast.jSerialComm.SerialPort;
+import com.wit.localpayment.global.payload.Requests;
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.TLPacket;
+import com.wit.localpayment.global.transport.SerialPortTransport;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 기동 시 TL3800이 붙은 시리얼 포트/속도 찾기 ({@code tl3800.port=auto}).
+ *
+ * <p>먼저 지난 기동 결과(캐시 파일)의 포트/속도로 장치체크(A)를 한 번 보내 보고, 답이 없으면 {@link
+ * SerialPort#getCommPorts()}의 후보 포트를 병렬로 돌며 포트마다 속도 후보를 차례로 짧게 장치체크한다. 응답 헤더의 단말
+ * ID가 설정한 terminal-id와 같은 첫 포트를 쓰고 캐시에 남긴다. 프린터 등 다른 장치에도 요청 프레임이 나가므로 필요하면
+ * port-pattern으로 후보를 좁힌다.
+ */
+@Slf4j
+public final class SerialPortDiscovery {
+
+  /** 찾은 포트/속도 */
+  public record Binding(String port, int baudRate) {}
+
+  private static final int MAX_PARALLEL = 8;
+
+  private final String terminalId;
+  private final int[] baudRates;
+  private final int dataBits;
+  private final int stopBits;
+  private final int parity;
+  private final int probeTimeoutMs;
+  private final Pattern portPattern;
+  private final Path cacheFile;
+
+  /**
+   * @param baudRates 시도할 속도 (앞에서부터)
+   * @param portPattern 후보 포트 이름 정규식 (null이면 전체)
+   * @param cacheFile 마지막 발견 결과 (null이면 캐시 안 함)
+   */
+  public SerialPortDiscovery(
+      String terminalId,
+      int[] baudRates,
+      int dataBits,
+      int stopBits,
+      int parity,
+      int probeTimeoutMs,
+      Pattern portPattern,
+      Path cacheFile) {
+    this.terminalId = terminalId;
+    this.baudRates = baudRates.clone();
+    this.dataBits = dataBits;
+    this.stopBits = stopBits;
+    this.parity = parity;
+    this.probeTimeoutMs = probeTimeoutMs;
+    this.portPattern = portPattern;
+    this.cacheFile = cacheFile;
+  }
+
+  /**
+   * @throws IllegalStateException 어느 포트에서도 같은 단말 ID가 응답하지 않음
+   */
+  public Binding discover() {
+    long t0 = System.nanoTime();
+    Binding cached = readCache();
+    if (cached != null && probe(cached.port(), cached.baudRate())) {
+      log.info(
+          "[TL3800] discovery: cached {} {}bps answered ({}ms)",
+          cached.port(), cached.baudRate(), elapsedMs(t0));
+      return cached;
+    }
+
+    List<String> ports = candidates(cached);
+    log.info(
+        "[TL3800] discovery: probing {} port(s) {} at {}bps",
+        ports.size(), ports, Arrays.toString(baudRates));
+    Binding found = scan(ports);
+    if (found == null) {
+      throw new IllegalStateException(
+          "TL3800 terminal " + terminalId + " not found on serial ports " + ports);
+    }
+    log.info(
+        "[TL3800] discovery: bound {} {}bps terminal={} ({}ms)",
+        found.port(), found.baudRate(), terminalId, elapsedMs(t0));
+    writeCache(found);
+    return found;
+  }
+
+  /**
+   * 탐침 없이 지난 탐색 결과만 (다른 프로세스가 단말을 쓰는 중이라 요청 프레임을 보내면 안 될 때).
+   *
+   * @throws IllegalStateException 캐시가 없거나 읽을 수 없음
+   */
+  public Binding cached() {
+    Binding cached = readCache();
+    if (cached == null) {
+      throw new IllegalStateException(
+          "No cached TL3800 port for terminal " + terminalId + " (" + cacheFile + ")");
+    }
+    log.info(
+        "[TL3800] discovery: using cached {} {}bps without probing",
+        cached.port(), cached.baudRate());
+    return cached;
+  }
+
+  /* ================= 탐색 ================= */
+
+  /** 포트별 작업을 병렬로 돌려 먼저 맞은 포트를 쓴다. 나머지 작업은 다음 속도로 넘어가지 않고 끝난다. */
+  private Binding scan(List<String> ports) {
+    if (ports.isEmpty()) {
+      return null;
+    }
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicInteger seq = new AtomicInteger();
+    ExecutorService pool =
+        Executors.newFixedThreadPool(
+            Math.min(ports.size(), MAX_PARALLEL),
+            r -> {
+              Thread th = new Thread(r, "tl-discovery-" + seq.incrementAndGet());
+              th.setDaemon(true);
+              return th;
+            });
+    CompletionService<Binding> results = new ExecutorCompletionService<>(pool);
+    for (String port : ports) {
+      results.submit(() -> probePort(port, done));
+    }
+    try {
+      for (int i = 0; i < ports.size(); i++) {
+        Binding b = results.take().get();
+        if (b != null) {
+          return b;
+        }
+      }
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("discovery interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("discovery failed", e.getCause());
+    } finally {
+      done.set(true);
+      pool.shutdown();
+      try {
+        // 진행 중인 탐침이 포트를 닫을 때까지 (본 연결이 같은 포트를 열 수 있도록)
+        pool.awaitTermination(probeTimeoutMs * 3L, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private Binding probePort(String port, AtomicBoolean done) {
+    for (int baud : baudRates) {
+      if (done.get()) {
+        return null;
+      }
+      if (probe(port, baud)) {
+        done.set(true);
+        return new Binding(port, baud);
+      }
+    }
+    return null;
+  }
+
+  /** 포트를 열어 장치체크 1회. 응답 단말 ID가 같으면 true. 포트는 항상 닫고 돌아온다. */
+  private boolean probe(String port, int baud) {
+    SerialPortTransport t =
+        new SerialPortTransport(port, baud, dataBits, stopBits, parity, probeTimeoutMs);
+    TL3800Client client =
+        new TL3800Client(
+            t,
+            probeTimeoutMs,
+            probeTimeoutMs,
+            0,
+            probeTimeoutMs,
+            AdaptiveTimeouts.fixed(probeTimeoutMs, probeTimeoutMs));
+    try {
+      client.open();
+      TLPacket resp = client.requestResponse(new Requests(terminalId).deviceCheck());
+      if (!JobCode.sameJob(JobCode.A.responseJob(), resp.jobCode)) {
+        log.debug("[TL3800] discovery: {} {}bps answered job={}", port, baud, resp.jobCode);
+        return false;
+      }
+      String id = resp.catOrMid == null ? "" : resp.catOrMid.trim();
+      if (!terminalId.equals(id)) {
+        log.warn(
+            "[TL3800] discovery: {} {}bps is terminal '{}' (want {}) → skip",
+            port, baud, id, terminalId);
+        return false;
+      }
+      return true;
+    } catch (Exception e) {
+      log.debug("[TL3800] discovery: {} {}bps no answer: {}", port, baud, e.getMessage());
+      return false;
+    } finally {
+      client.close();
+    }
+  }
+
+  /** 캐시 포트를 맨 앞에 두고 나머지는 이름순 */
+  private List<String> candidates(Binding cached) {
+    List<String> names = new ArrayList<>();
+    for (SerialPort p : SerialPort.getCommPorts()) {
+      String name = p.getSystemPortPath();
+      if (portPattern == null || portPattern.matcher(name).matches()
+          || portPattern.matcher(p.getSystemPortName()).matches()) {
+        names.add(name);
+      }
+    }
+    names.sort(null);
+    LinkedHashSet<String> ordered = new LinkedHashSet<>();
+    if (cached != null && names.contains(cached.port())) {
+      ordered.add(cached.port());
+    }
+    ordered.addAll(names);
+    return new ArrayList<>(ordered);
+  }
+
+  /* ================= 캐시 ================= */
+
+  private Binding readCache() {
+    if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+      return null;
+    }
+    Properties p = new Properties();
+    try (Reader r = Files.newBufferedReader(cacheFile, UTF_8)) {
+      p.load(r);
+      if (!terminalId.equals(p.getProperty("terminal-id"))) {
+        return null;
+      }
+      return new Binding(p.getProperty("port"), Integer.parseInt(p.getProperty("baud-rate")));
+    } catch (IOException | RuntimeException e) {
+      log.warn("[TL3800] discovery cache unreadable - {}: {}", cacheFile, e.toString());
+      return null;
+    }
+  }
+
+  /** 임시 파일에 쓰고 옮겨 반쯤 쓴 캐시가 남지 않게 한다. 실패해도 기동은 계속. */
+  private void writeCache(Binding b) {
+    if (cacheFile == null) {
+      return;
+    }
+    Properties p = new Properties();
+    p.setProperty("terminal-id", terminalId);
+    p.setProperty("port", b.port());
+    p.setProperty("baud-rate", String.valueOf(b.baudRate()));
+    Path tmp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+    try {
+      if (cacheFile.getParent() != null) {
+        Files.createDirectories(cacheFile.getParent());
+      }
+      try (Writer w = Files.newBufferedWriter(tmp, UTF_8)) {
+        p.store(w, "TL3800 serial discovery");
+      }
+      Files.move(
+          tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.warn("[TL3800] discovery cache write failed - {}: {}", cacheFile, e.toString());
+    }
+  }
+
+  private static long elapsedMs(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1_000_000L;
+  }
+}
@@ -5,40 +5,112 @@ package com.wit.localpayment.global.client;
 
 import static com.wit.localpayment.global.proto.Proto.HEADER_BYTES;
 
+import com.wit.localpayment.global.client.LineQuality.Signal;
+import com.wit.localpayment.global.proto.Bcc;
 import com.wit.localpayment.global.proto.JobCode;
 import com.wit.localpayment.global.proto.TLPacket;
 import com.wit.localpayment.global.transport.TLTransport;
-import java.util.Arrays;
+import com.wit.localpayment.global.transport.TimeSource;
+import com.wit.localpayment.global.util.Hex;
+import java.util.concurrent.CancellationException;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public class TL3800Client implements AutoCloseable {
+public class TL3800Client implements TerminalClient {
 
   private final TLTransport t;
+  private final TLFrameReader frames;
   private final int ackWaitMs;
   private final int respWaitMs;
   private final int maxAckRetry;
+  private final int followUpWindowMs;
+  private final AdaptiveTimeouts timeouts;
+  private final LineQuality quality;
+  private final TimeSource time;
+  private volatile TLEventListener eventListener = e -> {};
 
-  // 결제 최종 응답까지 여유 있게
-  private static final int FOLLOWUP_WINDOW_MS = 180_000;
+  // requestResponse 호출 번호와 abort()가 겨냥한 번호 (같으면 중단). 호출은 게이트웨이 잠금으로 직렬화된다.
+  private volatile long activeRequest;
+  private volatile long abortedRequest = -1;
 
-  // TL 헤더 내 오프셋 (STX 기준)
-  // STX(1) + ID(16) + DT(14) + JOB(1) + RESP(1) + LEN(2)
-  private static final int POS_DT = 1 + 16; // 17
-  private static final int POS_JOB = POS_DT + 14; // 31
-  private static final int POS_LEN = POS_JOB + 1 + 1; // 33
+  // 결제 최종 응답까지 여유 있게
+  public static final int DEFAULT_FOLLOWUP_WINDOW_MS = 180_000;
 
   public TL3800Client(TLTransport transport, int ackWaitMs, int respWaitMs, int maxAckRetry) {
+    this(
+        transport,
+        ackWaitMs,
+        respWaitMs,
+        maxAckRetry,
+        DEFAULT_FOLLOWUP_WINDOW_MS,
+        AdaptiveTimeouts.fixed(ackWaitMs, respWaitMs));
+  }
+
+  public TL3800Client(
+      TLTransport transport,
+      int ackWaitMs,
+      int respWaitMs,
+      int maxAckRetry,
+      int followUpWindowMs,
+      AdaptiveTimeouts timeouts) {
+    this(
+        transport, ackWaitMs, respWaitMs, maxAckRetry, followUpWindowMs, timeouts,
+        new LineQuality());
+  }
+
+  /**
+   * @param ackWaitMs ACK 대기 상한 (적응형 비활성 시 고정값)
+   * @param respWaitMs 응답 대기 상한 (적응형 비활성 시 고정값)
+   * @param timeouts 관측 지연 기반 ACK/첫 응답 대기 정책 (단말 1대당 1개)
+   * @param quality 회선 품질 계수기 (단말 1대당 1개)
+   */
+  public TL3800Client(
+      TLTransport transport,
+      int ackWaitMs,
+      int respWaitMs,
+      int maxAckRetry,
+      int followUpWindowMs,
+      AdaptiveTimeouts timeouts,
+      LineQuality quality) {
+    this(
+        transport, ackWaitMs, respWaitMs, maxAckRetry, followUpWindowMs, timeouts, quality,
+        TimeSource.system());
+  }
+
+  /**
+   * @param time 대기/데드라인 시각 원천. 전송 계층과 같은 인스턴스여야 한다 (가상 시계로 도는 테스트는
+   *     TL3800ClientScenarioTest 참고).
+   */
+  public TL3800Client(
+      TLTransport transport,
+      int ackWaitMs,
+      int respWaitMs,
+      int maxAckRetry,
+      int followUpWindowMs,
+      AdaptiveTimeouts timeouts,
+      LineQuality quality,
+      TimeSource time) {
     this.t = transport;
+    this.time = time;
+    this.quality = quality;
+    this.frames = new TLFrameReader(transport, quality);
     this.ackWaitMs = ackWaitMs;
     this.respWaitMs = respWaitMs;
     this.maxAckRetry = maxAckRetry;
+    this.followUpWindowMs = followUpWindowMs;
+    this.timeouts = timeouts;
   }
 
+  @Override
   public void open() throws Exception {
     t.open();
   }
 
+  @Override
+  public void setEventListener(TLEventListener listener) {
+    this.eventListener = (listener == null) ? e -> {} : listener;
+  }
+
   @Override
   public void close() {
     try {
@@ -47,22 +119,66 @@ public class TL3800Client implements AutoCloseable {
     }
   }
 
+  @Override
+  public void abort() {
+    abortedRequest = activeRequest;
+    log.warn("[TL3800] abort requested (request #{})", abortedRequest);
+  }
+
+  @Override
+  public void sendNoResponse(TLPacket req) throws Exception {
+    activeRequest++;
+    final byte[] frame = req.toBytes();
+    log.info("[TL3800] >> SEND job={} len={} HEX={}", req.jobCode, frame.length, Hex.lazy(frame));
+
+    int tries = 0;
+    while (true) {
+      drainRx(120);
+      t.write(frame);
+      Integer first = waitAckNakStx(timeouts.ackWaitMs(req.jobCode));
+      if (first != null && first == 0x06) {
+        log.debug("[TL3800] << ACK");
+        return;
+      }
+      if (first != null && first == 0x15) {
+        quality.record(Signal.NAK_RECEIVED);
+        if (++tries <= maxAckRetry) {
+          log.warn("[TL3800] << NAK → retry {}/{}", tries, maxAckRetry);
+          continue;
+        }
+      }
+      if (first == null) {
+        quality.record(Signal.ACK_TIMEOUT);
+      }
+      throw new IllegalStateException(first == null ? "ACK timeout" : "no ACK for " + req.jobCode);
+    }
+  }
+
+  @Override
   public TLPacket requestResponse(TLPacket req) throws Exception {
+    activeRequest++;
     final byte[] frame = req.toBytes();
-    log.info("[TL3800] >> SEND job={} len={} HEX={}", req.jobCode, frame.length, hex(frame));
+    log.info("[TL3800] >> SEND job={} len={} HEX={}", req.jobCode, frame.length, Hex.lazy(frame));
 
     // 요청 잡코드에 대응하는 "기대 응답" 잡코드 (예: B → b)
     JobCode expectedFinal = expectedResponseJob(req.jobCode);
 
+    // 이번 요청의 ACK/첫 응답 대기 (관측 지연 기반, 설정값이 상한)
+    final int ackWait = timeouts.ackWaitMs(req.jobCode);
+    final int firstRespWait = timeouts.respWaitMs(req.jobCode);
+    log.debug("[TL3800] timeouts {}", timeouts.describe(req.jobCode));
+
     int tries = 0;
     while (true) {
       drainRx(120);
       t.write(frame);
+      final long sentAt = time.nanoTime();
       sleepQuiet(8);
 
-      Integer first = waitAckNakStx(ackWaitMs);
+      Integer first = waitAckNakStx(ackWait);
       if (first != null) {
         if (first == 0x15) { // NAK
+          quality.record(Signal.NAK_RECEIVED);
           if (++tries <= maxAckRetry) {
             log.warn("[TL3800] << NAK → retry {}/{}", tries, maxAckRetry);
             continue;
@@ -71,7 +187,9 @@ public class TL3800Client implements AutoCloseable {
         }
         if (first == 0x06) { // ACK
           log.debug("[TL3800] << ACK");
+          timeouts.recordAck(req.jobCode, elapsedMs(sentAt));
           byte[] header = readHeaderFromStx(); // 통일
+          timeouts.recordResponse(req.jobCode, elapsedMs(sentAt));
           TLPacket p = readOrFollowUpIfEvent(header, expectedFinal, req);
           if (p != null) {
             return p;
@@ -81,6 +199,7 @@ public class TL3800Client implements AutoCloseable {
         if (first == 0x02) { // 즉시 STX
           log.debug("[TL3800] << STX (immediate)");
           byte[] header = readHeaderFromStx(); // 통일
+          timeouts.recordResponse(req.jobCode, elapsedMs(sentAt));
           TLPacket p = readOrFollowUpIfEvent(header, expectedFinal, req);
           if (p != null) {
             return p;
@@ -90,18 +209,21 @@ public class TL3800Client implements AutoCloseable {
       }
 
       // 폴백: ACK가 없으면 STX 추가 대기
-      log.debug("[TL3800] no-ACK within {} ms → waiting STX up to {} ms", ackWaitMs, respWaitMs);
-      long start = System.currentTimeMillis();
-      while ((System.currentTimeMillis() - start) < respWaitMs) {
+      log.debug("[TL3800] no-ACK within {} ms → waiting STX up to {} ms", ackWait, firstRespWait);
+      long start = time.millis();
+      while ((time.millis() - start) < firstRespWait) {
+        throwIfAborted();
         int b = t.readByte(50);
         if (b == 0x02) {
           byte[] header = readHeaderFromStx(); // 통일
+          timeouts.recordResponse(req.jobCode, elapsedMs(sentAt));
           TLPacket p = readOrFollowUpIfEvent(header, expectedFinal, req);
           if (p != null) {
             return p;
           }
           return waitResendAndReturnExpected(expectedFinal);
         } else if (b == 0x15) {
+          quality.record(Signal.NAK_RECEIVED);
           if (++tries <= maxAckRetry) {
             log.warn("[TL3800] << late NAK → retry {}/{}", tries, maxAckRetry);
             break;
@@ -109,7 +231,9 @@ public class TL3800Client implements AutoCloseable {
           throw new IllegalStateException("NAK received (exceeded retry)");
         } else if (b == 0x06) {
           log.debug("[TL3800] << late ACK");
+          timeouts.recordAck(req.jobCode, elapsedMs(sentAt));
           byte[] header = readHeaderFromStx(); // 통일
+          timeouts.recordResponse(req.jobCode, elapsedMs(sentAt));
           TLPacket p = readOrFollowUpIfEvent(header, expectedFinal, req);
           if (p != null) {
             return p;
@@ -118,10 +242,36 @@ public class TL3800Client implements AutoCloseable {
         }
       }
 
+      quality.record(Signal.ACK_TIMEOUT);
       throw new IllegalStateException("ACK timeout");
     }
   }
 
+  @Override
+  public TLPacket awaitLateResponse(JobCode request, int waitMs) throws Exception {
+    activeRequest++; // 중단 표시와 분리
+    JobCode expected = expectedResponseJob(request);
+    long deadline = time.millis() + waitMs;
+    while (true) {
+      long remaining = deadline - time.millis();
+      if (remaining <= 0) {
+        return null;
+      }
+      try {
+        TLPacket pkt = readNextFrameAndAck((int) remaining);
+        if (matchesExpected(expected, pkt.jobCode)) {
+          log.warn("[TL3800] << late {} after abort", pkt.jobCode);
+          return pkt;
+        }
+        log.warn("[TL3800] unexpected job={} after abort (expect={})", pkt.jobCode, expected);
+      } catch (IllegalArgumentException e) {
+        log.warn("[TL3800] late frame parse failed: {}", e.getMessage());
+      } catch (IllegalStateException e) {
+        return null; // 대기 시간 안에 프레임 없음
+      }
+    }
+  }
+
   /**
    * ACK/즉시-STX/late-ACK 모두 여기로 통일: STX를 잡으면 단순히 34바이트를 더 읽어서 헤더로 사용
    */
@@ -134,52 +284,14 @@ public class TL3800Client implements AutoCloseable {
       throw new IllegalStateException("header build failed after STX");
     }
     if (!isSaneHeader(header)) {
-      throw new IllegalStateException("invalid header after STX: " + hex(header));
+      throw new IllegalStateException("invalid header after STX: " + Hex.toHex(header));
     }
-    log.debug("[TL3800] header built HEX={}", hex(header));
+    log.debug("[TL3800] header built HEX={}", Hex.lazy(header));
     return header;
   }
 
   /**
-   * 헤더 sanity 검사: 날짜 14자리 숫자/잡코드 유효/데이터 길이 상한
-   */
-  private boolean isSaneHeader(byte[] h) {
-    // 1) 날짜 14자리 숫자만
-    for (int i = POS_DT; i < POS_DT + 14; i++) {
-      int v = h[i] & 0xFF;
-      if (v < 0x30 || v > 0x39) {
-        return false;
-      }
-    }
-    // 2) 잡코드 유효성 (JobCode.of로 검증)
-    int job = h[POS_JOB] & 0xFF;
-    if (!isKnownJob(job)) {
-      return false;
-    }
-    // 3) 데이터 길이 합리성
-    int dataLen = (h[POS_LEN] & 0xFF) | ((h[POS_LEN + 1] & 0xFF) << 8);
-    return dataLen >= 0 && dataLen <= 4096;
-  }
-
-  private boolean isKnownJob(int job) {
-    try {
-      JobCode.of((byte) job);
-      return true;
-    } catch (IllegalArgumentException e) {
-      return false;
-    }
-  }
-
-  private JobCode jobFromHeader(byte[] header) {
-    return JobCode.of(header[POS_JOB]);
-  }
-
-  private int dataLenFromHeader(byte[] header) {
-    return (header[POS_LEN] & 0xFF) | ((header[POS_LEN + 1] & 0xFF) << 8);
-  }
-
-  /**
-   * EVENT 프레임의 tail(데이터+ETX+BCC)을 읽고 버린다. EVENT는 ACK/NACK 미전송.
+   * EVENT 프레임의 tail(데이터+ETX+BCC)을 읽어 리스너로 넘긴다. EVENT는 ACK/NACK 미전송.
    */
   private void consumeEventFrame(byte[] header) throws Exception {
     int dataLen = dataLenFromHeader(header);
@@ -190,6 +302,19 @@ public class TL3800Client implements AutoCloseable {
 
     log.info("[TL3800] << RECV(EVENT) dataLen={} readTail={}", dataLen, m);
     // EVENT 는 ACK/NACK 금지
+
+    if (m == tailLen) {
+      quality.record(Signal.FRAME_OK);
+      publishEvent(header, tail);
+    }
+  }
+
+  private void publishEvent(byte[] header, byte[] tail) {
+    try {
+      eventListener.onEvent(TLPacket.parseLenient(TLFrameReader.join(header, tail)));
+    } catch (Exception e) {
+      log.debug("[TL3800] EVENT publish skipped: {}", e.toString());
+    }
   }
 
   /**
@@ -204,6 +329,7 @@ public class TL3800Client implements AutoCloseable {
       job = jobFromHeader(header);
     } catch (IllegalArgumentException ex) {
       log.warn("[TL3800] invalid jobcode in header → waiting for resend: {}", ex.getMessage());
+      quality.record(Signal.PARSE_FAILED);
       // 파싱 실패로 간주 → 상위(requestResponse)가 waitResendAndReturnExpected 호출
       return null;
     }
@@ -237,8 +363,9 @@ public class TL3800Client implements AutoCloseable {
    * 파싱 실패 후 재전송을 받아 기대 잡코드가 올 때까지 대기
    */
   private TLPacket waitResendAndReturnExpected(JobCode expected) throws Exception {
-    long deadline = System.currentTimeMillis() + respWaitMs;
-    while (System.currentTimeMillis() < deadline) {
+    long deadline = time.millis() + respWaitMs;
+    while (time.millis() < deadline) {
+      throwIfAborted();
       try {
         TLPacket pkt = readNextFrameAndAck(respWaitMs);
         if (pkt.jobCode == JobCode.EVENT) {
@@ -259,10 +386,11 @@ public class TL3800Client implements AutoCloseable {
    * FOLLOWUP_WINDOW 동안 다음 프레임들을 계속 수신(매번 ACK)하여 expected 잡코드가 오면 반환
    */
   private TLPacket waitFollowUp(JobCode expected) throws Exception {
-    long deadline = System.currentTimeMillis() + FOLLOWUP_WINDOW_MS;
+    long deadline = time.millis() + followUpWindowMs;
 
     while (true) {
-      long remaining = deadline - System.currentTimeMillis();
+      throwIfAborted(); // per-try 타임아웃과 같은 IllegalStateException 계열이라 루프 밖에서 다시 확인
+      long remaining = deadline - time.millis();
       if (remaining <= 0) {
         break;
       }
@@ -290,15 +418,16 @@ public class TL3800Client implements AutoCloseable {
     }
 
     throw new IllegalStateException(
-        "Follow-up window exceeded (" + FOLLOWUP_WINDOW_MS + " ms) without final " + expected);
+        "Follow-up window exceeded (" + followUpWindowMs + " ms) without final " + expected);
   }
 
   /**
    * 다음 STX부터 한 프레임을 읽어 검증 후 ACK 회신. EVENT는 tail만 읽고 버리고 계속 대기, 비-EVENT는 파싱.
    */
   private TLPacket readNextFrameAndAck(int waitMs) throws Exception {
-    long deadline = System.currentTimeMillis() + waitMs;
-    while (System.currentTimeMillis() < deadline) {
+    long deadline = time.millis() + waitMs;
+    while (time.millis() < deadline) {
+      throwIfAborted();
       int b = t.readByte(Math.min(50, waitMs));
       if (b < 0) {
         continue;
@@ -310,7 +439,8 @@ public class TL3800Client implements AutoCloseable {
           continue;
         }
         if (!isSaneHeader(header)) {
-          log.warn("[TL3800] follow-up header sanity failed → resync (hex={})", hex(header));
+          log.warn("[TL3800] follow-up header sanity failed → resync (hex={})", Hex.lazy(header));
+          quality.record(Signal.HEADER_INVALID);
           continue;
         }
 
@@ -325,6 +455,7 @@ public class TL3800Client implements AutoCloseable {
         return readTailParseAndAck(header, null);
       }
       log.debug("[TL3800] << skip 0x{}", String.format("%02X", b));
+      quality.skipped(1);
     }
     throw new IllegalStateException("Follow-up frame timeout");
   }
@@ -344,17 +475,21 @@ public class TL3800Client implements AutoCloseable {
       } catch (Exception ignore) {
       }
       log.warn("[TL3800] >> NAK (body short: got={} need={})", m, tailLen);
+      quality.record(Signal.NAK_SENT);
       throw new IllegalArgumentException("short body");
     }
 
+    // 헤더/꼬리를 받은 그대로 BCC 누적 (조립 후 재계산 없음, BCC 바이트 제외)
+    byte bcc = new Bcc().update(header, 0, HEADER_BYTES).update(tail, 0, tailLen - 1).value();
+
     byte[] resp = new byte[HEADER_BYTES + tailLen];
     System.arraycopy(header, 0, resp, 0, HEADER_BYTES);
     System.arraycopy(tail, 0, resp, HEADER_BYTES, tailLen);
-    log.info("[TL3800] << RECV len={} HEX={}", resp.length, hex(resp));
+    log.info("[TL3800] << RECV len={} HEX={}", resp.length, Hex.lazy(resp));
 
     try {
       // 1차: strict 검증 (STX/ETX/BCC 다 맞는지 확인)
-      TLPacket pkt = TLPacket.parseStrict(resp);
+      TLPacket pkt = TLPacket.parseStrict(resp, bcc & 0xFF);
 
       if (req != null && !matchesExpected(req.jobCode, pkt.jobCode)) {
         log.warn("[TL3800] JOB changed: req={} resp={}", req.jobCode, pkt.jobCode);
@@ -362,12 +497,20 @@ public class TL3800Client implements AutoCloseable {
 
       t.write(new byte[]{0x06});
       log.debug("[TL3800] >> ACK");
+      quality.record(Signal.FRAME_OK);
       return pkt;
     } catch (IllegalArgumentException ex) {
       log.warn("[TL3800] strict parse failed: {} → trying lenient parse", ex.getMessage());
 
       // 2차: lenient 파서로 일단 내용만이라도 살려본다.
-      TLPacket pkt = TLPacket.parseLenient(resp);
+      TLPacket pkt;
+      try {
+        pkt = TLPacket.parseLenient(resp);
+      } catch (IllegalArgumentException lenient) {
+        quality.record(Signal.PARSE_FAILED);
+        throw lenient;
+      }
+      quality.record(Signal.LENIENT_PARSE);
 
       try {
         t.write(new byte[]{0x06});
@@ -380,8 +523,9 @@ public class TL3800Client implements AutoCloseable {
   }
 
   private Integer waitAckNakStx(int waitMs) {
-    long end = System.currentTimeMillis() + waitMs;
-    while (System.currentTimeMillis() < end) {
+    long end = time.millis() + waitMs;
+    while (time.millis() < end) {
+      throwIfAborted();
       int b = -1;
       try {
         b = t.readByte(50);
@@ -393,13 +537,14 @@ public class TL3800Client implements AutoCloseable {
       if (b == 0x06 || b == 0x15 || b == 0x02) {
         return b;
       }
+      quality.skipped(1);
     }
     return null;
   }
 
   private void drainRx(long windowMs) {
-    long end = System.currentTimeMillis() + windowMs;
-    while (System.currentTimeMillis() < end) {
+    long end = time.millis() + windowMs;
+    while (time.millis() < end) {
       try {
         int b = t.readByte(20);
         if (b < 0) {
@@ -411,116 +556,45 @@ public class TL3800Client implements AutoCloseable {
     }
   }
 
-  private static void sleepQuiet(long ms) {
-    try {
-      Thread.sleep(ms);
-    } catch (InterruptedException ignored) {
+  private void throwIfAborted() {
+    if (abortedRequest == activeRequest) {
+      throw new CancellationException("aborted by host");
     }
   }
 
-  private static String hex(byte[] b) {
-    return java.util.HexFormat.of().formatHex(b);
+  private long elapsedMs(long startNanos) {
+    return (time.nanoTime() - startNanos) / 1_000_000L;
   }
 
-  /**
-   * STX 직후 34B를 읽고, 내부에 다시 STX가 있으면 '마지막 STX'로 슬라이딩해 정상 35B 헤더를 재구성
-   */
-  private byte[] composeHeaderAfterStxWithSliding() throws Exception {
-    final int REST = HEADER_BYTES - 1; // 34
-    byte[] rest = new byte[REST];
-    int n = t.readFully(rest, REST, respWaitMs);
-
-    if (n != REST) {
-      log.warn("[TL3800] header short: got={} need={} raw34={}",
-          n, REST, hex(Arrays.copyOf(rest, n)));
-      return null;
+  private void sleepQuiet(long ms) {
+    try {
+      time.sleep(ms);
+    } catch (InterruptedException ignored) {
     }
+  }
 
-    // 디버깅용: STX 이후 처음 읽은 34바이트 그대로
-    log.debug("[TL3800] raw34 after STX = {}", hex(rest));
-
-    // 시도 #0: [STX] + rest
-    byte[] header = new byte[HEADER_BYTES];
-    header[0] = 0x02;
-    System.arraycopy(rest, 0, header, 1, REST);
-    if (isSaneHeader(header)) {
-      log.debug("[TL3800] header0 sane HEX={}", hex(header));
-      return header;
-    } else {
-      log.warn("[TL3800] header0 sanity FAILED HEX={}", hex(header));
-    }
 
-    // 시도 #1: rest 내부 '마지막 STX'로 슬라이딩
-    int idx = lastIndexOf(rest, (byte) 0x02);
-    if (idx >= 0 && idx < REST - 1) {
-      byte[] header2 = new byte[HEADER_BYTES];
-      header2[0] = 0x02;
-      int copy = Math.min(REST - (idx + 1), HEADER_BYTES - 1);
-      System.arraycopy(rest, idx + 1, header2, 1, copy);
-      int missing = (HEADER_BYTES - 1) - copy;
-      if (missing > 0) {
-        byte[] more = new byte[missing];
-        int m = t.readFully(more, missing, respWaitMs);
-        if (m != missing) {
-          log.warn("[TL3800] header2 short: got={} need={} rawMore={}",
-              m, missing, hex(Arrays.copyOf(more, m)));
-          return null;
-        }
-        System.arraycopy(more, 0, header2, 1 + copy, missing);
-      }
+  private byte[] composeHeaderAfterStxWithSliding() throws Exception {
+    return frames.headerAfterStx(respWaitMs);
+  }
 
-      if (isSaneHeader(header2)) {
-        log.debug("[TL3800] header2 sane HEX={}", hex(header2));
-        return header2;
-      } else {
-        log.warn("[TL3800] header2 sanity FAILED HEX={}", hex(header2));
-      }
-    } else {
-      log.warn("[TL3800] no inner STX in raw34={}", hex(rest));
-    }
+  private static boolean isSaneHeader(byte[] h) {
+    return TLFrameReader.isSaneHeader(h);
+  }
 
-    // 여기까지 오면 이 헤더는 못 쓰는 것으로 판단
-    return null;
+  private static JobCode jobFromHeader(byte[] header) {
+    return TLFrameReader.jobFromHeader(header);
   }
 
-  /**
-   * 배열 내 '마지막' 바이트 값의 인덱스(없으면 -1)
-   */
-  private static int lastIndexOf(byte[] arr, byte v) {
-    for (int i = arr.length - 1; i >= 0; i--) {
-      if (arr[i] == v) {
-        return i;
-      }
-    }
-    return -1;
+  private static int dataLenFromHeader(byte[] header) {
+    return TLFrameReader.dataLenFromHeader(header);
   }
 
-  /**
-   * 요청 잡코드에 대응하는 "기대 응답" 잡코드. 기본은 같은 코드, A→a, B→b 식으로 매핑
-   */
-  private JobCode expectedResponseJob(JobCode reqJob) {
-    char c = reqJob.code;
-    if (c >= 'A' && c <= 'Z') {
-      char respChar = Character.toLowerCase(c);
-      try {
-        return JobCode.of((byte) respChar);
-      } catch (IllegalArgumentException ignored) {
-        // 대응하는 소문자 JobCode 가 없으면 그냥 원래 값 사용
-      }
-    }
-    return reqJob;
+  private static JobCode expectedResponseJob(JobCode reqJob) {
+    return reqJob.responseJob();
   }
 
-  /**
-   * expected/actual 잡코드가 대소문자만 다른 경우까지 허용
-   */
-  private boolean matchesExpected(JobCode expected, JobCode actual) {
-    if (expected == actual) {
-      return true;
-    }
-    if (expected == JobCode.EVENT || actual == JobCode.EVENT) {
-      return false;
-    }
-    return Character.toLowerCase(expected.code) == Character.toLowerCase(actual.code);
+  private static boolean matchesExpected(JobCode expected, JobCode actual) {
+    return JobCode.sameJob(expected, actual);
   }
 }
@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import com.wit.localpayment.global.proto.TLPacket;
+
+/** 단말 EVENT('@') 프레임 수신 콜백. 수신 스레드에서 호출되므로 블로킹하지 말 것. */
+@FunctionalInterface
+public interface TLEventListener {
+
+  void onEvent(TLPacket eventFrame);
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import static com.wit.localpayment.global.proto.Proto.HEADER_BYTES;
+
+import com.wit.localpayment.global.client.LineQuality.Signal;
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.transport.TLTransport;
+import com.wit.localpayment.global.util.Hex;
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * STX 이후 헤더 복원/검사 로직. 블로킹 클라이언트와 전이중 수신 루프가 함께 쓴다.
+ */
+@Slf4j
+final class TLFrameReader {
+
+  // TL 헤더 내 오프셋 (STX 기준)
+  // STX(1) + ID(16) + DT(14) + JOB(1) + RESP(1) + LEN(2)
+  private static final int POS_DT = 1 + 16; // 17
+  private static final int POS_JOB = POS_DT + 14; // 31
+  private static final int POS_LEN = POS_JOB + 1 + 1; // 33
+
+  private final TLTransport t;
+  private final LineQuality quality;
+
+  TLFrameReader(TLTransport t, LineQuality quality) {
+    this.t = t;
+    this.quality = quality;
+  }
+
+  /**
+   * STX 직후 34B를 읽고, 내부에 다시 STX가 있으면 '마지막 STX'로 슬라이딩해 정상 35B 헤더를 재구성. 실패 시 null.
+   */
+  byte[] headerAfterStx(int waitMs) throws Exception {
+    final int REST = HEADER_BYTES - 1; // 34
+    byte[] rest = new byte[REST];
+    int n = t.readFully(rest, REST, waitMs);
+
+    if (n != REST) {
+      log.warn("[TL3800] header short: got={} need={} raw34={}",
+          n, REST, Hex.lazy(Arrays.copyOf(rest, n)));
+      quality.record(Signal.HEADER_INVALID);
+      return null;
+    }
+
+    // 디버깅용: STX 이후 처음 읽은 34바이트 그대로
+    log.debug("[TL3800] raw34 after STX = {}", Hex.lazy(rest));
+
+    // 시도 #0: [STX] + rest
+    byte[] header = new byte[HEADER_BYTES];
+    header[0] = 0x02;
+    System.arraycopy(rest, 0, header, 1, REST);
+    if (isSaneHeader(header)) {
+      log.debug("[TL3800] header0 sane HEX={}", Hex.lazy(header));
+      return header;
+    } else {
+      log.warn("[TL3800] header0 sanity FAILED HEX={}", Hex.lazy(header));
+    }
+
+    // 시도 #1: rest 내부 '마지막 STX'로 슬라이딩
+    int idx = lastIndexOf(rest, (byte) 0x02);
+    if (idx >= 0 && idx < REST - 1) {
+      byte[] header2 = new byte[HEADER_BYTES];
+      header2[0] = 0x02;
+      int copy = Math.min(REST - (idx + 1), HEADER_BYTES - 1);
+      System.arraycopy(rest, idx + 1, header2, 1, copy);
+      int missing = (HEADER_BYTES - 1) - copy;
+      if (missing > 0) {
+        byte[] more = new byte[missing];
+        int m = t.readFully(more, missing, waitMs);
+        if (m != missing) {
+          log.warn("[TL3800] header2 short: got={} need={} rawMore={}",
+              m, missing, Hex.lazy(Arrays.copyOf(more, m)));
+          quality.record(Signal.HEADER_INVALID);
+          return null;
+        }
+        System.arraycopy(more, 0, header2, 1 + copy, missing);
+      }
+
+      if (isSaneHeader(header2)) {
+        log.debug("[TL3800] header2 sane HEX={}", Hex.lazy(header2));
+        if (idx > 0) {
+          quality.record(Signal.STX_SLIDE);
+          quality.skipped(idx + 1); // 앞쪽 잡음
+        }
+        // idx == 0: 호출자가 ACK 뒤 STX를 아직 읽지 않은 정상 경로 (회선 잡음 아님)
+        return header2;
+      } else {
+        log.warn("[TL3800] header2 sanity FAILED HEX={}", Hex.lazy(header2));
+      }
+    } else {
+      log.warn("[TL3800] no inner STX in raw34={}", Hex.lazy(rest));
+    }
+
+    // 여기까지 오면 이 헤더는 못 쓰는 것으로 판단
+    quality.record(Signal.HEADER_INVALID);
+    return null;
+  }
+
+  /**
+   * 헤더 sanity 검사: 날짜 14자리 숫자/잡코드 유효/데이터 길이 상한
+   */
+  static boolean isSaneHeader(byte[] h) {
+    // 1) 날짜 14자리 숫자만
+    for (int i = POS_DT; i < POS_DT + 14; i++) {
+      int v = h[i] & 0xFF;
+      if (v < 0x30 || v > 0x39) {
+        return false;
+      }
+    }
+    // 2) 잡코드 유효성 (JobCode.of로 검증)
+    int job = h[POS_JOB] & 0xFF;
+    if (!isKnownJob(job)) {
+      return false;
+    }
+    // 3) 데이터 길이 합리성
+    int dataLen = (h[POS_LEN] & 0xFF) | ((h[POS_LEN + 1] & 0xFF) << 8);
+    return dataLen >= 0 && dataLen <= 4096;
+  }
+
+  static JobCode jobFromHeader(byte[] header) {
+    return JobCode.of(header[POS_JOB]);
+  }
+
+  static int dataLenFromHeader(byte[] header) {
+    return (header[POS_LEN] & 0xFF) | ((header[POS_LEN + 1] & 0xFF) << 8);
+  }
+
+  /** header(35B) + tail(데이터+ETX+BCC) 이어 붙이기 */
+  static byte[] join(byte[] header, byte[] tail) {
+    byte[] frame = new byte[HEADER_BYTES + tail.length];
+    System.arraycopy(header, 0, frame, 0, HEADER_BYTES);
+    System.arraycopy(tail, 0, frame, HEADER_BYTES, tail.length);
+    return frame;
+  }
+
+
+  private static boolean isKnownJob(int job) {
+    try {
+      JobCode.of((byte) job);
+      return true;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /**
+   * 배열 내 '마지막' 바이트 값의 인덱스(없으면 -1)
+   */
+  private static int lastIndexOf(byte[] arr, byte v) {
+    for (int i = arr.length - 1; i >= 0; i--) {
+      if (arr[i] == v) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.TLPacket;
+
+/** TL3800 요청/응답 클라이언트 공통 계약 (블로킹 / 전이중) */
+public interface TerminalClient extends AutoCloseable {
+
+  void open() throws Exception;
+
+  @Override
+  void close();
+
+  /** 요청 프레임 송신 후 기대 응답(예: B → b)을 받을 때까지 대기 */
+  TLPacket requestResponse(TLPacket req) throws Exception;
+
+  /** 응답 프레임이 없는 요청(R 리셋 등) 송신: ACK까지만 확인 */
+  void sendNoResponse(TLPacket req) throws Exception;
+
+  /**
+   * 진행 중인 requestResponse 대기를 끊는다 (다른 스레드에서 호출). 대기 중이던 호출은 {@link
+   * java.util.concurrent.CancellationException}으로 끝난다. 단말 자체는 그대로이므로 호출자가 리셋을 보내야 한다.
+   */
+  void abort();
+
+  /**
+   * 중단된 요청의 최종 응답(예: B → b)이 늦게 오는지 waitMs 동안 본다. abort() 뒤 리셋을 보낸 호출자가, 단말이 이미 승인까지
+   * 마쳤는지 확인할 때 쓴다. 이 사이 다른 요청을 보내면 안 된다.
+   *
+   * @param request 중단된 요청 잡코드
+   * @return 늦게 온 최종 응답 (없으면 null)
+   */
+  default TLPacket awaitLateResponse(JobCode request, int waitMs) throws Exception {
+    return null;
+  }
+
+  /** EVENT 프레임 구독자 등록 (카드 삽입/PIN 입력 등 진행 상황) */
+  void setEventListener(TLEventListener listener);
+
+  /**
+   * true면 세션(포트)을 계속 열어 두는 클라이언트. 게이트웨이는 호출마다 open/close 하지 않는다.
+   */
+  default boolean persistentSession() {
+    return false;
+  }
+
+  /**
+   * 진행 중인 요청이 후속 프레임만 기다리고 있어 다른 요청을 프레임 사이에 끼워 보낼 수 있는 상태인가. 파이프라인을 지원하지 않는
+   * 클라이언트는 항상 false.
+   */
+  default boolean readyForPipelinedRequest() {
+    return false;
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 여러 단말의 프로토콜 상태 머신을 하나의 스레드로 돌리는 이벤트 루프.
+ *
+ * <p>전송 계층의 readiness 통지와 요청 제출은 {@link #execute}로 작업 큐에 들어오고, ACK/응답/후속 프레임 데드라인은
+ * {@link TimerWheel}에 걸린다. 할 일이 없으면 가장 가까운 데드라인(타이머가 없으면 다음 작업)까지 park 하므로 단말 수가
+ * 늘어도 스레드와 대기 중 메모리는 늘지 않는다. 상태 머신 코드는 모두 이 스레드에서만 실행되어 잠금이 필요 없다. 전송 계층
+ * 쓰기는 각 클라이언트가 루프 밖에서 한다.
+ */
+@Slf4j
+public final class TerminalEventLoop implements AutoCloseable {
+
+  public static final int DEFAULT_TICK_MS = 10;
+  private static final int WHEEL_SIZE = 512;
+
+  private static volatile TerminalEventLoop shared;
+
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+  private final TimerWheel wheel;
+  private final Thread thread;
+  private volatile boolean running = true;
+
+  public TerminalEventLoop(String name, int tickMs) {
+    this.wheel = new TimerWheel(tickMs, WHEEL_SIZE, System.nanoTime());
+    this.thread = new Thread(this::run, name);
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /** 프로세스 공용 루프 (최초 사용 시 시작, 이후 tickMs는 무시) */
+  public static TerminalEventLoop shared(int tickMs) {
+    TerminalEventLoop l = shared;
+    if (l == null) {
+      synchronized (TerminalEventLoop.class) {
+        l = shared;
+        if (l == null) {
+          l = new TerminalEventLoop("tl-event-loop", tickMs);
+          shared = l;
+        }
+      }
+    }
+    return l;
+  }
+
+  /** 루프 스레드에서 실행 (임의 스레드에서 호출 가능) */
+  public void execute(Runnable task) {
+    tasks.add(task);
+    LockSupport.unpark(thread);
+  }
+
+  boolean inLoop() {
+    return Thread.currentThread() == thread;
+  }
+
+  /** delayMs 뒤 루프 스레드에서 실행. 루프 스레드에서만 호출한다. */
+  TimerWheel.Timeout schedule(long delayMs, Runnable task) {
+    if (!inLoop()) {
+      throw new IllegalStateException("schedule() outside event loop");
+    }
+    return wheel.schedule(delayMs, task, System.nanoTime());
+  }
+
+  private void run() {
+    while (running) {
+      Runnable task;
+      while ((task = tasks.poll()) != null) {
+        try {
+          task.run();
+        } catch (Exception e) {
+          // 한 단말의 오류가 다른 단말을 멈추지 않도록 작업 단위로 격리
+          log.warn("[TL3800] event loop task failed: {}", e.toString());
+        }
+      }
+      wheel.advance(System.nanoTime());
+      if (!tasks.isEmpty()) {
+        continue;
+      }
+      long park = wheel.nanosToNextDeadline(System.nanoTime());
+      if (park < 0) {
+        LockSupport.park(this);
+      } else if (park > 0) {
+        LockSupport.parkNanos(this, park);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    LockSupport.unpark(thread);
+    try {
+      thread.join(1000);
+    } catch (InterruptedException ignored) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
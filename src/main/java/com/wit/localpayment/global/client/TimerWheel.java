@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 해시드 타이머 휠. 단말마다 걸리는 ACK/응답/후속 프레임 데드라인을 틱 단위 슬롯에 담아, 타이머 수와 무관하게 등록/취소를
+ * O(1)로 처리한다. 정밀도는 틱 크기만큼이며 이벤트 루프 스레드 전용이다(동기화 없음).
+ *
+ * <p>가장 가까운 데드라인 틱을 따로 들고 있어 루프는 그때까지 한 번에 park 한다. 취소된 타이머가 가장 가까웠으면 한 번 일찍
+ * 깨고, 그때 남은 타이머로 다시 계산한다.
+ */
+@Slf4j
+final class TimerWheel {
+
+  /** 등록된 타이머 1건. 만료 전이면 취소할 수 있다. */
+  final class Timeout {
+
+    private final long deadlineTick;
+    private final Runnable task;
+    private boolean done;
+
+    private Timeout(long deadlineTick, Runnable task) {
+      this.deadlineTick = deadlineTick;
+      this.task = task;
+    }
+
+    void cancel() {
+      if (!done) {
+        done = true;
+        pending--;
+      }
+    }
+  }
+
+  private final long tickNanos;
+  private final long startNanos;
+  private final List<Timeout>[] slots;
+  private final int mask;
+  private long tick; // 다음에 처리할 틱
+  private int pending;
+  // 가장 이른 데드라인 틱. 취소된 타이머 몫이면 실제보다 이를 수 있다.
+  private long nearest = Long.MAX_VALUE;
+
+  /**
+   * @param tickMs 틱 크기 (데드라인 정밀도)
+   * @param wheelSize 슬롯 수 (2의 거듭제곱으로 올림). 한 바퀴를 넘는 데드라인은 해당 틱이 될 때까지 슬롯에 남는다.
+   */
+  @SuppressWarnings("unchecked")
+  TimerWheel(int tickMs, int wheelSize, long nowNanos) {
+    if (tickMs <= 0) {
+      throw new IllegalArgumentException("tickMs must be positive: " + tickMs);
+    }
+    int n = Integer.highestOneBit(Math.max(wheelSize - 1, 1)) << 1;
+    this.tickNanos = tickMs * 1_000_000L;
+    this.startNanos = nowNanos;
+    this.slots = new List[n];
+    for (int i = 0; i < n; i++) {
+      slots[i] = new ArrayList<>();
+    }
+    this.mask = n - 1;
+  }
+
+  Timeout schedule(long delayMs, Runnable task, long nowNanos) {
+    if (pending == 0) {
+      tick = tickOf(nowNanos); // 유휴 동안 지나간 빈 틱은 건너뛴다
+      nearest = Long.MAX_VALUE;
+    }
+    long ticks = Math.max(1L, (delayMs * 1_000_000L + tickNanos - 1) / tickNanos);
+    long deadline = Math.max(tickOf(nowNanos) + ticks, tick);
+    Timeout t = new Timeout(deadline, task);
+    slots[(int) (deadline & mask)].add(t);
+    pending++;
+    nearest = Math.min(nearest, deadline);
+    return t;
+  }
+
+  /** now까지 지난 틱의 만료 타이머를 실행한다. */
+  void advance(long nowNanos) {
+    long target = tickOf(nowNanos);
+    if (pending == 0 || target < nearest) {
+      // 만료될 타이머 없음. 건너뛴 슬롯의 취소분은 다음 바퀴에 치운다.
+      tick = Math.max(tick, target + 1);
+      return;
+    }
+    List<Timeout> expired = null;
+    for (; tick <= target; tick++) {
+      Iterator<Timeout> it = slots[(int) (tick & mask)].iterator();
+      while (it.hasNext()) {
+        Timeout t = it.next();
+        if (t.done) {
+          it.remove();
+        } else if (t.deadlineTick <= tick) {
+          it.remove();
+          t.done = true;
+          pending--;
+          if (expired == null) {
+            expired = new ArrayList<>();
+          }
+          expired.add(t);
+        }
+      }
+    }
+    nearest = scanNearest();
+    if (expired == null) {
+      return;
+    }
+    // 실행 중 새 타이머를 걸 수 있도록 슬롯 순회가 끝난 뒤 실행
+    for (Timeout t : expired) {
+      try {
+        t.task.run();
+      } catch (Exception e) {
+        log.warn("[TL3800] timer task failed: {}", e.toString());
+      }
+    }
+  }
+
+  /** 가장 가까운 데드라인까지 남은 시간. 걸린 타이머가 없으면 -1 (무기한 대기 가능). */
+  long nanosToNextDeadline(long nowNanos) {
+    if (pending == 0) {
+      return -1;
+    }
+    return Math.max(0L, startNanos + nearest * tickNanos - nowNanos);
+  }
+
+  int pending() {
+    return pending;
+  }
+
+  private long scanNearest() {
+    long min = Long.MAX_VALUE;
+    if (pending == 0) {
+      return min;
+    }
+    for (List<Timeout> slot : slots) {
+      for (Timeout t : slot) {
+        if (!t.done && t.deadlineTick < min) {
+          min = t.deadlineTick;
+        }
+      }
+    }
+    return min;
+  }
+
+  private long tickOf(long nowNanos) {
+    return (nowNanos - startNanos) / tickNanos;
+  }
+}
@@ -3,17 +3,45 @@
  */
 package com.wit.localpayment.global.config;
 
+import com.wit.localpayment.domain.pay.service.TransactionService;
 import com.wit.localpayment.global.TL3800Gateway;
-import com.wit.localpayment.global.client.TL3800Client;
+import com.wit.localpayment.global.client.LineQualityMonitor;
+import com.wit.localpayment.global.client.TerminalClient;
 import com.wit.localpayment.global.payload.Requests;
+import com.wit.localpayment.global.proto.JobCompatibility;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class ApiConfig {
 
+  /**
+   * admission: 단말을 기다리는 요청 수/시간 상한. 넘는 요청은 Tomcat 스레드를 붙잡고 쌓이지 않고 503 + Retry-After로
+   * 바로 돌려보낸다 (0이면 무제한). 회선 품질 조치는 호출이 끝날 때마다 단말 잠금 안에서 확인한다.
+   */
   @Bean
-  TL3800Gateway tl3800Gateway(TL3800Client client, Requests factory) {
-    return new TL3800Gateway(client, factory);
+  TL3800Gateway tl3800Gateway(
+      TerminalClient client,
+      Requests factory,
+      JobCompatibility compatibility,
+      LineQualityMonitor lineMonitor,
+      @Value("${tl3800.admission.max-queue:4}") int maxQueue,
+      @Value("${tl3800.admission.max-wait-ms:15000}") long maxWaitMs) {
+    TL3800Gateway gateway =
+        new TL3800Gateway(client, factory, compatibility, maxQueue, maxWaitMs);
+    gateway.setLineMonitor(lineMonitor);
+    return gateway;
+  }
+
+  /**
+   * 승인/취소 응답을 거래 저장소에 남기는 리스너는 TransactionService가 생성될 때 게이트웨이에 붙는다. 조회 컨트롤러만 이 빈을
+   * 참조하므로 지연 초기화(kiosk 등)에서도 기동 시 만들어지게 한다. 안 그러면 조회 전까지 결제가 기록되지 않고, 인수 정리
+   * ({@code FailoverRecoveryService})가 승인을 찾지 못해 결제중단으로 보고한다.
+   */
+  @Bean
+  static LazyInitializationExcludeFilter transactionRecordingEagerInit() {
+    return LazyInitializationExcludeFilter.forBeanTypes(TransactionService.class);
   }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.config;
+
+import com.wit.localpayment.domain.pay.controller.LocalPayController;
+import com.wit.localpayment.domain.pay.service.FailoverRecoveryService;
+import com.wit.localpayment.global.TL3800Gateway;
+import com.wit.localpayment.global.client.TerminalClient;
+import com.wit.localpayment.global.proto.TLPacket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+
+/**
+ * 키오스크 현장 기동 프로필 (설정 저장소의 application-kiosk.yml과 함께 사용).
+ *
+ * <p>전역 지연 초기화를 켠 상태에서 결제 경로(컨트롤러 → 게이트웨이 → 단말 클라이언트)만 기동 시 미리 만들고, 기동 직후 장치체크로
+ * 단말 세션을 열어 둔다. 첫 결제 요청이 빈 생성/포트 open 비용을 치르지 않게 하기 위함. 활성/대기 구성의 인수 정리 빈은
+ * 다른 빈이 참조하지 않으므로 함께 미리 만든다(대기 프로세스는 장치체크를 건너뛴다).
+ *
+ * <p>프로필 설정은 src/main/resources(설정 저장소 서브모듈)에 둔다. 단말 클라이언트는 기본값(blocking)을 그대로 쓴다.
+ *
+ * <pre>
+ * spring.main.lazy-initialization: true
+ * spring.mvc.servlet.load-on-startup: 1
+ * spring.jmx.enabled: false
+ * springdoc.api-docs.enabled: false
+ * springdoc.swagger-ui.enabled: false
+ * tl3800.kiosk.warmup-device-check: true
+ * </pre>
+ */
+@Slf4j
+@Configuration
+@Profile("kiosk")
+public class KioskConfig {
+
+  private final TL3800Gateway gateway;
+
+  @Value("${tl3800.kiosk.warmup-device-check:true}")
+  private boolean warmupDeviceCheck;
+
+  public KioskConfig(TL3800Gateway gateway) {
+    this.gateway = gateway;
+  }
+
+  @Bean
+  static LazyInitializationExcludeFilter paymentPathEagerInit() {
+    return LazyInitializationExcludeFilter.forBeanTypes(
+        LocalPayController.class,
+        TL3800Gateway.class,
+        TerminalClient.class,
+        FailoverRecoveryService.class);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUpTerminal() {
+    if (!warmupDeviceCheck || gateway.standby()) {
+      return;
+    }
+    long t0 = System.nanoTime();
+    try {
+      TLPacket resp = gateway.deviceCheck();
+      log.info(
+          "[KIOSK] 단말 장치체크 완료 - job={}, resp={}, {}ms",
+          resp.jobCode,
+          resp.responseCode,
+          (System.nanoTime() - t0) / 1_000_000);
+    } catch (Exception e) {
+      // 기동은 계속: 첫 결제 때 다시 open 시도
+      log.warn("[KIOSK] 단말 장치체크 실패 - {}", e.toString());
+    }
+  }
+}
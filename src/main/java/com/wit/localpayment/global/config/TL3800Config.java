@@ -1,9 +1,32 @@
 package com.wit.localpayment.global.config;
 
+import com.wit.localpayment.global.client.AdaptiveTimeouts;
+import com.wit.localpayment.global.client.DuplexTL3800Client;
+import com.wit.localpayment.global.client.EventLoopTL3800Client;
+import com.wit.localpayment.global.client.LineQuality;
+import com.wit.localpayment.global.client.LineQualityMonitor;
+import com.wit.localpayment.global.client.SerialPortDiscovery;
 import com.wit.localpayment.global.client.TL3800Client;
+import com.wit.localpayment.global.client.TerminalClient;
+import com.wit.localpayment.global.client.TerminalEventLoop;
+import com.wit.localpayment.global.event.TerminalEventBus;
+import com.wit.localpayment.global.event.TerminalEventDecoder;
 import com.wit.localpayment.global.payload.Requests;
+import com.wit.localpayment.global.proto.FrameClock;
+import com.wit.localpayment.global.proto.JobCompatibility;
+import com.wit.localpayment.global.standby.StandbyCoordinator;
+import com.wit.localpayment.global.transport.NioSelectorLoop;
 import com.wit.localpayment.global.transport.SerialPortTransport;
+import com.wit.localpayment.global.transport.SimulatedTerminalTransport;
+import com.wit.localpayment.global.transport.SocketChannelTransport;
 import com.wit.localpayment.global.transport.TLTransport;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.regex.Pattern;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,9 +38,39 @@ public class TL3800Config {
   @Value("${tl3800.terminal-id}")
   private String terminalId;
 
-  @Value("${tl3800.port}")
+  // serial | tcp | simulator
+  @Value("${tl3800.transport:serial}")
+  private String transport;
+
+  // 장치 경로(/dev/ttyUSB0, COM3 …) 또는 auto (기동 시 포트/속도 탐색)
+  @Value("${tl3800.port:}")
   private String port;
 
+  @Value("${tl3800.host:}")
+  private String host;
+
+  @Value("${tl3800.tcp-port:0}")
+  private int tcpPort;
+
+  @Value("${tl3800.connect-timeout-ms:3000}")
+  private int connectTimeoutMs;
+
+  // 시뮬레이터(하드웨어 없는 로컬 실행/부하 측정용) 지연·거절률
+  @Value("${tl3800.sim.ack-delay-ms:20}")
+  private int simAckDelayMs;
+
+  @Value("${tl3800.sim.event-delay-ms:300}")
+  private int simEventDelayMs;
+
+  @Value("${tl3800.sim.response-delay-ms:1500}")
+  private int simResponseDelayMs;
+
+  @Value("${tl3800.sim.decline-rate:0.0}")
+  private double simDeclineRate;
+
+  @Value("${tl3800.sim.seed:42}")
+  private long simSeed;
+
   @Value("${tl3800.baud-rate:115200}")
   private int baudRate;
 
@@ -39,23 +92,243 @@ public class TL3800Config {
   @Value("${tl3800.max-ack-retry:3}")
   private int maxAckRetry;
 
+  // blocking: 호출마다 포트 open/close, duplex: 세션 유지 + 전용 수신 스레드,
+  // eventloop: 세션 유지 + 공용 이벤트 루프 1개가 여러 단말의 상태 머신을 구동
+  @Value("${tl3800.client-mode:blocking}")
+  private String clientMode;
+
+  // eventloop 전용: 타이머 휠 틱 (ACK/응답 데드라인 정밀도)
+  @Value("${tl3800.eventloop.tick-ms:10}")
+  private int eventLoopTickMs;
+
+  @Value("${tl3800.followup-window-ms:180000}")
+  private int followUpWindowMs;
+
+  // duplex 전용: 진행 중 요청:끼워 보낼 요청 (예: B:A,C:A). 비어 있으면 항상 직렬
+  @Value("${tl3800.pipeline.compatible:}")
+  private String pipelineCompatible;
+
+  @Value("${tl3800.events.buffer-per-terminal:64}")
+  private int eventBufferPerTerminal;
+
+  // 적응형 대기: 관측 분위수 × 안전계수, [floor, ack-wait-ms/resp-wait-ms] 범위
+  @Value("${tl3800.adaptive.enabled:true}")
+  private boolean adaptiveEnabled;
+
+  @Value("${tl3800.adaptive.percentile:0.99}")
+  private double adaptivePercentile;
+
+  @Value("${tl3800.adaptive.safety-factor:4.0}")
+  private double adaptiveSafetyFactor;
+
+  @Value("${tl3800.adaptive.min-samples:30}")
+  private int adaptiveMinSamples;
+
+  @Value("${tl3800.adaptive.floor-ms:200}")
+  private int adaptiveFloorMs;
+
+  // port=auto 전용: 속도 후보(앞에서부터, baud-rate가 맨 앞), 탐침 1회 대기, 후보 포트 이름 정규식, 마지막 결과 캐시
+  @Value("${tl3800.discovery.baud-rates:115200,57600,38400,19200,9600}")
+  private String discoveryBaudRates;
+
+  @Value("${tl3800.discovery.probe-timeout-ms:500}")
+  private int discoveryProbeTimeoutMs;
+
+  @Value("${tl3800.discovery.port-pattern:}")
+  private String discoveryPortPattern;
+
+  @Value("${tl3800.discovery.cache-file:./data/tl3800-port.properties}")
+  private String discoveryCacheFile;
+
+  // 활성/대기 구성: 대기로 뜨면 port=auto라도 탐색하지 않고 활성 프로세스가 남긴 캐시를 쓴다
+  @Value("${local.standby.enabled:false}")
+  private boolean standbyEnabled;
+
+  @Value("${local.standby.lease-file:./data/standby.lease}")
+  private String standbyLeaseFile;
+
+  // 회선 품질: window 오류율이 error-rate 이상이면 재오픈 → baud-fallback 순서로 속도 낮춤 → 격리,
+  // quarantine-rate 이상이면 바로 격리. baud-fallback은 단말 속도도 같이 바뀌는 환경에서만 지정 (예: 57600,38400)
+  @Value("${tl3800.line-quality.enabled:true}")
+  private boolean lineQualityEnabled;
+
+  @Value("${tl3800.line-quality.window-ms:60000}")
+  private long lineQualityWindowMs;
+
+  @Value("${tl3800.line-quality.min-samples:20}")
+  private int lineQualityMinSamples;
+
+  @Value("${tl3800.line-quality.error-rate:0.2}")
+  private double lineQualityErrorRate;
+
+  @Value("${tl3800.line-quality.quarantine-rate:0.5}")
+  private double lineQualityQuarantineRate;
+
+  @Value("${tl3800.line-quality.quarantine-ms:300000}")
+  private long lineQualityQuarantineMs;
+
+  @Value("${tl3800.line-quality.baud-fallback:}")
+  private String lineQualityBaudFallback;
+
+  // 비어 있으면 시스템 시계, YYYYMMDDhhmmss 지정 시 고정 시계 (시뮬레이터 재현용)
+  @Value("${tl3800.fixed-date-time:}")
+  private String fixedDateTime;
+
   // --- beans ---
   @Bean
   public TLTransport tlTransport() {
+    if ("simulator".equalsIgnoreCase(transport)) {
+      return new SimulatedTerminalTransport(
+          terminalId,
+          frameClock(),
+          simAckDelayMs,
+          simEventDelayMs,
+          simResponseDelayMs,
+          simDeclineRate,
+          simSeed);
+    }
+    if ("tcp".equalsIgnoreCase(transport)) {
+      if (host == null || host.isBlank() || tcpPort <= 0) {
+        throw new IllegalStateException(
+            "Properties 'tl3800.host' and 'tl3800.tcp-port' are required for tcp transport.");
+      }
+      return new SocketChannelTransport(
+          host, tcpPort, connectTimeoutMs, respWaitMs, NioSelectorLoop.shared());
+    }
     if (port == null || port.isBlank()) {
-      throw new IllegalStateException("Property 'tl3800.port' is missing or blank.");
+      throw new IllegalStateException(
+          "Property 'tl3800.port' is missing or blank (use 'auto' to discover).");
+    }
+    if ("auto".equalsIgnoreCase(port.trim())) {
+      // 활성 프로세스가 단말을 쓰는 중이면 탐침(A)이 그 포트로 나가므로 캐시된 결과만 읽는다
+      SerialPortDiscovery discovery = serialPortDiscovery();
+      SerialPortDiscovery.Binding b =
+          standbyEnabled && StandbyCoordinator.peerHoldsLease(standbyLeaseFile)
+              ? discovery.cached()
+              : discovery.discover();
+      return new SerialPortTransport(
+          b.port(), b.baudRate(), dataBits, stopBits, parity, respWaitMs);
     }
     return new SerialPortTransport(port, baudRate, dataBits, stopBits, parity, respWaitMs);
   }
 
+  private SerialPortDiscovery serialPortDiscovery() {
+    int[] bauds =
+        Arrays.stream((baudRate + "," + discoveryBaudRates).split(","))
+            .map(String::trim)
+            .filter(s -> !s.isEmpty())
+            .mapToInt(Integer::parseInt)
+            .distinct()
+            .toArray();
+    return new SerialPortDiscovery(
+        terminalId,
+        bauds,
+        dataBits,
+        stopBits,
+        parity,
+        discoveryProbeTimeoutMs,
+        discoveryPortPattern.isBlank() ? null : Pattern.compile(discoveryPortPattern),
+        discoveryCacheFile.isBlank() ? null : Path.of(discoveryCacheFile));
+  }
+
+  @Bean(destroyMethod = "close")
+  public TerminalEventBus terminalEventBus() {
+    return new TerminalEventBus(eventBufferPerTerminal);
+  }
+
+  @Bean
+  public LineQuality lineQuality() {
+    return new LineQuality(lineQualityWindowMs);
+  }
+
+  @Bean
+  public TerminalClient tl3800Client(
+      TLTransport t, TerminalEventBus eventBus, LineQuality lineQuality) {
+    AdaptiveTimeouts timeouts =
+        new AdaptiveTimeouts(
+            adaptiveEnabled,
+            ackWaitMs,
+            respWaitMs,
+            adaptivePercentile,
+            adaptiveSafetyFactor,
+            adaptiveMinSamples,
+            adaptiveFloorMs);
+    TerminalClient client;
+    if ("duplex".equalsIgnoreCase(clientMode)) {
+      client =
+          new DuplexTL3800Client(
+              t,
+              terminalId,
+              ackWaitMs,
+              respWaitMs,
+              maxAckRetry,
+              followUpWindowMs,
+              timeouts,
+              lineQuality);
+    } else if ("eventloop".equalsIgnoreCase(clientMode)) {
+      client =
+          new EventLoopTL3800Client(
+              t,
+              TerminalEventLoop.shared(eventLoopTickMs),
+              terminalId,
+              respWaitMs,
+              maxAckRetry,
+              followUpWindowMs,
+              timeouts,
+              lineQuality);
+    } else {
+      client =
+          new TL3800Client(
+              t, ackWaitMs, respWaitMs, maxAckRetry, followUpWindowMs, timeouts, lineQuality);
+    }
+    client.setEventListener(new TerminalEventDecoder(eventBus));
+    return client;
+  }
+
+  @Bean
+  public LineQualityMonitor lineQualityMonitor(
+      LineQuality lineQuality, TerminalClient client, TLTransport t) {
+    SerialPortTransport serial = (t instanceof SerialPortTransport s) ? s : null;
+    int[] fallback =
+        (serial == null || lineQualityBaudFallback.isBlank())
+            ? new int[0]
+            : Arrays.stream(lineQualityBaudFallback.split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    return new LineQualityMonitor(
+        terminalId,
+        lineQuality,
+        client,
+        t,
+        lineQualityEnabled,
+        lineQualityErrorRate,
+        lineQualityQuarantineRate,
+        lineQualityMinSamples,
+        lineQualityQuarantineMs,
+        serial == null ? 0 : serial.baudRate(),
+        fallback);
+  }
+
+  @Bean
+  public FrameClock frameClock() {
+    if (fixedDateTime == null || fixedDateTime.isBlank()) {
+      return FrameClock.system();
+    }
+    ZoneId zone = ZoneId.systemDefault();
+    LocalDateTime fixed =
+        LocalDateTime.parse(fixedDateTime.trim(), DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+    return FrameClock.of(Clock.fixed(fixed.atZone(zone).toInstant(), zone));
+  }
+
   @Bean
-  public TL3800Client tl3800Client(TLTransport t) {
-    return new TL3800Client(t, ackWaitMs, respWaitMs, maxAckRetry);
+  public JobCompatibility jobCompatibility() {
+    return JobCompatibility.parse(pipelineCompatible);
   }
 
   @Bean
-  public Requests requests() {
-    return new Requests(terminalId);
+  public Requests requests(FrameClock frameClock) {
+    return new Requests(terminalId, frameClock);
   }
 }
 
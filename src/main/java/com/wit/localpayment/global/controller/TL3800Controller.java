@@ -4,26 +4,101 @@
 package com.wit.localpayment.global.controller;
 
 import com.wit.localpayment.global.TL3800Gateway;
+import com.wit.localpayment.global.client.LineQualityMonitor;
 import com.wit.localpayment.global.dto.request.ApproveRequest;
 import com.wit.localpayment.global.dto.request.CancelRequest;
 import com.wit.localpayment.global.dto.response.PacketResponse;
+import com.wit.localpayment.global.event.TerminalEventBus;
+import com.wit.localpayment.global.fleet.FleetStatusService;
 import com.wit.localpayment.global.proto.TLPacket;
-import com.wit.localpayment.global.util.Hex;
+import com.wit.localpayment.global.standby.StandbyCoordinator;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping(value = "/api/tl3800", produces = MediaType.APPLICATION_JSON_VALUE)
 public class TL3800Controller {
 
+  // SSE 연결 유지 시간 (키오스크는 끊기면 재연결)
+  private static final long EVENT_STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+
   private final TL3800Gateway gateway;
+  private final TerminalEventBus eventBus;
+  private final StandbyCoordinator standby;
+  private final FleetStatusService fleet;
 
-  public TL3800Controller(TL3800Gateway gateway) {
+  public TL3800Controller(
+      TL3800Gateway gateway,
+      TerminalEventBus eventBus,
+      StandbyCoordinator standby,
+      FleetStatusService fleet) {
     this.gateway = gateway;
+    this.eventBus = eventBus;
+    this.standby = standby;
+    this.fleet = fleet;
+  }
+
+  /**
+   * 단말 진행 이벤트(카드 삽입/PIN 입력 등) 스트림. terminalId 생략 시 전체 단말. SSE 이벤트 이름은 종류별(card-inserted,
+   * pin-entry, terminal-event)이다.
+   */
+  @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter events(@RequestParam(required = false) String terminalId) {
+    SseEmitter emitter = new SseEmitter(EVENT_STREAM_TIMEOUT_MS);
+    TerminalEventBus.Subscription sub =
+        eventBus.subscribe(
+            terminalId,
+            e -> {
+              try {
+                emitter.send(
+                    SseEmitter.event().id(String.valueOf(e.seq())).name(e.type()).data(e));
+              } catch (IOException ex) {
+                throw new UncheckedIOException(ex); // 버스가 구독 해제
+              }
+            });
+    emitter.onCompletion(sub::close);
+    emitter.onTimeout(sub::close);
+    emitter.onError(ex -> sub.close());
+    return emitter;
+  }
+
+  /** 단말 대기열 깊이/거절 건수 (모니터링 수집용) */
+  @GetMapping("/admission")
+  public TL3800Gateway.AdmissionStatus admission() {
+    return gateway.admissionStatus();
+  }
+
+  /** 회선 품질 카운터/최근 오류율/조치 단계 (모니터링 수집용). 모니터가 없으면 null. */
+  @GetMapping("/line-quality")
+  public LineQualityMonitor.Status lineQuality() {
+    LineQualityMonitor monitor = gateway.lineMonitor();
+    return (monitor == null) ? null : monitor.status();
+  }
+
+  /** 활성/대기 역할과 lease 보유자 heartbeat (모니터링 수집용) */
+  @GetMapping("/standby")
+  public StandbyCoordinator.Status standby() {
+    return standby.status();
+  }
+
+  /**
+   * 매장 단말 전체 장치체크 (단말별 병렬, 마감 있음). 짧게 캐시하므로 잦은 조회도 단말을 붙잡지 않는다.
+   *
+   * @param refresh true면 캐시를 무시하고 다시 점검
+   */
+  @GetMapping("/fleet")
+  public FleetStatusService.FleetStatus fleet(@RequestParam(defaultValue = "false") boolean refresh)
+      throws Exception {
+    return fleet.status(refresh);
   }
 
   @PostMapping("/device-check")
@@ -34,7 +109,7 @@ public class TL3800Controller {
         p.dateTime14,
         String.valueOf(p.jobCode.code),
         Byte.toUnsignedInt(p.responseCode),
-        Hex.toHex(p.data));
+        p.data);
   }
 
   @PostMapping("/approve")
@@ -45,7 +120,7 @@ public class TL3800Controller {
         p.dateTime14,
         String.valueOf(p.jobCode.code),
         Byte.toUnsignedInt(p.responseCode),
-        Hex.toHex(p.data));
+        p.data);
   }
 
   @PostMapping("/cancel")
@@ -69,6 +144,6 @@ public class TL3800Controller {
         p.dateTime14,
         String.valueOf(p.jobCode.code),
         Byte.toUnsignedInt(p.responseCode),
-        Hex.toHex(p.data));
+        p.data);
   }
 }
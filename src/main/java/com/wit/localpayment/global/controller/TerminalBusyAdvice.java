@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.controller;
+
+import com.wit.localpayment.global.TerminalBusyException;
+import com.wit.localpayment.global.dto.response.TerminalBusyResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * 단말 admission 거절 → 503 + Retry-After (결제/단말 API 공통). 회선 격리면 "단말점검", 대기 프로세스면 "대기서버".
+ */
+@RestControllerAdvice
+public class TerminalBusyAdvice {
+
+  @ExceptionHandler(TerminalBusyException.class)
+  public ResponseEntity<TerminalBusyResponse> busy(TerminalBusyException e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.retryAfterSeconds()))
+        .body(
+            new TerminalBusyResponse(
+                false,
+                message(e),
+                e.queuePosition(),
+                e.queueDepth(),
+                e.retryAfterSeconds()));
+  }
+
+  private static String message(TerminalBusyException e) {
+    if (e.standby()) {
+      return "대기서버";
+    }
+    return e.lineDegraded() ? "단말점검" : "대기초과";
+  }
+}
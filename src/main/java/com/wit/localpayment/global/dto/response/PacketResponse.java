@@ -3,10 +3,14 @@
  */
 package com.wit.localpayment.global.dto.response;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.wit.localpayment.global.util.HexJsonSerializer;
+
 public record PacketResponse(
     String catOrMid,
     String dateTime14,
     String jobCode,
     int responseCode, // 0~255
-    String dataHex // 데이터 필드 원문(HEX) - 빠르게 디버깅하기 위함
+    @JsonSerialize(using = HexJsonSerializer.class)
+    byte[] dataHex // 데이터 필드 원문(HEX) - 빠르게 디버깅하기 위함
     ) {}
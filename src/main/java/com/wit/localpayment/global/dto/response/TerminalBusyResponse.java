@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "단말 대기열 초과 응답 DTO (503)")
+public record TerminalBusyResponse(
+    @Schema(description = "성공 여부 (항상 false)") boolean success,
+    @Schema(description = "상태 (대기초과 / 단말점검 / 대기서버)") String message,
+    @Schema(description = "거절 시점에 이 요청이 섰을 대기열 위치 (1 = 다음 차례)") int queuePosition,
+    @Schema(description = "거절 시점의 대기열 길이") int queueDepth,
+    @Schema(description = "다시 시도할 때까지 권장 대기 (초, Retry-After와 같음)") long retryAfterSeconds) {}
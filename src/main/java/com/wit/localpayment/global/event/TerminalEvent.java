@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.event;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.wit.localpayment.global.proto.Proto;
+import com.wit.localpayment.global.proto.TLPacket;
+import com.wit.localpayment.global.util.HexJsonSerializer;
+import java.util.Arrays;
+
+/**
+ * 단말 진행 이벤트('@' 프레임) 디코딩 결과.
+ *
+ * <p>데이터 첫 바이트를 이벤트 코드로, 나머지를 메시지로 본다. 메시지가 출력 가능한 ASCII가 아니면 HEX로 남긴다. 아는 코드는 전용
+ * 레코드로 나오고, 모르는 코드는 {@link Other}로 원본 코드/데이터와 함께 나오므로 단말 펌웨어가 코드를 늘려도 빠지지 않는다.
+ */
+public sealed interface TerminalEvent {
+
+  /** 카드 삽입/태그 감지 */
+  char CARD_INSERTED = '1';
+
+  /** PIN 입력 대기 */
+  char PIN_ENTRY = '2';
+
+  String terminalId();
+
+  long seq();
+
+  long receivedAtMillis();
+
+  String dateTime14();
+
+  /** SSE 이벤트 이름 */
+  String type();
+
+  record CardInserted(
+      String terminalId, long seq, long receivedAtMillis, String dateTime14, String message)
+      implements TerminalEvent {
+
+    @Override
+    public String type() {
+      return "card-inserted";
+    }
+  }
+
+  record PinEntry(
+      String terminalId, long seq, long receivedAtMillis, String dateTime14, String message)
+      implements TerminalEvent {
+
+    @Override
+    public String type() {
+      return "pin-entry";
+    }
+  }
+
+  record Other(
+      String terminalId,
+      long seq,
+      long receivedAtMillis,
+      String dateTime14,
+      String code,
+      String message,
+      @JsonSerialize(using = HexJsonSerializer.class) byte[] dataHex)
+      implements TerminalEvent {
+
+    @Override
+    public String type() {
+      return "terminal-event";
+    }
+  }
+
+  static TerminalEvent decode(TLPacket p, long seq, long receivedAtMillis) {
+    byte[] d = p.data;
+    String message = d.length > 1 ? Proto.printableOrHex(Arrays.copyOfRange(d, 1, d.length)) : "";
+    if (d.length == 0) {
+      return new Other(p.catOrMid, seq, receivedAtMillis, p.dateTime14, "", message, d);
+    }
+    return switch ((char) d[0]) {
+      case CARD_INSERTED ->
+          new CardInserted(p.catOrMid, seq, receivedAtMillis, p.dateTime14, message);
+      case PIN_ENTRY -> new PinEntry(p.catOrMid, seq, receivedAtMillis, p.dateTime14, message);
+      default ->
+          new Other(
+              p.catOrMid,
+              seq,
+              receivedAtMillis,
+              p.dateTime14,
+              new String(d, 0, 1, US_ASCII),
+              message,
+              d);
+    };
+  }
+}
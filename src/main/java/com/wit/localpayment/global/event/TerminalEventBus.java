@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.event;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 단말 EVENT 배포 버스.
+ *
+ * <p>수신 경로(시리얼 읽기 스레드)는 {@link #publish}로 단말별 고정 크기 버퍼에 넣기만 하고 바로 돌아간다. 버퍼가 차면 가장
+ * 오래된 이벤트를 버린다. 디스패처 스레드는 이벤트를 구독자별 고정 크기 큐에 나눠 담기만 하고, 실제 전달(SSE 전송 등 블로킹 I/O)은
+ * 구독자마다 둔 가상 스레드가 한다. 느린 구독자는 자기 큐에서 오래된 이벤트를 잃을 뿐 ACK 경로나 다른 구독자를 막지 않는다.
+ */
+@Slf4j
+public final class TerminalEventBus implements AutoCloseable {
+
+  /** 구독 해제 핸들 */
+  public interface Subscription extends AutoCloseable {
+
+    @Override
+    void close();
+  }
+
+  private static final class Subscriber {
+
+    private final String terminalId;
+    private final Consumer<TerminalEvent> sink;
+    private final ArrayBlockingQueue<TerminalEvent> queue;
+    private Thread sender;
+
+    private Subscriber(String terminalId, Consumer<TerminalEvent> sink, int capacity) {
+      this.terminalId = terminalId;
+      this.sink = sink;
+      this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+  }
+
+  private final int capacity;
+  private final Map<String, ArrayBlockingQueue<TerminalEvent>> rings = new ConcurrentHashMap<>();
+  private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+  private final Semaphore pending = new Semaphore(0);
+  private final AtomicLong dropped = new AtomicLong();
+  private final Thread dispatcher;
+  private volatile boolean running = true;
+
+  public TerminalEventBus(int capacityPerTerminal) {
+    this.capacity = capacityPerTerminal;
+    this.dispatcher = new Thread(this::dispatchLoop, "tl-event-dispatch");
+    this.dispatcher.setDaemon(true);
+    this.dispatcher.start();
+  }
+
+  /** 수신 스레드에서 호출. 블로킹 없음. */
+  public void publish(TerminalEvent e) {
+    ArrayBlockingQueue<TerminalEvent> ring =
+        rings.computeIfAbsent(e.terminalId(), k -> new ArrayBlockingQueue<>(capacity));
+    offerDroppingOldest(ring, e);
+    pending.release();
+  }
+
+  /**
+   * sink는 구독 전용 가상 스레드에서 순서대로 불리므로 블로킹해도 된다. 예외를 던지면 구독이 해제된다.
+   *
+   * @param terminalId null이면 모든 단말
+   */
+  public Subscription subscribe(String terminalId, Consumer<TerminalEvent> sink) {
+    Subscriber s = new Subscriber(terminalId, sink, capacity);
+    s.sender = Thread.ofVirtual().name("tl-event-send").unstarted(() -> sendLoop(s));
+    subscribers.add(s);
+    s.sender.start();
+    return () -> unsubscribe(s);
+  }
+
+  /** 버퍼 초과로 버려진 이벤트 수 (단말 버퍼 + 구독자 큐) */
+  public long droppedCount() {
+    return dropped.get();
+  }
+
+  private void dispatchLoop() {
+    while (running) {
+      try {
+        pending.acquire();
+        pending.drainPermits();
+      } catch (InterruptedException e) {
+        return;
+      }
+      for (ArrayBlockingQueue<TerminalEvent> ring : rings.values()) {
+        TerminalEvent e;
+        while ((e = ring.poll()) != null) {
+          fanOut(e);
+        }
+      }
+    }
+  }
+
+  private void fanOut(TerminalEvent e) {
+    for (Subscriber s : subscribers) {
+      if (s.terminalId == null || s.terminalId.equals(e.terminalId())) {
+        offerDroppingOldest(s.queue, e);
+      }
+    }
+  }
+
+  private void sendLoop(Subscriber s) {
+    while (running) {
+      TerminalEvent e;
+      try {
+        e = s.queue.take();
+      } catch (InterruptedException ex) {
+        return;
+      }
+      try {
+        s.sink.accept(e);
+      } catch (Exception ex) {
+        log.debug("[EVENT] subscriber failed → unsubscribe: {}", ex.toString());
+        subscribers.remove(s);
+        return;
+      }
+    }
+  }
+
+  private void unsubscribe(Subscriber s) {
+    subscribers.remove(s);
+    s.sender.interrupt();
+  }
+
+  private void offerDroppingOldest(ArrayBlockingQueue<TerminalEvent> q, TerminalEvent e) {
+    while (!q.offer(e)) {
+      if (q.poll() != null) {
+        dropped.incrementAndGet();
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    dispatcher.interrupt();
+    for (Subscriber s : subscribers) {
+      s.sender.interrupt();
+    }
+  }
+}
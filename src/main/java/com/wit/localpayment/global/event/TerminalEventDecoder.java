@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.event;
+
+import com.wit.localpayment.global.client.TLEventListener;
+import com.wit.localpayment.global.proto.TLPacket;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** 클라이언트의 EVENT 프레임을 {@link TerminalEvent}로 풀어 버스에 넘긴다. 수신 스레드에서 불리며 블로킹하지 않는다. */
+public final class TerminalEventDecoder implements TLEventListener {
+
+  private final TerminalEventBus bus;
+  private final AtomicLong seq = new AtomicLong();
+
+  public TerminalEventDecoder(TerminalEventBus bus) {
+    this.bus = bus;
+  }
+
+  @Override
+  public void onEvent(TLPacket eventFrame) {
+    bus.publish(
+        TerminalEvent.decode(eventFrame, seq.incrementAndGet(), System.currentTimeMillis()));
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.fleet;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * 장치체크 응답(a) 데이터. 앞 4바이트가 카드 모듈 / RF 모듈 / VAN 서버 연결 / 연동 서버 연결 상태다 ('O' 정상, 'X' 이상,
+ * 'N' 미사용). 펌웨어에 따라 짧게 오면 없는 항목은 UNKNOWN으로 둔다.
+ *
+ * @param raw 데이터 원문 (ASCII, 뒤 공백 제거)
+ */
+public record DeviceStatus(
+    Module cardModule, Module rfModule, Module vanServer, Module linkServer, String raw) {
+
+  public enum Module {
+    OK,
+    FAULT,
+    NOT_USED,
+    UNKNOWN;
+
+    static Module of(byte[] data, int index) {
+      if (data == null || data.length <= index) {
+        return UNKNOWN;
+      }
+      return switch (Character.toUpperCase((char) data[index])) {
+        case 'O' -> OK;
+        case 'X' -> FAULT;
+        case 'N' -> NOT_USED;
+        default -> UNKNOWN;
+      };
+    }
+  }
+
+  public static DeviceStatus parse(byte[] data) {
+    return new DeviceStatus(
+        Module.of(data, 0),
+        Module.of(data, 1),
+        Module.of(data, 2),
+        Module.of(data, 3),
+        data == null ? "" : new String(data, US_ASCII).stripTrailing());
+  }
+
+  /** 이상(X)으로 보고된 항목이 없다 (UNKNOWN은 이상으로 보지 않음) */
+  public boolean healthy() {
+    return cardModule != Module.FAULT
+        && rfModule != Module.FAULT
+        && vanServer != Module.FAULT
+        && linkServer != Module.FAULT;
+  }
+}
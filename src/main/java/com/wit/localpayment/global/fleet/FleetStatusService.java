@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.fleet;
+
+import com.wit.localpayment.global.TL3800Gateway;
+import com.wit.localpayment.global.TerminalBusyException;
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.TLPacket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 매장 단말 전체 상태 (장치체크 A를 단말마다 병렬로).
+ *
+ * <p>등록된 게이트웨이마다 별도 스레드에서 장치체크를 보내고 deadline-ms까지만 기다리므로, 전체 점검 시간은 가장 느린 단말 하나
+ * (최대 deadline-ms)와 같다. 마감을 넘긴 단말은 TIMEOUT으로 보고하고, 그 점검이 아직 단말에 걸려 있으면 다음 조회 때 새로 보내지
+ * 않고 같은 결과를 기다린다. 결제 중인 단말은 대기열에 끼워 넣지 않고 BUSY로 보고한다. 결과는 cache-ms 동안 그대로 돌려준다.
+ */
+@Slf4j
+@Service
+public class FleetStatusService implements AutoCloseable {
+
+  public enum State {
+    OK, // 응답 정상, 이상 항목 없음
+    DEGRADED, // 응답 정상, 모듈/서버 연결 중 이상 항목 있음
+    ERROR, // 응답 코드 오류 또는 통신 실패
+    BUSY, // 결제 중 / 대기열 초과 / 회선 격리 / 대기 프로세스 (단말에 보내지 않음)
+    TIMEOUT // 마감 안에 응답 없음
+  }
+
+  /**
+   * 단말 1대 점검 결과.
+   *
+   * @param responseCode 응답 헤더 응답코드 (응답이 없으면 null)
+   * @param device 장치체크 응답 데이터 (응답이 없으면 null)
+   * @param detail 상태 사유 (정상이면 null)
+   */
+  public record TerminalStatus(
+      String terminalId,
+      State state,
+      Integer responseCode,
+      DeviceStatus device,
+      long latencyMs,
+      long checkedAt,
+      String detail) {}
+
+  /** 전체 점검 결과. cached면 checkedAt 시점의 결과를 다시 준 것. */
+  public record FleetStatus(
+      long checkedAt,
+      long elapsedMs,
+      boolean cached,
+      int total,
+      int ok,
+      List<TerminalStatus> terminals) {}
+
+  private final List<TL3800Gateway> gateways;
+  private final long deadlineMs;
+  private final long cacheMs;
+  private final ExecutorService pool;
+  // 단말별 진행 중인 점검 (마감을 넘긴 점검이 끝나기 전에는 새로 보내지 않음)
+  private final Map<TL3800Gateway, CompletableFuture<TerminalStatus>> running =
+      new ConcurrentHashMap<>();
+  private FleetStatus last; // this 잠금 아래에서만
+
+  public FleetStatusService(
+      List<TL3800Gateway> gateways,
+      @Value("${tl3800.fleet.deadline-ms:5000}") long deadlineMs,
+      @Value("${tl3800.fleet.cache-ms:3000}") long cacheMs) {
+    this.gateways = List.copyOf(gateways);
+    this.deadlineMs = deadlineMs;
+    this.cacheMs = cacheMs;
+    AtomicInteger seq = new AtomicInteger();
+    this.pool =
+        Executors.newCachedThreadPool(
+            r -> {
+              Thread th = new Thread(r, "tl-fleet-" + seq.incrementAndGet());
+              th.setDaemon(true);
+              return th;
+            });
+  }
+
+  /**
+   * 캐시가 살아 있으면 그대로, 아니면 전체 단말을 다시 점검한다. 동시에 들어온 조회는 한 번의 점검 결과를 같이 받는다.
+   *
+   * @param refresh true면 캐시를 무시하고 다시 점검
+   */
+  public synchronized FleetStatus status(boolean refresh) throws InterruptedException {
+    if (!refresh && last != null && System.currentTimeMillis() - last.checkedAt() < cacheMs) {
+      return new FleetStatus(
+          last.checkedAt(), last.elapsedMs(), true, last.total(), last.ok(), last.terminals());
+    }
+
+    long t0 = System.nanoTime();
+    List<CompletableFuture<TerminalStatus>> checks = new ArrayList<>(gateways.size());
+    for (TL3800Gateway g : gateways) {
+      checks.add(running.compute(g, (k, f) -> (f != null && !f.isDone()) ? f : start(k)));
+    }
+
+    long deadline = t0 + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+    List<TerminalStatus> out = new ArrayList<>(checks.size());
+    int ok = 0;
+    for (int i = 0; i < checks.size(); i++) {
+      TerminalStatus s = await(gateways.get(i), checks.get(i), deadline);
+      if (s.state() == State.OK) {
+        ok++;
+      }
+      out.add(s);
+    }
+
+    long elapsedMs = (System.nanoTime() - t0) / 1_000_000L;
+    last = new FleetStatus(System.currentTimeMillis(), elapsedMs, false, out.size(), ok, out);
+    log.info("[TL3800] fleet check {}/{} ok ({}ms)", ok, out.size(), elapsedMs);
+    return last;
+  }
+
+  private CompletableFuture<TerminalStatus> start(TL3800Gateway g) {
+    return CompletableFuture.supplyAsync(() -> check(g), pool);
+  }
+
+  private TerminalStatus await(
+      TL3800Gateway g, CompletableFuture<TerminalStatus> check, long deadline)
+      throws InterruptedException {
+    long remaining = deadline - System.nanoTime();
+    try {
+      return check.get(Math.max(remaining, 0L), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      return result(g.terminalId(), State.TIMEOUT, 0, "no response in " + deadlineMs + "ms");
+    } catch (ExecutionException e) {
+      return result(g.terminalId(), State.ERROR, 0, e.getCause().toString());
+    }
+  }
+
+  /** 점검 스레드에서 실행. 예외는 모두 상태로 바꾼다. */
+  private TerminalStatus check(TL3800Gateway g) {
+    String id = g.terminalId();
+    JobCode inFlight = g.admissionStatus().inFlight();
+    if (inFlight != null) {
+      return result(id, State.BUSY, 0, "in flight: " + inFlight);
+    }
+
+    long t0 = System.nanoTime();
+    try {
+      TLPacket resp = g.deviceCheck();
+      long ms = (System.nanoTime() - t0) / 1_000_000L;
+      int code = Byte.toUnsignedInt(resp.responseCode);
+      DeviceStatus device = DeviceStatus.parse(resp.data);
+      if (code != 0) {
+        return new TerminalStatus(
+            id, State.ERROR, code, device, ms, System.currentTimeMillis(), "response code " + code);
+      }
+      State state = device.healthy() ? State.OK : State.DEGRADED;
+      return new TerminalStatus(
+          id,
+          state,
+          code,
+          device,
+          ms,
+          System.currentTimeMillis(),
+          state == State.OK ? null : "device " + device.raw());
+    } catch (TerminalBusyException e) {
+      return result(id, State.BUSY, 0, e.reason());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return result(id, State.ERROR, 0, "interrupted");
+    } catch (Exception e) {
+      log.warn("[TL3800] fleet check failed - terminal={}, {}", id, e.toString());
+      long ms = (System.nanoTime() - t0) / 1_000_000L;
+      return result(id, State.ERROR, ms, e.toString());
+    }
+  }
+
+  private static TerminalStatus result(
+      String terminalId, State state, long latencyMs, String detail) {
+    return new TerminalStatus(
+        terminalId, state, null, null, latencyMs, System.currentTimeMillis(), detail);
+  }
+
+  @Override
+  public void close() {
+    pool.shutdownNow();
+  }
+}
@@ -5,6 +5,7 @@ package com.wit.localpayment.global.payload;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
 
+import com.wit.localpayment.global.proto.FrameClock;
 import com.wit.localpayment.global.proto.JobCode;
 import com.wit.localpayment.global.proto.Proto;
 import com.wit.localpayment.global.proto.TLPacket;
@@ -13,14 +14,39 @@ import java.nio.ByteBuffer;
 public final class Requests {
 
   private final String terminalId;
+  private final FrameClock clock;
 
   public Requests(String terminalId) {
+    this(terminalId, FrameClock.system());
+  }
+
+  public Requests(String terminalId, FrameClock clock) {
     this.terminalId = terminalId;
+    this.clock = clock;
+  }
+
+  public String terminalId() {
+    return terminalId;
   }
 
   // A: 장치체크 (Data 없음)
   public TLPacket deviceCheck() {
-    return TLPacket.builder().catOrMid(terminalId).jobCode(JobCode.A).data(new byte[0]).build();
+    return TLPacket.builder()
+        .clock(clock)
+        .catOrMid(terminalId)
+        .jobCode(JobCode.A)
+        .data(new byte[0])
+        .build();
+  }
+
+  // R: 단말 리셋 (Data 없음, 응답 프레임 없이 ACK만)
+  public TLPacket reset() {
+    return TLPacket.builder()
+        .clock(clock)
+        .catOrMid(terminalId)
+        .jobCode(JobCode.R)
+        .data(new byte[0])
+        .build();
   }
 
   // B: 거래승인 (필수 30B + AuthNo(12, space) + D8(8) + 확장길이(2,"00") = 52B)
@@ -38,7 +64,12 @@ public final class Requests {
     byte[] payload = new byte[bb.remaining()];
     bb.get(payload);
 
-    return TLPacket.builder().catOrMid(terminalId).jobCode(JobCode.B).data(payload).build();
+    return TLPacket.builder()
+        .clock(clock)
+        .catOrMid(terminalId)
+        .jobCode(JobCode.B)
+        .data(payload)
+        .build();
   }
 
   /**
@@ -92,7 +123,12 @@ public final class Requests {
 
     byte[] data = sb.toString().getBytes(US_ASCII);
 
-    return TLPacket.builder().catOrMid(terminalId).jobCode(JobCode.C).data(data).build();
+    return TLPacket.builder()
+        .clock(clock)
+        .catOrMid(terminalId)
+        .jobCode(JobCode.C)
+        .data(data)
+        .build();
   }
 
   // 간단한 padding 유틸
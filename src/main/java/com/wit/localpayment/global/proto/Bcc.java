@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.proto;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * BCC(XOR) 계산기.
+ *
+ * <p>XOR은 바이트 위치와 무관하므로 8바이트씩 long으로 읽어 lane별로 누적한 뒤 마지막에 한 바이트로 접는다. 누적값을 인스턴스에
+ * 유지하므로 스트리밍 디코더는 바이트가 도착하는 대로 {@link #update}를 호출하고, 프레임 완성 후 재계산 없이 {@link #value()}로
+ * 검증할 수 있다.
+ *
+ * <p>이벤트 루프 클라이언트는 꼬리 조각이 도착할 때마다 누적한다. 블로킹/전이중 클라이언트는 전송 계층이 꼬리를 readFully 한
+ * 번으로 넘겨주므로 그보다 이른 시점이 없고, 받은 헤더/꼬리 버퍼에 바로 누적한다 (조립한 프레임을 다시 훑지 않음). 바이트 루프와의
+ * 비교는 {@code ./gradlew jmh} (BccBenchmark).
+ */
+public final class Bcc {
+
+  private static final VarHandle LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  private long acc;
+
+  /** frame[from] ~ frame[toInclusive] XOR (Proto.bccXor와 동일 결과) */
+  public static byte xor(byte[] frame, int from, int toInclusive) {
+    return fold(xorLanes(frame, from, toInclusive - from + 1));
+  }
+
+  public Bcc update(byte b) {
+    acc ^= b & 0xFF;
+    return this;
+  }
+
+  public Bcc update(byte[] src, int off, int len) {
+    acc ^= xorLanes(src, off, len);
+    return this;
+  }
+
+  /** 지금까지 누적된 BCC */
+  public byte value() {
+    return fold(acc);
+  }
+
+  public Bcc reset() {
+    acc = 0L;
+    return this;
+  }
+
+  private static long xorLanes(byte[] src, int off, int len) {
+    long x = 0L;
+    int i = off;
+    int end = off + len;
+    for (; i + Long.BYTES <= end; i += Long.BYTES) {
+      x ^= (long) LONGS.get(src, i);
+    }
+    for (; i < end; i++) {
+      x ^= src[i] & 0xFF;
+    }
+    return x;
+  }
+
+  private static byte fold(long x) {
+    x ^= x >>> 32;
+    x ^= x >>> 16;
+    x ^= x >>> 8;
+    return (byte) x;
+  }
+}
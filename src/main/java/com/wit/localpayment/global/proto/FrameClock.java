@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.proto;
+
+import static com.wit.localpayment.global.proto.Proto.DATETIME_LEN;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 프레임 헤더용 14자리 ASCII 시각(YYYYMMDDhhmmss) 캐시.
+ *
+ * <p>초가 바뀔 때 한 번만 포맷하고, 같은 초 안의 호출은 공유 스냅샷을 그대로 돌려준다. 갱신은 별도 티커 없이 호출 시점에
+ * CAS로 반영한다. 시뮬레이터처럼 결정적인 실행이 필요하면 {@link #of(Clock)}로 고정/가짜 시계를 주입한다.
+ */
+public final class FrameClock {
+
+  private static final FrameClock SYSTEM = new FrameClock(Clock.systemDefaultZone());
+
+  private final Clock clock;
+  private final AtomicReference<Stamp> current =
+      new AtomicReference<>(new Stamp(Long.MIN_VALUE, null));
+
+  private FrameClock(Clock clock) {
+    this.clock = clock;
+  }
+
+  /** 시스템 기본 타임존 시계 (공유 인스턴스) */
+  public static FrameClock system() {
+    return SYSTEM;
+  }
+
+  /** 주입한 시계 기준 인스턴스 (테스트/시뮬레이터용 고정 시계 등) */
+  public static FrameClock of(Clock clock) {
+    if (clock == null) {
+      throw new IllegalArgumentException("clock is required");
+    }
+    return new FrameClock(clock);
+  }
+
+  /** 현재 초의 14자리 문자열 (YYYYMMDDhhmmss) */
+  public String now14() {
+    return stamp().text;
+  }
+
+  private Stamp stamp() {
+    long sec = Math.floorDiv(clock.millis(), 1000L);
+    Stamp cur = current.get();
+    if (cur.epochSecond == sec) {
+      return cur;
+    }
+    Stamp next = format(sec);
+    // 경합에서 지더라도 다른 스레드가 같은 초(또는 더 최신 값)를 반영한 것이므로 재시도하지 않는다.
+    current.compareAndSet(cur, next);
+    return next;
+  }
+
+  private Stamp format(long epochSecond) {
+    ZoneOffset offset = clock.getZone().getRules().getOffset(Instant.ofEpochSecond(epochSecond));
+    LocalDateTime t = LocalDateTime.ofEpochSecond(epochSecond, 0, offset);
+
+    byte[] b = new byte[DATETIME_LEN];
+    digits(b, 0, t.getYear(), 4);
+    digits(b, 4, t.getMonthValue(), 2);
+    digits(b, 6, t.getDayOfMonth(), 2);
+    digits(b, 8, t.getHour(), 2);
+    digits(b, 10, t.getMinute(), 2);
+    digits(b, 12, t.getSecond(), 2);
+    return new Stamp(epochSecond, new String(b, StandardCharsets.US_ASCII));
+  }
+
+  /** 우측 정렬 0 패딩 10진수 ASCII 기록 */
+  private static void digits(byte[] dst, int off, int v, int width) {
+    for (int i = off + width - 1; i >= off; i--) {
+      dst[i] = (byte) ('0' + (v % 10));
+      v /= 10;
+    }
+  }
+
+  private record Stamp(long epochSecond, String text) {}
+}
@@ -72,4 +72,27 @@ public enum JobCode {
     }
     throw new IllegalArgumentException("Unknown JobCode: " + (int) b);
   }
+
+  /** 요청 잡코드에 대응하는 "기대 응답" 잡코드. A→a, B→b 식이며 대응 소문자가 없으면 자기 자신 */
+  public JobCode responseJob() {
+    if (code >= 'A' && code <= 'Z') {
+      try {
+        return of((byte) Character.toLowerCase(code));
+      } catch (IllegalArgumentException ignored) {
+        // 대응하는 소문자 JobCode 가 없으면 그냥 원래 값 사용
+      }
+    }
+    return this;
+  }
+
+  /** expected/actual 잡코드가 대소문자만 다른 경우까지 같은 거래로 본다 (EVENT 제외) */
+  public static boolean sameJob(JobCode expected, JobCode actual) {
+    if (expected == actual) {
+      return true;
+    }
+    if (expected == EVENT || actual == EVENT) {
+      return false;
+    }
+    return Character.toLowerCase(expected.code) == Character.toLowerCase(actual.code);
+  }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.proto;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 잡코드 간 회선 공유 허용표.
+ *
+ * <p>"inFlight 요청이 후속 프레임(EVENT/카드 입력)을 기다리는 동안 candidate 요청을 같은 회선에 끼워 보내도 되는가"를 요청
+ * 잡코드 기준으로 정의한다. 단말 사양상 허용이 확인된 조합만 설정으로 켠다. 예: {@code "B:A,C:A"} → 승인/취소 대기 중 장치체크 허용.
+ */
+public final class JobCompatibility {
+
+  private static final JobCompatibility NONE = new JobCompatibility(new EnumMap<>(JobCode.class));
+
+  private final Map<JobCode, Set<JobCode>> overlaps;
+
+  private JobCompatibility(Map<JobCode, Set<JobCode>> overlaps) {
+    this.overlaps = overlaps;
+  }
+
+  /** 아무 조합도 허용하지 않음 (기존 직렬 동작) */
+  public static JobCompatibility none() {
+    return NONE;
+  }
+
+  /**
+   * "inFlight:candidate[|candidate...],..." 형식. 비어 있으면 {@link #none()}.
+   */
+  public static JobCompatibility parse(String spec) {
+    if (spec == null || spec.isBlank()) {
+      return NONE;
+    }
+    Map<JobCode, Set<JobCode>> m = new EnumMap<>(JobCode.class);
+    for (String entry : spec.split(",")) {
+      String e = entry.trim();
+      if (e.isEmpty()) {
+        continue;
+      }
+      String[] kv = e.split(":");
+      if (kv.length != 2) {
+        throw new IllegalArgumentException("invalid compatibility entry: " + e);
+      }
+      JobCode inFlight = requestJob(kv[0]);
+      for (String c : kv[1].split("\\|")) {
+        JobCode candidate = requestJob(c);
+        if (JobCode.sameJob(inFlight.responseJob(), candidate.responseJob())) {
+          // 같은 응답 잡코드끼리는 수신 프레임을 구분할 수 없음
+          throw new IllegalArgumentException("job cannot overlap itself: " + e);
+        }
+        m.computeIfAbsent(inFlight, k -> EnumSet.noneOf(JobCode.class)).add(candidate);
+      }
+    }
+    return new JobCompatibility(m);
+  }
+
+  public boolean canOverlap(JobCode inFlight, JobCode candidate) {
+    if (inFlight == null || candidate == null) {
+      return false;
+    }
+    Set<JobCode> s = overlaps.get(inFlight);
+    return s != null && s.contains(candidate);
+  }
+
+  public boolean isEmpty() {
+    return overlaps.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return overlaps.toString();
+  }
+
+  private static JobCode requestJob(String s) {
+    String v = s.trim();
+    if (v.length() != 1 || !Character.isUpperCase(v.charAt(0))) {
+      throw new IllegalArgumentException("request job code expected: '" + s + "'");
+    }
+    return JobCode.of((byte) v.charAt(0));
+  }
+}
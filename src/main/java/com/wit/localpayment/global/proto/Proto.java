@@ -3,13 +3,12 @@
  */
 package com.wit.localpayment.global.proto;
 
+import com.wit.localpayment.global.util.Hex;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HexFormat;
 
 public final class Proto {
 
@@ -53,8 +52,9 @@ public final class Proto {
     return dst;
   }
 
+  /** 초 단위 캐시된 시스템 시각. 시계를 주입해야 하면 {@link FrameClock#of}를 직접 사용. */
   public static String nowYYYYMMDDhhmmss() {
-    return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+    return FrameClock.system().now14();
   }
 
   public static String nowYYYYMMDD() {
@@ -63,11 +63,7 @@ public final class Proto {
 
   /** STX ~ ETX(포함)까지 XOR. */
   public static byte bccXor(byte[] frame, int from, int toInclusive) {
-    byte x = 0x00;
-    for (int i = from; i <= toInclusive; i++) {
-      x ^= frame[i];
-    }
-    return x;
+    return Bcc.xor(frame, from, toInclusive);
   }
 
   public static byte[] leUShort(int v) {
@@ -86,9 +82,15 @@ public final class Proto {
       return "";
     }
 
+    // 우측 0x00 패딩은 판정에서 제외 (ID 필드는 좌정렬 + 0x00 패딩)
+    int len = bytes.length;
+    while (len > 0 && bytes[len - 1] == 0x00) {
+      len--;
+    }
+
     boolean printable = true;
-    for (byte v : bytes) {
-      int u = v & 0xFF;
+    for (int i = 0; i < len; i++) {
+      int u = bytes[i] & 0xFF;
       // 공백(0x20) 또는 출력 가능 ASCII(0x21~0x7E)만 허용
       if (!(u == 0x20 || (u >= 0x21 && u <= 0x7E))) {
         printable = false;
@@ -96,11 +98,9 @@ public final class Proto {
       }
     }
     if (printable) {
-      String s = new String(bytes, StandardCharsets.US_ASCII);
-      // 우측 0x00 패딩 제거 (안전상 한 번 더 제거)
-      return s.replaceAll("\u0000+$", "");
+      return new String(bytes, 0, len, StandardCharsets.US_ASCII);
     }
     // 비-ASCII가 섞이면 HEX(대문자)로 반환
-    return HexFormat.of().withUpperCase().formatHex(bytes);
+    return Hex.toHex(bytes);
   }
 }
@@ -51,7 +51,8 @@ public final class TLPacket {
   public static final class Builder {
 
     private String catOrMid;
-    private String dateTime14 = Proto.nowYYYYMMDDhhmmss();
+    private String dateTime14; // 미지정 시 build() 시점에 clock 기준으로 채움
+    private FrameClock clock = FrameClock.system();
     private JobCode jobCode;
     private byte responseCode = 0x00;
     private byte[] data = new byte[0];
@@ -66,6 +67,11 @@ public final class TLPacket {
       return this;
     }
 
+    public Builder clock(FrameClock v) {
+      this.clock = v;
+      return this;
+    }
+
     public Builder jobCode(JobCode v) {
       this.jobCode = v;
       return this;
@@ -85,10 +91,11 @@ public final class TLPacket {
       if (catOrMid == null || jobCode == null) {
         throw new IllegalStateException("catOrMid and jobCode are required");
       }
-      if (dateTime14 == null || dateTime14.length() != DATETIME_LEN) {
+      String dt = (dateTime14 != null) ? dateTime14 : clock.now14();
+      if (dt.length() != DATETIME_LEN) {
         throw new IllegalStateException("dateTime must be 14 chars (YYYYMMDDhhmmss)");
       }
-      return new TLPacket(catOrMid, dateTime14, jobCode, responseCode, data);
+      return new TLPacket(catOrMid, dt, jobCode, responseCode, data);
     }
   }
 
@@ -166,6 +173,13 @@ public final class TLPacket {
    * 프레임 역직렬화(유효성: STX/ETX/BCC/길이). 헤더의 DataLength(LE) 기준으로 ETX/BCC 위치를 계산하여 엄격하게 검증한다.
    */
   public static TLPacket parseStrict(byte[] frame) {
+    return parseStrict(frame, -1);
+  }
+
+  /**
+   * 수신하면서 이미 누적한 BCC(STX~ETX, 0~255)를 넘기면 조립된 프레임을 다시 XOR하지 않는다. 음수면 직접 계산한다.
+   */
+  public static TLPacket parseStrict(byte[] frame, int precomputedBcc) {
     if (frame == null || frame.length < HEADER_BYTES + 2) {
       throw new IllegalArgumentException("short frame: len=" + (frame == null ? -1 : frame.length));
     }
@@ -204,7 +218,8 @@ public final class TLPacket {
     }
 
     // 3) BCC 검증 (STX~ETX 포함)
-    byte calcBcc = Proto.bccXor(frame, POS_STX, posEtx);
+    byte calcBcc =
+        (precomputedBcc >= 0) ? (byte) precomputedBcc : Proto.bccXor(frame, POS_STX, posEtx);
     int recvBcc = frame[posBcc] & 0xFF;
     if ((calcBcc & 0xFF) != recvBcc) {
       throw new IllegalArgumentException(
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.standby;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 같은 호스트의 두 프로세스가 나눠 쓰는 단말 점유 lease 파일.
+ *
+ * <p>파일 한 줄("pid epoch beat")을 OS 파일 잠금 아래에서만 읽고 쓴다. 잠금은 읽기-판단-쓰기 한 번 동안만 잡으므로 멈춘
+ * 프로세스가 잠금을 쥐고 있는 일은 없다. 활성 프로세스는 갱신할 때마다 beat를 1씩 올린다. 벽시계 시각을 적지 않으므로 시계
+ * 보정(NTP 등)에 흔들리지 않고, 멈췄는지는 대기 프로세스가 자기 단조 시계로 beat가 그대로인 시간을 재서 판단한다. 정상 반납은
+ * beat 0이다. 활성 쪽은 갱신할 때 epoch/pid가 바뀐 것을 보고 밀려났음을 안다.
+ */
+final class ProcessLease {
+
+  /** 파일에 적힌 보유자. beat는 갱신 횟수 (0이면 반납됨). */
+  record Holder(long pid, long epoch, long beat) {
+
+    boolean released() {
+      return beat == 0;
+    }
+  }
+
+  private final Path file;
+  private final long pid;
+  private long epoch; // 내가 보유한 epoch (0이면 보유 안 함)
+
+  ProcessLease(Path file, long pid) {
+    this.file = file;
+    this.pid = pid;
+  }
+
+  long pid() {
+    return pid;
+  }
+
+  long epoch() {
+    return epoch;
+  }
+
+  /** 현재 보유자 (파일이 없거나 비었으면 null) */
+  Holder read() {
+    try (FileChannel ch = open(); FileLock ignored = ch.lock()) {
+      return parse(ch);
+    } catch (IOException e) {
+      throw new UncheckedIOException("lease read failed: " + file, e);
+    }
+  }
+
+  /**
+   * lease를 가져온다. 호출자가 stale/반납으로 판단한 보유자(expected)에서 그 사이 바뀌었으면 가져오지 않는다.
+   *
+   * @param expected 판단 시점에 읽은 보유자 (비어 있었으면 null)
+   * @return 가져왔으면 직전 보유자(없었으면 pid 0), 못 가져왔으면 null
+   */
+  Holder tryAcquire(Holder expected) {
+    try (FileChannel ch = open(); FileLock ignored = ch.lock()) {
+      Holder cur = parse(ch);
+      if (cur != null && cur.pid() != pid && !cur.equals(expected)) {
+        return null;
+      }
+      Holder prev = (cur == null) ? new Holder(0, 0, 0) : cur;
+      epoch = prev.epoch() + 1;
+      write(ch, new Holder(pid, epoch, 1));
+      return prev;
+    } catch (IOException e) {
+      throw new UncheckedIOException("lease acquire failed: " + file, e);
+    }
+  }
+
+  /** heartbeat 갱신. 다른 프로세스가 가져갔으면 false (이후 단말에 손대면 안 된다). */
+  boolean renew() {
+    try (FileChannel ch = open(); FileLock ignored = ch.lock()) {
+      Holder cur = parse(ch);
+      if (cur == null || cur.pid() != pid || cur.epoch() != epoch) {
+        epoch = 0;
+        return false;
+      }
+      write(ch, new Holder(pid, epoch, cur.beat() + 1));
+      return true;
+    } catch (IOException e) {
+      throw new UncheckedIOException("lease renew failed: " + file, e);
+    }
+  }
+
+  /** 정상 종료/스스로 내려놓음: beat를 0으로 돌려 대기 프로세스가 stale 대기 없이 바로 가져가게 한다. */
+  void release() {
+    if (epoch == 0) {
+      return;
+    }
+    try (FileChannel ch = open(); FileLock ignored = ch.lock()) {
+      Holder cur = parse(ch);
+      if (cur != null && cur.pid() == pid && cur.epoch() == epoch) {
+        write(ch, new Holder(pid, epoch, 0));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("lease release failed: " + file, e);
+    } finally {
+      epoch = 0;
+    }
+  }
+
+  private FileChannel open() throws IOException {
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    return FileChannel.open(
+        file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+  }
+
+  private static Holder parse(FileChannel ch) throws IOException {
+    ByteBuffer buf = ByteBuffer.allocate(128);
+    ch.position(0);
+    while (buf.hasRemaining() && ch.read(buf) > 0) {
+      // 한 줄짜리 파일
+    }
+    String s = new String(buf.array(), 0, buf.position(), US_ASCII).trim();
+    if (s.isEmpty()) {
+      return null;
+    }
+    String[] f = s.split("\\s+");
+    if (f.length < 3) {
+      return null;
+    }
+    try {
+      return new Holder(Long.parseLong(f[0]), Long.parseLong(f[1]), Long.parseLong(f[2]));
+    } catch (NumberFormatException e) {
+      return null; // 깨진 lease는 빈 것으로 본다
+    }
+  }
+
+  private static void write(FileChannel ch, Holder h) throws IOException {
+    byte[] line = (h.pid() + " " + h.epoch() + " " + h.beat() + "\n").getBytes(US_ASCII);
+    ch.truncate(0);
+    ch.position(0);
+    ByteBuffer buf = ByteBuffer.wrap(line);
+    while (buf.hasRemaining()) {
+      ch.write(buf);
+    }
+    ch.force(false);
+  }
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.standby;
+
+import com.wit.localpayment.global.TL3800Gateway;
+import com.wit.localpayment.global.client.TerminalClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 같은 호스트의 두 로컬 결제 서버 중 하나만 단말을 쓰게 하는 활성/대기 전환기 ({@code local.standby.enabled}).
+ *
+ * <p>활성 프로세스는 heartbeat-ms마다 {@link ProcessLease}의 beat를 올린다. 단말 호출 하나가 stuck-ms를 넘겨 끝나지 않으면
+ * (응답 대기 중 멈춤) 참여자에게 알려 그 결제를 진행 중 목록에 남기게 한 뒤 호출을 끊고 포트를 닫고 lease를 반납한다. 대기
+ * 프로세스는 같은 주기로 lease를 보며 참여자의 대기 작업(거래 저장소 tail 등)을 돌리고, lease가 반납됐거나 beat가 자기 단조
+ * 시계로 stale-ms 넘게 그대로이고 이전 보유 프로세스가 없어졌을 때만 lease를 가져와 포트를 열고 참여자에게 인수를 알린 뒤(진행
+ * 중이던 결제 정리 등) 요청을 받기 시작한다. beat만 멈추고 프로세스가 살아 있으면(GC 멈춤, 결제 중 지연 등) 단말을 쓰는 중일 수
+ * 있으므로 kill-stale-owner로 강제 종료해 끝난 것을 확인하기 전에는 인수하지 않는다. 비활성화면 처음부터 활성이다.
+ *
+ * <p>두 프로세스가 같은 HTTP 포트를 쓸 수는 없으므로 대기 프로세스는 자기 포트에서 모든 단말 요청에 503("대기서버")을 돌려준다.
+ */
+@Slf4j
+@Component
+public class StandbyCoordinator implements AutoCloseable {
+
+  public enum Role {
+    ACTIVE,
+    STANDBY
+  }
+
+  /** 역할 전환 참여자. 모두 coordinator 스레드에서 호출된다. */
+  public interface RoleListener {
+
+    /** 대기 중 heartbeat 주기마다 (저널 tail 등, 빨리 돌아올 것) */
+    default void onStandbyTick() {}
+
+    /** 단말을 넘겨받았다. 끝나면 게이트웨이가 요청을 받기 시작한다. */
+    default void onPromoted() {}
+
+    /** 단말을 내려놓는다 (lease 상실 / 멈춤 감지). 진행 중 호출을 끊기 직전에 불린다. */
+    default void onDemoted() {}
+  }
+
+  /** 조회용 */
+  public record Status(
+      boolean enabled,
+      Role role,
+      long pid,
+      long epoch,
+      Long holderPid,
+      Long heartbeatAgeMs,
+      long takeovers) {}
+
+  private final TL3800Gateway gateway;
+  private final TerminalClient client;
+  private final boolean enabled;
+  private final ProcessLease lease;
+  private final long heartbeatMs;
+  private final long staleMs;
+  private final long stuckMs;
+  private final long openWaitMs;
+  private final boolean killStaleOwner;
+
+  private final List<RoleListener> listeners = new CopyOnWriteArrayList<>();
+  private final LongAdder takeovers = new LongAdder();
+  private volatile Role role;
+  private volatile boolean running;
+  private volatile long silentMs; // 대기 쪽에서 본 상대 beat가 그대로인 시간 (조회용)
+  // 이하 coordinator 스레드 전용
+  private long backoffUntil; // 멈춤으로 내려놓은 뒤 다시 가져가지 않는 시각 (nanoTime, 0이면 없음)
+  private ProcessLease.Holder seen; // 마지막으로 본 상대 보유자
+  private long seenAt; // seen이 바뀐 시각 (nanoTime)
+  private long holdPid; // 살아 있어 인수를 보류한다고 로그를 남긴 pid
+  private Thread thread;
+
+  public StandbyCoordinator(
+      TL3800Gateway gateway,
+      TerminalClient client,
+      @Value("${local.standby.enabled:false}") boolean enabled,
+      @Value("${local.standby.lease-file:./data/standby.lease}") String leaseFile,
+      @Value("${local.standby.heartbeat-ms:500}") long heartbeatMs,
+      @Value("${local.standby.stale-ms:5000}") long staleMs,
+      @Value("${local.standby.stuck-ms:210000}") long stuckMs,
+      @Value("${local.standby.open-wait-ms:3000}") long openWaitMs,
+      @Value("${local.standby.kill-stale-owner:false}") boolean killStaleOwner) {
+    this.gateway = gateway;
+    this.client = client;
+    this.enabled = enabled;
+    this.lease = new ProcessLease(Path.of(leaseFile), ProcessHandle.current().pid());
+    this.heartbeatMs = heartbeatMs;
+    this.staleMs = staleMs;
+    this.stuckMs = stuckMs;
+    this.openWaitMs = openWaitMs;
+    this.killStaleOwner = killStaleOwner;
+    this.role = enabled ? Role.STANDBY : Role.ACTIVE;
+    gateway.setStandby(enabled);
+  }
+
+  /** 참여자 등록. 현재 역할은 {@link #active()}로 확인해 초기 상태를 맞출 것. */
+  public void addListener(RoleListener listener) {
+    listeners.add(listener);
+  }
+
+  public boolean enabled() {
+    return enabled;
+  }
+
+  public boolean active() {
+    return role == Role.ACTIVE;
+  }
+
+  public Status status() {
+    ProcessLease.Holder h = enabled ? lease.read() : null;
+    return new Status(
+        enabled,
+        role,
+        lease.pid(),
+        lease.epoch(),
+        h == null ? null : h.pid(),
+        h == null ? null : (role == Role.ACTIVE ? 0L : silentMs),
+        takeovers.sum());
+  }
+
+  /**
+   * 다른 살아 있는 프로세스가 lease를 쥐고 있는지 (기동 중 빈 정의 단계용: 대기로 뜨는 프로세스는 활성 쪽 단말 포트에 손대면 안
+   * 된다). 파일이 없거나 반납됐거나 보유 프로세스가 없으면 false.
+   */
+  public static boolean peerHoldsLease(String leaseFile) {
+    Path file = Path.of(leaseFile);
+    if (!Files.isRegularFile(file)) {
+      return false;
+    }
+    long self = ProcessHandle.current().pid();
+    ProcessLease.Holder h = new ProcessLease(file, self).read();
+    return h != null
+        && h.pid() != self
+        && !h.released()
+        && ProcessHandle.of(h.pid()).map(ProcessHandle::isAlive).orElse(false);
+  }
+
+  /** 참여자 등록이 끝난 뒤 시작 */
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void start() {
+    if (!enabled || running) {
+      return;
+    }
+    running = true;
+    thread = new Thread(this::run, "standby-coordinator");
+    thread.setDaemon(true);
+    thread.start();
+    log.info(
+        "[STANDBY] 시작 - pid={}, heartbeat={}ms, stale={}ms, stuck={}ms",
+        lease.pid(), heartbeatMs, staleMs, stuckMs);
+  }
+
+  /** 정상 종료면 lease를 비워 상대가 바로 인수하게 한다. */
+  @Override
+  public synchronized void close() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    thread.interrupt();
+    try {
+      thread.join(1000);
+    } catch (InterruptedException ignored) {
+      Thread.currentThread().interrupt();
+    }
+    if (role == Role.ACTIVE) {
+      try {
+        lease.release();
+        log.info("[STANDBY] 종료 - lease 반납");
+      } catch (Exception e) {
+        log.warn("[STANDBY] lease 반납 실패 - {}", e.toString());
+      }
+    }
+  }
+
+  /* ================= coordinator 스레드 ================= */
+
+  private void run() {
+    while (running) {
+      try {
+        if (role == Role.ACTIVE) {
+          heartbeat();
+        } else {
+          watch();
+        }
+      } catch (Exception e) {
+        log.warn("[STANDBY] {} 주기 작업 실패 - {}", role, e.toString());
+      }
+      try {
+        Thread.sleep(heartbeatMs);
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+
+  private void heartbeat() {
+    long stuck = gateway.inFlightMs();
+    if (stuck > stuckMs) {
+      // 멈춘 호출이 쥔 포트를 닫고 lease를 반납해 상대가 (이 프로세스가 살아 있어도) 인수하게 한다
+      backoffUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(staleMs * 3);
+      demote("단말 호출 " + stuck + "ms 응답 없음", true);
+      return;
+    }
+    if (!lease.renew()) {
+      demote("lease를 다른 프로세스가 가져감", false);
+    }
+  }
+
+  private void watch() {
+    for (RoleListener l : listeners) {
+      try {
+        l.onStandbyTick();
+      } catch (Exception e) {
+        log.warn("[STANDBY] 대기 작업 실패 - {}", e.toString());
+      }
+    }
+    if (backoffUntil != 0 && System.nanoTime() - backoffUntil < 0) {
+      return;
+    }
+    ProcessLease.Holder cur = lease.read();
+    if (cur != null && cur.pid() != lease.pid() && !cur.released()) {
+      long now = System.nanoTime();
+      if (!cur.equals(seen)) {
+        seen = cur;
+        seenAt = now;
+      }
+      silentMs = TimeUnit.NANOSECONDS.toMillis(now - seenAt);
+      if (silentMs < staleMs || !ownerGone(cur.pid())) {
+        return;
+      }
+    }
+    ProcessLease.Holder prev = lease.tryAcquire(cur);
+    if (prev != null) {
+      promote(prev);
+    }
+  }
+
+  /**
+   * beat가 멈춘 이전 보유 프로세스가 끝났는지. 살아 있으면 kill-stale-owner일 때만 강제 종료하고 끝날 때까지 open-wait-ms만큼
+   * 기다린다. 그 외에는 인수를 보류한다(결제 중일 수 있는 프로세스와 단말을 나눠 쓰지 않는다).
+   */
+  private boolean ownerGone(long pid) {
+    Optional<ProcessHandle> owner = ProcessHandle.of(pid).filter(ProcessHandle::isAlive);
+    if (owner.isEmpty()) {
+      return true;
+    }
+    if (!killStaleOwner) {
+      if (holdPid != pid) {
+        holdPid = pid;
+        log.warn("[STANDBY] heartbeat {}ms 멈춤, 이전 프로세스 살아 있어 인수 보류 - pid={}", silentMs, pid);
+      }
+      return false;
+    }
+    ProcessHandle p = owner.get();
+    log.warn("[STANDBY] heartbeat {}ms 멈춤, 이전 프로세스 강제 종료 - pid={}", silentMs, pid);
+    p.destroyForcibly();
+    try {
+      p.onExit().get(openWaitMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException | ExecutionException e) {
+      log.error("[STANDBY] 이전 프로세스 종료 확인 실패 - pid={}", pid);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+    return !p.isAlive();
+  }
+
+  private void promote(ProcessLease.Holder prev) {
+    long t0 = System.nanoTime();
+    if (prev.pid() != 0 && prev.pid() != lease.pid()) {
+      log.warn(
+          "[STANDBY] 단말 인수 - 이전 pid={}, {}, epoch={}",
+          prev.pid(),
+          prev.released() ? "반납됨" : "heartbeat " + silentMs + "ms 멈춤",
+          lease.epoch());
+    } else {
+      log.info("[STANDBY] 활성 시작 - epoch={}", lease.epoch());
+    }
+    seen = null;
+    holdPid = 0;
+    openTerminal();
+    for (RoleListener l : listeners) {
+      try {
+        l.onPromoted();
+      } catch (Exception e) {
+        log.error("[STANDBY] 인수 작업 실패 - {}", e.toString());
+      }
+    }
+    role = Role.ACTIVE;
+    gateway.setStandby(false);
+    takeovers.increment();
+    log.info("[STANDBY] 활성 전환 완료 - {}ms", (System.nanoTime() - t0) / 1_000_000L);
+  }
+
+  /**
+   * 참여자가 진행 중 결제를 넘길 준비를 한 뒤(진행 중 목록에 남김) 호출을 끊고 포트를 닫는다.
+   *
+   * @param release lease를 반납할지 (아직 내 것일 때만 의미 있음)
+   */
+  private void demote(String reason, boolean release) {
+    log.error("[STANDBY] 단말 반납 - {}", reason);
+    role = Role.STANDBY;
+    gateway.setStandby(true);
+    for (RoleListener l : listeners) {
+      try {
+        l.onDemoted();
+      } catch (Exception e) {
+        log.warn("[STANDBY] 반납 작업 실패 - {}", e.toString());
+      }
+    }
+    client.abort();
+    client.close();
+    if (release) {
+      lease.release();
+    }
+  }
+
+  /**
+   * 포트가 열릴 때까지 open-wait-ms 동안 재시도 (이전 프로세스가 막 닫는 중일 수 있음). 끝내 못 열어도 인수는 진행한다(게이트웨이가
+   * 호출마다 다시 연다).
+   */
+  private void openTerminal() {
+    long deadline = System.nanoTime() + openWaitMs * 1_000_000L;
+    while (true) {
+      try {
+        client.open();
+        if (!client.persistentSession()) {
+          client.close();
+        }
+        return;
+      } catch (Exception e) {
+        if (System.nanoTime() - deadline >= 0) {
+          log.error("[STANDBY] 단말 포트 열기 실패 - {}", e.toString());
+          return;
+        }
+      }
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.transport;
+
+import java.io.IOException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 여러 네트워크 단말 채널을 하나의 스레드로 감시하는 Selector 루프.
+ *
+ * <p>등록/관심 이벤트 변경은 반드시 루프 스레드에서 일어나도록 {@link #execute}로 넘긴다. 각 채널의 수신 데이터는
+ * {@link Handler} 구현(전송 계층)이 자기 버퍼에 쌓고, 호출자 스레드는 그 버퍼만 기다린다.
+ */
+@Slf4j
+public final class NioSelectorLoop implements AutoCloseable {
+
+  /** 채널별 readiness 콜백. 모두 루프 스레드에서 호출된다. */
+  public interface Handler {
+
+    void onRegistered(SelectionKey key);
+
+    /** 등록 실패 (채널이 이미 닫힘 등). 연결을 기다리는 쪽을 바로 깨워야 한다. */
+    void onRegisterFailed(Exception e);
+
+    void onConnectable(SelectionKey key);
+
+    void onReadable(SelectionKey key);
+  }
+
+  private static volatile NioSelectorLoop shared;
+
+  private final Selector selector;
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+  private final Thread thread;
+  private volatile boolean running = true;
+
+  public NioSelectorLoop(String name) throws IOException {
+    this.selector = Selector.open();
+    this.thread = new Thread(this::run, name);
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /** 프로세스 공용 루프 (최초 사용 시 시작) */
+  public static NioSelectorLoop shared() {
+    NioSelectorLoop l = shared;
+    if (l == null) {
+      synchronized (NioSelectorLoop.class) {
+        l = shared;
+        if (l == null) {
+          try {
+            l = new NioSelectorLoop("tl-nio-selector");
+          } catch (IOException e) {
+            throw new IllegalStateException("Cannot open selector", e);
+          }
+          shared = l;
+        }
+      }
+    }
+    return l;
+  }
+
+  /** 루프 스레드에서 실행 */
+  public void execute(Runnable task) {
+    tasks.add(task);
+    selector.wakeup();
+  }
+
+  /** 채널을 루프에 등록. 완료되면 handler.onRegistered, 실패하면 handler.onRegisterFailed가 호출된다. */
+  public void register(SelectableChannel ch, int ops, Handler handler) {
+    execute(
+        () -> {
+          try {
+            handler.onRegistered(ch.register(selector, ops, handler));
+          } catch (IOException | RuntimeException e) {
+            log.warn("[NIO] register failed: {}", e.toString());
+            handler.onRegisterFailed(e);
+          }
+        });
+  }
+
+  private void run() {
+    while (running) {
+      try {
+        selector.select();
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+          task.run();
+        }
+
+        Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+        while (it.hasNext()) {
+          SelectionKey key = it.next();
+          it.remove();
+          dispatch(key);
+        }
+      } catch (Exception e) {
+        log.warn("[NIO] selector loop error: {}", e.toString());
+      }
+    }
+  }
+
+  private void dispatch(SelectionKey key) {
+    Handler h = (Handler) key.attachment();
+    try {
+      if (!key.isValid()) {
+        return;
+      }
+      if (key.isConnectable()) {
+        h.onConnectable(key);
+      } else if (key.isReadable()) {
+        h.onReadable(key);
+      }
+    } catch (Exception e) {
+      // 한 채널의 오류가 다른 단말을 멈추지 않도록 키 단위로 격리
+      log.warn("[NIO] channel handler error: {}", e.toString());
+      key.cancel();
+    }
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    selector.wakeup();
+    try {
+      thread.join(1000);
+      selector.close();
+    } catch (Exception ignore) {
+    }
+  }
+}
@@ -4,13 +4,20 @@
 package com.wit.localpayment.global.transport;
 
 import com.fazecast.jSerialComm.SerialPort;
+import com.fazecast.jSerialComm.SerialPortDataListener;
+import com.fazecast.jSerialComm.SerialPortEvent;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public final class SerialPortTransport implements TLTransport {
 
+  // semi-blocking 읽기 1회의 최대 대기. 바이트가 오면 즉시 반환되므로 호출 단위 데드라인은 루프에서 관리한다.
+  private static final int POLL_SLICE_MS = 10;
+
   private final String portName;
-  private final int baudRate, dataBits, stopBits, parity, readTimeoutMs;
+  private final int dataBits, stopBits, parity, readTimeoutMs;
+  private volatile int baudRate;
+  private final byte[] one = new byte[1];
   private SerialPort port;
 
   public SerialPortTransport(
@@ -43,11 +50,8 @@ public final class SerialPortTransport implements TLTransport {
     } catch (Throwable ignore) {
     }
 
-    // 블로킹 타임아웃 구성
-    port.setComPortTimeouts(
-        SerialPort.TIMEOUT_READ_BLOCKING | SerialPort.TIMEOUT_WRITE_BLOCKING,
-        readTimeoutMs,
-        readTimeoutMs);
+    // 세션 단위로 한 번만 타임아웃 구성 (읽기는 짧은 semi-blocking 슬라이스, 쓰기는 blocking)
+    applySessionTimeouts();
 
     // 입력 버퍼 드레인(라이브러리 상수 없이 호환 방식)
     drainInput(250);
@@ -65,6 +69,10 @@ public final class SerialPortTransport implements TLTransport {
   @Override
   public void close() {
     if (port != null) {
+      try {
+        port.removeDataListener();
+      } catch (Exception ignore) {
+      }
       try {
         drainInput(50);
       } catch (Exception ignore) {
@@ -85,36 +93,109 @@ public final class SerialPortTransport implements TLTransport {
     }
   }
 
+  /**
+   * len 바이트가 찰 때까지 offset 오버로드로 이어서 읽는다. 전체 데드라인(timeoutMs, 0 이하면 기본값)이 지나면 그때까지 읽은
+   * 바이트 수를 반환한다.
+   */
   @Override
   public int readFully(byte[] buf, int len, int timeoutMs) {
-    if (timeoutMs > 0) {
-      port.setComPortTimeouts(
-          SerialPort.TIMEOUT_READ_BLOCKING | SerialPort.TIMEOUT_WRITE_BLOCKING,
-          timeoutMs,
-          timeoutMs);
-    }
+    long deadline = System.nanoTime() + deadlineNanos(timeoutMs);
     int off = 0;
     while (off < len) {
-      int r = port.readBytes(buf, len - off);
+      int r = port.readBytes(buf, len - off, off);
       if (r < 0) {
         throw new IllegalStateException("read error");
       }
       off += r;
+      if (off < len && Thread.currentThread().isInterrupted()) {
+        break; // 세션 종료 (수신 스레드 인터럽트)
+      }
+      if (off < len && System.nanoTime() - deadline >= 0) {
+        log.debug("[Serial] readFully deadline: got={} need={} ({}ms)", off, len, timeoutMs);
+        break;
+      }
     }
     return off;
   }
 
   @Override
   public int readByte(int timeoutMs) {
-    if (timeoutMs > 0) {
-      port.setComPortTimeouts(
-          SerialPort.TIMEOUT_READ_BLOCKING | SerialPort.TIMEOUT_WRITE_BLOCKING,
-          timeoutMs,
-          timeoutMs);
+    long deadline = System.nanoTime() + deadlineNanos(timeoutMs);
+    do {
+      int r = port.readBytes(one, 1);
+      if (r == 1) {
+        return one[0] & 0xFF;
+      }
+      if (r < 0) {
+        return -1;
+      }
+    } while (System.nanoTime() - deadline < 0 && !Thread.currentThread().isInterrupted());
+    return -1;
+  }
+
+  @Override
+  public int readAvailable(byte[] buf, int off, int len) {
+    int avail = port.bytesAvailable();
+    if (avail < 0) {
+      return -1;
+    }
+    if (avail == 0) {
+      return 0;
+    }
+    // 도착분 이하만 요청하므로 semi-blocking 슬라이스를 기다리지 않고 바로 돌아온다
+    return Math.max(port.readBytes(buf, Math.min(avail, len), off), 0);
+  }
+
+  public String portName() {
+    return portName;
+  }
+
+  public int baudRate() {
+    return baudRate;
+  }
+
+  @Override
+  public boolean setBaudRate(int baudRate) {
+    int prev = this.baudRate;
+    this.baudRate = baudRate;
+    if (port != null && port.isOpen() && !port.setBaudRate(baudRate)) {
+      this.baudRate = prev; // 다음 open도 원래 속도로
+      throw new IllegalStateException("Cannot set " + portName + " to " + baudRate + "bps");
+    }
+    log.warn("[Serial] {} baud {} → {}", portName, prev, baudRate);
+    return true;
+  }
+
+  /** jSerialComm의 DATA_AVAILABLE 통지를 그대로 넘긴다 (라이브러리 이벤트 스레드에서 호출됨) */
+  @Override
+  public void setReadableListener(Runnable listener) {
+    port.removeDataListener();
+    if (listener == null) {
+      return;
     }
-    byte[] b = new byte[1];
-    int r = port.readBytes(b, 1);
-    return (r == 1) ? (b[0] & 0xFF) : -1;
+    port.addDataListener(
+        new SerialPortDataListener() {
+          @Override
+          public int getListeningEvents() {
+            return SerialPort.LISTENING_EVENT_DATA_AVAILABLE;
+          }
+
+          @Override
+          public void serialEvent(SerialPortEvent event) {
+            listener.run();
+          }
+        });
+  }
+
+  private long deadlineNanos(int timeoutMs) {
+    return (timeoutMs > 0 ? timeoutMs : readTimeoutMs) * 1_000_000L;
+  }
+
+  private void applySessionTimeouts() {
+    port.setComPortTimeouts(
+        SerialPort.TIMEOUT_READ_SEMI_BLOCKING | SerialPort.TIMEOUT_WRITE_BLOCKING,
+        POLL_SLICE_MS,
+        readTimeoutMs);
   }
 
   /** 라이브러리 purge 의존 없이 입력 버퍼를 비웁니다. */
@@ -154,11 +235,8 @@ public final class SerialPortTransport implements TLTransport {
         }
       }
     } finally {
-      // 2) 우리 기본 블로킹 타임아웃으로 복원
-      port.setComPortTimeouts(
-          SerialPort.TIMEOUT_READ_BLOCKING | SerialPort.TIMEOUT_WRITE_BLOCKING,
-          readTimeoutMs,
-          readTimeoutMs);
+      // 2) 세션 타임아웃으로 복원
+      applySessionTimeouts();
     }
   }
 }
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.transport;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import com.wit.localpayment.global.proto.FrameClock;
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.Proto;
+import com.wit.localpayment.global.proto.TLPacket;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 하드웨어 없이 로컬에서 돌리기 위한 TL3800 에뮬레이터.
+ *
+ * <p>요청 프레임을 받으면 설정한 지연 뒤에 ACK → (승인이면 EVENT) → 응답 프레임을 순서대로 수신 큐에 올린다. 큐의 각 청크는
+ * 도착 예정 시각이 지나야 읽히므로 실제 회선처럼 readFully/readByte 데드라인이 동작한다. 난수는 seed로 고정해 재현 가능하게 한다.
+ */
+@Slf4j
+public final class SimulatedTerminalTransport implements TLTransport {
+
+  // 청크 도착 시각에 readiness 통지를 쏘는 공용 타이머 (이벤트 루프 클라이언트용, 최초 사용 시 시작)
+  private static final class Arrivals {
+    static final ScheduledExecutorService TIMER =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread th = new Thread(r, "tl-sim-arrivals");
+              th.setDaemon(true);
+              return th;
+            });
+  }
+
+  private final String terminalId;
+  private final FrameClock clock;
+  private final TimeSource time;
+  private final int ackDelayMs;
+  private final int eventDelayMs;
+  private final int responseDelayMs;
+  private final double declineRate;
+  private final Random random;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition arrived = lock.newCondition();
+  // 도착 예정 시각 순 (같으면 넣은 순서). 끼워 보낸 요청의 응답이 먼저 끝난 요청보다 앞설 수 있다.
+  private final PriorityQueue<Chunk> rx =
+      new PriorityQueue<>(
+          Comparator.comparingLong(Chunk::dueNanos).thenComparingLong(Chunk::seq));
+  private int headOffset; // rx.peek() 안에서 이미 읽은 위치
+  private long chunkSeq;
+  private long approvalSeq;
+  private volatile Runnable readableListener;
+
+  public SimulatedTerminalTransport(
+      String terminalId,
+      FrameClock clock,
+      int ackDelayMs,
+      int eventDelayMs,
+      int responseDelayMs,
+      double declineRate,
+      long seed) {
+    this(
+        terminalId, clock, TimeSource.system(), ackDelayMs, eventDelayMs, responseDelayMs,
+        declineRate, seed);
+  }
+
+  /**
+   * @param time 도착 예정 시각/읽기 대기 기준. 가상 시계면 지연이 실제 대기 없이 흐른다.
+   */
+  public SimulatedTerminalTransport(
+      String terminalId,
+      FrameClock clock,
+      TimeSource time,
+      int ackDelayMs,
+      int eventDelayMs,
+      int responseDelayMs,
+      double declineRate,
+      long seed) {
+    this.terminalId = terminalId;
+    this.clock = clock;
+    this.time = time;
+    this.ackDelayMs = ackDelayMs;
+    this.eventDelayMs = eventDelayMs;
+    this.responseDelayMs = responseDelayMs;
+    this.declineRate = declineRate;
+    this.random = new Random(seed);
+  }
+
+  @Override
+  public void open() {
+    lock.lock();
+    try {
+      rx.clear();
+      headOffset = 0;
+    } finally {
+      lock.unlock();
+    }
+    log.info(
+        "[Sim] OPEN terminal={} ack={}ms event={}ms resp={}ms decline={}",
+        terminalId,
+        ackDelayMs,
+        eventDelayMs,
+        responseDelayMs,
+        declineRate);
+  }
+
+  @Override
+  public void close() {
+    log.info("[Sim] CLOSE terminal={}", terminalId);
+  }
+
+  @Override
+  public void write(byte[] bytes) {
+    if (bytes.length == 1) {
+      return; // 호스트 ACK/NAK
+    }
+
+    TLPacket req;
+    try {
+      req = TLPacket.parseStrict(bytes);
+    } catch (IllegalArgumentException e) {
+      log.warn("[Sim] bad request frame → NAK: {}", e.getMessage());
+      schedule(ackDelayMs, new byte[] {Proto.NACK});
+      return;
+    }
+
+    long now = time.nanoTime();
+    lock.lock();
+    try {
+      if (req.jobCode == JobCode.R) {
+        // 리셋: 진행 중 거래의 남은 프레임 폐기
+        rx.clear();
+        headOffset = 0;
+      }
+      enqueue(now, ackDelayMs, new byte[] {Proto.ACK});
+      switch (req.jobCode) {
+        case R -> {
+          // 리셋: 응답 프레임 없음
+        }
+        case A ->
+            // 장치체크: 카드/RF 모듈, VAN/연동 서버 연결 모두 정상
+            enqueue(now, ackDelayMs + eventDelayMs, frame(JobCode.a, "OOOO".getBytes(US_ASCII)));
+        case B -> {
+          enqueue(now, ackDelayMs + eventDelayMs, frame(JobCode.EVENT, "1".getBytes(US_ASCII)));
+          enqueue(
+              now, ackDelayMs + responseDelayMs, frame(JobCode.b, approval(amountOf(req.data, 1))));
+        }
+        case C -> {
+          // 취소 승인도 승인과 같은 응답 형식 (거래구분 + 금액 + 취소 승인번호 + 일시)
+          enqueue(
+              now, ackDelayMs + responseDelayMs, frame(JobCode.c, approval(amountOf(req.data, 2))));
+        }
+        default ->
+            enqueue(now, ackDelayMs + eventDelayMs, frame(responseOf(req.jobCode), req.data));
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int readFully(byte[] buf, int len, int timeoutMs) throws Exception {
+    long deadline = time.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    int off = 0;
+    lock.lock();
+    try {
+      while (off < len) {
+        int n = takeDue(buf, off, len - off);
+        off += n;
+        if (n == 0 && !awaitNext(deadline)) {
+          break;
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    return off;
+  }
+
+  @Override
+  public int readByte(int timeoutMs) throws Exception {
+    byte[] one = new byte[1];
+    return readFully(one, 1, timeoutMs) == 1 ? one[0] & 0xFF : -1;
+  }
+
+  @Override
+  public int readAvailable(byte[] buf, int off, int len) {
+    lock.lock();
+    try {
+      return takeDue(buf, off, len);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setReadableListener(Runnable listener) {
+    this.readableListener = listener;
+  }
+
+  /** 응답 지연은 프로파일이 정하므로 회선 속도는 흉내 내지 않는다. */
+  @Override
+  public boolean setBaudRate(int baudRate) {
+    return false;
+  }
+
+  /* ================= 내부 유틸 ================= */
+
+  private void schedule(int delayMs, byte[] bytes) {
+    lock.lock();
+    try {
+      enqueue(time.nanoTime(), delayMs, bytes);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void enqueue(long baseNanos, int delayMs, byte[] bytes) {
+    long due = baseNanos + TimeUnit.MILLISECONDS.toNanos(delayMs);
+    rx.add(new Chunk(due, chunkSeq++, bytes));
+    arrived.signalAll();
+
+    Runnable l = readableListener;
+    if (l != null) {
+      Arrivals.TIMER.schedule(l, due - time.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /** 도착 시각이 지난 청크에서만 복사 */
+  private int takeDue(byte[] dst, int off, int max) {
+    int copied = 0;
+    long now = time.nanoTime();
+    while (copied < max) {
+      Chunk head = rx.peek();
+      if (head == null || head.dueNanos - now > 0) {
+        break;
+      }
+      int n = Math.min(head.bytes.length - headOffset, max - copied);
+      System.arraycopy(head.bytes, headOffset, dst, off + copied, n);
+      copied += n;
+      headOffset += n;
+      if (headOffset == head.bytes.length) {
+        rx.poll();
+        headOffset = 0;
+      }
+    }
+    return copied;
+  }
+
+  /** 다음 청크 도착 또는 데드라인까지 대기. 데드라인이 지났으면 false. */
+  private boolean awaitNext(long deadline) throws InterruptedException {
+    long now = time.nanoTime();
+    if (deadline - now <= 0) {
+      return false;
+    }
+    Chunk head = rx.peek();
+    long until = (head == null) ? deadline : Math.min(deadline, head.dueNanos);
+    time.awaitNanos(arrived, Math.max(until - now, 1L));
+    return true;
+  }
+
+  private byte[] frame(JobCode job, byte[] data) {
+    return TLPacket.build(terminalId, clock.now14(), job.code, 0x00, data);
+  }
+
+  /** 요청 데이터의 금액(10) 필드. B는 거래구분 뒤(1), C는 취소구분+거래구분 뒤(2). */
+  private static String amountOf(byte[] reqData, int off) {
+    return (reqData != null && reqData.length >= off + 10)
+        ? new String(reqData, off, 10, US_ASCII)
+        : "0";
+  }
+
+  /** 거래구분(1, 거절 시 X) + 금액(10) + 승인번호(12) + 승인일시(14) */
+  private byte[] approval(String amount) {
+    boolean declined = random.nextDouble() < declineRate;
+    StringBuilder sb = new StringBuilder(37);
+    sb.append(declined ? 'X' : '1');
+    sb.append(new String(Proto.asciiLeftPadZero(amount, 10), US_ASCII));
+    sb.append(new String(Proto.rpadSpaces(declined ? "" : nextApprovalNo(), 12), US_ASCII));
+    sb.append(clock.now14());
+    return sb.toString().getBytes(US_ASCII);
+  }
+
+  private String nextApprovalNo() {
+    return String.format("%08d", ++approvalSeq % 100_000_000L);
+  }
+
+  private static JobCode responseOf(JobCode req) {
+    try {
+      return JobCode.of((byte) Character.toLowerCase(req.code));
+    } catch (IllegalArgumentException e) {
+      return req;
+    }
+  }
+
+  private record Chunk(long dueNanos, long seq, byte[] bytes) {}
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.transport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * LAN 단말/시리얼-IP 변환기용 TCP 전송 계층.
+ *
+ * <p>연결과 수신은 논블로킹 채널을 공용 {@link NioSelectorLoop}에 등록해 처리하고, 수신 바이트는 direct 버퍼에 쌓아 둔다.
+ * readFully/readByte는 기존 시리얼 전송과 같은 의미(데드라인 경과 시 부분 수신 수/−1 반환)를 유지하고, 연결이 끊겨도
+ * 예외 대신 그때까지 받은 바이트 수/−1을 돌려준다.
+ */
+@Slf4j
+public final class SocketChannelTransport implements TLTransport, NioSelectorLoop.Handler {
+
+  private static final int RX_CAPACITY = 8192;
+  private static final int TX_CAPACITY = 8192;
+
+  private final String host;
+  private final int port;
+  private final int connectTimeoutMs;
+  private final int readTimeoutMs;
+  private final NioSelectorLoop loop;
+
+  private final ByteBuffer rx = ByteBuffer.allocateDirect(RX_CAPACITY); // 루프가 채우는 쓰기 모드
+  private final ByteBuffer tx = ByteBuffer.allocateDirect(TX_CAPACITY);
+  private final byte[] one = new byte[1];
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition readable = lock.newCondition();
+
+  private volatile SocketChannel ch;
+  private volatile SelectionKey key;
+  private volatile Runnable readableListener;
+  private volatile CompletableFuture<Void> connected;
+  private boolean eof;
+  private boolean paused;
+
+  public SocketChannelTransport(
+      String host, int port, int connectTimeoutMs, int readTimeoutMs, NioSelectorLoop loop) {
+    this.host = host;
+    this.port = port;
+    this.connectTimeoutMs = connectTimeoutMs;
+    this.readTimeoutMs = readTimeoutMs;
+    this.loop = loop;
+  }
+
+  @Override
+  public void open() throws Exception {
+    lock.lock();
+    try {
+      rx.clear();
+      eof = false;
+      paused = false;
+    } finally {
+      lock.unlock();
+    }
+
+    SocketChannel c = SocketChannel.open();
+    ch = c;
+    connected = new CompletableFuture<>();
+    try {
+      c.configureBlocking(false);
+      c.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+      c.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      boolean done = c.connect(new InetSocketAddress(host, port));
+      loop.register(c, done ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, this);
+      if (done) {
+        connected.complete(null);
+      }
+    } catch (IOException | RuntimeException e) {
+      // 즉시 거절/주소 해석 실패 등: 열어 둔 채널을 남기지 않는다
+      close();
+      throw new IllegalStateException("Cannot connect " + host + ":" + port, e);
+    }
+
+    try {
+      connected.get(connectTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      close();
+      throw new IllegalStateException(
+          "Cannot connect " + host + ":" + port + " within " + connectTimeoutMs + "ms");
+    } catch (ExecutionException e) {
+      close();
+      throw new IllegalStateException("Cannot connect " + host + ":" + port, e.getCause());
+    }
+
+    log.info(
+        "[Tcp] OPEN {}:{} keepAlive=true connectTimeout={}ms timeouts={}ms",
+        host,
+        port,
+        connectTimeoutMs,
+        readTimeoutMs);
+  }
+
+  @Override
+  public void close() {
+    SocketChannel c = ch;
+    if (c == null) {
+      return;
+    }
+    ch = null;
+    try {
+      c.close(); // 키는 다음 select에서 자동 해제
+    } catch (IOException ignore) {
+    }
+    lock.lock();
+    try {
+      eof = true;
+      readable.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    Runnable l = readableListener;
+    if (l != null) {
+      l.run(); // 대기 중인 이벤트 루프가 종료(-1)를 읽게 한다
+    }
+    log.info("[Tcp] CLOSE {}:{}", host, port);
+  }
+
+  @Override
+  public void write(byte[] bytes) throws Exception {
+    SocketChannel c = ch;
+    if (c == null) {
+      throw new IllegalStateException("not connected");
+    }
+    ByteBuffer out;
+    if (bytes.length <= TX_CAPACITY) {
+      tx.clear();
+      tx.put(bytes).flip();
+      out = tx;
+    } else {
+      out = ByteBuffer.wrap(bytes);
+    }
+
+    long deadline = System.nanoTime() + readTimeoutMs * 1_000_000L;
+    while (out.hasRemaining()) {
+      if (c.write(out) == 0) {
+        if (System.nanoTime() - deadline >= 0) {
+          throw new IllegalStateException("short write: " + out.position() + "/" + bytes.length);
+        }
+        // 송신 버퍼가 가득 찬 드문 경우에만 짧게 양보
+        LockSupport.parkNanos(100_000L);
+      }
+    }
+  }
+
+  @Override
+  public int readFully(byte[] buf, int len, int timeoutMs) throws Exception {
+    long deadline = System.nanoTime() + deadlineNanos(timeoutMs);
+    int off = 0;
+    lock.lock();
+    try {
+      while (off < len) {
+        if (rx.position() > 0) {
+          off += drainTo(buf, off, len - off);
+          continue;
+        }
+        if (eof) {
+          // 연결 종료: 데드라인 경과와 같이 그때까지 받은 만큼 돌려준다 (다음 readByte는 -1)
+          log.debug("[Tcp] readFully closed: got={} need={}", off, len);
+          break;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          log.debug("[Tcp] readFully deadline: got={} need={} ({}ms)", off, len, timeoutMs);
+          break;
+        }
+        readable.awaitNanos(remaining);
+      }
+    } finally {
+      lock.unlock();
+    }
+    return off;
+  }
+
+  @Override
+  public int readByte(int timeoutMs) throws Exception {
+    long deadline = System.nanoTime() + deadlineNanos(timeoutMs);
+    lock.lock();
+    try {
+      while (rx.position() == 0) {
+        long remaining = deadline - System.nanoTime();
+        if (eof || remaining <= 0) {
+          return -1;
+        }
+        readable.awaitNanos(remaining);
+      }
+      drainTo(one, 0, 1);
+      return one[0] & 0xFF;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int readAvailable(byte[] buf, int off, int len) {
+    lock.lock();
+    try {
+      if (rx.position() > 0) {
+        return drainTo(buf, off, len);
+      }
+      return eof ? -1 : 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setReadableListener(Runnable listener) {
+    this.readableListener = listener;
+  }
+
+  /** TCP 연결에는 회선 속도가 없다 (속도는 단말 쪽 브리지 설정). */
+  @Override
+  public boolean setBaudRate(int baudRate) {
+    return false;
+  }
+
+  /* ================= NioSelectorLoop.Handler (루프 스레드) ================= */
+
+  @Override
+  public void onRegistered(SelectionKey key) {
+    this.key = key;
+  }
+
+  @Override
+  public void onRegisterFailed(Exception e) {
+    CompletableFuture<Void> f = connected;
+    if (f != null) {
+      f.completeExceptionally(e);
+    }
+  }
+
+  @Override
+  public void onConnectable(SelectionKey key) {
+    try {
+      ((SocketChannel) key.channel()).finishConnect();
+      key.interestOps(SelectionKey.OP_READ);
+      connected.complete(null);
+    } catch (IOException e) {
+      key.cancel();
+      connected.completeExceptionally(e);
+    }
+  }
+
+  @Override
+  public void onReadable(SelectionKey key) {
+    lock.lock();
+    try {
+      if (!rx.hasRemaining()) {
+        // 소비자가 따라올 때까지 수신 중단 (TCP 흐름제어에 맡김)
+        key.interestOps(0);
+        paused = true;
+        return;
+      }
+      int n;
+      try {
+        n = ((SocketChannel) key.channel()).read(rx);
+      } catch (IOException e) {
+        log.warn("[Tcp] read failed {}:{} - {}", host, port, e.toString());
+        n = -1;
+      }
+      if (n < 0) {
+        eof = true;
+        key.cancel();
+      }
+      if (n == 0) {
+        return;
+      }
+      readable.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    Runnable l = readableListener;
+    if (l != null) {
+      l.run();
+    }
+  }
+
+  /* ================= 내부 유틸 ================= */
+
+  /** lock 보유 상태에서 호출. rx(쓰기 모드) → dst 복사 후 다시 쓰기 모드로 되돌린다. */
+  private int drainTo(byte[] dst, int off, int max) {
+    rx.flip();
+    int n = Math.min(rx.remaining(), max);
+    rx.get(dst, off, n);
+    rx.compact();
+    if (paused) {
+      paused = false;
+      SelectionKey k = key;
+      if (k != null) {
+        loop.execute(
+            () -> {
+              if (k.isValid()) {
+                k.interestOps(SelectionKey.OP_READ);
+              }
+            });
+      }
+    }
+    return n;
+  }
+
+  private long deadlineNanos(int timeoutMs) {
+    return (timeoutMs > 0 ? timeoutMs : readTimeoutMs) * 1_000_000L;
+  }
+}
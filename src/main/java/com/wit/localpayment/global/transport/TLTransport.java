@@ -12,9 +12,31 @@ public interface TLTransport extends AutoCloseable {
   /** 바이트 블록 전송 */
   void write(byte[] bytes) throws Exception;
 
-  /** 지정 바이트 수만큼 차오를 때까지 읽기(타임아웃 ms). */
+  /** 지정 바이트 수만큼 차오를 때까지 읽기(타임아웃 ms). 데드라인 경과 시 그때까지 읽은 바이트 수 반환. */
   int readFully(byte[] buf, int len, int timeoutMs) throws Exception;
 
   /** 1바이트 읽기(타임아웃 ms), 없으면 -1 */
   int readByte(int timeoutMs) throws Exception;
+
+  /**
+   * 이미 도착한 바이트만 꺼낸다(대기 없음). 이벤트 루프 클라이언트가 readiness 통지를 받은 뒤 호출한다.
+   *
+   * @return 복사한 바이트 수. 도착분이 없으면 0, 연결이 끊겼으면 -1
+   */
+  int readAvailable(byte[] buf, int off, int len) throws Exception;
+
+  /**
+   * 수신 바이트가 생기면 불릴 콜백 등록(null이면 해제). 전송 계층 내부 스레드에서 호출되므로 콜백은 이벤트 루프에 작업을 넘기고
+   * 바로 돌아와야 한다.
+   */
+  void setReadableListener(Runnable listener);
+
+  /**
+   * 회선 속도 변경 (회선 품질 저하 시 한 단계 낮춤). 열려 있으면 즉시, 아니면 다음 open부터 적용한다. 단말 쪽 속도도 같이
+   * 맞춰져 있어야 한다.
+   *
+   * @return 적용했으면 true, 회선 속도 개념이 없는 전송 계층(TCP, 시뮬레이터)은 아무것도 하지 않고 false
+   * @throws IllegalStateException 열린 포트가 속도 변경을 거부함
+   */
+  boolean setBaudRate(int baudRate);
 }
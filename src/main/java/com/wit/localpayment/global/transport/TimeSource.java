@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.transport;
+
+import java.util.concurrent.locks.Condition;
+
+/**
+ * 클라이언트/전송 계층의 대기 시각 원천. 데드라인 계산과 sleep/조건 대기를 모두 여기로 거치게 해서, 테스트에서 가상 시계를
+ * 넣으면 180초 후속 대기 같은 타임아웃 경로를 실제로 기다리지 않고 돌릴 수 있다.
+ *
+ * <p>벽시계가 아니라 경과 시간용 단조 시계다 (프레임 헤더 시각은 {@code FrameClock}).
+ */
+public interface TimeSource {
+
+  /** 단조 나노초 ({@link System#nanoTime()}과 같은 의미, 기준점 임의) */
+  long nanoTime();
+
+  /** 단조 밀리초. 데드라인 비교 전용이며 epoch 시각이 아니다. */
+  default long millis() {
+    return nanoTime() / 1_000_000L;
+  }
+
+  void sleep(long ms) throws InterruptedException;
+
+  /**
+   * {@link Condition#awaitNanos}를 대신한다. 호출자는 조건의 잠금을 쥔 상태여야 한다.
+   *
+   * @return 남은 대기 나노초 추정치 (0 이하면 시간 만료)
+   */
+  long awaitNanos(Condition condition, long nanos) throws InterruptedException;
+
+  /** 실제 시계 (공유 인스턴스) */
+  static TimeSource system() {
+    return SystemTimeSource.INSTANCE;
+  }
+
+  /** 실제 시계 구현 */
+  final class SystemTimeSource implements TimeSource {
+
+    private static final SystemTimeSource INSTANCE = new SystemTimeSource();
+
+    private SystemTimeSource() {}
+
+    @Override
+    public long nanoTime() {
+      return System.nanoTime();
+    }
+
+    @Override
+    public void sleep(long ms) throws InterruptedException {
+      Thread.sleep(ms);
+    }
+
+    @Override
+    public long awaitNanos(Condition condition, long nanos) throws InterruptedException {
+      return condition.awaitNanos(nanos);
+    }
+  }
+}
@@ -1,24 +1,156 @@
-/* 
- * Copyright (c) WIT Global 
+/*
+ * Copyright (c) WIT Global
  */
 package com.wit.localpayment.global.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 대문자 HEX 인코딩/디코딩 (조회표 기반).
+ *
+ * <p>로그/보고/응답 DTO가 모두 이 코덱을 쓴다. 호출자가 준 StringBuilder/ByteBuffer/JsonGenerator로 바로 쓰는 경로는 중간
+ * String을 만들지 않는다. 로그 인자에는 {@link #lazy(byte[])}를 넘겨 해당 레벨이 꺼져 있으면 인코딩 자체를 건너뛴다.
+ */
 public final class Hex {
 
   private static final char[] HEX = "0123456789ABCDEF".toCharArray();
 
+  // 바이트 → 두 글자 ASCII (상위 8비트: 앞 글자, 하위 8비트: 뒷 글자)
+  private static final short[] PAIRS = new short[256];
+
+  // ASCII → 니블 (잘못된 문자는 -1)
+  private static final byte[] NIBBLE = new byte[128];
+
+  // JsonGenerator 출력용 스크래치 (스레드별 재사용)
+  private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[256]);
+
+  static {
+    for (int v = 0; v < 256; v++) {
+      PAIRS[v] = (short) ((HEX[v >>> 4] << 8) | HEX[v & 0x0F]);
+    }
+    Arrays.fill(NIBBLE, (byte) -1);
+    for (int i = 0; i < 10; i++) {
+      NIBBLE['0' + i] = (byte) i;
+    }
+    for (int i = 0; i < 6; i++) {
+      NIBBLE['A' + i] = (byte) (10 + i);
+      NIBBLE['a' + i] = (byte) (10 + i);
+    }
+  }
+
   private Hex() {}
 
   public static String toHex(byte[] b) {
     if (b == null) {
       return "";
     }
-    char[] out = new char[b.length * 2];
-    for (int i = 0; i < b.length; i++) {
-      int v = b[i] & 0xFF;
-      out[i * 2] = HEX[v >>> 4];
-      out[i * 2 + 1] = HEX[v & 0x0F];
+    return toHex(b, 0, b.length);
+  }
+
+  public static String toHex(byte[] b, int off, int len) {
+    byte[] out = new byte[len * 2];
+    encode(b, off, len, out, 0);
+    // ASCII만 담기므로 Latin-1 생성자로 추가 변환 없이 String 생성
+    return new String(out, StandardCharsets.ISO_8859_1);
+  }
+
+  /** sb 뒤에 이어 쓰기 */
+  public static StringBuilder appendTo(StringBuilder sb, byte[] b, int off, int len) {
+    sb.ensureCapacity(sb.length() + len * 2);
+    for (int i = off; i < off + len; i++) {
+      short p = PAIRS[b[i] & 0xFF];
+      sb.append((char) (p >>> 8)).append((char) (p & 0xFF));
+    }
+    return sb;
+  }
+
+  /** dst에 ASCII 바이트로 이어 쓰기. 남은 공간이 len*2보다 작으면 BufferOverflowException. */
+  public static ByteBuffer encodeTo(ByteBuffer dst, byte[] b, int off, int len) {
+    for (int i = off; i < off + len; i++) {
+      short p = PAIRS[b[i] & 0xFF];
+      dst.put((byte) (p >>> 8)).put((byte) p);
+    }
+    return dst;
+  }
+
+  /**
+   * JSON/CBOR 문자열 값으로 바로 쓰기 (중간 String 없음). null이면 {@link #toHex(byte[])}와 같이 빈 문자열.
+   *
+   * <p>DTO 필드가 null이면 Jackson이 이 메서드 대신 null 직렬화기를 쓰므로 보고 DTO의 tlPacketHex는 기존처럼 JSON null로 나간다.
+   */
+  public static void writeTo(JsonGenerator gen, byte[] b) throws IOException {
+    if (b == null) {
+      gen.writeString("");
+      return;
+    }
+    char[] buf = SCRATCH.get();
+    if (buf.length < b.length * 2) {
+      buf = new char[Math.max(b.length * 2, buf.length * 2)];
+      SCRATCH.set(buf);
+    }
+    int o = 0;
+    for (byte v : b) {
+      short p = PAIRS[v & 0xFF];
+      buf[o++] = (char) (p >>> 8);
+      buf[o++] = (char) (p & 0xFF);
+    }
+    // writeRawUTF8String은 Writer 기반 생성기(writeValueAsString)가 지원하지 않는다
+    gen.writeString(buf, 0, o);
+  }
+
+  /**
+   * HEX 문자열 → 바이트 (리플레이/진단 도구용). 공백은 무시하고 대소문자를 모두 받는다.
+   *
+   * @throws IllegalArgumentException 홀수 자리 또는 HEX가 아닌 문자
+   */
+  public static byte[] fromHex(CharSequence s) {
+    byte[] out = new byte[s.length() / 2];
+    int n = 0;
+    int hi = -1;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (Character.isWhitespace(c)) {
+        continue;
+      }
+      int v = (c < 128) ? NIBBLE[c] : -1;
+      if (v < 0) {
+        throw new IllegalArgumentException("invalid hex char '" + c + "' at " + i);
+      }
+      if (hi < 0) {
+        hi = v;
+      } else {
+        out[n++] = (byte) ((hi << 4) | v);
+        hi = -1;
+      }
+    }
+    if (hi >= 0) {
+      throw new IllegalArgumentException("odd number of hex digits");
+    }
+    return (n == out.length) ? out : Arrays.copyOf(out, n);
+  }
+
+  /** 로그 인자용: toString()이 불릴 때만 인코딩 */
+  public static Object lazy(byte[] b) {
+    return new Lazy(b);
+  }
+
+  private static void encode(byte[] b, int off, int len, byte[] out, int outOff) {
+    int o = outOff;
+    for (int i = off; i < off + len; i++) {
+      short p = PAIRS[b[i] & 0xFF];
+      out[o++] = (byte) (p >>> 8);
+      out[o++] = (byte) p;
+    }
+  }
+
+  private record Lazy(byte[] b) {
+    @Override
+    public String toString() {
+      return toHex(b);
     }
-    return new String(out);
   }
 }
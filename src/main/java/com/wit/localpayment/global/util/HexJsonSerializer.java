@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import java.io.IOException;
+
+/** byte[] 필드를 대문자 HEX 문자열로 직렬화 (Base64 대신). {@link Hex#writeTo}로 바로 쓴다. */
+public class HexJsonSerializer extends JsonSerializer<byte[]> {
+
+  @Override
+  public void serialize(byte[] value, JsonGenerator gen, SerializerProvider serializers)
+      throws IOException {
+    Hex.writeTo(gen, value);
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wit.localpayment.domain.pay.dto.request.PaySuccessReportRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** spill 재전송: reportId 유지, 전송 실패 시 되돌림, 도중에 죽은 replay는 offset 뒤부터 이어 감 */
+class ReportSpillStoreTest {
+
+  @TempDir Path dir;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  void replaySendsEveryLineWithItsReportId() throws Exception {
+    ReportSpillStore store = store();
+    spill(store, 3);
+
+    List<String> ids = new ArrayList<>();
+    assertThat(store.replay((id, path, body) -> ids.add(id))).isEqualTo(3);
+
+    assertThat(ids).containsExactly("r0", "r1", "r2");
+    assertThat(store.pending()).isZero();
+    assertThat(Files.list(dir)).isEmpty();
+  }
+
+  @Test
+  void failedSendPutsTheRestBack() throws Exception {
+    ReportSpillStore store = store();
+    spill(store, 3);
+
+    List<String> ids = new ArrayList<>();
+    assertThatThrownBy(
+            () ->
+                store.replay(
+                    (id, path, body) -> {
+                      if (id.equals("r1")) {
+                        throw new IllegalStateException("central down");
+                      }
+                      ids.add(id);
+                    }))
+        .hasMessage("central down");
+    assertThat(store.pending()).isEqualTo(2);
+
+    store.replay((id, path, body) -> ids.add(id));
+    assertThat(ids).containsExactly("r0", "r1", "r2");
+  }
+
+  @Test
+  void crashMidReplayResumesAfterTheLastSentLine() throws Exception {
+    ReportSpillStore store = store();
+    spill(store, 4);
+
+    // r2 전송 중 프로세스가 죽은 것처럼 replay 파일/offset을 남긴 채 빠져나온다
+    List<String> first = new ArrayList<>();
+    assertThatThrownBy(
+            () ->
+                store.replay(
+                    (id, path, body) -> {
+                      if (id.equals("r2")) {
+                        throw new Crash();
+                      }
+                      first.add(id);
+                    }))
+        .isInstanceOf(Crash.class);
+
+    ReportSpillStore restarted = store();
+    assertThat(restarted.pending()).isEqualTo(2);
+
+    List<String> second = new ArrayList<>();
+    assertThat(restarted.replay((id, path, body) -> second.add(id))).isEqualTo(2);
+    assertThat(first).containsExactly("r0", "r1");
+    assertThat(second).containsExactly("r2", "r3");
+  }
+
+  @Test
+  void legacyLineGetsAStableId() throws Exception {
+    Path file = dir.resolve("spill.jsonl");
+    Files.writeString(file, "{\"path\":\"/api/pay/failure\",\"spilledAt\":1,\"body\":{}}\n");
+
+    List<String> ids = new ArrayList<>();
+    assertThatThrownBy(
+            () ->
+                store()
+                    .replay(
+                        (id, path, body) -> {
+                          ids.add(id);
+                          throw new IllegalStateException("central down");
+                        }))
+        .isInstanceOf(IllegalStateException.class);
+    store().replay((id, path, body) -> ids.add(id));
+
+    assertThat(ids).hasSize(2);
+    assertThat(ids.get(0)).isNotBlank().isEqualTo(ids.get(1));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void reportWithPacketIsSpilledAsHex() throws Exception {
+    ReportSpillStore store = store();
+    store.append(
+        "r0",
+        CentralReport.SUCCESS_PATH,
+        new PaySuccessReportRequest(null, 1000, 0, new byte[] {0x02, 0x30}));
+    assertThat(store.pending()).isEqualTo(1);
+
+    List<Object> bodies = new ArrayList<>();
+    store.replay((id, path, body) -> bodies.add(body));
+    assertThat((Map<String, Object>) bodies.get(0)).containsEntry("tlPacketHex", "0230");
+  }
+
+  private ReportSpillStore store() {
+    return new ReportSpillStore(dir.resolve("spill.jsonl"), mapper);
+  }
+
+  private static void spill(ReportSpillStore store, int n) {
+    for (int i = 0; i < n; i++) {
+      store.append("r" + i, CentralReport.FAILURE_PATH, Map.of("seq", i));
+    }
+  }
+
+  /** RuntimeException이 아니라 replay가 정리하지 않고 그대로 빠져나간다 (프로세스 종료 흉내) */
+  private static final class Crash extends Error {}
+}
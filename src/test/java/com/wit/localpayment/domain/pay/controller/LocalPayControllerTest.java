@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.wit.localpayment.domain.pay.dto.response.PayAbortResponse;
+import com.wit.localpayment.domain.pay.service.CentralReportService;
+import com.wit.localpayment.domain.pay.service.LocalPayService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/** 결제 중단 결과별 HTTP 상태 */
+class LocalPayControllerTest {
+
+  private final LocalPayService service = mock(LocalPayService.class);
+  private final LocalPayController controller =
+      new LocalPayController(service, mock(CentralReportService.class));
+
+  @Test
+  void abortedIsOk() {
+    assertThat(statusFor(new PayAbortResponse(true, true, "결제중단"))).isEqualTo(HttpStatus.OK);
+    assertThat(statusFor(new PayAbortResponse(true, true, "대기취소"))).isEqualTo(HttpStatus.OK);
+  }
+
+  @Test
+  void unknownPaymentIsNotFound() {
+    assertThat(statusFor(new PayAbortResponse(false, false, "결제없음")))
+        .isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  @Test
+  void finishedBeforeResetIsConflict() {
+    assertThat(statusFor(new PayAbortResponse(false, true, "결제완료")))
+        .isEqualTo(HttpStatus.CONFLICT);
+    assertThat(statusFor(new PayAbortResponse(false, true, "결제종료")))
+        .isEqualTo(HttpStatus.CONFLICT);
+  }
+
+  @Test
+  void terminalFailureIsGatewayTimeout() {
+    assertThat(statusFor(new PayAbortResponse(false, false, "통신오류")))
+        .isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+  }
+
+  private HttpStatus statusFor(PayAbortResponse response) {
+    when(service.abort("P1")).thenReturn(response);
+    ResponseEntity<PayAbortResponse> entity = controller.abort("P1");
+    assertThat(entity.getBody()).isEqualTo(response);
+    return HttpStatus.valueOf(entity.getStatusCode().value());
+  }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.wit.localpayment.domain.pay.dto.response.CentralReportStatusResponse;
+import com.wit.localpayment.domain.pay.service.CentralReportService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * /api/pay 종단 부하 테스트 (하드웨어 없음, {@code ./gradlew loadTest}, 일반 test에서는 빠짐).
+ *
+ * <p>앱 전체를 임의 포트로 띄우고 단말은 시뮬레이터, 중앙 서버는 {@link StubCentralServer}로 붙인다. 키오스크 수만큼의 스레드가
+ * 각자 HTTP 연결로 /api/pay를 보내므로 게이트웨이 잠금 경합, 대기열 입장 제어, 중앙 보고 발송이 실제 경로 그대로 걸린다. 워밍업
+ * 뒤 측정 구간의 처리량과 지연 분위수(HdrHistogram, p50/p99/p999/max)를 markdown 표로 출력하고, 같은 시나리오로 저장한
+ * 기준값(bench.baseline 파일)보다 p99가 tolerance 넘게 늘거나 처리량이 tolerance 넘게 줄면 실패한다. 설정은 시스템 속성으로
+ * 받는다.
+ *
+ * <ul>
+ *   <li>bench.kiosks (4) / bench.requests (200) / bench.warmup (20)
+ *   <li>bench.sim.ack-delay-ms (5) / bench.sim.event-delay-ms (20) / bench.sim.response-delay-ms
+ *       (50) / bench.sim.decline-rate (0.0)
+ *   <li>bench.central.latency-ms (20) / bench.central.failure-rate (0.0)
+ *   <li>bench.baseline (src/test/resources/pay-load-baseline.properties) / bench.tolerance (0.25)
+ *       / bench.update-baseline (false, true면 이번 결과로 기준값을 다시 쓰고 비교는 건너뜀)
+ * </ul>
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PayLoadTest {
+
+  private static final String TERMINAL_ID = "LOAD0001";
+  private static final int PRODUCTS = 50;
+  private static final long PRICE = 1000;
+  // 1시간(µs)까지 유효숫자 3자리
+  private static final long HIGHEST_US = 3_600_000_000L;
+
+  private static final int KIOSKS = Integer.getInteger("bench.kiosks", 4);
+  private static final int REQUESTS = Integer.getInteger("bench.requests", 200);
+  private static final int WARMUP = Integer.getInteger("bench.warmup", 20);
+  private static final long SIM_ACK_MS = Long.getLong("bench.sim.ack-delay-ms", 5L);
+  private static final long SIM_EVENT_MS = Long.getLong("bench.sim.event-delay-ms", 20L);
+  private static final long SIM_RESPONSE_MS = Long.getLong("bench.sim.response-delay-ms", 50L);
+  private static final double SIM_DECLINE =
+      Double.parseDouble(System.getProperty("bench.sim.decline-rate", "0.0"));
+  private static final long CENTRAL_LATENCY_MS = Long.getLong("bench.central.latency-ms", 20L);
+  private static final double CENTRAL_FAILURE =
+      Double.parseDouble(System.getProperty("bench.central.failure-rate", "0.0"));
+  private static final Path BASELINE =
+      Path.of(
+          System.getProperty("bench.baseline", "src/test/resources/pay-load-baseline.properties"));
+  private static final double TOLERANCE =
+      Double.parseDouble(System.getProperty("bench.tolerance", "0.25"));
+  private static final boolean UPDATE_BASELINE = Boolean.getBoolean("bench.update-baseline");
+
+  private static StubCentralServer central;
+  private static Path dataDir;
+
+  /** 측정 구간 1회 결과 */
+  record Run(
+      int requests,
+      int approved,
+      int declined,
+      int busy,
+      int errors,
+      long elapsedNs,
+      Histogram latencyUs) {
+
+    double throughput() {
+      return elapsedNs == 0 ? 0.0 : requests * 1e9 / elapsedNs;
+    }
+
+    double ms(double percentile) {
+      return latencyUs.getValueAtPercentile(percentile) / 1000.0;
+    }
+  }
+
+  @LocalServerPort private int port;
+
+  @Autowired private CentralReportService centralReportService;
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) throws IOException {
+    dataDir = Files.createTempDirectory("pay-load");
+
+    registry.add("central.api-base-url", () -> central().baseUrl());
+    registry.add("central.report.spill-file", () -> dataDir.resolve("spill.jsonl").toString());
+    registry.add("local.txn-store.dir", () -> dataDir.resolve("txn").toString());
+    registry.add("local.standby.inflight-file", () -> dataDir.resolve("inflight.jsonl").toString());
+    registry.add("tl3800.terminal-id", () -> TERMINAL_ID);
+    registry.add("tl3800.transport", () -> "simulator");
+    registry.add("tl3800.sim.ack-delay-ms", () -> SIM_ACK_MS);
+    registry.add("tl3800.sim.event-delay-ms", () -> SIM_EVENT_MS);
+    registry.add("tl3800.sim.response-delay-ms", () -> SIM_RESPONSE_MS);
+    registry.add("tl3800.sim.decline-rate", () -> SIM_DECLINE);
+  }
+
+  /** 속성을 처음 읽을 때 띄운다 (테스트 AOT 처리처럼 컨텍스트를 실제로 띄우지 않는 경우 서버도 없음) */
+  private static synchronized StubCentralServer central() {
+    if (central == null) {
+      try {
+        central = new StubCentralServer(CENTRAL_LATENCY_MS, CENTRAL_FAILURE, PRODUCTS, PRICE, 1L);
+      } catch (IOException e) {
+        throw new IllegalStateException("stub central server failed to start", e);
+      }
+    }
+    return central;
+  }
+
+  @AfterAll
+  static synchronized void stopCentral() {
+    if (central != null) {
+      central.close();
+    }
+  }
+
+  @Test
+  void payUnderKioskConcurrency() throws Exception {
+    drive(WARMUP);
+    Run run = drive(REQUESTS);
+    CentralReportStatusResponse reports = centralReportService.status();
+
+    PrintStream out = System.out;
+    out.printf(
+        "/api/pay load test - kiosks=%d, requests=%d (+%d warmup), sim ack/event/resp=%d/%d/%dms,"
+            + " decline=%.2f, central latency=%dms, central failure=%.2f%n%n",
+        KIOSKS,
+        REQUESTS,
+        WARMUP,
+        SIM_ACK_MS,
+        SIM_EVENT_MS,
+        SIM_RESPONSE_MS,
+        SIM_DECLINE,
+        CENTRAL_LATENCY_MS,
+        CENTRAL_FAILURE);
+    out.println(
+        "| approved | declined | busy (503) | errors | req/s | p50 ms | p99 ms | p999 ms | max ms"
+            + " | central sent/failed/spilled |");
+    out.println("|---|---|---|---|---|---|---|---|---|---|");
+    out.printf(
+        "| %d | %d | %d | %d | %.1f | %.1f | %.1f | %.1f | %.1f | %d/%d/%d |%n%n",
+        run.approved(),
+        run.declined(),
+        run.busy(),
+        run.errors(),
+        run.throughput(),
+        run.ms(50),
+        run.ms(99),
+        run.ms(99.9),
+        run.latencyUs().getMaxValue() / 1000.0,
+        reports.sent(),
+        reports.failed(),
+        reports.spilled());
+
+    assertThat(run.errors()).as("transport errors").isZero();
+    if (SIM_DECLINE == 0.0 && run.busy() == 0) {
+      assertThat(run.approved()).as("approvals").isEqualTo(REQUESTS);
+    }
+    gate(run, out);
+  }
+
+  /* ================= 키오스크 구동 ================= */
+
+  /** 응답 상태별 건수 (키오스크 스레드가 같이 센다) */
+  private record Counts(
+      AtomicInteger approved, AtomicInteger declined, AtomicInteger busy, AtomicInteger errors) {
+
+    Counts() {
+      this(new AtomicInteger(), new AtomicInteger(), new AtomicInteger(), new AtomicInteger());
+    }
+  }
+
+  /** 키오스크 스레드들이 요청 total건을 나눠 보낸다 (각자 HTTP 연결 하나) */
+  private Run drive(int total) throws Exception {
+    AtomicInteger tickets = new AtomicInteger();
+    Counts counts = new Counts();
+    Histogram merged = new Histogram(HIGHEST_US, 3);
+
+    ExecutorService kiosks = Executors.newFixedThreadPool(KIOSKS);
+    long t0 = System.nanoTime();
+    try {
+      List<Future<Histogram>> done = new ArrayList<>();
+      for (int k = 0; k < KIOSKS; k++) {
+        int kiosk = k;
+        done.add(kiosks.submit(() -> kiosk(kiosk, total, tickets, counts)));
+      }
+      for (Future<Histogram> f : done) {
+        merged.add(f.get());
+      }
+    } finally {
+      kiosks.shutdownNow();
+    }
+    return new Run(
+        total,
+        counts.approved().get(),
+        counts.declined().get(),
+        counts.busy().get(),
+        counts.errors().get(),
+        System.nanoTime() - t0,
+        merged);
+  }
+
+  /** 키오스크 1대: 남은 요청 번호를 하나씩 가져가 순서대로 보낸다. 응답까지 걸린 시간(µs)을 기록한다. */
+  private Histogram kiosk(int kiosk, int total, AtomicInteger tickets, Counts counts)
+      throws InterruptedException {
+    Histogram h = new Histogram(HIGHEST_US, 3);
+    try (HttpClient http =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(3))
+            .build()) {
+      int n;
+      while ((n = tickets.getAndIncrement()) < total) {
+        long t0 = System.nanoTime();
+        HttpResponse<String> resp;
+        try {
+          resp = http.send(payRequest(kiosk, n), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+          counts.errors().incrementAndGet();
+          continue;
+        }
+        h.recordValue(Math.min((System.nanoTime() - t0) / 1_000L, HIGHEST_US));
+        switch (resp.statusCode()) {
+          case 201 -> counts.approved().incrementAndGet();
+          case 200 -> counts.declined().incrementAndGet();
+          case 503 -> counts.busy().incrementAndGet();
+          default -> counts.errors().incrementAndGet();
+        }
+      }
+    }
+    return h;
+  }
+
+  private HttpRequest payRequest(int kiosk, int n) {
+    String body =
+        String.format(
+            "{\"items\":[{\"productId\":%d,\"quantity\":1}],\"totalAmount\":%d,"
+                + "\"phoneNumber\":\"01012345678\",\"inst\":\"00\",\"delivery\":false,"
+                + "\"paymentId\":\"load-k%d-%d\"}",
+            1 + n % PRODUCTS, PRICE, kiosk, n);
+    return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/pay"))
+        .timeout(Duration.ofSeconds(60))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+
+  /* ================= 기준값 비교 ================= */
+
+  /** 같은 시나리오의 기준값과 비교. 기준값이 없거나 시나리오가 다르면 비교하지 않는다. */
+  private static void gate(Run run, PrintStream out) throws IOException {
+    Map<String, String> scenario = scenario();
+    if (UPDATE_BASELINE) {
+      Properties p = new Properties();
+      p.putAll(scenario);
+      p.setProperty("throughput", String.format("%.1f", run.throughput()));
+      p.setProperty("p99-ms", String.format("%.1f", run.ms(99)));
+      Files.createDirectories(BASELINE.toAbsolutePath().getParent());
+      try (OutputStream os = Files.newOutputStream(BASELINE)) {
+        p.store(os, "/api/pay load test baseline (-Dbench.update-baseline=true)");
+      }
+      out.println("baseline updated: " + BASELINE);
+      return;
+    }
+    if (!Files.exists(BASELINE)) {
+      out.println("no baseline at " + BASELINE + " (run with -Dbench.update-baseline=true)");
+      return;
+    }
+    Properties base = new Properties();
+    try (InputStream in = Files.newInputStream(BASELINE)) {
+      base.load(in);
+    }
+    for (Map.Entry<String, String> e : scenario.entrySet()) {
+      if (!e.getValue().equals(base.getProperty(e.getKey()))) {
+        out.printf(
+            "baseline skipped: %s=%s, baseline has %s%n",
+            e.getKey(), e.getValue(), base.getProperty(e.getKey()));
+        return;
+      }
+    }
+    double baseThroughput = Double.parseDouble(base.getProperty("throughput"));
+    double baseP99 = Double.parseDouble(base.getProperty("p99-ms"));
+    out.printf(
+        "baseline: %.1f req/s, p99 %.1fms (tolerance %.0f%%)%n",
+        baseThroughput, baseP99, TOLERANCE * 100);
+    assertThat(run.throughput())
+        .as("throughput vs baseline")
+        .isGreaterThanOrEqualTo(baseThroughput * (1 - TOLERANCE));
+    assertThat(run.ms(99)).as("p99 vs baseline").isLessThanOrEqualTo(baseP99 * (1 + TOLERANCE));
+  }
+
+  /** 기준값이 유효한 시나리오 키 (하나라도 다르면 비교하지 않음) */
+  private static Map<String, String> scenario() {
+    Map<String, String> m = new TreeMap<>();
+    m.put("kiosks", String.valueOf(KIOSKS));
+    m.put("requests", String.valueOf(REQUESTS));
+    m.put("sim.ack-delay-ms", String.valueOf(SIM_ACK_MS));
+    m.put("sim.event-delay-ms", String.valueOf(SIM_EVENT_MS));
+    m.put("sim.response-delay-ms", String.valueOf(SIM_RESPONSE_MS));
+    m.put("sim.decline-rate", String.valueOf(SIM_DECLINE));
+    m.put("central.latency-ms", String.valueOf(CENTRAL_LATENCY_MS));
+    m.put("central.failure-rate", String.valueOf(CENTRAL_FAILURE));
+    return m;
+  }
+}
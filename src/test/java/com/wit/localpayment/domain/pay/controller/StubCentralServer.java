@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.controller;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 부하 테스트용 중앙 서버 대역 (JDK 내장 HttpServer, loopback 임의 포트).
+ *
+ * <p>결제 보고(/api/pay/success, /api/pay/failure)는 latencyMs만큼 늦게 200으로 받고, failureRate 확률로 500을 돌려준다.
+ * 단가표(/api/products/prices)와 단건 단가(/api/products/{id}/price)는 1..products 상품을 모두 같은 단가로 준다.
+ */
+final class StubCentralServer implements AutoCloseable {
+
+  private final HttpServer server;
+  private final ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+  private final long latencyMs;
+  private final double failureRate;
+  private final int products;
+  private final long price;
+  private final Random random;
+
+  private final LongAdder reports = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  StubCentralServer(long latencyMs, double failureRate, int products, long price, long seed)
+      throws IOException {
+    this.latencyMs = latencyMs;
+    this.failureRate = failureRate;
+    this.products = products;
+    this.price = price;
+    this.random = new Random(seed);
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.setExecutor(pool);
+    server.createContext("/api/pay/", this::report);
+    server.createContext("/api/products/", this::price);
+    server.start();
+  }
+
+  String baseUrl() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  /** 200으로 받은 보고 수 */
+  long reports() {
+    return reports.sum();
+  }
+
+  /** 장애 주입으로 500을 돌려준 보고 수 */
+  long rejected() {
+    return rejected.sum();
+  }
+
+  private void report(HttpExchange ex) throws IOException {
+    try (ex; InputStream in = ex.getRequestBody()) {
+      in.readAllBytes();
+      sleep(latencyMs);
+      if (fail()) {
+        rejected.increment();
+        ex.sendResponseHeaders(500, -1);
+        return;
+      }
+      reports.increment();
+      ex.sendResponseHeaders(200, -1);
+    }
+  }
+
+  private void price(HttpExchange ex) throws IOException {
+    try (ex) {
+      String path = ex.getRequestURI().getPath();
+      String body;
+      if (path.equals("/api/products/prices")) {
+        StringBuilder sb = new StringBuilder("{\"version\":1,\"full\":true,\"prices\":[");
+        for (int id = 1; id <= products; id++) {
+          sb.append(id == 1 ? "" : ",").append(priceJson(id));
+        }
+        body = sb.append("],\"removed\":[]}").toString();
+      } else if (path.endsWith("/price")) {
+        long id = Long.parseLong(path.split("/")[3]);
+        if (id < 1 || id > products) {
+          ex.sendResponseHeaders(404, -1);
+          return;
+        }
+        body = priceJson(id);
+      } else {
+        ex.sendResponseHeaders(404, -1);
+        return;
+      }
+      byte[] bytes = body.getBytes(UTF_8);
+      ex.getResponseHeaders().set("Content-Type", "application/json");
+      ex.getResponseHeaders().set("ETag", "\"v1\"");
+      ex.sendResponseHeaders(200, bytes.length);
+      ex.getResponseBody().write(bytes);
+    }
+  }
+
+  private String priceJson(long id) {
+    return "{\"productId\":" + id + ",\"price\":" + price + "}";
+  }
+
+  private boolean fail() {
+    if (failureRate <= 0) {
+      return false;
+    }
+    synchronized (random) {
+      return random.nextDouble() < failureRate;
+    }
+  }
+
+  private static void sleep(long ms) {
+    if (ms <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(ms);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    pool.shutdownNow();
+  }
+}
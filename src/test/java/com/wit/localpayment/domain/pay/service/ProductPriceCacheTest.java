@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.domain.pay.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wit.localpayment.domain.pay.client.CentralProductClient;
+import com.wit.localpayment.domain.pay.client.CentralProductClient.PriceFetch;
+import com.wit.localpayment.domain.pay.client.CircuitBreaker;
+import com.wit.localpayment.domain.pay.dto.response.ProductPriceResponse;
+import com.wit.localpayment.domain.pay.dto.response.ProductPriceSnapshotResponse;
+import java.util.List;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+/** 단건 조회 경로: 찾은 단가 캐시, 미존재 negative 캐시, 실패 시 서킷 차단 */
+class ProductPriceCacheTest {
+
+  private final CentralProductClient central = mock(CentralProductClient.class);
+
+  @Test
+  void fetchedPriceIsCached() {
+    when(central.fetchPrice(7L)).thenReturn(new ProductPriceResponse(7L, 1500));
+    ProductPriceCache cache = cache(60_000);
+
+    assertThat(cache.priceOf(7L)).hasValue(1500);
+    assertThat(cache.priceOf(7L)).hasValue(1500);
+    verify(central, times(1)).fetchPrice(7L);
+  }
+
+  @Test
+  void missIsNotAskedAgainWithinTtl() {
+    ProductPriceCache cache = cache(60_000);
+
+    assertThat(cache.priceOf(9L)).isEmpty();
+    assertThat(cache.priceOf(9L)).isEmpty();
+    verify(central, times(1)).fetchPrice(9L);
+  }
+
+  @Test
+  void missIsAskedAgainAfterTtl() {
+    ProductPriceCache cache = cache(0);
+
+    assertThat(cache.priceOf(9L)).isEmpty();
+    assertThat(cache.priceOf(9L)).isEmpty();
+    verify(central, times(2)).fetchPrice(9L);
+  }
+
+  @Test
+  void snapshotClearsMiss() {
+    when(central.fetchPrices(anyLong(), any()))
+        .thenReturn(
+            new PriceFetch(
+                false,
+                "\"v2\"",
+                new ProductPriceSnapshotResponse(
+                    2, false, List.of(new ProductPriceResponse(9L, 800)), List.of())));
+    ProductPriceCache cache = cache(60_000);
+
+    assertThat(cache.priceOf(9L)).isEmpty();
+    cache.refresh();
+    assertThat(cache.priceOf(9L)).hasValue(800);
+  }
+
+  @Test
+  void failuresOpenTheCircuit() {
+    when(central.fetchPrice(anyLong())).thenThrow(new ResourceAccessException("read timed out"));
+    ProductPriceCache cache = cache(60_000);
+
+    for (long id = 1; id <= 3; id++) {
+      assertThat(cache.priceOf(id)).isEmpty();
+    }
+    assertThat(cache.circuit()).isEqualTo(CircuitBreaker.State.OPEN);
+
+    assertThat(cache.priceOf(4L)).isEqualTo(OptionalLong.empty());
+    verify(central, never()).fetchPrice(4L);
+  }
+
+  private ProductPriceCache cache(long negativeTtlMs) {
+    return new ProductPriceCache(central, 100, negativeTtlMs, 3, 60_000);
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wit.localpayment.global.client.LineQualityMonitor;
+import com.wit.localpayment.global.client.TerminalClient;
+import com.wit.localpayment.global.payload.Requests;
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.JobCompatibility;
+import com.wit.localpayment.global.proto.TLPacket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** 승인이 카드 입력을 기다리는 동안 끼워 보내는 요청의 거절 규칙과 잠금 범위 */
+class TL3800GatewayTest {
+
+  private final TerminalClient client = mock(TerminalClient.class);
+  private final CountDownLatch cardInserted = new CountDownLatch(1);
+  private final CountDownLatch approvalSent = new CountDownLatch(1);
+  private final CountDownLatch deviceCheckSent = new CountDownLatch(1);
+  private volatile CountDownLatch deviceCheckHeld = new CountDownLatch(0);
+  private TL3800Gateway gateway;
+  private CompletableFuture<TLPacket> approval;
+
+  @BeforeEach
+  void approvalAwaitingCard() throws Exception {
+    when(client.persistentSession()).thenReturn(true);
+    when(client.readyForPipelinedRequest()).thenReturn(true);
+    when(client.requestResponse(any()))
+        .thenAnswer(
+            inv -> {
+              TLPacket req = inv.getArgument(0);
+              if (req.jobCode == JobCode.B) {
+                approvalSent.countDown();
+                cardInserted.await();
+              } else if (req.jobCode == JobCode.A) {
+                deviceCheckSent.countDown();
+                deviceCheckHeld.await();
+              }
+              return response(req.jobCode.responseJob());
+            });
+    gateway =
+        new TL3800Gateway(client, new Requests("T1"), JobCompatibility.parse("B:A|C"), 0, 0);
+    approval =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return gateway.approve("1000", "0", "0", "00", true);
+              } catch (Exception e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    assertThat(approvalSent.await(2, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @AfterEach
+  void finishApproval() throws Exception {
+    cardInserted.countDown();
+    assertThat(approval.get(2, TimeUnit.SECONDS).jobCode).isEqualTo(JobCode.b);
+  }
+
+  @Test
+  void compatibleRequestIsPipelined() throws Exception {
+    assertThat(gateway.deviceCheck().jobCode).isEqualTo(JobCode.a);
+  }
+
+  @Test
+  void standbyRejectsPipelinedRequest() {
+    gateway.setStandby(true);
+
+    assertThatThrownBy(gateway::deviceCheck)
+        .isInstanceOfSatisfying(
+            TerminalBusyException.class,
+            e -> assertThat(e.reason()).isEqualTo(TerminalBusyException.STANDBY));
+    verifyOnlyApprovalSent();
+    gateway.setStandby(false);
+  }
+
+  @Test
+  void quarantineRejectsPipelinedCancel() throws Exception {
+    LineQualityMonitor monitor = mock(LineQualityMonitor.class);
+    when(monitor.quarantineRemainingMs()).thenReturn(5_000L);
+    gateway.setLineMonitor(monitor);
+
+    assertThatThrownBy(
+            () ->
+                gateway.cancel(
+                    "1", "1", "1000", "0", "0", "00", true, "12345678", "261019", "120000", ""))
+        .isInstanceOfSatisfying(
+            TerminalBusyException.class,
+            e -> assertThat(e.reason()).isEqualTo(TerminalBusyException.LINE_DEGRADED));
+    verifyOnlyApprovalSent();
+
+    // 장치체크는 격리 중에도 받는다
+    assertThat(gateway.deviceCheck().jobCode).isEqualTo(JobCode.a);
+  }
+
+  @Test
+  void approvalFinishesWhilePipelinedCallIsOnTheLine() throws Exception {
+    deviceCheckHeld = new CountDownLatch(1);
+    CompletableFuture<TLPacket> side = CompletableFuture.supplyAsync(this::deviceCheck);
+    assertThat(deviceCheckSent.await(2, TimeUnit.SECONDS)).isTrue();
+
+    // 끼워 넣은 장치체크가 응답을 기다리는 동안에도 승인 종료(inFlight 내림)는 막히지 않는다
+    cardInserted.countDown();
+    assertThat(approval.get(2, TimeUnit.SECONDS).jobCode).isEqualTo(JobCode.b);
+    assertThat(gateway.inFlightMs()).isZero();
+
+    deviceCheckHeld.countDown();
+    assertThat(side.get(2, TimeUnit.SECONDS).jobCode).isEqualTo(JobCode.a);
+  }
+
+  @Test
+  void abortIsNotBlockedByPipelinedCall() throws Exception {
+    deviceCheckHeld = new CountDownLatch(1);
+    CompletableFuture<TLPacket> side = CompletableFuture.supplyAsync(this::deviceCheck);
+    assertThat(deviceCheckSent.await(2, TimeUnit.SECONDS)).isTrue();
+
+    // 게이트웨이에 없는 스레드 중단은 진행 중인 끼워 넣은 요청과 상관없이 바로 돌아온다
+    CompletableFuture<TL3800Gateway.AbortResult> abort =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return gateway.abort(new Thread(() -> {}));
+              } catch (Exception e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    assertThat(abort.get(2, TimeUnit.SECONDS).state())
+        .isEqualTo(TL3800Gateway.AbortState.NONE);
+
+    deviceCheckHeld.countDown();
+    assertThat(side.get(2, TimeUnit.SECONDS).jobCode).isEqualTo(JobCode.a);
+  }
+
+  private TLPacket deviceCheck() {
+    try {
+      return gateway.deviceCheck();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void verifyOnlyApprovalSent() {
+    try {
+      verify(client, times(1)).requestResponse(any());
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static TLPacket response(JobCode job) {
+    return TLPacket.parse(TLPacket.build("T1", "20261019120000", job.code, 0, new byte[0]));
+  }
+}
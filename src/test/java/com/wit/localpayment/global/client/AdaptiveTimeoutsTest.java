@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.wit.localpayment.global.proto.JobCode;
+import org.junit.jupiter.api.Test;
+
+/** 분위수 기반 대기 시간: 표본이 쌓이면 줄어들되 승인/취소 응답 대기는 설정값 그대로 */
+class AdaptiveTimeoutsTest {
+
+  private static final int ACK_WAIT_MS = 3_000;
+  private static final int RESP_WAIT_MS = 25_000;
+
+  private final AdaptiveTimeouts timeouts =
+      new AdaptiveTimeouts(true, ACK_WAIT_MS, RESP_WAIT_MS, 0.99, 4.0, 30, 200);
+
+  @Test
+  void ceilingUntilEnoughSamples() {
+    record(JobCode.A, 29, 20, 100);
+
+    assertThat(timeouts.ackWaitMs(JobCode.A)).isEqualTo(ACK_WAIT_MS);
+    assertThat(timeouts.respWaitMs(JobCode.A)).isEqualTo(RESP_WAIT_MS);
+  }
+
+  @Test
+  void deviceCheckWaitsFollowObservedLatency() {
+    record(JobCode.A, 30, 20, 100);
+
+    assertThat(timeouts.ackWaitMs(JobCode.A)).isEqualTo(200); // 20 × 4 → floor
+    // 100ms × 4, 히스토그램 버킷 해상도만큼 위로
+    assertThat(timeouts.respWaitMs(JobCode.A)).isBetween(400, 440);
+  }
+
+  @Test
+  void approvalAndCancelResponseWaitStaysFixed() {
+    record(JobCode.B, 100, 20, 100);
+    record(JobCode.C, 100, 20, 100);
+
+    assertThat(timeouts.ackWaitMs(JobCode.B)).isEqualTo(200);
+    assertThat(timeouts.respWaitMs(JobCode.B)).isEqualTo(RESP_WAIT_MS);
+    assertThat(timeouts.respWaitMs(JobCode.C)).isEqualTo(RESP_WAIT_MS);
+  }
+
+  private void record(JobCode job, int samples, long ackMs, long respMs) {
+    for (int i = 0; i < samples; i++) {
+      timeouts.recordAck(job, ackMs);
+      timeouts.recordResponse(job, respMs);
+    }
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.wit.localpayment.global.payload.Requests;
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.Proto;
+import com.wit.localpayment.global.proto.TLPacket;
+import com.wit.localpayment.global.transport.TLTransport;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** 응답을 교환 태그로 대응하는지, 첫 송신 뒤에는 회선이 조용해지길 기다리지 않는지 */
+class DuplexTL3800ClientTest {
+
+  private static final int WAIT_MS = 500;
+
+  private final LineTransport line = new LineTransport();
+  private final Requests requests = new Requests("T1");
+  private final List<TLPacket> orphans = new CopyOnWriteArrayList<>();
+  private DuplexTL3800Client client;
+
+  @BeforeEach
+  void open() throws Exception {
+    client =
+        new DuplexTL3800Client(
+            line, "test", WAIT_MS, WAIT_MS, 1, 1_000, AdaptiveTimeouts.fixed(WAIT_MS, WAIT_MS));
+    client.setOrphanListener(orphans::add);
+    client.open();
+  }
+
+  @AfterEach
+  void close() {
+    client.close();
+  }
+
+  @Test
+  void staleApprovalWithOtherAmountIsOrphaned() throws Exception {
+    CompletableFuture<TLPacket> resp = send(requests.approve("2000", "0", "0", "00", true));
+    line.awaitRequest();
+
+    line.push(Proto.ACK);
+    line.push(approval("0000001000")); // 앞 고객의 늦은 b
+    line.push(approval("0000002000"));
+
+    assertThat(amount(resp.get(2, TimeUnit.SECONDS))).isEqualTo("0000002000");
+    assertThat(orphans).extracting(DuplexTL3800ClientTest::amount).containsExactly("0000001000");
+  }
+
+  @Test
+  void eventsDoNotHoldBackLaterSends() throws Exception {
+    CompletableFuture<TLPacket> first = send(requests.deviceCheck());
+    line.awaitRequest();
+    line.push(Proto.ACK);
+    line.push(frame(JobCode.a, new byte[0]));
+    assertThat(first.get(2, TimeUnit.SECONDS).jobCode).isEqualTo(JobCode.a);
+
+    // 카드 입력 중처럼 EVENT가 FENCE_QUIET_MS보다 촘촘히 계속 온다
+    Thread events =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  try {
+                    while (true) {
+                      line.push(frame(JobCode.EVENT, "1".getBytes(US_ASCII)));
+                      Thread.sleep(30);
+                    }
+                  } catch (InterruptedException e) {
+                    // 종료
+                  }
+                });
+    try {
+      CompletableFuture<TLPacket> second = send(requests.deviceCheck());
+      assertThat(line.awaitRequest()).isTrue();
+      line.push(Proto.ACK);
+      line.push(frame(JobCode.a, new byte[0]));
+      assertThat(second.get(2, TimeUnit.SECONDS).jobCode).isEqualTo(JobCode.a);
+    } finally {
+      events.interrupt();
+    }
+  }
+
+  private CompletableFuture<TLPacket> send(TLPacket req) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return client.requestResponse(req);
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        });
+  }
+
+  private static byte[] approval(String amount10) {
+    String data = "1" + amount10 + "12345678    " + "20261019120000";
+    return frame(JobCode.b, data.getBytes(US_ASCII));
+  }
+
+  private static String amount(TLPacket p) {
+    return new String(p.data, 1, 10, US_ASCII);
+  }
+
+  private static byte[] frame(JobCode job, byte[] data) {
+    return TLPacket.build("T1", "20261019120000", job.code, 0, data);
+  }
+
+  /** 테스트가 단말 쪽 바이트를 밀어 넣는 회선. 호스트가 쓴 요청 프레임은 신호로만 남긴다. */
+  private static final class LineTransport implements TLTransport {
+
+    private final LinkedBlockingQueue<Byte> rx = new LinkedBlockingQueue<>();
+    private final LinkedBlockingQueue<byte[]> written = new LinkedBlockingQueue<>();
+
+    void push(byte... bytes) {
+      for (byte b : bytes) {
+        rx.add(b);
+      }
+    }
+
+    /** 호스트가 다음 요청 프레임을 쓸 때까지 */
+    boolean awaitRequest() throws InterruptedException {
+      return written.poll(2, TimeUnit.SECONDS) != null;
+    }
+
+    @Override
+    public void open() {}
+
+    @Override
+    public void close() {}
+
+    @Override
+    public void write(byte[] bytes) {
+      if (bytes.length > 1) {
+        written.add(bytes);
+      }
+    }
+
+    @Override
+    public int readFully(byte[] buf, int len, int timeoutMs) throws InterruptedException {
+      long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+      int off = 0;
+      while (off < len) {
+        Byte b = rx.poll(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+        if (b == null) {
+          break;
+        }
+        buf[off++] = b;
+      }
+      return off;
+    }
+
+    @Override
+    public int readByte(int timeoutMs) throws InterruptedException {
+      Byte b = rx.poll(timeoutMs, TimeUnit.MILLISECONDS);
+      return b == null ? -1 : b & 0xFF;
+    }
+
+    @Override
+    public int readAvailable(byte[] buf, int off, int len) {
+      int n = 0;
+      Byte b;
+      while (n < len && (b = rx.poll()) != null) {
+        buf[off + n++] = b;
+      }
+      return n;
+    }
+
+    @Override
+    public void setReadableListener(Runnable listener) {
+      if (listener != null) {
+        throw new IllegalStateException("LineTransport is for the duplex reader thread only");
+      }
+    }
+
+    @Override
+    public boolean setBaudRate(int baudRate) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import com.wit.localpayment.global.TL3800Gateway;
+import com.wit.localpayment.global.payload.Requests;
+import com.wit.localpayment.global.proto.FrameClock;
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.TLPacket;
+import com.wit.localpayment.global.transport.FaultInjectingTransport;
+import com.wit.localpayment.global.transport.SimulatedTerminalTransport;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 장애 프로필별 복원력 측정 (하드웨어 없음, {@code ./gradlew faultBench}, 일반 test에서는 빠짐).
+ *
+ * <p>프로필마다 새 시뮬레이터 단말을 {@link FaultInjectingTransport}로 감싸 승인 요청을 순서대로 보내고, 성공률과 지연
+ * 분위수(p50/p90/p99/max), 넣은 장애 수, 클라이언트가 기록한 회선 신호(NAK 재시도, 헤더 복원, lenient 파싱, ACK 타임아웃)를
+ * markdown 표로 출력한다. 성공은 요청 금액과 같은 금액의 승인(b) 응답을 받은 경우이고, 금액이 다른 b 응답(앞 요청의 중복
+ * 응답 등)은 stale로 따로 센다. 장애가 없으면 전부 성공해야 하고, 어떤 프로필에서도 stale(다른 고객의 승인 응답)이 나오면
+ * 실패다. 설정은 시스템 속성으로 받는다.
+ *
+ * <ul>
+ *   <li>bench.requests (200) / bench.seed (1) / bench.client (blocking | duplex | eventloop)
+ *   <li>bench.ack-wait-ms (300) / bench.resp-wait-ms (2000) / bench.sim.response-delay-ms (50)
+ *   <li>bench.profiles: "이름=장애;이름=장애" (비우면 기본 프로필 묶음, 장애 형식은 {@link
+ *       FaultInjectingTransport.Faults#parse})
+ * </ul>
+ */
+@Tag("bench")
+class FaultBenchmarkTest {
+
+  private static final String TERMINAL_ID = "BENCH0001";
+
+  /** 프로필 1개 측정 결과 */
+  record Result(
+      String profile,
+      int requests,
+      int ok,
+      int stale,
+      long p50,
+      long p90,
+      long p99,
+      long max,
+      FaultInjectingTransport.Counts faults,
+      LineQuality.Snapshot line) {}
+
+  private final int requests = Integer.getInteger("bench.requests", 200);
+  private final long seed = Long.getLong("bench.seed", 1L);
+  private final String clientMode = System.getProperty("bench.client", "blocking");
+  private final int ackWaitMs = Integer.getInteger("bench.ack-wait-ms", 300);
+  private final int respWaitMs = Integer.getInteger("bench.resp-wait-ms", 2000);
+  private final int simResponseDelayMs = Integer.getInteger("bench.sim.response-delay-ms", 50);
+
+  @Test
+  void faultProfiles() throws Exception {
+    Map<String, String> profiles = profiles(System.getProperty("bench.profiles", ""));
+
+    PrintStream out = System.out;
+    out.printf(
+        "TL3800 fault benchmark - client=%s, requests=%d, seed=%d, ack-wait=%dms, resp-wait=%dms"
+            + "%n%n",
+        clientMode, requests, seed, ackWaitMs, respWaitMs);
+    out.println(
+        "| profile | ok | stale | success | p50 ms | p90 ms | p99 ms | max ms "
+            + "| injected (delay/drop/dup/flip/req) | NAK rx/tx | hdr invalid | STX slide "
+            + "| lenient | parse fail | ACK timeout |");
+    out.println("|---|---|---|---|---|---|---|---|---|---|---|---|---|---|---|");
+    List<Result> results = new ArrayList<>();
+    for (Map.Entry<String, String> p : profiles.entrySet()) {
+      Result r = run(p.getKey(), FaultInjectingTransport.Faults.parse(p.getValue()));
+      out.println(row(r));
+      results.add(r);
+    }
+
+    for (Result r : results) {
+      assertThat(r.stale()).as("stale answers under %s", r.profile()).isZero();
+      if (FaultInjectingTransport.Faults.parse(profiles.get(r.profile())).none()) {
+        assertThat(r.ok()).as("clean line %s", r.profile()).isEqualTo(r.requests());
+      }
+    }
+  }
+
+  /** 프로필 1개: 새 단말/클라이언트로 requests건 승인 */
+  Result run(String name, FaultInjectingTransport.Faults faults) throws Exception {
+    SimulatedTerminalTransport sim =
+        new SimulatedTerminalTransport(
+            TERMINAL_ID, FrameClock.system(), 5, 20, simResponseDelayMs, 0.0, seed);
+    FaultInjectingTransport t = new FaultInjectingTransport(sim, faults, seed);
+    LineQuality quality = new LineQuality();
+    AdaptiveTimeouts timeouts = AdaptiveTimeouts.fixed(ackWaitMs, respWaitMs);
+    TerminalClient client =
+        switch (clientMode) {
+          case "duplex" ->
+              new DuplexTL3800Client(
+                  t, TERMINAL_ID, ackWaitMs, respWaitMs, 3, respWaitMs, timeouts, quality);
+          case "eventloop" ->
+              new EventLoopTL3800Client(
+                  t,
+                  TerminalEventLoop.shared(10),
+                  TERMINAL_ID,
+                  respWaitMs,
+                  3,
+                  respWaitMs,
+                  timeouts,
+                  quality);
+          default -> new TL3800Client(t, ackWaitMs, respWaitMs, 3, respWaitMs, timeouts, quality);
+        };
+    TL3800Gateway gateway = new TL3800Gateway(client, new Requests(TERMINAL_ID));
+
+    LatencyHistogram latency = new LatencyHistogram(Integer.MAX_VALUE);
+    long max = 0;
+    int ok = 0;
+    int stale = 0;
+    try {
+      for (int i = 0; i < requests; i++) {
+        long amount = 1000 + i;
+        long t0 = System.nanoTime();
+        long approved;
+        try {
+          approved = approvedAmount(gateway.approve(String.valueOf(amount), "0", "0", "00", true));
+        } catch (Exception e) {
+          approved = -1;
+        }
+        long ms = (System.nanoTime() - t0) / 1_000_000L;
+        latency.record(ms);
+        max = Math.max(max, ms);
+        if (approved == amount) {
+          ok++;
+        } else if (approved >= 0) {
+          stale++;
+        }
+      }
+    } finally {
+      client.close();
+    }
+    return new Result(
+        name,
+        requests,
+        ok,
+        stale,
+        latency.percentile(0.50),
+        latency.percentile(0.90),
+        latency.percentile(0.99),
+        max,
+        t.counts(),
+        quality.snapshot());
+  }
+
+  /** 승인(b) 응답의 금액 필드. 승인이 아니면 -1. */
+  static long approvedAmount(TLPacket resp) {
+    if (resp == null
+        || !JobCode.sameJob(JobCode.b, resp.jobCode)
+        || resp.responseCode != 0
+        || resp.data == null
+        || resp.data.length < 11
+        || Character.toUpperCase(resp.data[0]) == 'X') {
+      return -1;
+    }
+    try {
+      return Long.parseLong(new String(resp.data, 1, 10, StandardCharsets.US_ASCII).trim());
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static String row(Result r) {
+    FaultInjectingTransport.Counts f = r.faults();
+    LineQuality.Snapshot q = r.line();
+    return String.format(
+        "| %s | %d/%d | %d | %.1f%% | %d | %d | %d | %d | %d/%d/%d/%d/%d | %d/%d | %d | %d | %d"
+            + " | %d | %d |",
+        r.profile(),
+        r.ok(),
+        r.requests(),
+        r.stale(),
+        r.requests() == 0 ? 0.0 : 100.0 * r.ok() / r.requests(),
+        r.p50(),
+        r.p90(),
+        r.p99(),
+        r.max(),
+        f.delayed(),
+        f.dropped(),
+        f.duplicated(),
+        f.flipped(),
+        f.requestFlipped(),
+        q.nakReceived(),
+        q.nakSent(),
+        q.headerInvalid(),
+        q.stxSlides(),
+        q.lenientParses(),
+        q.parseFailures(),
+        q.ackTimeouts());
+  }
+
+  /** 비어 있으면 기본 묶음: 장애 없음 → 종류별 하나씩 → 섞음 */
+  static Map<String, String> profiles(String spec) {
+    Map<String, String> m = new LinkedHashMap<>();
+    if (spec == null || spec.isBlank()) {
+      m.put("baseline", "");
+      m.put("latency-spike", "latency=0.10@400");
+      m.put("drop-byte", "drop=0.05");
+      m.put("dup-frame", "dup=0.05");
+      m.put("bit-flip", "flip=0.05");
+      m.put("request-flip", "req-flip=0.05");
+      m.put("mixed", "latency=0.05@400,drop=0.02,dup=0.02,flip=0.02,req-flip=0.02");
+      return m;
+    }
+    for (String p : spec.split(";")) {
+      int eq = p.indexOf('=');
+      if (eq <= 0) {
+        throw new IllegalArgumentException("profile needs name=faults: " + p);
+      }
+      m.put(p.substring(0, eq).trim(), p.substring(eq + 1).trim());
+    }
+    return m;
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.wit.localpayment.global.client.LineQualityMonitor.Level;
+import com.wit.localpayment.global.transport.TLTransport;
+import org.junit.jupiter.api.Test;
+
+/** 재오픈 뒤에도 나쁘면 속도를 낮추고, 속도를 못 바꾸는 전송 계층이면 격리한다 */
+class LineQualityMonitorTest {
+
+  private final LineQuality quality = new LineQuality();
+  private final TLTransport transport = mock(TLTransport.class);
+  private final LineQualityMonitor monitor =
+      new LineQualityMonitor(
+          "T1",
+          quality,
+          mock(TerminalClient.class),
+          transport,
+          true,
+          0.3,
+          0.9,
+          4,
+          60_000L,
+          38_400,
+          new int[] {19_200, 9_600});
+
+  @Test
+  void lowersBaudAfterReopen() {
+    when(transport.setBaudRate(19_200)).thenReturn(true);
+
+    degrade();
+    assertThat(monitor.status().level()).isEqualTo(Level.REOPENED);
+    degrade();
+
+    assertThat(monitor.status().level()).isEqualTo(Level.BAUD_LOWERED);
+    assertThat(monitor.status().baudRate()).isEqualTo(19_200);
+    assertThat(monitor.quarantineRemainingMs()).isZero();
+  }
+
+  @Test
+  void transportWithoutBaudRateIsQuarantined() {
+    when(transport.setBaudRate(19_200)).thenReturn(false);
+
+    degrade();
+    degrade();
+
+    assertThat(monitor.status().level()).isEqualTo(Level.QUARANTINED);
+    assertThat(monitor.status().baudRate()).isEqualTo(38_400);
+  }
+
+  @Test
+  void refusedBaudChangeIsQuarantined() {
+    when(transport.setBaudRate(19_200)).thenThrow(new IllegalStateException("refused"));
+
+    degrade();
+    degrade();
+
+    assertThat(monitor.status().level()).isEqualTo(Level.QUARANTINED);
+    assertThat(monitor.status().baudRate()).isEqualTo(38_400);
+  }
+
+  /** window에 오류율 0.5 (error-rate 이상, quarantine-rate 미만) */
+  private void degrade() {
+    quality.record(LineQuality.Signal.FRAME_OK);
+    quality.record(LineQuality.Signal.FRAME_OK);
+    quality.record(LineQuality.Signal.NAK_RECEIVED);
+    quality.record(LineQuality.Signal.NAK_RECEIVED);
+    monitor.afterCall();
+  }
+}
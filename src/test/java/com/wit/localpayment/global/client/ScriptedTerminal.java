@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import com.wit.localpayment.global.proto.Proto;
+import com.wit.localpayment.global.transport.TLTransport;
+import com.wit.localpayment.global.transport.VirtualTimeSource;
+import java.util.ArrayDeque;
+
+/**
+ * 요청마다 스크립트가 응답 바이트와 도착 시각(가상 ms)을 정하는 단말. 읽기 대기는 다음 도착 시각이나 데드라인까지 가상 시계를
+ * 넘긴다.
+ */
+final class ScriptedTerminal implements TLTransport {
+
+  interface Script {
+    /** 호스트가 쓴 요청 프레임 또는 NAK마다 (호스트 ACK는 넘기지 않음) */
+    void onWrite(byte[] bytes, ScriptedTerminal term);
+  }
+
+  private record Chunk(long dueMs, byte[] bytes) {}
+
+  private final VirtualTimeSource time;
+  private final Script script;
+  private final ArrayDeque<Chunk> rx = new ArrayDeque<>();
+  private int headOffset;
+  private long lastDueMs;
+  private int requests;
+
+  ScriptedTerminal(VirtualTimeSource time, Script script) {
+    this.time = time;
+    this.script = script;
+  }
+
+  /** 지금부터 delayMs 뒤 도착 (앞 청크보다 먼저 오지 않음) */
+  void after(long delayMs, byte... bytes) {
+    long due = Math.max(time.millis() + delayMs, lastDueMs);
+    lastDueMs = due;
+    rx.add(new Chunk(due, bytes));
+  }
+
+  /** 지금까지 받은 요청 프레임 수 */
+  int requests() {
+    return requests;
+  }
+
+  @Override
+  public void open() {
+    rx.clear();
+    headOffset = 0;
+  }
+
+  @Override
+  public void close() {}
+
+  @Override
+  public void write(byte[] bytes) {
+    if (bytes.length == 1 && bytes[0] == Proto.ACK) {
+      return;
+    }
+    if (bytes.length > 1) {
+      requests++;
+    }
+    script.onWrite(bytes, this);
+  }
+
+  @Override
+  public int readFully(byte[] buf, int len, int timeoutMs) {
+    long deadline = time.millis() + timeoutMs;
+    int off = 0;
+    while (off < len) {
+      off += takeDue(buf, off, len - off);
+      if (off == len) {
+        break;
+      }
+      long now = time.millis();
+      Chunk head = rx.peek();
+      if (head == null || head.dueMs() > deadline) {
+        time.advance(deadline - now);
+        break;
+      }
+      time.advance(head.dueMs() - now);
+    }
+    return off;
+  }
+
+  @Override
+  public int readByte(int timeoutMs) {
+    byte[] one = new byte[1];
+    return readFully(one, 1, timeoutMs) == 1 ? one[0] & 0xFF : -1;
+  }
+
+  /** 가상 시계 기준 도착 시각이 지난 바이트만 (시계는 넘기지 않음) */
+  @Override
+  public int readAvailable(byte[] buf, int off, int len) {
+    return takeDue(buf, off, len);
+  }
+
+  @Override
+  public boolean setBaudRate(int baudRate) {
+    return false;
+  }
+
+  /** 가상 시계는 읽기 대기에서만 넘어가므로 도착을 알릴 스레드가 없다. 블로킹 클라이언트 전용. */
+  @Override
+  public void setReadableListener(Runnable listener) {
+    if (listener != null) {
+      throw new IllegalStateException("ScriptedTerminal has no readiness notifications");
+    }
+  }
+
+  private int takeDue(byte[] dst, int off, int max) {
+    int copied = 0;
+    long now = time.millis();
+    while (copied < max) {
+      Chunk head = rx.peek();
+      if (head == null || head.dueMs() > now) {
+        break;
+      }
+      int n = Math.min(head.bytes().length - headOffset, max - copied);
+      System.arraycopy(head.bytes(), headOffset, dst, off + copied, n);
+      copied += n;
+      headOffset += n;
+      if (headOffset == head.bytes().length) {
+        rx.poll();
+        headOffset = 0;
+      }
+    }
+    return copied;
+  }
+}
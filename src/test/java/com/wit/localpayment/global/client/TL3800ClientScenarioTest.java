@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.wit.localpayment.global.payload.Requests;
+import com.wit.localpayment.global.proto.FrameClock;
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.Proto;
+import com.wit.localpayment.global.proto.TLPacket;
+import com.wit.localpayment.global.transport.FaultInjectingTransport;
+import com.wit.localpayment.global.transport.SimulatedTerminalTransport;
+import com.wit.localpayment.global.transport.TLTransport;
+import com.wit.localpayment.global.transport.VirtualTimeSource;
+import java.util.Arrays;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 블로킹 클라이언트 프로토콜 경계 시나리오 (가상 시계).
+ *
+ * <p>테스트마다 새 {@link VirtualTimeSource}를 클라이언트와 단말(스크립트 단말 또는 시뮬레이터)에 같이 넣는다. ACK 타임아웃,
+ * NAK 재전송, 짧은 본문 NAK 후 재수신, 180초 후속 대기 만료 같은 경로가 실제 대기 없이 밀리초 안에 끝난다.
+ */
+class TL3800ClientScenarioTest {
+
+  private static final String TERMINAL_ID = "SCEN0001";
+  private static final String DT14 = "20260101120000";
+  private static final int ACK_WAIT_MS = 3_000;
+  private static final int RESP_WAIT_MS = 25_000;
+  private static final int MAX_ACK_RETRY = 3;
+  private static final int FOLLOWUP_WINDOW_MS = TL3800Client.DEFAULT_FOLLOWUP_WINDOW_MS;
+  private static final long AMOUNT = 1000;
+
+  private final VirtualTimeSource time = new VirtualTimeSource();
+  private final LineQuality quality = new LineQuality();
+  private TL3800Client client;
+
+  @AfterEach
+  void close() {
+    if (client != null) {
+      client.close();
+    }
+  }
+
+  @Test
+  void slowTerminalApproves() throws Exception {
+    // 시뮬레이터 단말: EVENT 뒤 20초 만에 승인
+    open(
+        new SimulatedTerminalTransport(
+            TERMINAL_ID, FrameClock.system(), time, 5, 20, 20_000, 0.0, 1L));
+
+    assertApproved(approve());
+    assertThat(time.elapsedMs()).isBetween(20_000L, 21_000L);
+  }
+
+  @Test
+  void ackTimeout() throws Exception {
+    open(new ScriptedTerminal(time, (req, term) -> {}));
+
+    assertFailure("ACK timeout");
+    assertThat(time.elapsedMs())
+        .isBetween((long) ACK_WAIT_MS + RESP_WAIT_MS, ACK_WAIT_MS + RESP_WAIT_MS + 1_000L);
+    assertThat(quality.snapshot().ackTimeouts()).isEqualTo(1);
+  }
+
+  @Test
+  void nakThenRetry() throws Exception {
+    ScriptedTerminal term =
+        new ScriptedTerminal(
+            time,
+            (req, t) -> {
+              if (t.requests() <= 2) {
+                t.after(10, Proto.NACK);
+                return;
+              }
+              t.after(10, Proto.ACK);
+              t.after(500, approval());
+            });
+    open(term);
+
+    assertApproved(approve());
+    assertThat(term.requests()).isEqualTo(3);
+    assertThat(quality.snapshot().nakReceived()).isEqualTo(2);
+  }
+
+  @Test
+  void nakRetryExceeded() throws Exception {
+    ScriptedTerminal term = new ScriptedTerminal(time, (req, t) -> t.after(10, Proto.NACK));
+    open(term);
+
+    assertFailure("NAK received (exceeded retry)");
+    assertThat(term.requests()).isEqualTo(MAX_ACK_RETRY + 1);
+  }
+
+  @Test
+  void lateAckFallback() throws Exception {
+    // ACK가 ACK 대기 상한 뒤에 온다 → STX 추가 대기 구간에서 late ACK 처리
+    open(
+        new ScriptedTerminal(
+            time,
+            (req, t) -> {
+              t.after(ACK_WAIT_MS + 2_000, Proto.ACK);
+              t.after(ACK_WAIT_MS + 4_000, approval());
+            }));
+
+    assertApproved(approve());
+    assertThat(quality.snapshot().ackTimeouts()).isZero();
+  }
+
+  @Test
+  void responseWaitTimeout() throws Exception {
+    open(new ScriptedTerminal(time, (req, t) -> t.after(10, Proto.ACK)));
+
+    assertFailure("header build failed after STX");
+    assertThat(time.elapsedMs()).isBetween((long) RESP_WAIT_MS, RESP_WAIT_MS + 1_000L);
+  }
+
+  @Test
+  void shortBodyIsNakedAndResent() throws Exception {
+    // 본문 5바이트가 빠진 응답 → 호스트 NAK → 단말이 전체 프레임 재전송
+    byte[] full = approval();
+    open(
+        new ScriptedTerminal(
+            time,
+            (req, t) -> {
+              if (req.length == 1) {
+                if (req[0] == Proto.NACK) {
+                  t.after(100, full);
+                }
+                return;
+              }
+              t.after(10, Proto.ACK);
+              t.after(500, Arrays.copyOf(full, full.length - 5));
+            }));
+
+    assertApproved(approve());
+    assertThat(quality.snapshot().nakSent()).isEqualTo(1);
+    assertThat(time.elapsedMs()).isBetween((long) RESP_WAIT_MS, RESP_WAIT_MS + 2_000L);
+  }
+
+  @Test
+  void finalInsideFollowUpWindow() throws Exception {
+    open(
+        new ScriptedTerminal(
+            time,
+            (req, t) -> {
+              t.after(10, Proto.ACK);
+              t.after(1_000, event());
+              t.after(170_000, approval());
+            }));
+
+    assertApproved(approve());
+    assertThat(time.elapsedMs()).isBetween(170_000L, (long) FOLLOWUP_WINDOW_MS);
+  }
+
+  @Test
+  void followUpWindowExceeded() throws Exception {
+    open(
+        new ScriptedTerminal(
+            time,
+            (req, t) -> {
+              t.after(10, Proto.ACK);
+              t.after(1_000, event());
+            }));
+
+    assertFailure("Follow-up window exceeded");
+    assertThat(time.elapsedMs())
+        .isBetween((long) FOLLOWUP_WINDOW_MS, FOLLOWUP_WINDOW_MS + 2_000L);
+  }
+
+  @Test
+  void latencyFaultStillApproves() throws Exception {
+    // 수신 단위(ACK, EVENT, 응답)마다 5초 지연: late ACK 경로를 거쳐 약 15초 만에 승인
+    SimulatedTerminalTransport sim =
+        new SimulatedTerminalTransport(
+            TERMINAL_ID, FrameClock.system(), time, 5, 20, 800, 0.0, 1L);
+    open(
+        new FaultInjectingTransport(
+            sim, FaultInjectingTransport.Faults.parse("latency=1.0@5000"), 1L, time));
+
+    assertApproved(approve());
+    assertThat(time.elapsedMs()).isBetween(15_000L, 16_000L);
+  }
+
+  /* ================= 도우미 ================= */
+
+  private void open(TLTransport t) throws Exception {
+    client =
+        new TL3800Client(
+            t,
+            ACK_WAIT_MS,
+            RESP_WAIT_MS,
+            MAX_ACK_RETRY,
+            FOLLOWUP_WINDOW_MS,
+            AdaptiveTimeouts.fixed(ACK_WAIT_MS, RESP_WAIT_MS),
+            quality,
+            time);
+    client.open();
+  }
+
+  private TLPacket approve() throws Exception {
+    return client.requestResponse(
+        new Requests(TERMINAL_ID).approve(String.valueOf(AMOUNT), "0", "0", "00", true));
+  }
+
+  private static void assertApproved(TLPacket resp) {
+    assertThat(FaultBenchmarkTest.approvedAmount(resp)).isEqualTo(AMOUNT);
+  }
+
+  private void assertFailure(String message) {
+    assertThatThrownBy(this::approve)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageStartingWith(message);
+  }
+
+  private static byte[] approval() {
+    String data = "1" + String.format("%010d", AMOUNT) + "00000001    " + DT14;
+    return frame(JobCode.b, data.getBytes(US_ASCII));
+  }
+
+  private static byte[] event() {
+    return frame(JobCode.EVENT, "1".getBytes(US_ASCII));
+  }
+
+  private static byte[] frame(JobCode job, byte[] data) {
+    return TLPacket.build(TERMINAL_ID, DT14, job.code, 0x00, data);
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** 루프가 틱마다가 아니라 가장 가까운 데드라인까지 park 하는지, 만료/취소가 맞는지 */
+class TimerWheelTest {
+
+  private static final long MS = 1_000_000L;
+
+  private final TimerWheel wheel = new TimerWheel(10, 512, 0);
+  private final List<String> fired = new ArrayList<>();
+
+  @Test
+  void idleWheelParksIndefinitely() {
+    assertThat(wheel.nanosToNextDeadline(0)).isEqualTo(-1);
+  }
+
+  @Test
+  void parksUntilTheNearestDeadlineNotTheNextTick() {
+    wheel.schedule(500, () -> fired.add("resp"), 0);
+    wheel.schedule(100, () -> fired.add("ack"), 0);
+
+    assertThat(wheel.nanosToNextDeadline(0)).isEqualTo(100 * MS);
+    assertThat(wheel.nanosToNextDeadline(40 * MS)).isEqualTo(60 * MS);
+
+    wheel.advance(40 * MS);
+    assertThat(fired).isEmpty();
+
+    wheel.advance(100 * MS);
+    assertThat(fired).containsExactly("ack");
+    assertThat(wheel.nanosToNextDeadline(100 * MS)).isEqualTo(400 * MS);
+
+    wheel.advance(500 * MS);
+    assertThat(fired).containsExactly("ack", "resp");
+    assertThat(wheel.nanosToNextDeadline(500 * MS)).isEqualTo(-1);
+  }
+
+  @Test
+  void cancelledNearestWakesOnceThenMovesOn() {
+    TimerWheel.Timeout ack = wheel.schedule(100, () -> fired.add("ack"), 0);
+    wheel.schedule(3_000, () -> fired.add("resp"), 0);
+    ack.cancel();
+
+    // 취소분 때문에 한 번은 일찍 깬다
+    assertThat(wheel.nanosToNextDeadline(0)).isEqualTo(100 * MS);
+    wheel.advance(100 * MS);
+    assertThat(fired).isEmpty();
+    assertThat(wheel.nanosToNextDeadline(100 * MS)).isEqualTo(2_900 * MS);
+
+    wheel.advance(3_000 * MS);
+    assertThat(fired).containsExactly("resp");
+  }
+
+  @Test
+  void deadlineBeyondOneRevolutionFiresOnTime() {
+    // 512슬롯 x 10ms = 5.12s 한 바퀴
+    wheel.schedule(8_000, () -> fired.add("late"), 0);
+
+    wheel.advance(5_200 * MS);
+    assertThat(fired).isEmpty();
+    assertThat(wheel.nanosToNextDeadline(5_200 * MS)).isEqualTo(2_800 * MS);
+
+    wheel.advance(8_000 * MS);
+    assertThat(fired).containsExactly("late");
+  }
+
+  @Test
+  void timerScheduledFromExpiredTaskIsKept() {
+    wheel.schedule(50, () -> wheel.schedule(50, () -> fired.add("retry"), 50 * MS), 0);
+
+    wheel.advance(50 * MS);
+    assertThat(wheel.pending()).isEqualTo(1);
+    assertThat(wheel.nanosToNextDeadline(50 * MS)).isEqualTo(50 * MS);
+
+    wheel.advance(100 * MS);
+    assertThat(fired).containsExactly("retry");
+  }
+}
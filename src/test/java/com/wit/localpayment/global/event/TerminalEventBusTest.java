@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.event;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.wit.localpayment.global.proto.JobCode;
+import com.wit.localpayment.global.proto.TLPacket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** EVENT 디코딩 종류, 구독자별 전달 스레드 격리, 실패 구독자 해제 */
+class TerminalEventBusTest {
+
+  private final TerminalEventBus bus = new TerminalEventBus(4);
+  private final TerminalEventDecoder decoder = new TerminalEventDecoder(bus);
+
+  @AfterEach
+  void close() {
+    bus.close();
+  }
+
+  @Test
+  void decodesKnownCodesIntoTypedEvents() {
+    assertThat(TerminalEvent.decode(event("T1", "1IC"), 1, 0))
+        .isEqualTo(new TerminalEvent.CardInserted("T1", 1, 0, "20261019120000", "IC"));
+    assertThat(TerminalEvent.decode(event("T1", "2"), 2, 0))
+        .isInstanceOf(TerminalEvent.PinEntry.class);
+
+    TerminalEvent other = TerminalEvent.decode(event("T1", "9X"), 3, 0);
+    assertThat(other).isInstanceOf(TerminalEvent.Other.class);
+    assertThat(((TerminalEvent.Other) other).code()).isEqualTo("9");
+    assertThat(other.type()).isEqualTo("terminal-event");
+  }
+
+  @Test
+  void slowSubscriberDoesNotHoldBackOthers() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch fast = new CountDownLatch(3);
+    bus.subscribe(
+        null,
+        e -> {
+          try {
+            release.await(); // SSE 전송이 막힌 구독자
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    bus.subscribe(null, e -> fast.countDown());
+
+    for (int i = 0; i < 3; i++) {
+      decoder.onEvent(event("T1", "1"));
+    }
+
+    assertThat(fast.await(2, TimeUnit.SECONDS)).isTrue();
+    release.countDown();
+  }
+
+  @Test
+  void subscriberSeesOnlyItsTerminalInOrder() throws Exception {
+    List<Long> seen = new CopyOnWriteArrayList<>();
+    CountDownLatch done = new CountDownLatch(2);
+    bus.subscribe(
+        "T2",
+        e -> {
+          seen.add(e.seq());
+          done.countDown();
+        });
+
+    decoder.onEvent(event("T1", "1"));
+    decoder.onEvent(event("T2", "1"));
+    decoder.onEvent(event("T2", "2"));
+
+    assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+    assertThat(seen).containsExactly(2L, 3L);
+  }
+
+  @Test
+  void failingSubscriberIsDropped() throws Exception {
+    CountDownLatch calls = new CountDownLatch(1);
+    CountDownLatch other = new CountDownLatch(2);
+    List<Long> failing = new CopyOnWriteArrayList<>();
+    bus.subscribe(
+        null,
+        e -> {
+          failing.add(e.seq());
+          calls.countDown();
+          throw new IllegalStateException("client gone");
+        });
+    bus.subscribe(null, e -> other.countDown());
+
+    decoder.onEvent(event("T1", "1"));
+    assertThat(calls.await(2, TimeUnit.SECONDS)).isTrue();
+    decoder.onEvent(event("T1", "1"));
+
+    assertThat(other.await(2, TimeUnit.SECONDS)).isTrue();
+    assertThat(failing).containsExactly(1L);
+  }
+
+  private static TLPacket event(String terminalId, String data) {
+    return TLPacket.parse(
+        TLPacket.build(
+            terminalId, "20261019120000", JobCode.EVENT.code, 0, data.getBytes(US_ASCII)));
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.proto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** lane 누적/조각 누적이 바이트 단위 XOR과 같은 값을 내는지 */
+class BccTest {
+
+  private final Random random = new Random(1L);
+
+  @Test
+  void lanesMatchByteLoop() {
+    for (int len = 0; len <= 70; len++) {
+      byte[] b = bytes(len + 3);
+      assertThat(Bcc.xor(b, 3, 3 + len - 1)).as("len %d", len).isEqualTo(byteLoop(b, 3, len));
+    }
+  }
+
+  @Test
+  void incrementalMatchesWholeFrame() {
+    byte[] frame = bytes(1_000);
+    for (int chunk : new int[] {1, 3, 7, 8, 13, 64, 999}) {
+      Bcc bcc = new Bcc();
+      for (int off = 0; off < frame.length; off += chunk) {
+        bcc.update(frame, off, Math.min(chunk, frame.length - off));
+      }
+      assertThat(bcc.value()).as("chunk %d", chunk).isEqualTo(byteLoop(frame, 0, frame.length));
+    }
+  }
+
+  @Test
+  void builtFrameVerifies() {
+    byte[] frame = TLPacket.build("BCC00001", "20260101120000", 'b', 0x00, bytes(40));
+    assertThat(frame[frame.length - 1]).isEqualTo(byteLoop(frame, 0, frame.length - 1));
+  }
+
+  private byte[] bytes(int n) {
+    byte[] b = new byte[n];
+    random.nextBytes(b);
+    return b;
+  }
+
+  private static byte byteLoop(byte[] b, int off, int len) {
+    byte x = 0;
+    for (int i = off; i < off + len; i++) {
+      x ^= b[i];
+    }
+    return x;
+  }
+}
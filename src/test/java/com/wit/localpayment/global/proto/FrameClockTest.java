@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.proto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import org.junit.jupiter.api.Test;
+
+/** 시계 타임존 기준 14자리 시각, 같은 초 안에서는 같은 스냅샷 */
+class FrameClockTest {
+
+  private static final ZoneId SEOUL = ZoneId.of("Asia/Seoul");
+
+  @Test
+  void formatsInTheClockZone() {
+    FrameClock clock = FrameClock.of(Clock.fixed(Instant.parse("2026-10-19T03:04:05Z"), SEOUL));
+
+    assertThat(clock.now14()).isEqualTo("20261019120405");
+  }
+
+  @Test
+  void sameSecondSharesTheSnapshotAndNextSecondReformats() {
+    SteppingClock source = new SteppingClock(Instant.parse("2026-12-31T14:59:59.100Z"));
+    FrameClock clock = FrameClock.of(source);
+
+    String first = clock.now14();
+    source.millis += 800;
+    assertThat(clock.now14()).isSameAs(first).isEqualTo("20261231235959");
+
+    source.millis += 200;
+    assertThat(clock.now14()).isEqualTo("20270101000000");
+  }
+
+  /** 테스트에서 직접 넘기는 시계 */
+  private static final class SteppingClock extends Clock {
+
+    private long millis;
+
+    private SteppingClock(Instant start) {
+      this.millis = start.toEpochMilli();
+    }
+
+    @Override
+    public long millis() {
+      return millis;
+    }
+
+    @Override
+    public Instant instant() {
+      return Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return SEOUL;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
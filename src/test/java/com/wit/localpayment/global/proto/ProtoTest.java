@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.proto;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/** 헤더 ID(좌정렬 + 0x00 패딩)가 HEX가 아니라 읽을 수 있는 문자열로 나오는지 */
+class ProtoTest {
+
+  @Test
+  void paddedIdIsReadable() {
+    byte[] id = Arrays.copyOf("1234567".getBytes(US_ASCII), 16);
+
+    assertThat(Proto.printableOrHex(id)).isEqualTo("1234567");
+  }
+
+  @Test
+  void allPaddingIsEmpty() {
+    assertThat(Proto.printableOrHex(new byte[16])).isEmpty();
+    assertThat(Proto.printableOrHex(null)).isEmpty();
+  }
+
+  @Test
+  void nulInsideTheIdFallsBackToHex() {
+    byte[] id = {'A', 0x00, 'B', 0x00};
+
+    assertThat(Proto.printableOrHex(id)).isEqualTo("41004200");
+  }
+
+  @Test
+  void parsedPacketCarriesTheReadableId() {
+    byte[] frame = TLPacket.build("1234567", "20261019120000", 'A', 0, new byte[0]);
+
+    assertThat(TLPacket.parse(frame).catOrMid).isEqualTo("1234567");
+  }
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.transport;
+
+import static com.wit.localpayment.global.proto.Proto.HEADER_BYTES;
+
+import com.wit.localpayment.global.proto.Proto;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 다른 전송 계층을 감싸 회선 장애를 일부러 넣는 데코레이터 (테스트 전용, {@code FaultBenchmarkTest}).
+ *
+ * <p>수신 쪽은 원래 전송 계층이 준 바이트를 단위(ACK/NAK 1바이트 또는 헤더 길이로 자른 프레임 하나)로 다시 묶은 뒤 단위마다
+ * 확률로 지연(그 뒤 단위도 함께 밀림), 바이트 1개 누락, 프레임 중복, 비트 1개 반전을 넣는다. 송신 쪽은 요청 프레임의 비트 1개를
+ * 반전해 단말이 NAK 하게 한다. 헤더가 끝나기 전에 읽기 데드라인이 지나거나 길이가 말이 안 되면 모은 바이트를 손대지 않고
+ * 그대로 넘긴다. 난수는 방향별 seed로 고정해 같은 요청 순서면 같은 장애가 난다.
+ */
+@Slf4j
+public final class FaultInjectingTransport implements TLTransport {
+
+  /**
+   * 장애 확률. 모두 단위(프레임/제어 바이트)당 확률이다.
+   *
+   * @param latencyRate 수신 단위를 latencyMs만큼 늦게 내줄 확률
+   * @param dropRate 수신 단위에서 바이트 1개를 뺄 확률
+   * @param duplicateRate 수신 프레임을 두 번 내줄 확률
+   * @param flipRate 수신 단위의 비트 1개를 반전할 확률
+   * @param requestFlipRate 송신 요청 프레임의 비트 1개를 반전할 확률
+   */
+  public record Faults(
+      double latencyRate,
+      int latencyMs,
+      double dropRate,
+      double duplicateRate,
+      double flipRate,
+      double requestFlipRate) {
+
+    public static final Faults NONE = new Faults(0, 0, 0, 0, 0, 0);
+
+    /**
+     * "latency=0.05@800,drop=0.01,dup=0.02,flip=0.01,req-flip=0.01" 형식. 빠진 항목은 0.
+     *
+     * @throws IllegalArgumentException 모르는 항목 / 숫자 형식 오류
+     */
+    public static Faults parse(String spec) {
+      double latencyRate = 0;
+      int latencyMs = 0;
+      double drop = 0;
+      double dup = 0;
+      double flip = 0;
+      double reqFlip = 0;
+      if (spec != null) {
+        for (String item : spec.split(",")) {
+          String s = item.trim();
+          if (s.isEmpty()) {
+            continue;
+          }
+          int eq = s.indexOf('=');
+          if (eq < 0) {
+            throw new IllegalArgumentException("fault item without '=': " + s);
+          }
+          String key = s.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+          String value = s.substring(eq + 1).trim();
+          switch (key) {
+            case "latency" -> {
+              int at = value.indexOf('@');
+              if (at < 0) {
+                throw new IllegalArgumentException("latency needs rate@ms: " + value);
+              }
+              latencyRate = Double.parseDouble(value.substring(0, at));
+              latencyMs = Integer.parseInt(value.substring(at + 1));
+            }
+            case "drop" -> drop = Double.parseDouble(value);
+            case "dup" -> dup = Double.parseDouble(value);
+            case "flip" -> flip = Double.parseDouble(value);
+            case "req-flip" -> reqFlip = Double.parseDouble(value);
+            default -> throw new IllegalArgumentException("unknown fault: " + key);
+          }
+        }
+      }
+      return new Faults(latencyRate, latencyMs, drop, dup, flip, reqFlip);
+    }
+
+    public boolean none() {
+      return latencyRate <= 0
+          && dropRate <= 0
+          && duplicateRate <= 0
+          && flipRate <= 0
+          && requestFlipRate <= 0;
+    }
+  }
+
+  /** 넣은 장애 누적 수 */
+  public record Counts(
+      long units, long delayed, long dropped, long duplicated, long flipped, long requestFlipped) {}
+
+  // 지연된 단위가 풀리는 시각에 readiness 통지 (이벤트 루프 클라이언트용, 최초 사용 시 시작)
+  private static final class Release {
+    static final ScheduledExecutorService TIMER =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread th = new Thread(r, "tl-fault-release");
+              th.setDaemon(true);
+              return th;
+            });
+  }
+
+  // 헤더 길이 필드가 이보다 크면 프레임으로 보지 않는다
+  private static final int MAX_DATA_LEN = 4096;
+
+  private final TLTransport delegate;
+  private final Faults faults;
+  private final TimeSource time;
+  private final Random rxRandom;
+  private final Random txRandom;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition released = lock.newCondition();
+  private final ArrayDeque<Unit> pending = new ArrayDeque<>();
+  private int headOffset; // pending.peek() 안에서 이미 읽은 위치
+  private long lastReleaseNanos; // 앞 단위보다 먼저 풀리지 않도록 (회선은 순서대로 온다)
+
+  // 프레임 조립 (rx 쪽, lock 아래에서만)
+  private byte[] asm = new byte[HEADER_BYTES + 64];
+  private int asmLen;
+  private final byte[] scratch = new byte[1024];
+
+  private final LongAdder units = new LongAdder();
+  private final LongAdder delayed = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder duplicated = new LongAdder();
+  private final LongAdder flipped = new LongAdder();
+  private final LongAdder requestFlipped = new LongAdder();
+  private volatile Runnable readableListener;
+
+  public FaultInjectingTransport(TLTransport delegate, Faults faults, long seed) {
+    this(delegate, faults, seed, TimeSource.system());
+  }
+
+  /** @param time 지연 단위의 풀림 시각 기준 (감싼 전송 계층과 같은 인스턴스) */
+  public FaultInjectingTransport(TLTransport delegate, Faults faults, long seed, TimeSource time) {
+    this.delegate = delegate;
+    this.faults = faults;
+    this.time = time;
+    this.rxRandom = new Random(seed);
+    this.txRandom = new Random(seed ^ 0x5DEECE66DL);
+    log.warn("[TL3800] fault injection ON - {}, seed={}", faults, seed);
+  }
+
+  /** 감싼 전송 계층 (속도 조회 등) */
+  public TLTransport delegate() {
+    return delegate;
+  }
+
+  public Faults faults() {
+    return faults;
+  }
+
+  public Counts counts() {
+    return new Counts(
+        units.sum(),
+        delayed.sum(),
+        dropped.sum(),
+        duplicated.sum(),
+        flipped.sum(),
+        requestFlipped.sum());
+  }
+
+  @Override
+  public void open() throws Exception {
+    lock.lock();
+    try {
+      pending.clear();
+      headOffset = 0;
+      asmLen = 0;
+      lastReleaseNanos = 0;
+    } finally {
+      lock.unlock();
+    }
+    delegate.open();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  @Override
+  public void write(byte[] bytes) throws Exception {
+    if (bytes.length > 1 && chance(txRandom, faults.requestFlipRate())) {
+      bytes = bytes.clone();
+      flipBit(txRandom, bytes);
+      requestFlipped.increment();
+    }
+    delegate.write(bytes);
+  }
+
+  @Override
+  public int readFully(byte[] buf, int len, int timeoutMs) throws Exception {
+    long deadline = time.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    int off = 0;
+    lock.lock();
+    try {
+      while (off < len) {
+        off += takeReleased(buf, off, len - off);
+        if (off == len) {
+          break;
+        }
+        long now = time.nanoTime();
+        if (deadline - now <= 0) {
+          break;
+        }
+        Unit head = pending.peek();
+        if (head != null) {
+          // 지연 중인 단위: 풀릴 때까지 (또는 데드라인까지)
+          time.awaitNanos(released, Math.max(Math.min(deadline, head.releaseNanos) - now, 1L));
+          continue;
+        }
+        pullBlocking(deadline);
+      }
+    } finally {
+      lock.unlock();
+    }
+    return off;
+  }
+
+  @Override
+  public int readByte(int timeoutMs) throws Exception {
+    byte[] one = new byte[1];
+    return readFully(one, 1, timeoutMs) == 1 ? one[0] & 0xFF : -1;
+  }
+
+  @Override
+  public int readAvailable(byte[] buf, int off, int len) throws Exception {
+    lock.lock();
+    try {
+      int n;
+      while ((n = delegate.readAvailable(scratch, 0, scratch.length)) > 0) {
+        for (int i = 0; i < n; i++) {
+          feed(scratch[i]);
+        }
+      }
+      int copied = takeReleased(buf, off, len);
+      return (copied == 0 && n < 0 && pending.isEmpty()) ? -1 : copied;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void setReadableListener(Runnable listener) {
+    this.readableListener = listener;
+    delegate.setReadableListener(listener);
+  }
+
+  @Override
+  public boolean setBaudRate(int baudRate) {
+    return delegate.setBaudRate(baudRate);
+  }
+
+  /* ================= 수신 조립/장애 ================= */
+
+  /**
+   * 원래 전송 계층에서 단위 하나를 채울 만큼 읽는다. 조립 중이 아니면 1바이트, 헤더 중이면 헤더 나머지, 본문 중이면 프레임
+   * 나머지. 데드라인까지 못 채우면 조립 중인 바이트를 그대로 넘긴다.
+   */
+  private void pullBlocking(long deadline) throws Exception {
+    int need = need();
+    int waitMs = (int) Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - time.nanoTime()), 1L);
+    if (asmLen == 0) {
+      int b = delegate.readByte(waitMs);
+      if (b >= 0) {
+        feed((byte) b);
+      }
+      return;
+    }
+    int n = delegate.readFully(scratch, Math.min(need, scratch.length), waitMs);
+    for (int i = 0; i < n; i++) {
+      feed(scratch[i]);
+    }
+    if (n < Math.min(need, scratch.length) && deadline - time.nanoTime() <= 0) {
+      flushRaw();
+    }
+  }
+
+  /** 조립 중인 프레임을 채우는 데 남은 바이트 수 (헤더를 다 받기 전에는 헤더까지) */
+  private int need() {
+    if (asmLen < HEADER_BYTES) {
+      return HEADER_BYTES - asmLen;
+    }
+    return frameLength() - asmLen;
+  }
+
+  private int frameLength() {
+    int dataLen = (asm[HEADER_BYTES - 2] & 0xFF) | ((asm[HEADER_BYTES - 1] & 0xFF) << 8);
+    return HEADER_BYTES + dataLen + 2;
+  }
+
+  private void feed(byte b) {
+    if (asmLen == 0) {
+      if (b == Proto.STX) {
+        asm[asmLen++] = b;
+      } else if (b == Proto.ACK || b == Proto.NACK) {
+        emit(new byte[] {b}, false);
+      } else {
+        emitRaw(new byte[] {b}); // 프레임 밖 잡음은 그대로
+      }
+      return;
+    }
+    if (asmLen == asm.length) {
+      asm = Arrays.copyOf(asm, asm.length * 2);
+    }
+    asm[asmLen++] = b;
+    if (asmLen == HEADER_BYTES && frameLength() - HEADER_BYTES - 2 > MAX_DATA_LEN) {
+      flushRaw();
+      return;
+    }
+    if (asmLen >= HEADER_BYTES && asmLen == frameLength()) {
+      byte[] frame = Arrays.copyOf(asm, asmLen);
+      asmLen = 0;
+      emit(frame, true);
+    }
+  }
+
+  private void flushRaw() {
+    if (asmLen > 0) {
+      emitRaw(Arrays.copyOf(asm, asmLen));
+      asmLen = 0;
+    }
+  }
+
+  /** 단위 하나에 장애를 넣어 대기열에 올린다. */
+  private void emit(byte[] unit, boolean frame) {
+    units.increment();
+    long release = time.nanoTime();
+    if (chance(rxRandom, faults.latencyRate())) {
+      release += TimeUnit.MILLISECONDS.toNanos(faults.latencyMs());
+      delayed.increment();
+    }
+    byte[] out = unit;
+    if (chance(rxRandom, faults.flipRate())) {
+      out = out.clone();
+      flipBit(rxRandom, out);
+      flipped.increment();
+    }
+    if (chance(rxRandom, faults.dropRate())) {
+      int at = rxRandom.nextInt(out.length);
+      byte[] shorter = new byte[out.length - 1];
+      System.arraycopy(out, 0, shorter, 0, at);
+      System.arraycopy(out, at + 1, shorter, at, out.length - at - 1);
+      out = shorter;
+      dropped.increment();
+    }
+    enqueue(out, release);
+    if (frame && chance(rxRandom, faults.duplicateRate())) {
+      enqueue(unit, release);
+      duplicated.increment();
+    }
+  }
+
+  private void emitRaw(byte[] bytes) {
+    enqueue(bytes, time.nanoTime());
+  }
+
+  private void enqueue(byte[] bytes, long releaseNanos) {
+    if (bytes.length == 0) {
+      return;
+    }
+    long release = Math.max(releaseNanos, lastReleaseNanos);
+    lastReleaseNanos = release;
+    pending.add(new Unit(bytes, release));
+    released.signalAll();
+
+    long delay = release - time.nanoTime();
+    Runnable l = readableListener;
+    if (l != null && delay > 0) {
+      Release.TIMER.schedule(l, delay, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /** 풀린 단위에서만 복사 */
+  private int takeReleased(byte[] dst, int off, int max) {
+    int copied = 0;
+    long now = time.nanoTime();
+    while (copied < max) {
+      Unit head = pending.peek();
+      if (head == null || head.releaseNanos - now > 0) {
+        break;
+      }
+      int n = Math.min(head.bytes.length - headOffset, max - copied);
+      System.arraycopy(head.bytes, headOffset, dst, off + copied, n);
+      copied += n;
+      headOffset += n;
+      if (headOffset == head.bytes.length) {
+        pending.poll();
+        headOffset = 0;
+      }
+    }
+    return copied;
+  }
+
+  private static boolean chance(Random random, double rate) {
+    if (rate <= 0) {
+      return false;
+    }
+    synchronized (random) {
+      return random.nextDouble() < rate;
+    }
+  }
+
+  private static void flipBit(Random random, byte[] bytes) {
+    int bit;
+    synchronized (random) {
+      bit = random.nextInt(bytes.length * 8);
+    }
+    bytes[bit >>> 3] ^= (byte) (1 << (bit & 7));
+  }
+
+  private record Unit(byte[] bytes, long releaseNanos) {}
+}
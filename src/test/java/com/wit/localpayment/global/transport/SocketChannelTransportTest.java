@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.transport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** 연결 실패 시 채널 정리, 등록 실패 통지, 연결 종료 시 부분 수신 반환 (loopback) */
+class SocketChannelTransportTest {
+
+  private final NioSelectorLoop loop = newLoop();
+
+  @AfterEach
+  void close() {
+    loop.close();
+  }
+
+  @Test
+  void closedConnectionReturnsWhatArrived() throws Exception {
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      SocketChannelTransport t = transport(server.getLocalPort(), 1_000);
+      t.open();
+      try (Socket peer = server.accept()) {
+        OutputStream out = peer.getOutputStream();
+        out.write(new byte[] {1, 2, 3});
+        out.flush();
+      }
+
+      byte[] buf = new byte[10];
+      long start = System.nanoTime();
+      assertThat(t.readFully(buf, 10, 5_000)).isEqualTo(3);
+      assertThat((System.nanoTime() - start) / 1_000_000L).isLessThan(4_000);
+      assertThat(buf).startsWith(1, 2, 3);
+      assertThat(t.readByte(100)).isEqualTo(-1);
+      t.close();
+    }
+  }
+
+  @Test
+  void refusedConnectLeavesNoChannel() throws Exception {
+    int port;
+    try (ServerSocket s = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      port = s.getLocalPort(); // 닫힌 포트
+    }
+    SocketChannelTransport t = transport(port, 2_000);
+
+    assertThatThrownBy(t::open).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> t.write(new byte[] {0x06}))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("not connected");
+  }
+
+  @Test
+  void connectThrowingClosesTheChannel() {
+    SocketChannelTransport t =
+        new SocketChannelTransport("no-such-terminal.invalid", 5000, 2_000, 1_000, loop);
+
+    assertThatThrownBy(t::open)
+        .isInstanceOf(IllegalStateException.class)
+        .hasCauseInstanceOf(UnresolvedAddressException.class);
+    assertThatThrownBy(() -> t.write(new byte[] {0x06})).hasMessage("not connected");
+  }
+
+  @Test
+  void registerFailureIsReported() throws Exception {
+    CompletableFuture<Exception> failed = new CompletableFuture<>();
+    SocketChannel c = SocketChannel.open();
+    c.configureBlocking(false);
+    c.close();
+
+    loop.register(
+        c,
+        SelectionKey.OP_CONNECT,
+        new NioSelectorLoop.Handler() {
+          @Override
+          public void onRegistered(SelectionKey key) {}
+
+          @Override
+          public void onRegisterFailed(Exception e) {
+            failed.complete(e);
+          }
+
+          @Override
+          public void onConnectable(SelectionKey key) {}
+
+          @Override
+          public void onReadable(SelectionKey key) {}
+        });
+
+    assertThat(failed.get(2, TimeUnit.SECONDS)).isNotNull();
+  }
+
+  private SocketChannelTransport transport(int port, int connectTimeoutMs) {
+    return new SocketChannelTransport("127.0.0.1", port, connectTimeoutMs, 1_000, loop);
+  }
+
+  private static NioSelectorLoop newLoop() {
+    try {
+      return new NioSelectorLoop("nio-test");
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.transport;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+
+/**
+ * 가상 시계. sleep/조건 대기는 실제로 멈추지 않고 그 시간만큼 시각을 앞당긴 뒤 바로 돌아온다.
+ *
+ * <p>클라이언트와 단말 에뮬레이터가 한 스레드에서 도는 블로킹 경로 전용이다. 응답은 write() 안에서 도착 예정 시각과 함께 큐에
+ * 올라가고, 읽기 대기는 그 시각(또는 데드라인)까지 시계를 넘기는 것으로 끝난다. 다른 스레드가 signal해야 풀리는 대기(전이중
+ * 수신 루프, 이벤트 루프)에는 쓸 수 없다.
+ */
+public final class VirtualTimeSource implements TimeSource {
+
+  private final AtomicLong now = new AtomicLong();
+
+  @Override
+  public long nanoTime() {
+    return now.get();
+  }
+
+  @Override
+  public void sleep(long ms) {
+    advance(ms);
+  }
+
+  /** 조건은 보지 않고 대기 시간 전체를 흘려보낸다. */
+  @Override
+  public long awaitNanos(Condition condition, long nanos) {
+    if (nanos > 0) {
+      now.addAndGet(nanos);
+    }
+    return 0L;
+  }
+
+  /** 시각을 ms만큼 앞당긴다. */
+  public void advance(long ms) {
+    if (ms > 0) {
+      now.addAndGet(TimeUnit.MILLISECONDS.toNanos(ms));
+    }
+  }
+
+  /** 생성 이후 흐른 가상 시간 */
+  public long elapsedMs() {
+    return now.get() / 1_000_000L;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) WIT Global
+ */
+package com.wit.localpayment.global.util;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.wit.localpayment.domain.pay.dto.request.PayFailureReportRequest;
+import com.wit.localpayment.global.dto.response.PacketResponse;
+import java.io.ByteArrayOutputStream;
+import org.junit.jupiter.api.Test;
+
+/** 인코딩 결과가 기존 문자열(대문자 HEX, null은 "")과 같은지, JSON 출력이 바뀌지 않았는지 */
+class HexTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  void encodesUpperCase() {
+    assertThat(Hex.toHex(new byte[] {0x02, (byte) 0xAB, 0x7F})).isEqualTo("02AB7F");
+    assertThat(Hex.toHex(null)).isEmpty();
+  }
+
+  @Test
+  void decodesEitherCaseAndSkipsWhitespace() {
+    assertThat(Hex.fromHex("02 ab\n7F")).containsExactly(0x02, 0xAB, 0x7F);
+    assertThatThrownBy(() -> Hex.fromHex("0G")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Hex.fromHex("ABC")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void writeToMatchesToHexForNull() throws Exception {
+    SimpleModule m = new SimpleModule().addSerializer(byte[].class, new HexJsonSerializer());
+    ObjectMapper raw = new ObjectMapper().registerModule(m);
+
+    assertThat(raw.writeValueAsString(new byte[] {0x1F})).isEqualTo("\"1F\"");
+    assertThat(raw.writeValueAsString(new byte[0])).isEqualTo("\"\"");
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+      Hex.writeTo(gen, null);
+    }
+    assertThat(out.toString(US_ASCII)).isEqualTo("\"\"");
+  }
+
+  @Test
+  void packetResponseKeepsTheHexString() throws Exception {
+    PacketResponse r = new PacketResponse("CAT", "20261019120000", "A", 0, new byte[] {0x30, 0x0A});
+
+    assertThat(mapper.readTree(mapper.writeValueAsString(r)).get("dataHex").asText())
+        .isEqualTo("300A");
+  }
+
+  @Test
+  void reportWithoutPacketStillSendsNull() throws Exception {
+    PayFailureReportRequest r = new PayFailureReportRequest(null, 1000, null, "timeout", null);
+
+    assertThat(mapper.readTree(mapper.writeValueAsString(r)).get("tlPacketHex").isNull()).isTrue();
+  }
+}